@@ -2,11 +2,62 @@ package com.code2rich.kydb.ddg;
 
 import cn.smallbun.screw.core.Configuration;
 import cn.smallbun.screw.core.engine.EngineConfig;
+import cn.smallbun.screw.core.engine.EngineFactory;
 import cn.smallbun.screw.core.engine.EngineFileType;
 import cn.smallbun.screw.core.engine.EngineTemplateType;
-import cn.smallbun.screw.core.execute.DocumentationExecute;
+import cn.smallbun.screw.core.metadata.model.ColumnModel;
+import cn.smallbun.screw.core.metadata.model.DataModel;
+import cn.smallbun.screw.core.metadata.model.TableModel;
+import cn.smallbun.screw.core.process.DataModelProcess;
 import cn.smallbun.screw.core.process.ProcessConfig;
+import com.code2rich.kydb.ddg.cluster.ClusterCoordinator;
+import com.code2rich.kydb.ddg.cluster.ClusterOptions;
+import com.code2rich.kydb.ddg.cluster.ClusterWorker;
+import com.code2rich.kydb.ddg.cluster.WorkUnit;
+import com.code2rich.kydb.ddg.datasource.DriverLoader;
+import com.code2rich.kydb.ddg.datasource.DriverProfile;
+import com.code2rich.kydb.ddg.datasource.LoadedDriverDataSource;
+import com.code2rich.kydb.ddg.export.DdlScriptWriter;
+import com.code2rich.kydb.ddg.export.ExportFormat;
+import com.code2rich.kydb.ddg.export.ExportRecord;
+import com.code2rich.kydb.ddg.export.MetadataExporter;
 import com.code2rich.kydb.ddg.extension.ExcelDocumentGenerator;
+import com.code2rich.kydb.ddg.extension.WordDocumentGenerator;
+import com.code2rich.kydb.ddg.lint.LintOptions;
+import com.code2rich.kydb.ddg.lint.LintReport;
+import com.code2rich.kydb.ddg.lint.LintReportWriter;
+import com.code2rich.kydb.ddg.lint.SchemaLinter;
+import com.code2rich.kydb.ddg.metadata.CommentCollector;
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.metadata.ExtractionOptions;
+import com.code2rich.kydb.ddg.metadata.ModelStoreOptions;
+import com.code2rich.kydb.ddg.metadata.ResilientMetadataReader;
+import com.code2rich.kydb.ddg.metadata.PartitionCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaCatalog;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectType;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.metadata.TableDdlCollector;
+import com.code2rich.kydb.ddg.metadata.TableDdlSynthesizer;
+import com.code2rich.kydb.ddg.metadata.TableStatisticsCollector;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.metadata.TableFilter;
+import com.code2rich.kydb.ddg.metadata.TableSink;
+import com.code2rich.kydb.ddg.metadata.TableStatisticsCollector.TableStatistics;
+import com.code2rich.kydb.ddg.monitor.ExtractionMetrics;
+import com.code2rich.kydb.ddg.output.DdlInjector;
+import com.code2rich.kydb.ddg.output.OutputManifest;
+import com.code2rich.kydb.ddg.profile.ColumnProfiler;
+import com.code2rich.kydb.ddg.profile.ProfilingOptions;
+import com.code2rich.kydb.ddg.replay.JdbcRecording;
+import com.code2rich.kydb.ddg.replay.RecordingDataSource;
+import com.code2rich.kydb.ddg.resilience.LoadGovernor;
+import com.code2rich.kydb.ddg.script.ScriptOptions;
+import com.code2rich.kydb.ddg.script.SqlScriptRunner;
+import com.code2rich.kydb.ddg.search.HtmlSearchInjector;
+import com.code2rich.kydb.ddg.search.SearchIndexBuilder;
+import com.code2rich.kydb.ddg.watch.CatalogChangeDetector;
+import com.code2rich.kydb.ddg.watch.WatchOptions;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
@@ -14,11 +65,41 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
@@ -26,6 +107,130 @@ import java.sql.SQLException;
 
 public class DatabaseDocumentGenerator {
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseDocumentGenerator.class);
+    
+    /**
+     * 表示标准输出的输出目录，仅JSONL/CSV导出支持
+     */
+    public static final String STANDARD_OUTPUT = "-";
+    // 协调者通过该环境变量把共享口令传给本机启动的工作进程
+    public static final String CLUSTER_TOKEN_ENV = "KYDB_CLUSTER_TOKEN";
+
+    // 列画像配置，默认关闭
+    private ProfilingOptions profilingOptions = new ProfilingOptions();
+    // 并行度（列画像等并行任务使用的线程数）
+    private int parallelism = 4;
+
+    public void setProfilingOptions(ProfilingOptions profilingOptions) {
+        this.profilingOptions = profilingOptions;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    // 快照输出文件，为空时不保存
+    private String snapshotOutput;
+
+    // 指定的驱动调优配置名称，为空时按驱动自动识别
+    private String driverProfileName;
+
+    // JDBC驱动的加载方式，为空时使用默认驱动目录
+    private DriverLoader driverLoader;
+
+    // 用户指定的驱动属性，覆盖调优配置
+    private Map<String, String> jdbcProperties = new LinkedHashMap<>();
+    // JSONL/CSV导出的记录粒度，null 时按格式取默认值
+    private ExportRecord exportRecord;
+
+    // 网络读超时（秒）
+    private int networkTimeoutSeconds = 600;
+
+    // 抽取结果的存放方式，默认超出堆预算后溢出到磁盘
+    private ModelStoreOptions modelStoreOptions = ModelStoreOptions.defaults();
+
+    // 元数据查询的超时、重试和熔断配置
+    private ExtractionOptions extractionOptions = new ExtractionOptions();
+
+    // 文档中的生成日期取自此时钟，固定时钟可以得到可复现的输出
+    private Clock clock = Clock.systemDefaultZone();
+
+    // 内容与输出清单中记录的相同时不重写文件
+    private boolean skipUnchanged = true;
+
+    // 录制文件，设置后本次运行的元数据调用和目录查询结果写入该文件，供 ReplayDriver 离线重放
+    private File captureFile;
+    private final JdbcRecording recording = new JdbcRecording();
+    // 规范检查配置，以及是否有检查结果达到失败级别
+    private LintOptions lintOptions = new LintOptions();
+    // 是否把建表语句另外写成SQL脚本
+    private boolean ddlScript;
+    private volatile boolean lintFailed;
+
+    public void setSnapshotOutput(String snapshotOutput) {
+        this.snapshotOutput = snapshotOutput;
+    }
+
+    public void setDriverProfileName(String driverProfileName) {
+        this.driverProfileName = driverProfileName;
+    }
+
+    public void setDriverLoader(DriverLoader driverLoader) {
+        this.driverLoader = driverLoader;
+    }
+
+    private synchronized DriverLoader getDriverLoader() {
+        if (driverLoader == null) {
+            driverLoader = DriverLoader.defaults();
+        }
+        return driverLoader;
+    }
+
+    public void setJdbcProperties(Map<String, String> jdbcProperties) {
+        this.jdbcProperties = jdbcProperties;
+    }
+
+    public void setNetworkTimeoutSeconds(int networkTimeoutSeconds) {
+        this.networkTimeoutSeconds = networkTimeoutSeconds;
+    }
+
+    public void setExportRecord(ExportRecord exportRecord) {
+        this.exportRecord = exportRecord;
+    }
+
+    public void setModelStoreOptions(ModelStoreOptions modelStoreOptions) {
+        this.modelStoreOptions = modelStoreOptions;
+    }
+
+    public void setExtractionOptions(ExtractionOptions extractionOptions) {
+        this.extractionOptions = extractionOptions;
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public void setCaptureFile(File captureFile) {
+        this.captureFile = captureFile;
+    }
+
+    public void setDdlScript(boolean ddlScript) {
+        this.ddlScript = ddlScript;
+    }
+
+    public void setLintOptions(LintOptions lintOptions) {
+        this.lintOptions = lintOptions;
+    }
+
+    /**
+     * 本次运行的规范检查是否发现了不低于失败级别的问题
+     */
+    public boolean isLintFailed() {
+        return lintFailed;
+    }
 
     public void generate(
             String driverClassName,
@@ -52,38 +257,77 @@ public class DatabaseDocumentGenerator {
 
         // Create output directory if it doesn't exist
         File directory = new File(outputDir);
-        if (!directory.exists()) {
+        if (!STANDARD_OUTPUT.equals(outputDir) && !directory.exists()) {
             directory.mkdirs();
         }
 
+        // Configure process with table filters
+        ProcessConfig processConfig = getProcessConfig(
+                designatedTableNames,
+                designatedTablePrefixes,
+                designatedTableSuffixes,
+                ignoreTableNames,
+                ignoreTablePrefixes,
+                ignoreTableSuffixes);
+
         // Configure datasource
-        DataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema);
+        HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema);
+        try {
+            closeQuietly(generate(dataSource, schema, outputDir, fileType, title, version, description, processConfig));
+        } finally {
+            dataSource.close();
+        }
+        LOGGER.info("Documentation generated at: {}", outputDir);
+    }
+
+    /**
+     * 生成文档
+     * @return Excel和Word格式时返回抽取的快照，其他格式返回null
+     */
+    private SchemaSnapshot generate(
+            DataSource dataSource,
+            String schema,
+            String outputDir,
+            String fileType,
+            String title,
+            String version,
+            String description,
+            ProcessConfig processConfig) {
+
+        // JSONL/CSV：边抽取边写出
+        ExportFormat exportFormat = ExportFormat.of(fileType);
+        if (exportFormat != null) {
+            exportMetadata(dataSource, schema, outputDir, exportFormat, title, processConfig);
+            return null;
+        }
 
         // 判断是否为Excel格式
         boolean isExcelFormat = "EXCEL".equalsIgnoreCase(fileType);
         
+        // Word：从快照直接写出DOCX，不经过screw的模板
+        if (isWordFormat(fileType)) {
+            try {
+                return generateWordDocument(dataSource, schema, outputDir, title == null ? "database-document" : title, processConfig);
+            } catch (Exception e) {
+                LOGGER.error("Failed to generate Word documentation", e);
+                return null;
+            }
+        }
+        
         // Configure the engine (只有在非Excel格式时才需要)
         EngineConfig engineConfig = null;
         if (!isExcelFormat) {
             engineConfig = getEngineConfig(outputDir, title, getFileType(fileType));
         }
 
-        // Configure process with table filters
-        ProcessConfig processConfig = getProcessConfig(
-                designatedTableNames,
-                designatedTablePrefixes,
-                designatedTableSuffixes,
-                ignoreTableNames,
-                ignoreTablePrefixes,
-                ignoreTableSuffixes);
-
         if (isExcelFormat) {
             // 使用自定义Excel生成器
             try {
                 // 直接从数据库连接获取元数据，避免使用screw的内部类
-                generateExcelDocument(dataSource, schema, outputDir, title == null ? "database-document" : title, processConfig);
+                return generateExcelDocument(dataSource, schema, outputDir, title == null ? "database-document" : title, processConfig);
             } catch (Exception e) {
                 LOGGER.error("Failed to generate Excel documentation", e);
+                return null;
             }
         } else {
             // 将原来的代码放入else块
@@ -96,167 +340,1326 @@ public class DatabaseDocumentGenerator {
                     .produceConfig(processConfig)
                     .build();
         
-            // Execute documentation generation
-            new DocumentationExecute(config).execute();
+            // screw不暴露抽取结果，需要快照、规范检查或建表语句时单独抽取一次
+            SchemaSnapshot snapshot = snapshotOutput != null || lintOptions.isEnabled() || extractionOptions.isTableDdl()
+                    ? extractSnapshot(dataSource, schema, processConfig, null) : null;
+            try {
+                // Execute documentation generation
+                generateScrewDocument(config, dataSource, schema,
+                        extractionOptions.isTableDdl() ? collectDdl(snapshot.getTables()) : null);
+                
+                if (snapshot != null) {
+                    if (snapshotOutput != null) {
+                        saveSnapshot(snapshot);
+                    }
+                    lint(snapshot.getDbName(), snapshot.getTables(), outputDir, title);
+                    writeDdlScript(outputDir, title, snapshot);
+                }
+            } finally {
+                closeQuietly(snapshot);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 按顺序执行SQL脚本，任一脚本失败时停止
+     */
+    public void executeScripts(
+            String driverClassName,
+            String jdbcUrl,
+            String username,
+            String password,
+            String schema,
+            List<String> scripts,
+            ScriptOptions scriptOptions) throws IOException, SQLException {
+
+        try (HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema, false)) {
+            DatabaseDialect dialect;
+            try (Connection connection = dataSource.getConnection()) {
+                dialect = DatabaseDialect.of(connection);
+            }
+
+            SqlScriptRunner runner = new SqlScriptRunner(dataSource, dialect, scriptOptions);
+            long executed = 0;
+            long failed = 0;
+            for (String script : scripts) {
+                SqlScriptRunner.ScriptResult result = runner.run(new File(script));
+                executed += result.getExecuted();
+                failed += result.getFailed();
+            }
+            LOGGER.info("Executed {} scripts: {} statements, {} failed", scripts.size(), executed, failed);
+        }
+    }
+
+    /**
+     * 监听模式：保持一个进程和连接池，定期轮询目录变更标记，有变化时重新生成文档
+     * Excel格式只重新抽取发生变化的表，其余表复用上一次的结果
+     */
+    public void watch(
+            String driverClassName,
+            String jdbcUrl,
+            String username,
+            String password,
+            String schema,
+            String outputDir,
+            String fileType,
+            String title,
+            String version,
+            String description,
+            List<String> designatedTableNames,
+            List<String> designatedTablePrefixes,
+            List<String> designatedTableSuffixes,
+            List<String> ignoreTableNames,
+            List<String> ignoreTablePrefixes,
+            List<String> ignoreTableSuffixes,
+            WatchOptions watchOptions) throws InterruptedException {
+
+        LOGGER.info("Starting watch mode, polling every {}s (max {}s)",
+                watchOptions.getIntervalSeconds(), watchOptions.getMaxIntervalSeconds());
+
+        File directory = new File(outputDir);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+
+        ProcessConfig processConfig = getProcessConfig(
+                designatedTableNames,
+                designatedTablePrefixes,
+                designatedTableSuffixes,
+                ignoreTableNames,
+                ignoreTablePrefixes,
+                ignoreTableSuffixes);
+        // Excel和Word从缓存的快照增量刷新，其他格式每次重新生成
+        boolean incremental = "EXCEL".equalsIgnoreCase(fileType) || isWordFormat(fileType);
+        String fileName = title == null ? "database-document" : title;
+
+        try (HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema)) {
+            CatalogChangeDetector detector;
+            try (Connection connection = dataSource.getConnection()) {
+                detector = new CatalogChangeDetector(DatabaseDialect.of(connection), watchOptions.getMarkerSql());
+            } catch (SQLException e) {
+                throw new RuntimeException("Failed to connect to database", e);
+            }
+
+            long baseInterval = TimeUnit.SECONDS.toMillis(Math.max(1, watchOptions.getIntervalSeconds()));
+            long maxInterval = Math.max(baseInterval, TimeUnit.SECONDS.toMillis(watchOptions.getMaxIntervalSeconds()));
+            long interval = baseInterval;
+            Map<String, String> markers = null;
+            SchemaSnapshot cached = null;
+
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        // 先读取标记再抽取，抽取期间发生的变更会在下一轮被发现
+                        Map<String, String> current = readChangeMarkers(dataSource, detector, schema, processConfig);
+                        Set<String> changed = markers == null ? current.keySet() : getChangedTables(markers, current);
+
+                        if (markers == null || (!changed.isEmpty() && (cached == null || !incremental))) {
+                            LOGGER.info("Generating documentation for {} tables", current.size());
+                            // 先释放上一次的结果再重新抽取，避免两份模型同时占用堆预算
+                            closeQuietly(cached);
+                            cached = null;
+                            cached = generate(dataSource, schema, outputDir, fileType, title, version, description, processConfig);
+                            if (incremental && cached == null) {
+                                // generate 失败时只记录日志并返回null：清空标记，下一轮重新完整生成
+                                markers = null;
+                                throw new IllegalStateException("Documentation was not generated");
+                            }
+                            interval = baseInterval;
+                        } else if (!changed.isEmpty()) {
+                            LOGGER.info("Detected changes in {} tables: {}", changed.size(), changed);
+                            SchemaSnapshot refreshed = refreshSnapshot(dataSource, schema, processConfig, cached, changed, current.keySet());
+                            closeQuietly(cached);
+                            cached = refreshed;
+                            writeDocument(outputDir, fileName, fileType, cached);
+                            if (snapshotOutput != null) {
+                                saveSnapshot(cached);
+                            }
+                            interval = baseInterval;
+                        } else {
+                            // 没有变化时逐步拉长轮询间隔，降低对被监控数据库的压力
+                            interval = Math.min(maxInterval, interval * 3 / 2);
+                        }
+                        if (cached != null) {
+                            // 读取失败的表不记录标记，下一轮会当作变化的表重新抽取
+                            for (TableFailure failure : cached.getFailures()) {
+                                current.remove(failure.getTableName());
+                            }
+                        }
+                        markers = current;
+                    } catch (Exception e) {
+                        LOGGER.error("Watch cycle failed, retrying later: {}", e.getMessage(), e);
+                        interval = Math.min(maxInterval, interval * 2);
+                    }
+
+                    LOGGER.debug("Next catalog poll in {} ms", interval);
+                    Thread.sleep(interval);
+                }
+            } finally {
+                closeQuietly(cached);
+            }
+        }
+    }
+
+    private Map<String, String> readChangeMarkers(DataSource dataSource, CatalogChangeDetector detector,
+                                                  String schema, ProcessConfig processConfig) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, String> markers = detector.readMarkers(connection, schema);
+            TableFilter filter = TableFilter.of(processConfig);
+            markers.keySet().removeIf(tableName -> !filter.matches(tableName));
+            return markers;
+        }
+    }
+
+    // 新增、删除或标记变化的表
+    private Set<String> getChangedTables(Map<String, String> previous, Map<String, String> current) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String tableName : previous.keySet()) {
+            if (!current.containsKey(tableName)) {
+                changed.add(tableName);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 只重新抽取变化的表，与缓存的结果合并，并移除已删除的表
+     * 缓存按表名有序，重新抽取的表按名称插入到对应位置，合并时逐个流过新的存储，不在堆中汇总
+     */
+    private SchemaSnapshot refreshSnapshot(DataSource dataSource, String schema, ProcessConfig processConfig,
+                                           SchemaSnapshot cached, Set<String> changed, Set<String> existing) {
+        List<Map<String, Object>> updates;
+        List<Map<String, Object>> objects = modelStoreOptions.newTableList();
+        List<TableFailure> failures;
+        String dbType;
+        String dbName;
+        try (SchemaSnapshot refreshed = extractSnapshot(dataSource, schema, processConfig, changed)) {
+            // 变化的表通常很少，放在堆内排序
+            updates = new ArrayList<>(refreshed.getTables());
+            // 对象每次都全量重新抽取（集合查询，代价很小）
+            objects.addAll(refreshed.getObjects());
+            failures = refreshed.getFailures();
+            dbType = refreshed.getDbType();
+            dbName = refreshed.getDbName();
+        } catch (IOException e) {
+            closeStore(objects);
+            throw new UncheckedIOException(e);
+        }
+        updates.sort((a, b) -> String.valueOf(a.get("tableName")).compareTo(String.valueOf(b.get("tableName"))));
+
+        // 本次读取失败的表和对象种类保留上一次的结果
+        Set<String> failed = new HashSet<>();
+        for (TableFailure failure : failures) {
+            failed.add(failure.getTableName());
+        }
+        for (Map<String, Object> object : cached.getObjects()) {
+            if (failed.contains(SchemaObjectType.valueOf(String.valueOf(object.get("objectType"))).getLabel())) {
+                objects.add(object);
+            }
+        }
+        
+        // 子分区变化时重新抽取的是父表，父表本身不一定在变化集合中
+        Set<String> updated = new HashSet<>();
+        for (Map<String, Object> table : updates) {
+            updated.add(String.valueOf(table.get("tableName")));
+        }
+        
+        List<Map<String, Object>> tables = modelStoreOptions.newTableList();
+        int next = 0;
+        for (Map<String, Object> table : cached.getTables()) {
+            String tableName = String.valueOf(table.get("tableName"));
+            while (next < updates.size() && String.valueOf(updates.get(next).get("tableName")).compareTo(tableName) < 0) {
+                tables.add(updates.get(next++));
+            }
+            if ((!changed.contains(tableName) || failed.contains(tableName)) && existing.contains(tableName)
+                    && !updated.contains(tableName)) {
+                tables.add(table);
+            }
+        }
+        while (next < updates.size()) {
+            tables.add(updates.get(next++));
+        }
+        return new SchemaSnapshot(dbType, dbName, tables, objects, failures);
+    }
+
+    /**
+     * 打开按需加载的schema目录（GUI浏览用），关闭目录时释放连接池
+     */
+    public SchemaCatalog openCatalog(String driverClassName, String jdbcUrl, String username, String password, String schema) {
+        HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema);
+        return new SchemaCatalog(dataSource, schema, dataSource);
+    }
+
+    /**
+     * 从快照生成文档，不连接数据库
+     * screw的模板引擎依赖数据库连接，因此快照只支持Excel、Word和导出格式
+     */
+    public void generateFromSnapshot(SchemaSnapshot snapshot, String outputDir, String fileType, String title) {
+        ExportFormat exportFormat = ExportFormat.of(fileType);
+        if (!"EXCEL".equalsIgnoreCase(fileType) && !isWordFormat(fileType) && exportFormat == null) {
+            throw new IllegalArgumentException("Generating from a snapshot supports EXCEL, WORD, JSONL and CSV only, got: " + fileType);
         }
+        File directory = new File(outputDir);
+        if (!STANDARD_OUTPUT.equals(outputDir) && !directory.exists()) {
+            directory.mkdirs();
+        }
+        if (exportFormat != null) {
+            lint(snapshot.getDbName(), snapshot.getTables(), outputDir, title);
+            try (ExportTarget target = openExportTarget(outputDir, title, exportFormat)) {
+                MetadataExporter exporter = MetadataExporter.create(exportFormat, exportRecord, target.writer);
+                exporter.begin(snapshot.getDbType(), snapshot.getDbName());
+                for (Map<String, Object> table : snapshot.getTables()) {
+                    exporter.accept(table);
+                }
+                exporter.flush();
+                target.finish();
+                LOGGER.info("Exported {} tables, {} columns to {}", exporter.getTableCount(), exporter.getColumnCount(), target.name);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to export metadata", e);
+            }
+            return;
+        }
+        writeDocument(outputDir, title == null ? "database-document" : title, fileType, snapshot);
         LOGGER.info("Documentation generated at: {}", outputDir);
     }
 
+    /**
+     * 抽取schema元数据快照，不生成文档
+     * 用于保存快照或做差异比较
+     */
+    public SchemaSnapshot extractSnapshot(
+            String driverClassName,
+            String jdbcUrl,
+            String username,
+            String password,
+            String schema,
+            List<String> designatedTableNames,
+            List<String> designatedTablePrefixes,
+            List<String> designatedTableSuffixes,
+            List<String> ignoreTableNames,
+            List<String> ignoreTablePrefixes,
+            List<String> ignoreTableSuffixes) {
+
+        LOGGER.info("Extracting schema snapshot from {}", jdbcUrl);
+        ProcessConfig processConfig = getProcessConfig(
+                designatedTableNames,
+                designatedTablePrefixes,
+                designatedTableSuffixes,
+                ignoreTableNames,
+                ignoreTablePrefixes,
+                ignoreTableSuffixes);
+
+        try (HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema)) {
+            SchemaSnapshot snapshot = extractSnapshot(dataSource, schema, processConfig, null);
+            if (snapshotOutput != null) {
+                saveSnapshot(snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * 作为协调者分布式抽取：按schema和表名拆分工作单元，由工作进程领取抽取，结果合并后每个schema生成一份文档
+     * 工作进程可以由本机启动（localWorkers），也可以在其他机器上以 --worker host:port 连接
+     * screw的模板引擎依赖数据库连接，因此只支持Excel、JSONL和CSV格式
+     */
+    public void coordinate(
+            String driverClassName,
+            String jdbcUrl,
+            String username,
+            String password,
+            List<String> schemas,
+            String outputDir,
+            String fileType,
+            String title,
+            ClusterOptions clusterOptions) {
+
+        if (!"EXCEL".equalsIgnoreCase(fileType) && !isWordFormat(fileType) && ExportFormat.of(fileType) == null) {
+            throw new IllegalArgumentException("Distributed extraction supports EXCEL, WORD, JSONL and CSV only, got: " + fileType);
+        }
+        List<String> targets = schemas == null || schemas.isEmpty() ? Collections.singletonList(null) : schemas;
+
+        // 规划工作单元：每个schema只列一次表名
+        List<WorkUnit> units = new ArrayList<>();
+        for (String schema : targets) {
+            try (HikariDataSource dataSource = getDataSource(driverClassName, jdbcUrl, username, password, schema)) {
+                List<String> tableNames = new ArrayList<>();
+                for (SchemaCatalog.TableEntry entry : new SchemaCatalog(dataSource, schema, null).listTables()) {
+                    tableNames.add(entry.getName());
+                }
+                List<WorkUnit> planned = WorkUnit.split(units.size(), schema, tableNames, clusterOptions.getUnitSize());
+                LOGGER.info("Schema {}: {} tables in {} work units", schema != null ? schema : "<default>",
+                        tableNames.size(), planned.size());
+                units.addAll(planned);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Failed to list tables of schema " + schema + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<Process> processes = new ArrayList<>();
+        ClusterCoordinator coordinator = new ClusterCoordinator(units, clusterOptions.getToken(),
+                clusterOptions.getMaxAttempts(), modelStoreOptions);
+        try {
+            int port = coordinator.start(clusterOptions.getPort());
+            for (int i = 0; i < clusterOptions.getLocalWorkers(); i++) {
+                processes.add(startLocalWorker(clusterOptions, port, i));
+            }
+            List<ClusterCoordinator.UnitResult> results = coordinator.awaitResults(
+                    () -> clusterOptions.getLocalWorkers() == 0 || processes.stream().anyMatch(Process::isAlive));
+            try {
+                for (String schema : targets) {
+                    String name = targets.size() == 1 ? title : (title == null ? "database-document" : title) + "-" + schema;
+                    try (SchemaSnapshot snapshot = mergeResults(schema, results)) {
+                        generateFromSnapshot(snapshot, outputDir, fileType, name);
+                        if (snapshotOutput != null && targets.size() == 1) {
+                            saveSnapshot(snapshot);
+                        }
+                        if (!snapshot.getFailures().isEmpty()) {
+                            LOGGER.warn("{} tables, objects or work units of schema {} could not be extracted", snapshot.getFailures().size(),
+                                    schema != null ? schema : "<default>");
+                        }
+                    }
+                }
+            } finally {
+                for (ClusterCoordinator.UnitResult result : results) {
+                    result.close();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for workers", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Distributed extraction failed", e);
+        } finally {
+            try {
+                coordinator.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close coordinator: {}", e.getMessage());
+            }
+            stopLocalWorkers(processes);
+        }
+    }
+
+    // 启动一个本机工作进程，输出写到临时目录下的日志文件
+    private Process startLocalWorker(ClusterOptions clusterOptions, int port, int index) throws IOException {
+        List<String> command = new ArrayList<>(clusterOptions.getWorkerCommand());
+        command.add("--worker");
+        command.add("127.0.0.1:" + port);
+        File log = new File(System.getProperty("java.io.tmpdir"), "kydb-worker-" + port + "-" + index + ".log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log);
+        builder.environment().put(CLUSTER_TOKEN_ENV, clusterOptions.getToken());
+        Process process = builder.start();
+        LOGGER.info("Started local worker {} (log: {})", index, log.getAbsolutePath());
+        return process;
+    }
+
+    // 工作进程在收到DONE后自行退出，超时仍未退出的强制结束
+    private static void stopLocalWorkers(List<Process> processes) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Process process : processes) {
+            try {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || !process.waitFor(remaining, TimeUnit.NANOSECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // 按单元顺序合并一个schema的结果；拆分的单元按表名排序，合并后与单机抽取的顺序一致
+    private SchemaSnapshot mergeResults(String schema, List<ClusterCoordinator.UnitResult> results) {
+        List<Map<String, Object>> tables = modelStoreOptions.newTableList();
+        List<Map<String, Object>> objects = modelStoreOptions.newTableList();
+        List<TableFailure> failures = new ArrayList<>();
+        String dbType = null;
+        String dbName = null;
+        for (ClusterCoordinator.UnitResult result : results) {
+            if (!Objects.equals(schema, result.getUnit().getSchema())) {
+                continue;
+            }
+            if (dbType == null) {
+                dbType = result.getDbType();
+                dbName = result.getDbName();
+            }
+            tables.addAll(result.getTables());
+            objects.addAll(result.getObjects());
+            failures.addAll(result.getFailures());
+        }
+        return new SchemaSnapshot(dbType, dbName, tables, objects, failures);
+    }
+
+    /**
+     * 作为工作进程连接协调者，领取工作单元并抽取，直到协调者通知全部完成
+     * @param coordinator 协调者地址 host:port
+     * @return 处理的单元数
+     */
+    public int runWorker(
+            String driverClassName,
+            String jdbcUrl,
+            String username,
+            String password,
+            String coordinator,
+            String token,
+            List<String> designatedTableNames,
+            List<String> designatedTablePrefixes,
+            List<String> designatedTableSuffixes,
+            List<String> ignoreTableNames,
+            List<String> ignoreTablePrefixes,
+            List<String> ignoreTableSuffixes) {
+
+        int separator = coordinator.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Coordinator address must be host:port, got: " + coordinator);
+        }
+        String host = coordinator.substring(0, separator);
+        int port = Integer.parseInt(coordinator.substring(separator + 1));
+        ProcessConfig processConfig = getProcessConfig(
+                designatedTableNames,
+                designatedTablePrefixes,
+                designatedTableSuffixes,
+                ignoreTableNames,
+                ignoreTablePrefixes,
+                ignoreTableSuffixes);
+
+        // 单元可能属于不同schema，连接池按schema创建并复用
+        Map<String, HikariDataSource> dataSources = new HashMap<>();
+        try {
+            return new ClusterWorker(host, port, token).run(unit -> {
+                HikariDataSource dataSource = dataSources.computeIfAbsent(String.valueOf(unit.getSchema()),
+                        key -> getDataSource(driverClassName, jdbcUrl, username, password, unit.getSchema()));
+                Set<String> onlyTables = unit.getTables() != null ? new HashSet<>(unit.getTables()) : null;
+                return extractSnapshot(dataSource, unit.getSchema(), processConfig, onlyTables, unit.isIncludeObjects());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while working for " + coordinator, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lost connection to coordinator " + coordinator, e);
+        } finally {
+            for (HikariDataSource dataSource : dataSources.values()) {
+                dataSource.close();
+            }
+        }
+    }
+
     // 新增方法：直接使用JDBC生成Excel文档
-    private void generateExcelDocument(DataSource dataSource, String schema, String outputDir, String title, ProcessConfig processConfig) {
-        try (Connection connection = dataSource.getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
+    private SchemaSnapshot generateExcelDocument(DataSource dataSource, String schema, String outputDir, String title, ProcessConfig processConfig) {
+        SchemaSnapshot snapshot = extractSnapshot(dataSource, schema, processConfig, null);
+        try {
+            // 使用重构后的Excel生成器生成文档
+            writeExcel(outputDir, title, snapshot);
+
+            if (snapshotOutput != null) {
+                saveSnapshot(snapshot);
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            closeQuietly(snapshot);
+            throw e;
+        }
+    }
+    
+    // 直接使用JDBC抽取，生成Word文档
+    private SchemaSnapshot generateWordDocument(DataSource dataSource, String schema, String outputDir, String title, ProcessConfig processConfig) {
+        SchemaSnapshot snapshot = extractSnapshot(dataSource, schema, processConfig, null);
+        try {
+            writeWord(outputDir, title, snapshot);
+
+            if (snapshotOutput != null) {
+                saveSnapshot(snapshot);
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            closeQuietly(snapshot);
+            throw e;
+        }
+    }
+    
+    private static boolean isWordFormat(String fileType) {
+        return "WORD".equalsIgnoreCase(fileType);
+    }
+    
+    // 按类型从快照生成Excel或Word文档
+    private void writeDocument(String outputDir, String fileName, String fileType, SchemaSnapshot snapshot) {
+        if (isWordFormat(fileType)) {
+            writeWord(outputDir, fileName, snapshot);
+        } else {
+            writeExcel(outputDir, fileName, snapshot);
+        }
+    }
+    
+    // 生成Word文档，启用规范检查时先检查，结果作为"规范检查"一节
+    private void writeWord(String outputDir, String fileName, SchemaSnapshot snapshot) {
+        WordDocumentGenerator wordGenerator = new WordDocumentGenerator();
+        wordGenerator.setClock(clock);
+        wordGenerator.setSkipUnchanged(skipUnchanged);
+        wordGenerator.setLintReport(lint(snapshot.getDbName(), snapshot.getTables(), outputDir, fileName));
+        wordGenerator.generate(outputDir, fileName, snapshot.getDbType(), snapshot.getDbName(), snapshot.getTables(),
+                snapshot.getObjects(), snapshot.getFailures());
+        writeDdlScript(outputDir, fileName, snapshot);
+    }
+    
+    // 生成Excel文档，启用规范检查时先检查，结果作为"规范检查"页
+    private void writeExcel(String outputDir, String fileName, SchemaSnapshot snapshot) {
+        ExcelDocumentGenerator excelGenerator = newExcelGenerator();
+        excelGenerator.setLintReport(lint(snapshot.getDbName(), snapshot.getTables(), outputDir, fileName));
+        excelGenerator.generate(outputDir, fileName, snapshot.getDbType(), snapshot.getDbName(), snapshot.getTables(),
+                snapshot.getObjects(), snapshot.getFailures());
+        writeDdlScript(outputDir, fileName, snapshot);
+    }
+    
+    /**
+     * 开启建表脚本时把快照中各表的建表语句写到 "文件名-schema.sql"（输出到标准输出时不写）
+     */
+    private void writeDdlScript(String outputDir, String title, SchemaSnapshot snapshot) {
+        if (!ddlScript || STANDARD_OUTPUT.equals(outputDir)) {
+            return;
+        }
+        try (ExportTarget target = openDdlScript(outputDir, title)) {
+            DdlScriptWriter writer = new DdlScriptWriter(target.writer);
+            writer.begin(snapshot.getDbType(), snapshot.getDbName());
+            for (Map<String, Object> table : snapshot.getTables()) {
+                writer.accept(table);
+            }
+            writer.flush();
+            target.finish();
+            LOGGER.info("Wrote DDL of {} tables to {}", writer.getTableCount(), target.name);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write DDL script: {}", e.getMessage());
+        }
+    }
+    
+    private ExportTarget openDdlScript(String outputDir, String title) throws IOException {
+        String fileName = (title == null ? "database-document" : title) + "-schema.sql";
+        File temp = new File(outputDir, "." + fileName + ".tmp");
+        return new ExportTarget(new File(outputDir, fileName).getPath(), new FileOutputStream(temp), temp, fileName);
+    }
+    
+    // 表名到建表语句的映射，供screw文档插入
+    private static Map<String, String> collectDdl(List<Map<String, Object>> tables) {
+        Map<String, String> ddl = new HashMap<>();
+        for (Map<String, Object> table : tables) {
+            if (table.get("ddl") != null) {
+                ddl.put(String.valueOf(table.get("tableName")), table.get("ddl").toString());
+            }
+        }
+        return ddl;
+    }
+
+    /**
+     * 规范检查，JSON报告写到输出目录中的 "文件名-lint.json"（输出到标准输出时不写报告）
+     * @return 检查结果，未启用时返回 null
+     */
+    private LintReport lint(String dbName, List<Map<String, Object>> tables, String outputDir, String title) {
+        if (!lintOptions.isEnabled()) {
+            return null;
+        }
+        LintReport report = SchemaLinter.create(lintOptions, parallelism).lint(tables);
+        if (lintOptions.getFailOn() != null && report.hasFindings(lintOptions.getFailOn())) {
+            lintFailed = true;
+        }
+        if (!STANDARD_OUTPUT.equals(outputDir)) {
+            File file = new File(outputDir, (title == null ? "database-document" : title) + "-lint.json");
+            try {
+                new LintReportWriter().writeJson(file, dbName, report);
+                LOGGER.info("Lint report written to {}", file.getPath());
+            } catch (IOException e) {
+                LOGGER.error("Failed to write lint report {}: {}", file, e.getMessage());
+            }
+        }
+        return report;
+    }
+
+    private ExcelDocumentGenerator newExcelGenerator() {
+        ExcelDocumentGenerator excelGenerator = new ExcelDocumentGenerator();
+        excelGenerator.setClock(clock);
+        excelGenerator.setSkipUnchanged(skipUnchanged);
+        return excelGenerator;
+    }
+    
+    // 释放快照的溢出文件
+    private static void closeQuietly(SchemaSnapshot snapshot) {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            snapshot.close();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to release snapshot store: {}", e.getMessage());
+        }
+    }
+
+    // 保存快照，失败时只记录日志，不影响已生成的文档
+    private void saveSnapshot(SchemaSnapshot snapshot) {
+        try {
+            snapshot.save(new File(snapshotOutput));
+            LOGGER.info("Schema snapshot saved to {}", snapshotOutput);
+        } catch (IOException e) {
+            LOGGER.error("Failed to save schema snapshot to {}", snapshotOutput, e);
+        }
+    }
+    
+    // 直接使用JDBC抽取表和列的元数据，onlyTables不为空时只抽取其中的表
+    private SchemaSnapshot extractSnapshot(DataSource dataSource, String schema, ProcessConfig processConfig, Set<String> onlyTables) {
+        return extractSnapshot(dataSource, schema, processConfig, onlyTables, true);
+    }
+    
+    // includeObjects为false时只抽取表，不抽取视图、序列等对象
+    private SchemaSnapshot extractSnapshot(DataSource dataSource, String schema, ProcessConfig processConfig, Set<String> onlyTables,
+                                           boolean includeObjects) {
+        SnapshotCollector collector = new SnapshotCollector(modelStoreOptions.newTableList(), modelStoreOptions.newTableList());
+        try {
+            extractTables(dataSource, schema, processConfig, onlyTables, includeObjects, collector);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(collector.toSnapshot());
+            throw e instanceof IOException ? new UncheckedIOException((IOException) e) : (RuntimeException) e;
+        }
+        return collector.toSnapshot();
+    }
+    
+    /**
+     * 逐表抽取元数据并交给sink
+     * 各表的列由多个线程并行读取，同时执行的读取数和每秒查询数由负载控制决定，
+     * 结果按表清单的顺序交给sink，提前读取的表数有上限，sink之外不在内存中保留整个schema。
+     * 开启列画像时按小批次画像后再交出，批次大小取并行度的若干倍以保持并行效率，
+     * 整体画像预算由所有批次共享。
+     * 表之后按配置抽取视图、序列、存储过程等对象。
+     * 单个表读取失败（超时、锁、失效对象、权限）时交给sink记录并继续，只有读取表清单失败才中止
+     */
+    private void extractTables(DataSource dataSource, String schema, ProcessConfig processConfig,
+                               Set<String> onlyTables, boolean includeObjects, TableSink sink) throws IOException {
+        int failures = 0;
+        int workers = Math.max(1, parallelism);
+        LoadGovernor governor = new LoadGovernor(workers, extractionOptions.getMaxQueriesPerSecond(),
+                extractionOptions.getLatencyTargetMillis());
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "metadata-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ResilientMetadataReader reader = new ResilientMetadataReader(dataSource, extractionOptions, governor)) {
+            TableFilter filter = TableFilter.of(processConfig);
+            CatalogListing listing;
+            try {
+                listing = reader.read("table list", connection -> listTables(connection, schema, filter, onlyTables));
+            } catch (ResilientMetadataReader.TableReadException e) {
+                LOGGER.error("Error while fetching database metadata", e.getCause());
+                throw new RuntimeException("Failed to extract database metadata", e.getCause());
+            }
+            
+            sink.begin(listing.dbType, listing.dbName);
+            LOGGER.info("Reading columns of {} tables with up to {} threads (max queries/s: {}, p95 latency target: {})",
+                    listing.tables.size(), workers,
+                    extractionOptions.getMaxQueriesPerSecond() > 0 ? extractionOptions.getMaxQueriesPerSecond() : "unlimited",
+                    extractionOptions.getLatencyTargetMillis() > 0 ? extractionOptions.getLatencyTargetMillis() + " ms" : "none");
             
-            // 获取数据库类型和名称
-            String dbType = metaData.getDatabaseProductName();
-            String dbName = schema != null ? schema : connection.getCatalog();
+            // 可选的列画像：基于采样数据，每批内的表并行执行
+            boolean profiling = profilingOptions != null && profilingOptions.isEnabled();
+            ColumnProfiler profiler = profiling ? new ColumnProfiler(dataSource, listing.dialect, profilingOptions, parallelism) : null;
+            int profileBatchSize = Math.max(16, parallelism * 4);
+            if (profiling) {
+                LOGGER.info("Profiling tables in batches of {} with {} threads (sample rows: {}, table budget: {}s, total budget: {}s)",
+                        profileBatchSize, parallelism, profilingOptions.getSampleRows(),
+                        profilingOptions.getTableTimeoutSeconds(), profilingOptions.getTotalTimeoutSeconds());
+            }
+            long profileDeadline = System.currentTimeMillis()
+                    + TimeUnit.SECONDS.toMillis(profiling ? profilingOptions.getTotalTimeoutSeconds() : 0);
             
-            // 获取所有表
+            // 等待画像的表
             List<Map<String, Object>> tableList = new ArrayList<>();
             
-            // 表类型数组，通常包括 "TABLE", "VIEW" 等
-            String[] types = {"TABLE"};
+            // 建表语句：支持时按表清单顺序每批一次查询读取原生DDL，其余根据抽取的列生成
+            TableDdlSynthesizer ddlSynthesizer = extractionOptions.isTableDdl() ? new TableDdlSynthesizer(listing.dialect) : null;
+            boolean nativeDdl = ddlSynthesizer != null && TableDdlCollector.supports(listing.dialect);
+            Map<String, String> ddlBatch = Collections.emptyMap();
+            int ddlBatchEnd = 0;
+            int position = 0;
             
-            ResultSet tablesResultSet = metaData.getTables(
-                    connection.getCatalog(), 
-                    schema, 
-                    "%", 
-                    types);
+            // 已提交、尚未交给sink的列读取，按表清单顺序排列
+            Deque<Future<ColumnRead>> pending = new ArrayDeque<>();
+            int readAhead = workers * 4;
+            Iterator<SchemaCatalog.TableEntry> remaining = listing.tables.iterator();
             
-            while (tablesResultSet.next()) {
-                String tableName = tablesResultSet.getString("TABLE_NAME");
+            while (true) {
+                while (remaining.hasNext() && pending.size() < readAhead) {
+                    SchemaCatalog.TableEntry entry = remaining.next();
+                    pending.add(executor.submit(() -> readColumns(reader, listing.catalog, schema, entry)));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                ColumnRead read = await(pending.poll());
+                String tableName = read.entry.getName();
+                int index = position++;
                 
-                // 表过滤逻辑 - 简化版本，实际应该参考processConfig
-                if (shouldSkipTable(tableName, processConfig)) {
+                // 读取失败时记录并跳过该表
+                if (read.failure != null) {
+                    LOGGER.warn("Skipping table {} after {} attempt(s): {}", tableName, read.failure.getAttempts(), read.failure.getMessage());
+                    failures++;
+                    sink.fail(read.failure);
                     continue;
                 }
                 
                 Map<String, Object> tableMap = new HashMap<>();
                 tableMap.put("tableName", tableName);
-                tableMap.put("remarks", tablesResultSet.getString("REMARKS"));
-                
-                // 获取列信息
-                List<Map<String, Object>> columnList = new ArrayList<>();
-                ResultSet primaryKeys = metaData.getPrimaryKeys(
-                        connection.getCatalog(), 
-                        schema, 
-                        tableName);
+                tableMap.put("remarks", read.entry.getRemarks());
+                listing.comments.applyColumnRemarks(tableName, read.columns);
                 
-                // 收集主键信息
-                List<String> pkColumns = new ArrayList<>();
-                while (primaryKeys.next()) {
-                    pkColumns.add(primaryKeys.getString("COLUMN_NAME"));
+                TableStatistics tableStatistics = listing.statistics.get(tableName);
+                if (tableStatistics != null) {
+                    tableMap.put("rowCount", tableStatistics.getRowCount());
+                    tableMap.put("dataSize", tableStatistics.getDataSize());
                 }
-                primaryKeys.close();
                 
-                // 获取列信息
-                ResultSet columnsResultSet = metaData.getColumns(
-                        connection.getCatalog(), 
-                        schema, 
-                        tableName, 
-                        "%");
-                
-                while (columnsResultSet.next()) {
-                    Map<String, Object> columnMap = new HashMap<>();
-                    String columnName = columnsResultSet.getString("COLUMN_NAME");
-                    
-                    columnMap.put("name", columnName);
-                    columnMap.put("typeName", columnsResultSet.getString("TYPE_NAME"));
-                    columnMap.put("length", columnsResultSet.getInt("COLUMN_SIZE"));
-                    columnMap.put("scale", columnsResultSet.getInt("DECIMAL_DIGITS"));
-                    columnMap.put("primaryKey", pkColumns.contains(columnName));
-                    columnMap.put("nullable", columnsResultSet.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
-                    columnMap.put("defaultValue", columnsResultSet.getString("COLUMN_DEF"));
-                    columnMap.put("remarks", columnsResultSet.getString("REMARKS"));
-                    
-                    columnList.add(columnMap);
+                Map<String, Object> partition = listing.partitions.getSummary(tableName);
+                if (partition != null) {
+                    tableMap.put("partition", partition);
                 }
-                columnsResultSet.close();
                 
-                tableMap.put("columns", columnList);
+                tableMap.put("columns", read.columns);
+                if (ddlSynthesizer != null) {
+                    if (nativeDdl && index >= ddlBatchEnd) {
+                        ddlBatchEnd = Math.min(listing.tables.size(), index + TableDdlCollector.BATCH_SIZE);
+                        try {
+                            ddlBatch = readNativeDdl(reader, listing, schema, index, ddlBatchEnd);
+                        } catch (ResilientMetadataReader.TableReadException e) {
+                            LOGGER.warn("Could not read native table DDL, generating it from metadata instead: {}",
+                                    e.getFailure().getMessage());
+                            nativeDdl = false;
+                            ddlBatch = Collections.emptyMap();
+                        }
+                    }
+                    String ddl = ddlBatch.get(tableName);
+                    tableMap.put("ddl", ddl != null ? ddl : ddlSynthesizer.synthesize(schema, tableMap));
+                }
+                ExtractionMetrics.recordTable();
+                if (!profiling) {
+                    sink.accept(tableMap);
+                    continue;
+                }
                 tableList.add(tableMap);
+                if (tableList.size() >= profileBatchSize) {
+                    profileAndEmit(profiler, listing.catalog, schema, tableList, profileDeadline, sink);
+                }
             }
-            tablesResultSet.close();
             
-            // 使用重构后的Excel生成器生成文档
-            ExcelDocumentGenerator excelGenerator = new ExcelDocumentGenerator();
-            excelGenerator.generate(outputDir, title, dbType, dbName, tableList);
+            if (profiling && !tableList.isEmpty()) {
+                profileAndEmit(profiler, listing.catalog, schema, tableList, profileDeadline, sink);
+            }
             
-        } catch (SQLException e) {
-            LOGGER.error("Error while fetching database metadata", e);
-            throw new RuntimeException("Failed to generate Excel documentation", e);
+            // 视图、序列、存储过程等对象，每种对象一次集合查询
+            if (includeObjects) {
+                extractObjects(reader, listing, schema, filter, sink);
+            }
+            
+            if (failures > 0) {
+                LOGGER.warn("{} of {} tables could not be extracted", failures, listing.tables.size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 逐种抽取表以外的对象并交给sink
+     * 一种对象的查询结果先放入可溢出的临时列表，整个查询成功后才交出，重试时不会重复交出对象。
+     * 读取失败的对象种类以种类名记为一条失败
+     */
+    private void extractObjects(ResilientMetadataReader reader, CatalogListing listing, String schema, TableFilter filter,
+                                TableSink sink) throws IOException {
+        SchemaObjectCollector collector = new SchemaObjectCollector(listing.dialect);
+        for (SchemaObjectType type : extractionOptions.getObjectTypes()) {
+            List<Map<String, Object>> objects;
+            try {
+                objects = reader.read(type.getLabel(), connection -> {
+                    List<Map<String, Object>> collected = modelStoreOptions.newTableList();
+                    try {
+                        if (!collector.collect(connection, type, listing.catalog, schema, filter, collected::add)) {
+                            closeStore(collected);
+                            return null;
+                        }
+                        return collected;
+                    } catch (SQLException | RuntimeException e) {
+                        closeStore(collected);
+                        throw e;
+                    }
+                });
+            } catch (ResilientMetadataReader.TableReadException e) {
+                TableFailure failure = e.getFailure();
+                LOGGER.warn("Skipping {} after {} attempt(s): {}", type, failure.getAttempts(), failure.getMessage());
+                sink.fail(failure);
+                continue;
+            }
+            if (objects == null) {
+                LOGGER.debug("Object type {} is not supported for dialect {}", type, listing.dialect);
+                continue;
+            }
+            try {
+                for (Map<String, Object> object : objects) {
+                    sink.acceptObject(object);
+                }
+                LOGGER.info("Extracted {} objects of type {}", objects.size(), type);
+            } finally {
+                closeStore(objects);
+            }
         }
     }
     
-    // 辅助方法：根据过滤规则判断是否应该跳过某个表
-    private boolean shouldSkipTable(String tableName, ProcessConfig processConfig) {
-        if (processConfig == null) {
-            return false;
+    // 释放可溢出列表占用的段文件
+    private static void closeStore(List<Map<String, Object>> store) {
+        if (store instanceof Closeable) {
+            try {
+                ((Closeable) store).close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to release model store: {}", e.getMessage());
+            }
+        }
+    }
+    
+    // 读取表清单中 [from, to) 区间的表的原生建表语句
+    private static Map<String, String> readNativeDdl(ResilientMetadataReader reader, CatalogListing listing, String schema,
+                                                     int from, int to)
+            throws ResilientMetadataReader.TableReadException, InterruptedIOException {
+        List<String> tableNames = new ArrayList<>(to - from);
+        for (SchemaCatalog.TableEntry entry : listing.tables.subList(from, to)) {
+            tableNames.add(entry.getName());
+        }
+        return reader.read("table DDL", connection -> new TableDdlCollector().collect(connection, listing.dialect, schema, tableNames));
+    }
+    
+    // 读取一个表的主键和列，失败时返回失败记录
+    private static ColumnRead readColumns(ResilientMetadataReader reader, String catalog, String schema,
+                                          SchemaCatalog.TableEntry entry) throws InterruptedIOException {
+        ColumnRead read = new ColumnRead(entry);
+        try {
+            // 主键和列各一次查询
+            read.columns = reader.read(entry.getName(), 2,
+                    connection -> SchemaCatalog.readColumns(connection.getMetaData(), catalog, schema, entry.getName()));
+        } catch (ResilientMetadataReader.TableReadException e) {
+            read.failure = e.getFailure();
         }
+        return read;
+    }
+    
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException error = new InterruptedIOException("Interrupted while reading table metadata");
+            error.initCause(e);
+            throw error;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Failed to read table metadata", cause);
+        }
+    }
+    
+    // 一个表的列读取结果
+    private static class ColumnRead {
+        private final SchemaCatalog.TableEntry entry;
+        private List<Map<String, Object>> columns;
+        private TableFailure failure;
         
-        // 获取表过滤配置
-        List<String> designatedNames = processConfig.getDesignatedTableName();
-        List<String> designatedPrefixes = processConfig.getDesignatedTablePrefix();
-        List<String> designatedSuffixes = processConfig.getDesignatedTableSuffix();
-        List<String> ignoreNames = processConfig.getIgnoreTableName();
-        List<String> ignorePrefixes = processConfig.getIgnoreTablePrefix();
-        List<String> ignoreSuffixes = processConfig.getIgnoreTableSuffix();
+        ColumnRead(SchemaCatalog.TableEntry entry) {
+            this.entry = entry;
+        }
+    }
+    
+    // 读取库信息、统计信息、分区结构和过滤后的表清单，子分区折叠到父表
+    private CatalogListing listTables(Connection connection, String schema, TableFilter filter, Set<String> onlyTables)
+            throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        CatalogListing listing = new CatalogListing();
         
-        // 如果指定了表名/前缀/后缀，只包含指定的表
-        if (!designatedNames.isEmpty() || !designatedPrefixes.isEmpty() || !designatedSuffixes.isEmpty()) {
-            boolean matched = false;
-            
-            // 检查表名是否匹配
-            if (designatedNames.contains(tableName)) {
-                matched = true;
+        // 获取数据库类型和名称
+        listing.dbType = metaData.getDatabaseProductName();
+        listing.catalog = connection.getCatalog();
+        listing.dbName = schema != null ? schema : listing.catalog;
+        listing.dialect = DatabaseDialect.fromProductName(listing.dbType);
+        
+        // 一次性读取优化器统计信息（近似行数、占用空间），避免逐表COUNT(*)
+        listing.statistics = new TableStatisticsCollector().collect(connection, listing.dialect, schema);
+        
+        // 子分区只在父表中汇总，不单独读取列信息；统计信息累加到父表
+        listing.partitions = new PartitionCollector().collect(connection, listing.dialect, schema);
+        rollUpStatistics(listing);
+        
+        // Oracle 的表和列注释一次性从数据字典读取，不开启驱动的 remarksReporting
+        listing.comments = new CommentCollector().collect(connection, listing.dialect, schema);
+        
+        // 增量刷新时变化的子分区换成所属的父表
+        Set<String> wanted = null;
+        if (onlyTables != null) {
+            wanted = new HashSet<>();
+            for (String tableName : onlyTables) {
+                wanted.add(listing.partitions.getRoot(tableName));
             }
-            
-            // 检查表名前缀是否匹配
-            if (!matched) {
-                for (String prefix : designatedPrefixes) {
-                    if (tableName.startsWith(prefix)) {
-                        matched = true;
-                        break;
-                    }
+        }
+        
+        // 表类型数组，PostgreSQL 的分区父表单独作为一种类型
+        String[] types = PartitionCollector.getTableTypes(listing.dialect);
+        
+        // 先读完表清单再逐表读取列，单个表的超时中断连接时不影响表清单
+        try (ResultSet tablesResultSet = metaData.getTables(listing.catalog, schema, "%", types)) {
+            while (tablesResultSet.next()) {
+                String tableName = tablesResultSet.getString("TABLE_NAME");
+                
+                // 表过滤
+                if (listing.partitions.isPartition(tableName) || !filter.matches(tableName)
+                        || (wanted != null && !wanted.contains(tableName))) {
+                    continue;
                 }
+                listing.tables.add(new SchemaCatalog.TableEntry(tableName,
+                        listing.comments.getTableRemarks(tableName, tablesResultSet.getString("REMARKS"))));
             }
-            
-            // 检查表名后缀是否匹配
-            if (!matched) {
-                for (String suffix : designatedSuffixes) {
-                    if (tableName.endsWith(suffix)) {
-                        matched = true;
-                        break;
-                    }
-                }
+        }
+        // 驱动按表类型分组返回（分区父表排在普通表之后），统一按表名排序，保证输出顺序稳定
+        listing.tables.sort(Comparator.comparing(SchemaCatalog.TableEntry::getName));
+        return listing;
+    }
+    
+    // 子分区的行数和大小累加到最顶层的父表
+    private static void rollUpStatistics(CatalogListing listing) {
+        Map<String, Long[]> totals = new HashMap<>();
+        for (Map.Entry<String, TableStatistics> entry : listing.statistics.entrySet()) {
+            String root = listing.partitions.getRoot(entry.getKey());
+            if (listing.partitions.getSummary(root) == null) {
+                continue;
             }
-            
-            // 如果没有匹配，跳过此表
-            if (!matched) {
-                return true;
+            Long[] total = totals.computeIfAbsent(root, k -> new Long[2]);
+            total[0] = addNullable(total[0], entry.getValue().getRowCount());
+            total[1] = addNullable(total[1], entry.getValue().getDataSize());
+        }
+        for (Map.Entry<String, Long[]> entry : totals.entrySet()) {
+            listing.statistics.put(entry.getKey(), new TableStatistics(entry.getValue()[0], entry.getValue()[1]));
+        }
+    }
+    
+    private static Long addNullable(Long a, Long b) {
+        return a == null ? b : b == null ? a : a + b;
+    }
+    
+    // 表清单及抽取所需的库信息
+    private static class CatalogListing {
+        private String dbType;
+        private String dbName;
+        private String catalog;
+        private DatabaseDialect dialect;
+        private Map<String, TableStatistics> statistics;
+        private PartitionCollector.PartitionLayout partitions;
+        private CommentCollector.SchemaComments comments;
+        private final List<SchemaCatalog.TableEntry> tables = new ArrayList<>();
+    }
+    
+    /**
+     * 导出为JSONL/CSV：每抽取一个表立即写出，不在内存中保留整个schema
+     */
+    private void exportMetadata(DataSource dataSource, String schema, String outputDir, ExportFormat format,
+                                String title, ProcessConfig processConfig) {
+        // 规范检查需要所有表，导出时另存一份（可溢出到磁盘），导出完成后再检查
+        SnapshotCollector linted = lintOptions.isEnabled()
+                ? new SnapshotCollector(modelStoreOptions.newTableList(), new ArrayList<>()) : null;
+        try (ExportTarget target = openExportTarget(outputDir, title, format);
+             ExportTarget ddlTarget = ddlScript && !STANDARD_OUTPUT.equals(outputDir) ? openDdlScript(outputDir, title) : null) {
+            MetadataExporter exporter = MetadataExporter.create(format, exportRecord, target.writer);
+            DdlScriptWriter ddlWriter = ddlTarget != null ? new DdlScriptWriter(ddlTarget.writer) : null;
+            TableSink sink = linted == null ? exporter : new TeeSink(exporter, linted);
+            extractTables(dataSource, schema, processConfig, null, true, ddlWriter == null ? sink : new TeeSink(sink, ddlWriter));
+            exporter.flush();
+            target.finish();
+            if (ddlWriter != null) {
+                ddlWriter.flush();
+                ddlTarget.finish();
+                LOGGER.info("Wrote DDL of {} tables to {}", ddlWriter.getTableCount(), ddlTarget.name);
+            }
+            LOGGER.info("Exported {} tables, {} columns to {}", exporter.getTableCount(), exporter.getColumnCount(), target.name);
+            if (exporter.getFailureCount() > 0) {
+                LOGGER.warn("{} tables could not be extracted and are missing from {}", exporter.getFailureCount(), target.name);
+            }
+            if (linted != null) {
+                lint(linted.dbName, linted.tables, outputDir, title);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export metadata", e);
+        } finally {
+            if (linted != null) {
+                closeStore(linted.tables);
+            }
+        }
+    }
+    
+    private ExportTarget openExportTarget(String outputDir, String title, ExportFormat format) throws IOException {
+        if (STANDARD_OUTPUT.equals(outputDir)) {
+            // 直接写文件描述符：命令行在导出到标准输出时会把 System.out 重定向到 stderr，避免日志混入数据
+            return new ExportTarget("<stdout>", new FileOutputStream(FileDescriptor.out), null, null);
+        }
+        // 先写临时文件，完成后与输出清单比较，内容不变时保留原文件
+        String fileName = (title == null ? "database-document" : title) + format.getFileSuffix();
+        File temp = new File(outputDir, "." + fileName + ".tmp");
+        return new ExportTarget(new File(outputDir, fileName).getPath(), new FileOutputStream(temp), temp, fileName);
+    }
+    
+    // 导出目标，标准输出只刷新不关闭；文件在 finish 后才替换目标文件，出错时删除临时文件
+    private class ExportTarget implements Closeable {
+        private final String name;
+        private final Writer writer;
+        private final File temp;
+        private final String fileName;
+        private boolean finished;
+        
+        ExportTarget(String name, OutputStream out, File temp, String fileName) {
+            this.name = name;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.temp = temp;
+            this.fileName = fileName;
+        }
+        
+        void finish() throws IOException {
+            if (temp == null) {
+                writer.flush();
+                return;
             }
+            writer.close();
+            commitOutput(temp.getParentFile(), temp, fileName);
+            finished = true;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (temp == null) {
+                writer.flush();
+            } else if (!finished) {
+                writer.close();
+                Files.deleteIfExists(temp.toPath());
+            }
+        }
+    }
+    
+    // 用写好的临时文件替换目标文件，并更新输出目录的清单
+    private void commitOutput(File directory, File temp, String fileName) throws IOException {
+        OutputManifest manifest = OutputManifest.load(directory);
+        if (!manifest.commit(temp, fileName, skipUnchanged)) {
+            LOGGER.info("{} is unchanged, keeping the existing file", fileName);
+        }
+        manifest.save();
+    }
+    
+    private void profileAndEmit(ColumnProfiler profiler, String catalog, String schema, List<Map<String, Object>> tableList,
+                                long deadline, TableSink sink) throws IOException {
+        profiler.profile(catalog, schema, tableList, deadline);
+        for (Map<String, Object> table : tableList) {
+            sink.accept(table);
+        }
+        tableList.clear();
+    }
+    
+    // 把抽取结果收集为快照
+    private static class SnapshotCollector implements TableSink {
+        private final List<Map<String, Object>> tables;
+        private final List<Map<String, Object>> objects;
+        private final List<TableFailure> failures = new ArrayList<>();
+        private String dbType;
+        private String dbName;
+        
+        SnapshotCollector(List<Map<String, Object>> tables, List<Map<String, Object>> objects) {
+            this.tables = tables;
+            this.objects = objects;
+        }
+        
+        @Override
+        public void begin(String dbType, String dbName) {
+            this.dbType = dbType;
+            this.dbName = dbName;
         }
         
-        // 检查是否应该忽略此表
-        if (ignoreNames.contains(tableName)) {
-            return true;
+        @Override
+        public void accept(Map<String, Object> table) {
+            tables.add(table);
         }
         
-        // 检查表名前缀是否应该忽略
-        for (String prefix : ignorePrefixes) {
-            if (tableName.startsWith(prefix)) {
-                return true;
+        @Override
+        public void acceptObject(Map<String, Object> object) {
+            objects.add(object);
+        }
+        
+        @Override
+        public void fail(TableFailure failure) {
+            failures.add(failure);
+        }
+        
+        SchemaSnapshot toSnapshot() {
+            return new SchemaSnapshot(dbType, dbName, tables, objects, failures);
+        }
+    }
+    
+    // 把抽取结果同时交给两个接收方
+    private static class TeeSink implements TableSink {
+        private final TableSink first;
+        private final TableSink second;
+        
+        TeeSink(TableSink first, TableSink second) {
+            this.first = first;
+            this.second = second;
+        }
+        
+        @Override
+        public void begin(String dbType, String dbName) throws IOException {
+            first.begin(dbType, dbName);
+            second.begin(dbType, dbName);
+        }
+        
+        @Override
+        public void accept(Map<String, Object> table) throws IOException {
+            first.accept(table);
+            second.accept(table);
+        }
+        
+        @Override
+        public void acceptObject(Map<String, Object> object) throws IOException {
+            first.acceptObject(object);
+            second.acceptObject(object);
+        }
+        
+        @Override
+        public void fail(TableFailure failure) throws IOException {
+            first.fail(failure);
+            second.fail(failure);
+        }
+    }
+    
+    // 使用screw生成HTML/Word/Markdown文档，并将统计信息附加到表备注中
+    private void generateScrewDocument(Configuration config, DataSource dataSource, String schema, Map<String, String> ddl) {
+        DataModel dataModel = new DataModelProcess(config).process();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, TableStatistics> statistics = new TableStatisticsCollector()
+                    .collect(connection, DatabaseDialect.of(connection), schema);
+            for (TableModel table : dataModel.getTables()) {
+                TableStatistics tableStatistics = statistics.get(table.getTableName());
+                if (tableStatistics != null) {
+                    table.setRemarks(appendStatistics(table.getRemarks(), tableStatistics));
+                }
             }
+        } catch (SQLException e) {
+            LOGGER.warn("Could not attach table statistics: {}", e.getMessage());
         }
         
-        // 检查表名后缀是否应该忽略
-        for (String suffix : ignoreSuffixes) {
-            if (tableName.endsWith(suffix)) {
-                return true;
+        // 先生成到暂存目录，再逐个文件与输出清单比较，只替换内容变化的文件
+        EngineConfig engineConfig = config.getEngineConfig();
+        File outputDir = new File(engineConfig.getFileOutputDir());
+        File stagingDir = new File(outputDir, ".kydb-staging");
+        engineConfig.setFileOutputDir(stagingDir.getPath());
+        // 暂存目录会被删除，不在生成后打开它
+        engineConfig.setOpenOutputDir(false);
+        try {
+            new EngineFactory(engineConfig).newInstance().produce(dataModel, engineConfig.getFileName());
+            
+            if (engineConfig.getFileType() == EngineFileType.HTML) {
+                writeSearchIndex(engineConfig, dataModel);
+            }
+            if (ddl != null) {
+                injectDdl(engineConfig, ddl);
+            }
+            
+            File[] staged = stagingDir.listFiles();
+            if (staged != null) {
+                Arrays.sort(staged);
+                for (File file : staged) {
+                    if (file.isFile()) {
+                        commitOutput(outputDir, file, file.getName());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write documentation to " + outputDir, e);
+        } finally {
+            engineConfig.setFileOutputDir(outputDir.getPath());
+            deleteRecursively(stagingDir);
+        }
+    }
+    
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Could not delete {}", file);
+        }
+    }
+    
+    // 在HTML/Markdown文档中各表的列清单之后加入建表语句，Word文档的模板不便改写，不加入
+    private void injectDdl(EngineConfig engineConfig, Map<String, String> ddl) throws IOException {
+        EngineFileType fileType = engineConfig.getFileType();
+        File file = new File(engineConfig.getFileOutputDir(), engineConfig.getFileName() + fileType.getFileSuffix());
+        int injected;
+        if (fileType == EngineFileType.HTML) {
+            injected = new DdlInjector().injectHtml(file, ddl);
+        } else if (fileType == EngineFileType.MD) {
+            injected = new DdlInjector().injectMarkdown(file, ddl);
+        } else {
+            LOGGER.info("Table DDL is not added to {} documents, use --ddl-script to write it separately", fileType);
+            return;
+        }
+        LOGGER.info("Added DDL of {} tables to {}", injected, file.getName());
+    }
+    
+    // 为HTML文档生成客户端搜索索引，并在页面中加入搜索框
+    private void writeSearchIndex(EngineConfig engineConfig, DataModel dataModel) {
+        SearchIndexBuilder builder = new SearchIndexBuilder();
+        for (TableModel table : dataModel.getTables()) {
+            builder.addTable(table.getTableName(), table.getRemarks());
+            if (table.getColumns() != null) {
+                for (ColumnModel column : table.getColumns()) {
+                    builder.addColumn(column.getColumnName(), column.getRemarks());
+                }
             }
         }
         
-        return false;
+        File htmlFile = new File(engineConfig.getFileOutputDir(), engineConfig.getFileName() + EngineFileType.HTML.getFileSuffix());
+        String scriptName = engineConfig.getFileName() + "-search.js";
+        try {
+            builder.writeScript(new File(htmlFile.getParentFile(), scriptName));
+            new HtmlSearchInjector().inject(htmlFile, scriptName);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write search index: {}", e.getMessage());
+        }
+    }
+    
+    // screw模板的列是固定的，统计信息以 "备注（约 N 行，X MB）" 的形式展示
+    private String appendStatistics(String remarks, TableStatistics tableStatistics) {
+        List<String> parts = new ArrayList<>();
+        if (tableStatistics.getRowCount() != null) {
+            parts.add(String.format("约 %,d 行", tableStatistics.getRowCount()));
+        }
+        if (tableStatistics.getDataSize() != null) {
+            parts.add(TableStatisticsCollector.formatSize(tableStatistics.getDataSize()));
+        }
+        if (parts.isEmpty()) {
+            return remarks;
+        }
+        String suffix = "（" + String.join("，", parts) + "）";
+        return remarks == null || remarks.isEmpty() ? suffix : remarks + " " + suffix;
     }
 
     // 支持旧接口，避免破坏兼容性
@@ -293,11 +1696,14 @@ public class DatabaseDocumentGenerator {
         );
     }
 
-    private DataSource getDataSource(String driverClassName, String jdbcUrl, String username, String password, String schema) {
+    private HikariDataSource getDataSource(String driverClassName, String jdbcUrl, String username, String password, String schema) {
+        return getDataSource(driverClassName, jdbcUrl, username, password, schema, true);
+    }
+
+    private HikariDataSource getDataSource(String driverClassName, String jdbcUrl, String username, String password, String schema, boolean readOnly) {
         LOGGER.info("Setting up data source...");
 
         HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setDriverClassName(driverClassName);
         hikariConfig.setJdbcUrl(jdbcUrl);
         hikariConfig.setUsername(username);
         hikariConfig.setPassword(password);
@@ -307,16 +1713,54 @@ public class DatabaseDocumentGenerator {
             hikariConfig.setSchema(schema);
         }
 
-        // Enable metadata retrieval for proper documentation
-        hikariConfig.addDataSourceProperty("useInformationSchema", "true");
-        hikariConfig.addDataSourceProperty("remarks", "true");
-        hikariConfig.addDataSourceProperty("remarksReporting", "true");
+        // 按驱动设置调优属性，用户指定的属性优先
+        DriverProfile profile = driverProfileName != null
+                ? DriverProfile.forName(driverProfileName)
+                : DriverProfile.detect(driverClassName, jdbcUrl);
+        Map<String, String> properties = profile.buildProperties(networkTimeoutSeconds, jdbcProperties);
+        // 驱动从驱动目录中独立的类加载器或类路径加载，驱动属性直接交给驱动
+        Properties driverProperties = new Properties();
+        driverProperties.putAll(properties);
+        DataSource driverDataSource = new LoadedDriverDataSource(
+                getDriverLoader().load(driverClassName), jdbcUrl, driverProperties, username, password);
+        // 录制模式：池中的连接由录制数据源提供
+        hikariConfig.setDataSource(captureFile != null ? new RecordingDataSource(driverDataSource, recording) : driverDataSource);
+        // 生成文档只读取数据库
+        hikariConfig.setReadOnly(readOnly);
 
-        // Connection pool settings
-        hikariConfig.setMinimumIdle(2);
-        hikariConfig.setMaximumPoolSize(5);
+        // 连接池大小跟随并行度：主连接 + 每个列读取线程一个，开启列画像时再加上画像线程
+        boolean profiling = profilingOptions != null && profilingOptions.isEnabled();
+        int poolSize = Math.max(2, parallelism * (profiling ? 2 : 1) + 1);
+        hikariConfig.setMaximumPoolSize(poolSize);
+        hikariConfig.setMinimumIdle(Math.min(2, poolSize));
 
-        return new HikariDataSource(hikariConfig);
+        LOGGER.info("Applied driver profile '{}' (pool size {}, read-only {}): {}", profile.getName(), poolSize, readOnly,
+                DriverProfile.mask(properties));
+        if (captureFile == null) {
+            return new HikariDataSource(hikariConfig);
+        }
+        if (profiling) {
+            LOGGER.warn("Column profiling is enabled, sampled table rows will be included in the recording {}", captureFile);
+        }
+        return new CapturingDataSource(hikariConfig);
+    }
+
+    // 关闭连接池时保存录制文件，同一次运行的多个连接池写入同一份录制
+    private class CapturingDataSource extends HikariDataSource {
+        CapturingDataSource(HikariConfig config) {
+            super(config);
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            try {
+                recording.save(captureFile);
+                LOGGER.info("Recorded {} JDBC calls to {}", recording.size(), captureFile);
+            } catch (IOException e) {
+                LOGGER.error("Failed to save JDBC recording {}: {}", captureFile, e.getMessage());
+            }
+        }
     }
 
     private EngineConfig getEngineConfig(String outputDir, String title, EngineFileType fileType) {
@@ -1,12 +1,40 @@
 package com.code2rich.kydb.ddg;
 
+import com.code2rich.kydb.ddg.cli.CommandLineOptions;
 import com.code2rich.kydb.ddg.cli.CommandLineParser;
+import com.code2rich.kydb.ddg.cluster.ClusterOptions;
+import com.code2rich.kydb.ddg.datasource.DriverLoader;
+import com.code2rich.kydb.ddg.diff.DiffReportWriter;
+import com.code2rich.kydb.ddg.diff.SchemaDiff;
+import com.code2rich.kydb.ddg.diff.SchemaDiffer;
 import com.code2rich.kydb.ddg.gui.KnowYourDBGUI;
+import com.code2rich.kydb.ddg.lint.LintOptions;
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.metadata.ExtractionOptions;
+import com.code2rich.kydb.ddg.metadata.ModelStoreOptions;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.profile.ProfilingOptions;
+import com.code2rich.kydb.ddg.script.DdlSchemaReader;
+import com.code2rich.kydb.ddg.script.ScriptOptions;
+import com.code2rich.kydb.ddg.server.DocumentServer;
+import com.code2rich.kydb.ddg.watch.WatchOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
-import java.util.Map;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 public class KnowYourDB {
     private static final Logger LOGGER = LoggerFactory.getLogger(KnowYourDB.class);
@@ -21,33 +49,414 @@ public class KnowYourDB {
         // Otherwise, proceed with CLI mode
         try {
             CommandLineParser parser = new CommandLineParser();
-            Map<String, String> options = (Map<String, String>) parser.parse(args);
+            CommandLineOptions options = parser.parse(args);
 
-            if (options.isEmpty()) {
+            if (options.isHelp()) {
                 return;
             }
+            if (options.isHasErrors()) {
+                System.exit(1);
+            }
+
+            // 导出到标准输出时日志改走stderr，标准输出只保留数据
+            if (options.isStandardOutput()) {
+                System.setOut(System.err);
+            }
+
+            ProfilingOptions profilingOptions = new ProfilingOptions();
+            profilingOptions.setEnabled(options.isProfile());
+            profilingOptions.setSampleRows(options.getProfileSampleRows());
+            profilingOptions.setTableTimeoutSeconds(options.getProfileTableTimeout());
+            profilingOptions.setTotalTimeoutSeconds(options.getProfileTimeout());
+
+            ExtractionOptions extractionOptions = new ExtractionOptions();
+            extractionOptions.setTableTimeoutSeconds(options.getTableTimeout());
+            extractionOptions.setRetries(options.getRetries());
+            extractionOptions.setBreakerThreshold(options.getBreakerThreshold());
+            extractionOptions.setMaxQueriesPerSecond(options.getMaxQps());
+            extractionOptions.setLatencyTargetMillis(options.getLatencyTarget());
+            extractionOptions.setObjectTypes(options.getObjectTypes());
+            extractionOptions.setTableDdl(options.isDdl());
 
             DatabaseDocumentGenerator generator = new DatabaseDocumentGenerator();
+            generator.setProfilingOptions(profilingOptions);
+            generator.setExtractionOptions(extractionOptions);
+            generator.setParallelism(options.getThreads());
+            generator.setDriverLoader(DriverLoader.of(options.getDriverPath()));
+            generator.setDriverProfileName(options.getDriverProfile());
+            generator.setJdbcProperties(options.getJdbcProperties());
+            generator.setNetworkTimeoutSeconds(options.getNetworkTimeout());
+            generator.setExportRecord(options.getExportRecord());
+            ModelStoreOptions storeOptions = getModelStoreOptions(options);
+            generator.setModelStoreOptions(storeOptions);
+            generator.setSkipUnchanged(!options.isForceRewrite());
+            generator.setDdlScript(options.isDdlScript());
+            generator.setClock(getClock());
+            if (options.getCaptureFile() != null) {
+                generator.setCaptureFile(new File(options.getCaptureFile()));
+            }
+            LintOptions lintOptions = new LintOptions();
+            lintOptions.setEnabled(options.isLint());
+            lintOptions.setFailOn(options.getLintFailOn());
+            lintOptions.setExcludedRules(options.getLintExcludedRules());
+            lintOptions.setVarcharLimit(options.getLintVarcharLimit());
+            generator.setLintOptions(lintOptions);
+
+            // 脚本执行模式
+            if (options.isScriptMode()) {
+                ScriptOptions scriptOptions = new ScriptOptions();
+                scriptOptions.setBatchSize(options.getBatchSize());
+                scriptOptions.setCommitInterval(options.getCommitInterval());
+                scriptOptions.setDdlThreads(options.isParallelDdl() ? options.getThreads() : 1);
+                scriptOptions.setContinueOnError(options.isContinueOnError());
+                scriptOptions.setEncoding(options.getScriptEncoding());
+                generator.executeScripts(
+                        options.getDriverClassName(),
+                        options.getJdbcUrl(),
+                        options.getUsername(),
+                        options.getPassword(),
+                        options.getSchema(),
+                        options.getScripts(),
+                        scriptOptions);
+                return;
+            }
+
+            // 差异比较模式
+            if (options.isDiffMode()) {
+                runDiff(generator, options, storeOptions);
+                return;
+            }
+
+            // 服务模式：从快照或数据库抽取一次元数据，页面按需渲染
+            if (options.isServe()) {
+                runServer(generator, options, storeOptions);
+                return;
+            }
+
+            // 从DDL脚本生成文档，不连接数据库
+            if (!options.getFromDdl().isEmpty()) {
+                try (SchemaSnapshot snapshot = readDdlScripts(options, storeOptions)) {
+                    if (options.getSnapshotOutput() != null) {
+                        snapshot.save(new File(options.getSnapshotOutput()));
+                    }
+                    generator.generateFromSnapshot(
+                            snapshot,
+                            options.getOutputDir(),
+                            options.getFileType(),
+                            options.getTitle());
+                }
+                LOGGER.info("Documentation generated successfully!");
+                exitOnLintFailure(generator, options);
+                return;
+            }
+
+            // 从快照生成文档，不连接数据库
+            if (options.getSnapshot() != null) {
+                try (SchemaSnapshot snapshot = SchemaSnapshot.load(new File(options.getSnapshot()), storeOptions)) {
+                    generator.generateFromSnapshot(
+                            snapshot,
+                            options.getOutputDir(),
+                            options.getFileType(),
+                            options.getTitle());
+                }
+                LOGGER.info("Documentation generated successfully!");
+                exitOnLintFailure(generator, options);
+                return;
+            }
+
+            generator.setSnapshotOutput(options.getSnapshotOutput());
+
+            // 分布式抽取：工作进程领取单元直到协调者通知完成，协调者合并结果后生成文档
+            if (options.getWorker() != null) {
+                String token = System.getenv(DatabaseDocumentGenerator.CLUSTER_TOKEN_ENV);
+                if (token == null || token.isEmpty()) {
+                    throw new IllegalArgumentException("Environment variable " + DatabaseDocumentGenerator.CLUSTER_TOKEN_ENV
+                            + " must hold the coordinator's cluster token");
+                }
+                generator.runWorker(
+                        options.getDriverClassName(),
+                        options.getJdbcUrl(),
+                        options.getUsername(),
+                        options.getPassword(),
+                        options.getWorker(),
+                        token,
+                        options.getDesignatedTableNames(),
+                        options.getDesignatedTablePrefixes(),
+                        options.getDesignatedTableSuffixes(),
+                        options.getIgnoreTableNames(),
+                        options.getIgnoreTablePrefixes(),
+                        options.getIgnoreTableSuffixes());
+                return;
+            }
+
+            if (options.isCoordinatorMode()) {
+                generator.coordinate(
+                        options.getDriverClassName(),
+                        options.getJdbcUrl(),
+                        options.getUsername(),
+                        options.getPassword(),
+                        options.getSchemas().isEmpty() ? Collections.singletonList(options.getSchema()) : options.getSchemas(),
+                        options.getOutputDir(),
+                        options.getFileType(),
+                        options.getTitle(),
+                        getClusterOptions(options, args));
+                LOGGER.info("Documentation generated successfully!");
+                exitOnLintFailure(generator, options);
+                return;
+            }
+
+            // 监听模式：常驻运行，直到进程被终止
+            if (options.isWatch()) {
+                WatchOptions watchOptions = new WatchOptions();
+                watchOptions.setIntervalSeconds(options.getWatchInterval());
+                watchOptions.setMaxIntervalSeconds(options.getWatchMaxInterval());
+                watchOptions.setMarkerSql(options.getWatchMarkerSql());
+                generator.watch(
+                        options.getDriverClassName(),
+                        options.getJdbcUrl(),
+                        options.getUsername(),
+                        options.getPassword(),
+                        options.getSchema(),
+                        options.getOutputDir(),
+                        options.getFileType(),
+                        options.getTitle(),
+                        options.getVersion(),
+                        options.getDescription(),
+                        options.getDesignatedTableNames(),
+                        options.getDesignatedTablePrefixes(),
+                        options.getDesignatedTableSuffixes(),
+                        options.getIgnoreTableNames(),
+                        options.getIgnoreTablePrefixes(),
+                        options.getIgnoreTableSuffixes(),
+                        watchOptions);
+                return;
+            }
+
             generator.generate(
-                    options.get("driver"),
-                    options.get("url"),
-                    options.get("username"),
-                    options.get("password"),
-                    options.get("schema"),
-                    options.get("output"),
-                    options.get("type"),
-                    options.get("title"),
-                    options.get("version"),
-                    options.get("description")
+                    options.getDriverClassName(),
+                    options.getJdbcUrl(),
+                    options.getUsername(),
+                    options.getPassword(),
+                    options.getSchema(),
+                    options.getOutputDir(),
+                    options.getFileType(),
+                    options.getTitle(),
+                    options.getVersion(),
+                    options.getDescription(),
+                    options.getDesignatedTableNames(),
+                    options.getDesignatedTablePrefixes(),
+                    options.getDesignatedTableSuffixes(),
+                    options.getIgnoreTableNames(),
+                    options.getIgnoreTablePrefixes(),
+                    options.getIgnoreTableSuffixes()
             );
 
             LOGGER.info("Documentation generated successfully!");
+            exitOnLintFailure(generator, options);
         } catch (Exception e) {
             LOGGER.error("Error generating documentation: {}", e.getMessage(), e);
             System.exit(1);
         }
     }
     
+    /**
+     * 规范检查发现了不低于 --lint-fail-on 级别的问题时以退出码2结束，与运行出错（退出码1）区分
+     */
+    private static void exitOnLintFailure(DatabaseDocumentGenerator generator, CommandLineOptions options) {
+        if (generator.isLintFailed()) {
+            LOGGER.error("Lint found problems at or above {} level", options.getLintFailOn());
+            System.exit(2);
+        }
+    }
+    
+    /**
+     * 设置了 SOURCE_DATE_EPOCH 时文档中的日期固定为该时间，同样的元数据生成逐字节相同的文件
+     */
+    private static Clock getClock() {
+        String epoch = System.getenv("SOURCE_DATE_EPOCH");
+        if (epoch == null || epoch.trim().isEmpty()) {
+            return Clock.systemDefaultZone();
+        }
+        try {
+            return Clock.fixed(Instant.ofEpochSecond(Long.parseLong(epoch.trim())), ZoneOffset.UTC);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ignoring invalid SOURCE_DATE_EPOCH: {}", epoch);
+            return Clock.systemDefaultZone();
+        }
+    }
+
+    /**
+     * 协调者配置：口令取环境变量，未设置时随机生成；本机工作进程用当前的java命令和类路径启动，
+     * 参数沿用本次命令行，去掉只对协调者有意义的选项
+     */
+    private static ClusterOptions getClusterOptions(CommandLineOptions options, String[] args) {
+        ClusterOptions clusterOptions = new ClusterOptions();
+        clusterOptions.setPort(options.getCoordinatorPort());
+        clusterOptions.setLocalWorkers(options.getLocalWorkers());
+        clusterOptions.setUnitSize(options.getUnitSize());
+        clusterOptions.setMaxAttempts(options.getRetries() + 1);
+        String token = System.getenv(DatabaseDocumentGenerator.CLUSTER_TOKEN_ENV);
+        if (token == null || token.isEmpty()) {
+            byte[] bytes = new byte[16];
+            new SecureRandom().nextBytes(bytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : bytes) {
+                hex.append(String.format("%02x", b));
+            }
+            token = hex.toString();
+            if (options.getLocalWorkers() == 0) {
+                LOGGER.warn("{} is not set, remote workers cannot join; set it on the coordinator and every worker",
+                        DatabaseDocumentGenerator.CLUSTER_TOKEN_ENV);
+            }
+        }
+        clusterOptions.setToken(token);
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(KnowYourDB.class.getName());
+        Set<String> coordinatorOnly = new HashSet<>(Arrays.asList("-co", "--coordinator", "-lw", "--local-workers",
+                "-sch", "--schemas", "-us", "--unit-size", "-so", "--snapshot-out", "-cap", "--capture"));
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            int eq = arg.indexOf('=');
+            if (eq > 0 && coordinatorOnly.contains(arg.substring(0, eq))) {
+                continue;
+            }
+            if (coordinatorOnly.contains(arg)) {
+                // 跳过选项值（--schemas 可以有多个值）
+                while (i + 1 < args.length && !args[i + 1].startsWith("-")) {
+                    i++;
+                }
+                continue;
+            }
+            command.add(arg);
+        }
+        clusterOptions.setWorkerCommand(command);
+        return clusterOptions;
+    }
+
+    private static ModelStoreOptions getModelStoreOptions(CommandLineOptions options) {
+        ModelStoreOptions defaults = ModelStoreOptions.defaults();
+        long heapBytes = options.getModelHeapMb() != null ? options.getModelHeapMb() * 1024L * 1024L : defaults.getHeapBytes();
+        File spillDir = options.getSpillDir() != null ? new File(options.getSpillDir()) : defaults.getDirectory();
+        return new ModelStoreOptions(heapBytes, spillDir);
+    }
+
+    private static void runDiff(DatabaseDocumentGenerator generator, CommandLineOptions options,
+                                ModelStoreOptions storeOptions) throws IOException {
+        // 基准：快照文件或另一个数据库
+        SchemaSnapshot baseline;
+        if (options.getDiffBaseline() != null) {
+            baseline = SchemaSnapshot.load(new File(options.getDiffBaseline()), storeOptions);
+        } else {
+            baseline = generator.extractSnapshot(
+                    options.getDriverClassName(),
+                    options.getDiffUrl(),
+                    options.getDiffUsername(),
+                    options.getDiffPassword(),
+                    options.getDiffSchema() != null ? options.getDiffSchema() : options.getSchema(),
+                    options.getDesignatedTableNames(),
+                    options.getDesignatedTablePrefixes(),
+                    options.getDesignatedTableSuffixes(),
+                    options.getIgnoreTableNames(),
+                    options.getIgnoreTablePrefixes(),
+                    options.getIgnoreTableSuffixes());
+        }
+
+        // 目标：快照文件或当前数据库
+        SchemaSnapshot target;
+        if (options.getSnapshot() != null) {
+            target = SchemaSnapshot.load(new File(options.getSnapshot()), storeOptions);
+        } else {
+            target = generator.extractSnapshot(
+                    options.getDriverClassName(),
+                    options.getJdbcUrl(),
+                    options.getUsername(),
+                    options.getPassword(),
+                    options.getSchema(),
+                    options.getDesignatedTableNames(),
+                    options.getDesignatedTablePrefixes(),
+                    options.getDesignatedTableSuffixes(),
+                    options.getIgnoreTableNames(),
+                    options.getIgnoreTablePrefixes(),
+                    options.getIgnoreTableSuffixes());
+        }
+        try {
+            if (options.getSnapshotOutput() != null) {
+                target.save(new File(options.getSnapshotOutput()));
+            }
+
+            SchemaDiff diff = new SchemaDiffer().diff(baseline, target);
+            new DiffReportWriter().writeAll(options.getOutputDir(), options.getTitle() + "-diff", diff);
+        } finally {
+            baseline.close();
+            target.close();
+        }
+        LOGGER.info("Diff report generated successfully!");
+    }
+
+    /**
+     * 按顺序读取DDL脚本，生成与数据库抽取结构相同的快照
+     * 未指定方言时根据第一个脚本判断；未指定schema时以第一个脚本的文件名作为数据库名称
+     */
+    private static SchemaSnapshot readDdlScripts(CommandLineOptions options, ModelStoreOptions storeOptions)
+            throws IOException {
+        Charset charset = Charset.forName(options.getScriptEncoding());
+        List<File> files = new ArrayList<>();
+        for (String path : options.getFromDdl()) {
+            File file = new File(path);
+            if (!file.isFile()) {
+                throw new IllegalArgumentException("DDL script not found: " + path);
+            }
+            files.add(file);
+        }
+        DatabaseDialect dialect = options.getFromDdlDialect() != null
+                ? DatabaseDialect.valueOf(options.getFromDdlDialect())
+                : DdlSchemaReader.detectDialect(files.get(0), charset);
+        LOGGER.info("Reading {} DDL script(s) as {}", files.size(), dialect);
+
+        DdlSchemaReader reader = new DdlSchemaReader(dialect, options.getSchema(), options.isDdl());
+        for (File file : files) {
+            reader.read(file, charset);
+        }
+        String dbName = options.getSchema();
+        if (dbName == null) {
+            String fileName = files.get(0).getName();
+            int dot = fileName.lastIndexOf('.');
+            dbName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        }
+        return reader.toSnapshot(dbName, storeOptions);
+    }
+
+    private static void runServer(DatabaseDocumentGenerator generator, CommandLineOptions options,
+                                  ModelStoreOptions storeOptions) throws IOException {
+        SchemaSnapshot snapshot;
+        if (options.getSnapshot() != null) {
+            snapshot = SchemaSnapshot.load(new File(options.getSnapshot()), storeOptions);
+        } else {
+            generator.setSnapshotOutput(options.getSnapshotOutput());
+            snapshot = generator.extractSnapshot(
+                    options.getDriverClassName(),
+                    options.getJdbcUrl(),
+                    options.getUsername(),
+                    options.getPassword(),
+                    options.getSchema(),
+                    options.getDesignatedTableNames(),
+                    options.getDesignatedTablePrefixes(),
+                    options.getDesignatedTableSuffixes(),
+                    options.getIgnoreTableNames(),
+                    options.getIgnoreTablePrefixes(),
+                    options.getIgnoreTableSuffixes());
+        }
+
+        DocumentServer server = new DocumentServer(snapshot, options.getServeCacheMb() * 1024L * 1024L, options.getThreads());
+        server.start(options.getPort());
+        // 服务线程会保持进程运行，直到进程被终止
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+    }
+
     private static void launchGUI() {
         try {
             // Set system look and feel
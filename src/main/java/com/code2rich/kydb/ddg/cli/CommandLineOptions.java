@@ -0,0 +1,690 @@
+package com.code2rich.kydb.ddg.cli;
+
+import com.code2rich.kydb.ddg.DatabaseDocumentGenerator;
+import com.code2rich.kydb.ddg.export.ExportRecord;
+import com.code2rich.kydb.ddg.lint.LintReport;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectType;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CommandLineOptions {
+    private String driverClassName;
+    private String jdbcUrl;
+    private String username;
+    private String password;
+    private String outputDir;
+    private String schema;
+    private String fileType;
+    private String title;
+    private String version;
+    private String description;
+    private List<String> designatedTableNames = new ArrayList<>();
+    private List<String> designatedTablePrefixes = new ArrayList<>();
+    private List<String> designatedTableSuffixes = new ArrayList<>();
+    private List<String> ignoreTableNames = new ArrayList<>();
+    private List<String> ignoreTablePrefixes = new ArrayList<>();
+    private List<String> ignoreTableSuffixes = new ArrayList<>();
+    private boolean profile;
+    private int profileSampleRows = 10000;
+    private int profileTableTimeout = 30;
+    private int profileTimeout = 600;
+    private int threads = 4;
+    private String snapshotOutput;
+    private String snapshot;
+    private List<String> fromDdl = new ArrayList<>();
+    private String fromDdlDialect;
+    private String diffBaseline;
+    private String diffUrl;
+    private String diffUsername;
+    private String diffPassword;
+    private String diffSchema;
+    private boolean watch;
+    private int watchInterval = 60;
+    private int watchMaxInterval = 600;
+    private String watchMarkerSql;
+    private boolean serve;
+    private int port = 8080;
+    private int serveCacheMb = 64;
+    private List<String> scripts = new ArrayList<>();
+    private int batchSize = 500;
+    private int commitInterval = 5000;
+    private boolean parallelDdl;
+    private boolean continueOnError;
+    private String scriptEncoding = "UTF-8";
+    private List<String> driverPath = new ArrayList<>();
+    private String driverProfile;
+    private Map<String, String> jdbcProperties = new LinkedHashMap<>();
+    private int networkTimeout = 600;
+    private int tableTimeout = 60;
+    private int retries = 2;
+    private int breakerThreshold = 5;
+    private double maxQps;
+    private long latencyTarget = 500;
+    private Set<SchemaObjectType> objectTypes = EnumSet.allOf(SchemaObjectType.class);
+    private ExportRecord exportRecord;
+    private Integer modelHeapMb;
+    private String spillDir;
+    private boolean forceRewrite;
+    private String captureFile;
+    private boolean lint;
+    private LintReport.Severity lintFailOn = LintReport.Severity.ERROR;
+    private Set<String> lintExcludedRules = new HashSet<>();
+    private int lintVarcharLimit = 4000;
+    private boolean ddl;
+    private boolean ddlScript;
+    private Integer coordinatorPort;
+    private int localWorkers;
+    private List<String> schemas = new ArrayList<>();
+    private int unitSize = 2000;
+    private String worker;
+    private boolean help;
+    private boolean hasErrors;
+
+    public String getDriverClassName() {
+        return driverClassName;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public void setJdbcUrl(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getOutputDir() {
+        return outputDir;
+    }
+
+    public void setOutputDir(String outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public void setSchema(String schema) {
+        this.schema = schema;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public void setFileType(String fileType) {
+        this.fileType = fileType;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<String> getDesignatedTableNames() {
+        return designatedTableNames;
+    }
+
+    public void setDesignatedTableNames(List<String> designatedTableNames) {
+        this.designatedTableNames = designatedTableNames;
+    }
+
+    public List<String> getDesignatedTablePrefixes() {
+        return designatedTablePrefixes;
+    }
+
+    public void setDesignatedTablePrefixes(List<String> designatedTablePrefixes) {
+        this.designatedTablePrefixes = designatedTablePrefixes;
+    }
+
+    public List<String> getDesignatedTableSuffixes() {
+        return designatedTableSuffixes;
+    }
+
+    public void setDesignatedTableSuffixes(List<String> designatedTableSuffixes) {
+        this.designatedTableSuffixes = designatedTableSuffixes;
+    }
+
+    public List<String> getIgnoreTableNames() {
+        return ignoreTableNames;
+    }
+
+    public void setIgnoreTableNames(List<String> ignoreTableNames) {
+        this.ignoreTableNames = ignoreTableNames;
+    }
+
+    public List<String> getIgnoreTablePrefixes() {
+        return ignoreTablePrefixes;
+    }
+
+    public void setIgnoreTablePrefixes(List<String> ignoreTablePrefixes) {
+        this.ignoreTablePrefixes = ignoreTablePrefixes;
+    }
+
+    public List<String> getIgnoreTableSuffixes() {
+        return ignoreTableSuffixes;
+    }
+
+    public void setIgnoreTableSuffixes(List<String> ignoreTableSuffixes) {
+        this.ignoreTableSuffixes = ignoreTableSuffixes;
+    }
+
+    public boolean isHelp() {
+        return help;
+    }
+
+    public void setHelp(boolean help) {
+        this.help = help;
+    }
+
+    public boolean isHasErrors() {
+        return hasErrors;
+    }
+
+    public void setHasErrors(boolean hasErrors) {
+        this.hasErrors = hasErrors;
+    }
+
+    public boolean isProfile() {
+        return profile;
+    }
+
+    public void setProfile(boolean profile) {
+        this.profile = profile;
+    }
+
+    public int getProfileSampleRows() {
+        return profileSampleRows;
+    }
+
+    public void setProfileSampleRows(int profileSampleRows) {
+        this.profileSampleRows = profileSampleRows;
+    }
+
+    public int getProfileTableTimeout() {
+        return profileTableTimeout;
+    }
+
+    public void setProfileTableTimeout(int profileTableTimeout) {
+        this.profileTableTimeout = profileTableTimeout;
+    }
+
+    public int getProfileTimeout() {
+        return profileTimeout;
+    }
+
+    public void setProfileTimeout(int profileTimeout) {
+        this.profileTimeout = profileTimeout;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public String getSnapshotOutput() {
+        return snapshotOutput;
+    }
+
+    public void setSnapshotOutput(String snapshotOutput) {
+        this.snapshotOutput = snapshotOutput;
+    }
+
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(String snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public List<String> getFromDdl() {
+        return fromDdl;
+    }
+
+    public void setFromDdl(List<String> fromDdl) {
+        this.fromDdl = fromDdl;
+    }
+
+    /**
+     * DDL脚本的方言（DatabaseDialect 的名称），为空时根据脚本内容判断
+     */
+    public String getFromDdlDialect() {
+        return fromDdlDialect;
+    }
+
+    public void setFromDdlDialect(String fromDdlDialect) {
+        this.fromDdlDialect = fromDdlDialect;
+    }
+
+    public String getDiffBaseline() {
+        return diffBaseline;
+    }
+
+    public void setDiffBaseline(String diffBaseline) {
+        this.diffBaseline = diffBaseline;
+    }
+
+    public String getDiffUrl() {
+        return diffUrl;
+    }
+
+    public void setDiffUrl(String diffUrl) {
+        this.diffUrl = diffUrl;
+    }
+
+    public String getDiffUsername() {
+        return diffUsername;
+    }
+
+    public void setDiffUsername(String diffUsername) {
+        this.diffUsername = diffUsername;
+    }
+
+    public String getDiffPassword() {
+        return diffPassword;
+    }
+
+    public void setDiffPassword(String diffPassword) {
+        this.diffPassword = diffPassword;
+    }
+
+    public String getDiffSchema() {
+        return diffSchema;
+    }
+
+    public void setDiffSchema(String diffSchema) {
+        this.diffSchema = diffSchema;
+    }
+
+    public boolean isWatch() {
+        return watch;
+    }
+
+    public void setWatch(boolean watch) {
+        this.watch = watch;
+    }
+
+    public int getWatchInterval() {
+        return watchInterval;
+    }
+
+    public void setWatchInterval(int watchInterval) {
+        this.watchInterval = watchInterval;
+    }
+
+    public int getWatchMaxInterval() {
+        return watchMaxInterval;
+    }
+
+    public void setWatchMaxInterval(int watchMaxInterval) {
+        this.watchMaxInterval = watchMaxInterval;
+    }
+
+    public String getWatchMarkerSql() {
+        return watchMarkerSql;
+    }
+
+    public void setWatchMarkerSql(String watchMarkerSql) {
+        this.watchMarkerSql = watchMarkerSql;
+    }
+
+    public boolean isServe() {
+        return serve;
+    }
+
+    public void setServe(boolean serve) {
+        this.serve = serve;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getServeCacheMb() {
+        return serveCacheMb;
+    }
+
+    public void setServeCacheMb(int serveCacheMb) {
+        this.serveCacheMb = serveCacheMb;
+    }
+
+    public List<String> getScripts() {
+        return scripts;
+    }
+
+    public void setScripts(List<String> scripts) {
+        this.scripts = scripts;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(int commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    public boolean isParallelDdl() {
+        return parallelDdl;
+    }
+
+    public void setParallelDdl(boolean parallelDdl) {
+        this.parallelDdl = parallelDdl;
+    }
+
+    public boolean isContinueOnError() {
+        return continueOnError;
+    }
+
+    public void setContinueOnError(boolean continueOnError) {
+        this.continueOnError = continueOnError;
+    }
+
+    public String getScriptEncoding() {
+        return scriptEncoding;
+    }
+
+    public void setScriptEncoding(String scriptEncoding) {
+        this.scriptEncoding = scriptEncoding;
+    }
+
+    /**
+     * JDBC驱动jar或驱动目录，为空时使用默认驱动目录
+     */
+    public List<String> getDriverPath() {
+        return driverPath;
+    }
+
+    public void setDriverPath(List<String> driverPath) {
+        this.driverPath = driverPath;
+    }
+
+    public String getDriverProfile() {
+        return driverProfile;
+    }
+
+    public void setDriverProfile(String driverProfile) {
+        this.driverProfile = driverProfile;
+    }
+
+    public Map<String, String> getJdbcProperties() {
+        return jdbcProperties;
+    }
+
+    public void setJdbcProperties(Map<String, String> jdbcProperties) {
+        this.jdbcProperties = jdbcProperties;
+    }
+
+    public int getNetworkTimeout() {
+        return networkTimeout;
+    }
+
+    public void setNetworkTimeout(int networkTimeout) {
+        this.networkTimeout = networkTimeout;
+    }
+
+    public int getTableTimeout() {
+        return tableTimeout;
+    }
+
+    public void setTableTimeout(int tableTimeout) {
+        this.tableTimeout = tableTimeout;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public int getBreakerThreshold() {
+        return breakerThreshold;
+    }
+
+    public void setBreakerThreshold(int breakerThreshold) {
+        this.breakerThreshold = breakerThreshold;
+    }
+
+    public double getMaxQps() {
+        return maxQps;
+    }
+
+    public void setMaxQps(double maxQps) {
+        this.maxQps = maxQps;
+    }
+
+    public long getLatencyTarget() {
+        return latencyTarget;
+    }
+
+    public void setLatencyTarget(long latencyTarget) {
+        this.latencyTarget = latencyTarget;
+    }
+
+    public Set<SchemaObjectType> getObjectTypes() {
+        return objectTypes;
+    }
+
+    public void setObjectTypes(Set<SchemaObjectType> objectTypes) {
+        this.objectTypes = objectTypes;
+    }
+
+    public ExportRecord getExportRecord() {
+        return exportRecord;
+    }
+
+    public void setExportRecord(ExportRecord exportRecord) {
+        this.exportRecord = exportRecord;
+    }
+
+    public Integer getModelHeapMb() {
+        return modelHeapMb;
+    }
+
+    public void setModelHeapMb(Integer modelHeapMb) {
+        this.modelHeapMb = modelHeapMb;
+    }
+
+    public String getSpillDir() {
+        return spillDir;
+    }
+
+    public void setSpillDir(String spillDir) {
+        this.spillDir = spillDir;
+    }
+
+    public boolean isForceRewrite() {
+        return forceRewrite;
+    }
+
+    public void setForceRewrite(boolean forceRewrite) {
+        this.forceRewrite = forceRewrite;
+    }
+
+    public String getCaptureFile() {
+        return captureFile;
+    }
+
+    public void setCaptureFile(String captureFile) {
+        this.captureFile = captureFile;
+    }
+
+    public boolean isLint() {
+        return lint;
+    }
+
+    public void setLint(boolean lint) {
+        this.lint = lint;
+    }
+
+    public LintReport.Severity getLintFailOn() {
+        return lintFailOn;
+    }
+
+    public void setLintFailOn(LintReport.Severity lintFailOn) {
+        this.lintFailOn = lintFailOn;
+    }
+
+    public Set<String> getLintExcludedRules() {
+        return lintExcludedRules;
+    }
+
+    public void setLintExcludedRules(Set<String> lintExcludedRules) {
+        this.lintExcludedRules = lintExcludedRules;
+    }
+
+    public int getLintVarcharLimit() {
+        return lintVarcharLimit;
+    }
+
+    public void setLintVarcharLimit(int lintVarcharLimit) {
+        this.lintVarcharLimit = lintVarcharLimit;
+    }
+
+    public boolean isDdl() {
+        return ddl;
+    }
+
+    public void setDdl(boolean ddl) {
+        this.ddl = ddl;
+    }
+
+    public boolean isDdlScript() {
+        return ddlScript;
+    }
+
+    public void setDdlScript(boolean ddlScript) {
+        this.ddlScript = ddlScript;
+    }
+
+    public Integer getCoordinatorPort() {
+        return coordinatorPort;
+    }
+
+    public void setCoordinatorPort(Integer coordinatorPort) {
+        this.coordinatorPort = coordinatorPort;
+    }
+
+    public int getLocalWorkers() {
+        return localWorkers;
+    }
+
+    public void setLocalWorkers(int localWorkers) {
+        this.localWorkers = localWorkers;
+    }
+
+    public List<String> getSchemas() {
+        return schemas;
+    }
+
+    public void setSchemas(List<String> schemas) {
+        this.schemas = schemas;
+    }
+
+    public int getUnitSize() {
+        return unitSize;
+    }
+
+    public void setUnitSize(int unitSize) {
+        this.unitSize = unitSize;
+    }
+
+    public String getWorker() {
+        return worker;
+    }
+
+    public void setWorker(String worker) {
+        this.worker = worker;
+    }
+
+    /**
+     * 是否为分布式抽取的协调者
+     */
+    public boolean isCoordinatorMode() {
+        return coordinatorPort != null;
+    }
+
+    /**
+     * 是否为脚本执行模式
+     */
+    public boolean isScriptMode() {
+        return !scripts.isEmpty();
+    }
+
+    /**
+     * 是否将导出结果写到标准输出
+     */
+    public boolean isStandardOutput() {
+        return DatabaseDocumentGenerator.STANDARD_OUTPUT.equals(outputDir);
+    }
+
+    /**
+     * 是否为差异比较模式
+     */
+    public boolean isDiffMode() {
+        return diffBaseline != null || diffUrl != null;
+    }
+}
@@ -1,11 +1,17 @@
 package com.code2rich.kydb.ddg.cli;
 
+import com.code2rich.kydb.ddg.datasource.DriverProfile;
+import com.code2rich.kydb.ddg.export.ExportFormat;
+import com.code2rich.kydb.ddg.export.ExportRecord;
+import com.code2rich.kydb.ddg.lint.LintReport;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectType;
 import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Locale;
 
 public class CommandLineParser {
     private static final Logger LOGGER = LoggerFactory.getLogger(CommandLineParser.class);
@@ -15,16 +21,16 @@ public class CommandLineParser {
     public CommandLineParser() {
         options = new Options();
         
-        // 必选参数
-        options.addRequiredOption("d", "driver", true, "数据库驱动类名");
-        options.addRequiredOption("u", "url", true, "JDBC URL");
-        options.addRequiredOption("n", "username", true, "数据库用户名");
-        options.addRequiredOption("p", "password", true, "数据库密码");
-        options.addRequiredOption("o", "output", true, "输出目录路径");
+        // 必选参数（使用 --snapshot 作为数据源时，连接参数可以省略；执行脚本时不需要输出目录）
+        options.addOption("d", "driver", true, "数据库驱动类名");
+        options.addOption("u", "url", true, "JDBC URL");
+        options.addOption("n", "username", true, "数据库用户名");
+        options.addOption("p", "password", true, "数据库密码");
+        options.addOption("o", "output", true, "输出目录路径，JSONL/CSV格式可用 - 表示标准输出");
         
         // 可选参数
         options.addOption("s", "schema", true, "数据库schema名称");
-        options.addOption("t", "type", true, "输出文件类型 (HTML, WORD, MD)");
+        options.addOption("t", "type", true, "输出文件类型 (HTML, WORD, MD, EXCEL, JSONL, CSV)");
         options.addOption("i", "title", true, "文档标题");
         options.addOption("v", "version", true, "文档版本");
         options.addOption("e", "description", true, "文档描述");
@@ -37,6 +43,109 @@ public class CommandLineParser {
         options.addOption(Option.builder("itp").longOpt("ignore-table-prefixes").hasArgs().desc("忽略表前缀列表").build());
         options.addOption(Option.builder("its").longOpt("ignore-table-suffixes").hasArgs().desc("忽略表后缀列表").build());
 
+        // 列画像选项
+        options.addOption(Option.builder("pf").longOpt("profile").desc("启用基于采样的列画像（仅Excel格式）").build());
+        options.addOption(Option.builder("psr").longOpt("profile-sample-rows").hasArg().desc("每张表采样的最大行数，默认10000").build());
+        options.addOption(Option.builder("ptt").longOpt("profile-table-timeout").hasArg().desc("单表画像时间预算（秒），默认30").build());
+        options.addOption(Option.builder("pto").longOpt("profile-timeout").hasArg().desc("列画像整体时间预算（秒），默认600").build());
+        options.addOption(Option.builder("th").longOpt("threads").hasArg().desc("并行线程数，默认4").build());
+
+        // 快照与差异比较选项
+        options.addOption(Option.builder("so").longOpt("snapshot-out").hasArg().desc("将抽取的元数据保存为快照文件").build());
+        options.addOption(Option.builder("sn").longOpt("snapshot").hasArg().desc("使用快照文件代替数据库连接作为数据源").build());
+        options.addOption(Option.builder("fd").longOpt("from-ddl").hasArgs().valueSeparator(',')
+                .desc("从DDL脚本（如 mysqldump --no-data、pg_dump -s 的输出）生成文档，不连接数据库，多个文件以逗号分隔").build());
+        options.addOption(Option.builder("fdd").longOpt("from-ddl-dialect").hasArg()
+                .desc("DDL脚本的方言：mysql、mariadb、postgresql、oracle、sqlserver，默认根据脚本内容判断").build());
+        options.addOption(Option.builder("df").longOpt("diff").hasArg().desc("差异比较：基准快照文件").build());
+        options.addOption(Option.builder("du").longOpt("diff-url").hasArg().desc("差异比较：基准数据库JDBC URL（与 --driver 相同驱动）").build());
+        options.addOption(Option.builder("dn").longOpt("diff-username").hasArg().desc("差异比较：基准数据库用户名").build());
+        options.addOption(Option.builder("dp").longOpt("diff-password").hasArg().desc("差异比较：基准数据库密码").build());
+        options.addOption(Option.builder("ds").longOpt("diff-schema").hasArg().desc("差异比较：基准数据库schema，默认与 --schema 相同").build());
+
+        // 监听模式选项
+        options.addOption(Option.builder("w").longOpt("watch").desc("监听模式：常驻运行，数据库结构变化时自动重新生成文档").build());
+        options.addOption(Option.builder("wi").longOpt("watch-interval").hasArg().desc("监听模式轮询间隔（秒），默认60").build());
+        options.addOption(Option.builder("wm").longOpt("watch-max-interval").hasArg().desc("没有变化时退避的最大轮询间隔（秒），默认600").build());
+        options.addOption(Option.builder("wq").longOpt("watch-marker-sql").hasArg().desc("自定义变更标记查询，返回(表名, 标记)两列").build());
+
+        // 服务模式选项
+        options.addOption(Option.builder("sv").longOpt("serve").desc("服务模式：启动本地HTTP服务，按需渲染每张表的页面").build());
+        options.addOption(Option.builder("pt").longOpt("port").hasArg().desc("服务模式监听端口，默认8080").build());
+        options.addOption(Option.builder("scm").longOpt("serve-cache-mb").hasArg().desc("服务模式页面缓存大小（MB），默认64").build());
+
+        // 脚本执行选项
+        options.addOption(Option.builder("sc").longOpt("script").hasArgs().desc("按顺序执行SQL脚本文件，不生成文档").build());
+        options.addOption(Option.builder("bs").longOpt("batch-size").hasArg().desc("脚本执行：每个JDBC批次的DML语句数，默认500").build());
+        options.addOption(Option.builder("ci").longOpt("commit-interval").hasArg().desc("脚本执行：每多少条DML提交一次，默认5000").build());
+        options.addOption(Option.builder("pd").longOpt("parallel-ddl").desc("脚本执行：按目标表并行执行DDL，线程数由 --threads 指定").build());
+        options.addOption(Option.builder("coe").longOpt("continue-on-error").desc("脚本执行：出错时记录日志并继续").build());
+        options.addOption(Option.builder("se").longOpt("script-encoding").hasArg().desc("脚本执行和 --from-ddl：脚本文件编码，默认UTF-8").build());
+
+        // 连接调优选项
+        options.addOption(Option.builder("drp").longOpt("driver-path").hasArgs().valueSeparator(',')
+                .desc("JDBC驱动jar或驱动目录，多个以逗号分隔，默认为当前目录或程序目录下的 drivers 目录").build());
+        options.addOption(Option.builder("dpf").longOpt("driver-profile").hasArg()
+                .desc("驱动调优配置 (" + String.join(", ", DriverProfile.names()) + ")，默认按驱动自动识别").build());
+        options.addOption(Option.builder("jp").longOpt("jdbc-property").hasArgs().desc("额外的驱动属性 key=value，覆盖调优配置").build());
+        options.addOption(Option.builder("nt").longOpt("network-timeout").hasArg().desc("网络读超时（秒），默认600，0表示不设置").build());
+
+        // 抽取容错选项
+        options.addOption(Option.builder("tto").longOpt("table-timeout").hasArg().desc("单次元数据查询超时（秒），超时的表记录为错误，默认60，0表示不限制").build());
+        options.addOption(Option.builder("rty").longOpt("retries").hasArg().desc("元数据查询遇到暂时性错误时的重试次数，默认2").build());
+        options.addOption(Option.builder("bkt").longOpt("breaker-threshold").hasArg().desc("连续多少次暂时性错误后暂停访问数据库（熔断），默认5").build());
+        options.addOption(Option.builder("mqps").longOpt("max-qps").hasArg().desc("每秒最多的元数据查询数，默认不限制").build());
+        options.addOption(Option.builder("lt").longOpt("latency-target").hasArg()
+                .desc("元数据查询的p95目标延迟（毫秒），超过时自动降低并发，空闲时逐步提高到--threads，默认500，0表示固定并发").build());
+        options.addOption(Option.builder("ot").longOpt("object-types").hasArgs()
+                .desc("抽取的表以外对象 (VIEW, MATERIALIZED_VIEW, SEQUENCE, ROUTINE, TRIGGER)，默认全部，NONE表示不抽取").build());
+
+        // 元数据导出选项
+        options.addOption(Option.builder("rec").longOpt("record").hasArg()
+                .desc("JSONL/CSV导出的记录粒度 (TABLE, COLUMN)，默认JSONL按表、CSV按列").build());
+
+        // 表模型存放选项
+        options.addOption(Option.builder("mhm").longOpt("model-heap-mb").hasArg()
+                .desc("表模型在堆内保留的上限（MB），超出后溢出到磁盘，默认最大堆的1/4，0表示全部放在堆内").build());
+        options.addOption(Option.builder("sd").longOpt("spill-dir").hasArg().desc("表模型溢出文件目录，默认系统临时目录").build());
+
+        // 输出选项
+        options.addOption(Option.builder("fr").longOpt("force-rewrite")
+                .desc("总是重写输出文件，默认内容与输出目录清单(.kydb-manifest)中的哈希相同时保留原文件").build());
+
+        // 录制选项
+        options.addOption(Option.builder("cap").longOpt("capture").hasArg()
+                .desc("把本次运行的元数据调用和目录查询结果录制到文件，之后可用 jdbc:kydb-replay:<文件> 离线重放").build());
+
+        // 规范检查选项
+        options.addOption(Option.builder("lint").longOpt("lint")
+                .desc("规范检查：缺少主键、缺少注释、可为空的外键列、过长的VARCHAR、同名列类型不一致等，"
+                        + "Excel文档增加\"规范检查\"页，并在输出目录生成 <标题>-lint.json").build());
+        options.addOption(Option.builder("lfo").longOpt("lint-fail-on").hasArg()
+                .desc("有不低于该级别的问题时以退出码2结束 (ERROR, WARNING, INFO, NONE)，默认ERROR").build());
+        options.addOption(Option.builder("lx").longOpt("lint-exclude").hasArgs().valueSeparator(',')
+                .desc("不执行的检查规则，逗号分隔，如 missing-column-comment").build());
+        options.addOption(Option.builder("lvl").longOpt("lint-varchar-limit").hasArg()
+                .desc("VARCHAR列的长度上限，超过时报告，默认4000").build());
+
+        // 建表语句选项
+        options.addOption(Option.builder("ddl").longOpt("ddl")
+                .desc("为每个表生成建表语句，加入Excel表页和HTML/Markdown文档：Oracle按批调用DBMS_METADATA，其他数据库根据元数据生成").build());
+        options.addOption(Option.builder("ddls").longOpt("ddl-script")
+                .desc("另外把所有表的建表语句写到输出目录的 <标题>-schema.sql，隐含 --ddl").build());
+
+        // 分布式抽取选项
+        options.addOption(Option.builder("co").longOpt("coordinator").hasArg()
+                .desc("作为协调者监听该端口，按schema和表名拆分工作单元分发给工作进程，0表示任选空闲端口").build());
+        options.addOption(Option.builder("lw").longOpt("local-workers").hasArg()
+                .desc("协调者在本机启动的工作进程数，默认0（只等待其他机器上的工作进程连接）").build());
+        options.addOption(Option.builder("sch").longOpt("schemas").hasArgs().valueSeparator(',')
+                .desc("协调者抽取的schema列表，逗号分隔，每个schema生成一份文档，默认-s指定的schema").build());
+        options.addOption(Option.builder("us").longOpt("unit-size").hasArg()
+                .desc("表数超过该值的schema按表名拆成多个工作单元，默认2000").build());
+        options.addOption(Option.builder("wk").longOpt("worker").hasArg()
+                .desc("作为工作进程连接协调者 host:port，口令从环境变量 KYDB_CLUSTER_TOKEN 读取").build());
+
         // 帮助选项
         options.addOption("h", "help", false, "显示帮助信息");
     }
@@ -56,6 +165,20 @@ public class CommandLineParser {
                 return result;
             }
             
+            // 没有快照或DDL脚本数据源时必须提供连接参数，监听模式和脚本执行始终需要连接数据库
+            boolean offline = cmd.hasOption("sn") || cmd.hasOption("fd");
+            if (!offline || cmd.hasOption("w") || cmd.hasOption("sc")) {
+                for (String required : new String[] { "d", "u", "n", "p" }) {
+                    if (!cmd.hasOption(required)) {
+                        throw new MissingOptionException("Missing required option: " + required);
+                    }
+                }
+            }
+            
+            if (!cmd.hasOption("o") && !cmd.hasOption("sc") && !cmd.hasOption("wk")) {
+                throw new MissingOptionException("Missing required option: o");
+            }
+            
             // 解析必选参数
             result.setDriverClassName(cmd.getOptionValue("d"));
             result.setJdbcUrl(cmd.getOptionValue("u"));
@@ -117,7 +240,187 @@ public class CommandLineParser {
                 result.setIgnoreTableSuffixes(Arrays.asList(cmd.getOptionValues("its")));
             }
             
-        } catch (ParseException e) {
+            // 解析列画像选项
+            result.setProfile(cmd.hasOption("pf"));
+            if (cmd.hasOption("psr")) {
+                result.setProfileSampleRows(Integer.parseInt(cmd.getOptionValue("psr")));
+            }
+            
+            if (cmd.hasOption("ptt")) {
+                result.setProfileTableTimeout(Integer.parseInt(cmd.getOptionValue("ptt")));
+            }
+            
+            if (cmd.hasOption("pto")) {
+                result.setProfileTimeout(Integer.parseInt(cmd.getOptionValue("pto")));
+            }
+            
+            if (cmd.hasOption("th")) {
+                result.setThreads(Integer.parseInt(cmd.getOptionValue("th")));
+            }
+            
+            // 解析快照与差异比较选项
+            result.setSnapshotOutput(cmd.getOptionValue("so"));
+            result.setSnapshot(cmd.getOptionValue("sn"));
+            if (cmd.hasOption("fd")) {
+                result.setFromDdl(Arrays.asList(cmd.getOptionValues("fd")));
+            }
+            if (cmd.hasOption("fdd")) {
+                String dialect = cmd.getOptionValue("fdd").toUpperCase(Locale.ROOT);
+                if (!Arrays.asList("MYSQL", "MARIADB", "POSTGRESQL", "ORACLE", "SQLSERVER").contains(dialect)) {
+                    throw new ParseException("Unsupported DDL dialect: " + cmd.getOptionValue("fdd"));
+                }
+                result.setFromDdlDialect(dialect);
+            }
+            result.setDiffBaseline(cmd.getOptionValue("df"));
+            result.setDiffUrl(cmd.getOptionValue("du"));
+            result.setDiffUsername(cmd.getOptionValue("dn"));
+            result.setDiffPassword(cmd.getOptionValue("dp"));
+            result.setDiffSchema(cmd.getOptionValue("ds"));
+            
+            // 解析监听模式选项
+            result.setWatch(cmd.hasOption("w"));
+            if (cmd.hasOption("wi")) {
+                result.setWatchInterval(Integer.parseInt(cmd.getOptionValue("wi")));
+            }
+            
+            if (cmd.hasOption("wm")) {
+                result.setWatchMaxInterval(Integer.parseInt(cmd.getOptionValue("wm")));
+            }
+            result.setWatchMarkerSql(cmd.getOptionValue("wq"));
+            
+            // 解析脚本执行选项
+            if (cmd.hasOption("sc")) {
+                result.setScripts(Arrays.asList(cmd.getOptionValues("sc")));
+            }
+            
+            if (cmd.hasOption("bs")) {
+                result.setBatchSize(Integer.parseInt(cmd.getOptionValue("bs")));
+            }
+            
+            if (cmd.hasOption("ci")) {
+                result.setCommitInterval(Integer.parseInt(cmd.getOptionValue("ci")));
+            }
+            result.setParallelDdl(cmd.hasOption("pd"));
+            result.setContinueOnError(cmd.hasOption("coe"));
+            if (cmd.hasOption("se")) {
+                result.setScriptEncoding(cmd.getOptionValue("se"));
+            }
+            
+            // 解析连接调优选项
+            if (cmd.hasOption("drp")) {
+                result.setDriverPath(Arrays.asList(cmd.getOptionValues("drp")));
+            }
+            if (cmd.hasOption("dpf")) {
+                result.setDriverProfile(DriverProfile.forName(cmd.getOptionValue("dpf")).getName());
+            }
+            
+            if (cmd.hasOption("jp")) {
+                for (String property : cmd.getOptionValues("jp")) {
+                    int eq = property.indexOf('=');
+                    if (eq <= 0) {
+                        throw new ParseException("Invalid JDBC property, expected key=value: " + property);
+                    }
+                    result.getJdbcProperties().put(property.substring(0, eq).trim(), property.substring(eq + 1).trim());
+                }
+            }
+            
+            if (cmd.hasOption("nt")) {
+                result.setNetworkTimeout(Integer.parseInt(cmd.getOptionValue("nt")));
+            }
+            
+            // 解析抽取容错选项
+            if (cmd.hasOption("tto")) {
+                result.setTableTimeout(Integer.parseInt(cmd.getOptionValue("tto")));
+            }
+            
+            if (cmd.hasOption("rty")) {
+                result.setRetries(Integer.parseInt(cmd.getOptionValue("rty")));
+            }
+            
+            if (cmd.hasOption("bkt")) {
+                result.setBreakerThreshold(Integer.parseInt(cmd.getOptionValue("bkt")));
+            }
+            
+            if (cmd.hasOption("mqps")) {
+                result.setMaxQps(Double.parseDouble(cmd.getOptionValue("mqps")));
+            }
+            
+            if (cmd.hasOption("lt")) {
+                result.setLatencyTarget(Long.parseLong(cmd.getOptionValue("lt")));
+            }
+            
+            if (cmd.hasOption("ot")) {
+                result.setObjectTypes(SchemaObjectType.parse(Arrays.asList(cmd.getOptionValues("ot"))));
+            }
+            
+            // 解析服务模式选项
+            result.setServe(cmd.hasOption("sv"));
+            if (cmd.hasOption("pt")) {
+                result.setPort(Integer.parseInt(cmd.getOptionValue("pt")));
+            }
+            
+            if (cmd.hasOption("scm")) {
+                result.setServeCacheMb(Integer.parseInt(cmd.getOptionValue("scm")));
+            }
+            
+            // 解析元数据导出选项
+            if (result.isStandardOutput() && ExportFormat.of(result.getFileType()) == null) {
+                throw new ParseException("Writing to standard output (-o -) is supported for JSONL and CSV only");
+            }
+            
+            if (cmd.hasOption("rec")) {
+                result.setExportRecord(ExportRecord.of(cmd.getOptionValue("rec")));
+            }
+            
+            // 解析表模型存放选项
+            if (cmd.hasOption("mhm")) {
+                result.setModelHeapMb(Integer.parseInt(cmd.getOptionValue("mhm")));
+            }
+            result.setSpillDir(cmd.getOptionValue("sd"));
+            result.setForceRewrite(cmd.hasOption("fr"));
+            result.setCaptureFile(cmd.getOptionValue("cap"));
+            
+            // 解析规范检查选项
+            result.setLint(cmd.hasOption("lint") || cmd.hasOption("lfo") || cmd.hasOption("lx") || cmd.hasOption("lvl"));
+            if (cmd.hasOption("lfo")) {
+                String failOn = cmd.getOptionValue("lfo");
+                result.setLintFailOn("NONE".equalsIgnoreCase(failOn.trim()) ? null : LintReport.Severity.of(failOn));
+            }
+            
+            if (cmd.hasOption("lx")) {
+                result.setLintExcludedRules(new HashSet<>(Arrays.asList(cmd.getOptionValues("lx"))));
+            }
+            
+            if (cmd.hasOption("lvl")) {
+                result.setLintVarcharLimit(Integer.parseInt(cmd.getOptionValue("lvl")));
+            }
+            
+            // 解析建表语句选项
+            result.setDdlScript(cmd.hasOption("ddls"));
+            result.setDdl(cmd.hasOption("ddl") || result.isDdlScript());
+            
+            // 解析分布式抽取选项
+            if (cmd.hasOption("co")) {
+                result.setCoordinatorPort(Integer.parseInt(cmd.getOptionValue("co")));
+            }
+            
+            if (cmd.hasOption("lw")) {
+                result.setLocalWorkers(Integer.parseInt(cmd.getOptionValue("lw")));
+            }
+            
+            if (cmd.hasOption("sch")) {
+                result.setSchemas(Arrays.asList(cmd.getOptionValues("sch")));
+            }
+            
+            if (cmd.hasOption("us")) {
+                result.setUnitSize(Integer.parseInt(cmd.getOptionValue("us")));
+            }
+            result.setWorker(cmd.getOptionValue("wk"));
+            if (result.isCoordinatorMode() && result.getWorker() != null) {
+                throw new ParseException("--coordinator and --worker cannot be used together");
+            }
+            
+        } catch (ParseException | IllegalArgumentException e) {
             LOGGER.error("解析命令行参数时出错: {}", e.getMessage());
             printHelp();
             result.setHasErrors(true);
@@ -131,168 +434,3 @@ public class CommandLineParser {
         formatter.printHelp("java -jar know-your-db.jar", options, true);
     }
 }
-
-class CommandLineOptions {
-    private String driverClassName;
-    private String jdbcUrl;
-    private String username;
-    private String password;
-    private String outputDir;
-    private String schema;
-    private String fileType;
-    private String title;
-    private String version;
-    private String description;
-    private List<String> designatedTableNames;
-    private List<String> designatedTablePrefixes;
-    private List<String> designatedTableSuffixes;
-    private List<String> ignoreTableNames;
-    private List<String> ignoreTablePrefixes;
-    private List<String> ignoreTableSuffixes;
-    private boolean help;
-    private boolean hasErrors;
-
-    public String getDriverClassName() {
-        return driverClassName;
-    }
-
-    public void setDriverClassName(String driverClassName) {
-        this.driverClassName = driverClassName;
-    }
-
-    public String getJdbcUrl() {
-        return jdbcUrl;
-    }
-
-    public void setJdbcUrl(String jdbcUrl) {
-        this.jdbcUrl = jdbcUrl;
-    }
-
-    public String getUsername() {
-        return username;
-    }
-
-    public void setUsername(String username) {
-        this.username = username;
-    }
-
-    public String getPassword() {
-        return password;
-    }
-
-    public void setPassword(String password) {
-        this.password = password;
-    }
-
-    public String getOutputDir() {
-        return outputDir;
-    }
-
-    public void setOutputDir(String outputDir) {
-        this.outputDir = outputDir;
-    }
-
-    public String getSchema() {
-        return schema;
-    }
-
-    public void setSchema(String schema) {
-        this.schema = schema;
-    }
-
-    public String getFileType() {
-        return fileType;
-    }
-
-    public void setFileType(String fileType) {
-        this.fileType = fileType;
-    }
-
-    public String getTitle() {
-        return title;
-    }
-
-    public void setTitle(String title) {
-        this.title = title;
-    }
-
-    public String getVersion() {
-        return version;
-    }
-
-    public void setVersion(String version) {
-        this.version = version;
-    }
-
-    public String getDescription() {
-        return description;
-    }
-
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
-    public List<String> getDesignatedTableNames() {
-        return designatedTableNames;
-    }
-
-    public void setDesignatedTableNames(List<String> designatedTableNames) {
-        this.designatedTableNames = designatedTableNames;
-    }
-
-    public List<String> getDesignatedTablePrefixes() {
-        return designatedTablePrefixes;
-    }
-
-    public void setDesignatedTablePrefixes(List<String> designatedTablePrefixes) {
-        this.designatedTablePrefixes = designatedTablePrefixes;
-    }
-
-    public List<String> getDesignatedTableSuffixes() {
-        return designatedTableSuffixes;
-    }
-
-    public void setDesignatedTableSuffixes(List<String> designatedTableSuffixes) {
-        this.designatedTableSuffixes = designatedTableSuffixes;
-    }
-
-    public List<String> getIgnoreTableNames() {
-        return ignoreTableNames;
-    }
-
-    public void setIgnoreTableNames(List<String> ignoreTableNames) {
-        this.ignoreTableNames = ignoreTableNames;
-    }
-
-    public List<String> getIgnoreTablePrefixes() {
-        return ignoreTablePrefixes;
-    }
-
-    public void setIgnoreTablePrefixes(List<String> ignoreTablePrefixes) {
-        this.ignoreTablePrefixes = ignoreTablePrefixes;
-    }
-
-    public List<String> getIgnoreTableSuffixes() {
-        return ignoreTableSuffixes;
-    }
-
-    public void setIgnoreTableSuffixes(List<String> ignoreTableSuffixes) {
-        this.ignoreTableSuffixes = ignoreTableSuffixes;
-    }
-
-    public boolean isHelp() {
-        return help;
-    }
-
-    public void setHelp(boolean help) {
-        this.help = help;
-    }
-
-    public boolean isHasErrors() {
-        return hasErrors;
-    }
-
-    public void setHasErrors(boolean hasErrors) {
-        this.hasErrors = hasErrors;
-    }
-}
\ No newline at end of file
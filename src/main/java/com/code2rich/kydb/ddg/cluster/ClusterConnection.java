@@ -0,0 +1,143 @@
+package com.code2rich.kydb.ddg.cluster;
+
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.util.ModelCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 协调者与工作进程之间的连接
+ * 消息是以 ModelCodec 编码的 Map，"type" 表示消息种类；抽取结果的表和对象在消息头之后逐个流式写出，
+ * 两端都不需要把整个结果放在一个消息对象里。编码器和解码器按连接各一个，发送由锁保护（心跳线程与主线程共用）
+ */
+class ClusterConnection implements Closeable {
+    // 工作进程 -> 协调者
+    static final String HELLO = "hello";
+    static final String NEXT = "next";
+    static final String HEARTBEAT = "heartbeat";
+    static final String RESULT = "result";
+    static final String ERROR = "error";
+    // 协调者 -> 工作进程
+    static final String UNIT = "unit";
+    static final String WAIT = "wait";
+    static final String DONE = "done";
+
+    private final Socket socket;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+    private final ModelCodec.Encoder encoder;
+    private final ModelCodec.Decoder decoder;
+
+    ClusterConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true);
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        this.encoder = new ModelCodec.Encoder(out);
+        this.decoder = new ModelCodec.Decoder(in);
+    }
+
+    static Map<String, Object> message(String type) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", type);
+        return message;
+    }
+
+    synchronized void send(Map<String, Object> message) throws IOException {
+        encoder.write(message);
+        out.flush();
+    }
+
+    /**
+     * 发送一个单元的抽取结果：消息头（库类型、库名、失败记录）之后是表列表和对象列表
+     */
+    synchronized void sendResult(int unitId, SchemaSnapshot snapshot) throws IOException {
+        Map<String, Object> header = message(RESULT);
+        header.put("unit", unitId);
+        header.put("dbType", snapshot.getDbType());
+        header.put("dbName", snapshot.getDbName());
+        List<Object> failures = new ArrayList<>();
+        for (TableFailure failure : snapshot.getFailures()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("tableName", failure.getTableName());
+            item.put("message", failure.getMessage());
+            item.put("sqlState", failure.getSqlState());
+            item.put("errorCode", failure.getErrorCode());
+            item.put("attempts", failure.getAttempts());
+            failures.add(item);
+        }
+        header.put("failures", failures);
+        encoder.write(header);
+        writeList(snapshot.getTables());
+        writeList(snapshot.getObjects());
+        out.flush();
+    }
+
+    private void writeList(List<Map<String, Object>> items) throws IOException {
+        encoder.writeListHeader(items.size());
+        for (Map<String, Object> item : items) {
+            encoder.write(item);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> read() throws IOException {
+        Object message = decoder.read();
+        if (!(message instanceof Map)) {
+            throw new IOException("Unexpected cluster message: " + message);
+        }
+        return (Map<String, Object>) message;
+    }
+
+    /**
+     * 读取结果消息头之后的一个列表，逐个交给 consumer
+     */
+    @SuppressWarnings("unchecked")
+    void readList(Consumer<Map<String, Object>> consumer) throws IOException {
+        int count = decoder.readListHeader();
+        for (int i = 0; i < count; i++) {
+            consumer.accept((Map<String, Object>) decoder.read());
+        }
+    }
+
+    static List<TableFailure> toFailures(Object items) {
+        List<TableFailure> failures = new ArrayList<>();
+        if (items instanceof List) {
+            for (Object item : (List<?>) items) {
+                Map<?, ?> map = (Map<?, ?>) item;
+                failures.add(new TableFailure((String) map.get("tableName"), (String) map.get("message"),
+                        (String) map.get("sqlState"), intValue(map.get("errorCode")), intValue(map.get("attempts"))));
+            }
+        }
+        return failures;
+    }
+
+    private static int intValue(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    void setReadTimeout(int millis) throws IOException {
+        socket.setSoTimeout(millis);
+    }
+
+    String describe() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,393 @@
+package com.code2rich.kydb.ddg.cluster;
+
+import com.code2rich.kydb.ddg.metadata.ModelStoreOptions;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 分布式抽取的协调者
+ * 工作单元放在一个队列中，由工作进程空闲时领取。队列取空后，空闲的进程会领取运行时间远超平均耗时的单元的副本
+ * （接手落后者的工作），先完成的结果生效，另一份结果丢弃。
+ * 进程报告失败、断开或超时未发心跳时，它手上没有其他副本在运行的单元重新入队，重试次数用完后记为失败。
+ * 结果按单元编号返回，与单元的完成顺序无关
+ */
+public class ClusterCoordinator implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    // 超过该时间收不到工作进程的任何消息（心跳、请求、结果）即认为失联
+    static final int WORKER_TIMEOUT_MILLIS = (int) (ClusterWorker.HEARTBEAT_MILLIS * 6);
+    // 没有可领取的单元时，工作进程再次询问前的等待时间
+    private static final long WAIT_MILLIS = 1_000;
+    // 单元运行超过平均耗时的该倍数（且至少 STRAGGLER_MIN_MILLIS）时，空闲进程可以接手一份副本
+    private static final int STRAGGLER_FACTOR = 2;
+    private static final long STRAGGLER_MIN_MILLIS = 10_000;
+
+    private final List<WorkUnit> units;
+    private final byte[] token;
+    private final int maxAttempts;
+    private final ModelStoreOptions storeOptions;
+
+    private final Deque<WorkUnit> queue = new ArrayDeque<>();
+    private final Map<Integer, Running> running = new LinkedHashMap<>();
+    private final Map<Integer, UnitResult> results = new HashMap<>();
+    private final Map<Integer, String> failed = new HashMap<>();
+    private final int[] attempts;
+    private long completedNanos;
+    private int completedCount;
+    private int connectedWorkers;
+
+    private ServerSocket serverSocket;
+    private ExecutorService connections;
+
+    /**
+     * @param units 工作单元，编号为在列表中的位置
+     * @param token 工作进程需要提供的共享口令
+     * @param maxAttempts 每个单元最多分配的次数
+     * @param storeOptions 收到的表模型放入此选项创建的列表
+     */
+    public ClusterCoordinator(List<WorkUnit> units, String token, int maxAttempts, ModelStoreOptions storeOptions) {
+        this.units = units;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.storeOptions = storeOptions;
+        this.attempts = new int[units.size()];
+        queue.addAll(units);
+    }
+
+    /**
+     * 开始接受工作进程的连接
+     * @param port 监听端口，0表示任选一个空闲端口
+     * @return 实际监听的端口
+     */
+    public int start(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread acceptor = new Thread(this::acceptLoop, "cluster-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        LOGGER.info("Coordinator listening on port {} with {} work units", serverSocket.getLocalPort(), units.size());
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    LOGGER.warn("Failed to accept worker connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待所有单元完成或失败
+     * @param workersAvailable 没有已连接的工作进程时，是否还会有进程连接（本机进程全部退出时返回 false）
+     * @return 按单元编号排列的结果，失败的单元结果中只有失败记录
+     */
+    public synchronized List<UnitResult> awaitResults(BooleanSupplier workersAvailable) throws InterruptedException {
+        long lastReport = System.nanoTime();
+        while (!isDone()) {
+            wait(WAIT_MILLIS);
+            if (connectedWorkers == 0 && running.isEmpty() && !isDone() && !workersAvailable.getAsBoolean()) {
+                LOGGER.error("No workers left, {} units could not be extracted", units.size() - results.size() - failed.size());
+                for (WorkUnit unit : queue) {
+                    failed.put(unit.getId(), "No worker was available");
+                }
+                queue.clear();
+            }
+            if (System.nanoTime() - lastReport > TimeUnit.SECONDS.toNanos(30)) {
+                lastReport = System.nanoTime();
+                LOGGER.info("{} of {} units done ({} running, {} queued, {} workers connected)",
+                        results.size() + failed.size(), units.size(), running.size(), queue.size(), connectedWorkers);
+            }
+        }
+        List<UnitResult> ordered = new ArrayList<>(units.size());
+        for (WorkUnit unit : units) {
+            UnitResult result = results.get(unit.getId());
+            if (result == null) {
+                result = new UnitResult(unit, null, null, null, null, new ArrayList<>());
+                result.failures.add(new TableFailure(unit.toString(), failed.get(unit.getId()), null, 0, attempts[unit.getId()]));
+            }
+            ordered.add(result);
+        }
+        return ordered;
+    }
+
+    private boolean isDone() {
+        return results.size() + failed.size() >= units.size();
+    }
+
+    // 处理一个工作进程的连接
+    private void serve(Socket socket) {
+        Set<Integer> assigned = new HashSet<>();
+        String worker = String.valueOf(socket.getRemoteSocketAddress());
+        boolean registered = false;
+        try (ClusterConnection connection = new ClusterConnection(socket)) {
+            connection.setReadTimeout(WORKER_TIMEOUT_MILLIS);
+            Map<String, Object> hello = connection.read();
+            Object offered = hello.get("token");
+            if (!ClusterConnection.HELLO.equals(hello.get("type")) || !(offered instanceof String)
+                    || !MessageDigest.isEqual(token, ((String) offered).getBytes(StandardCharsets.UTF_8))) {
+                LOGGER.warn("Rejected connection from {}: invalid cluster token", connection.describe());
+                return;
+            }
+            worker = hello.get("worker") + "@" + connection.describe();
+            registered = true;
+            synchronized (this) {
+                connectedWorkers++;
+            }
+            LOGGER.info("Worker {} joined", worker);
+
+            while (true) {
+                Map<String, Object> message = connection.read();
+                Object type = message.get("type");
+                if (ClusterConnection.HEARTBEAT.equals(type)) {
+                    continue;
+                }
+                if (ClusterConnection.NEXT.equals(type)) {
+                    WorkUnit unit = assign(worker, assigned);
+                    if (unit != null) {
+                        connection.send(unit.toMessage());
+                    } else if (isFinished()) {
+                        connection.send(ClusterConnection.message(ClusterConnection.DONE));
+                        return;
+                    } else {
+                        Map<String, Object> wait = ClusterConnection.message(ClusterConnection.WAIT);
+                        wait.put("millis", WAIT_MILLIS);
+                        connection.send(wait);
+                    }
+                } else if (ClusterConnection.RESULT.equals(type)) {
+                    receive(connection, worker, assigned, message);
+                } else if (ClusterConnection.ERROR.equals(type)) {
+                    int unitId = ((Number) message.get("unit")).intValue();
+                    assigned.remove(unitId);
+                    release(worker, unitId, (String) message.get("message"));
+                } else {
+                    throw new IOException("Unexpected message from worker: " + type);
+                }
+            }
+        } catch (SocketTimeoutException e) {
+            LOGGER.warn("Worker {} stopped sending heartbeats", worker);
+        } catch (EOFException | SocketException e) {
+            if (!assigned.isEmpty()) {
+                LOGGER.warn("Lost connection to worker {}: {}", worker, e.toString());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Dropping worker {}: {}", worker, e.getMessage());
+        } finally {
+            for (Integer unitId : assigned) {
+                release(worker, unitId, "Worker " + worker + " was lost");
+            }
+            if (registered) {
+                synchronized (this) {
+                    connectedWorkers--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private synchronized boolean isFinished() {
+        return isDone();
+    }
+
+    // 领取一个单元：先取队列，队列为空时接手落后的单元
+    private synchronized WorkUnit assign(String worker, Set<Integer> assigned) {
+        WorkUnit unit = queue.poll();
+        if (unit != null) {
+            attempts[unit.getId()]++;
+            running.put(unit.getId(), new Running(unit, worker));
+            assigned.add(unit.getId());
+            return unit;
+        }
+        if (completedCount == 0) {
+            return null;
+        }
+        long threshold = Math.max(TimeUnit.MILLISECONDS.toNanos(STRAGGLER_MIN_MILLIS),
+                completedNanos / completedCount * STRAGGLER_FACTOR);
+        long now = System.nanoTime();
+        for (Running candidate : running.values()) {
+            if (candidate.workers.size() == 1 && !candidate.workers.contains(worker)
+                    && now - candidate.startedNanos > threshold) {
+                candidate.workers.add(worker);
+                assigned.add(candidate.unit.getId());
+                LOGGER.info("Worker {} takes a copy of straggling unit {} (running for {}s on {})", worker, candidate.unit,
+                        TimeUnit.NANOSECONDS.toSeconds(now - candidate.startedNanos), candidate.workers.iterator().next());
+                return candidate.unit;
+            }
+        }
+        return null;
+    }
+
+    // 读取结果；单元已经由其他副本完成时丢弃
+    private void receive(ClusterConnection connection, String worker, Set<Integer> assigned, Map<String, Object> header)
+            throws IOException {
+        int unitId = ((Number) header.get("unit")).intValue();
+        List<Map<String, Object>> tables = storeOptions.newTableList();
+        List<Map<String, Object>> objects = storeOptions.newTableList();
+        boolean kept = false;
+        try {
+            connection.readList(tables::add);
+            connection.readList(objects::add);
+            assigned.remove(unitId);
+            synchronized (this) {
+                Running entry = running.remove(unitId);
+                if (results.containsKey(unitId) || failed.containsKey(unitId)) {
+                    LOGGER.debug("Discarding duplicate result of unit {} from {}", unitId, worker);
+                    return;
+                }
+                if (entry != null) {
+                    completedNanos += System.nanoTime() - entry.startedNanos;
+                    completedCount++;
+                }
+                WorkUnit unit = units.get(unitId);
+                results.put(unitId, new UnitResult(unit, (String) header.get("dbType"), (String) header.get("dbName"),
+                        tables, objects, ClusterConnection.toFailures(header.get("failures"))));
+                kept = true;
+                LOGGER.info("Unit {} done by {}: {} tables ({} of {} units done)", unit, worker, tables.size(),
+                        results.size() + failed.size(), units.size());
+                notifyAll();
+            }
+        } finally {
+            if (!kept) {
+                UnitResult.closeStore(tables);
+                UnitResult.closeStore(objects);
+            }
+        }
+    }
+
+    // 工作进程放弃了一个单元（失败或失联）：没有其他副本在运行时重新入队或记为失败
+    private synchronized void release(String worker, int unitId, String reason) {
+        Running entry = running.get(unitId);
+        if (entry == null || results.containsKey(unitId) || failed.containsKey(unitId)) {
+            return;
+        }
+        entry.workers.remove(worker);
+        if (!entry.workers.isEmpty()) {
+            return;
+        }
+        running.remove(unitId);
+        WorkUnit unit = entry.unit;
+        if (attempts[unitId] < maxAttempts) {
+            LOGGER.warn("Retrying unit {} ({}), attempt {} of {}", unit, reason, attempts[unitId] + 1, maxAttempts);
+            queue.addLast(unit);
+        } else {
+            LOGGER.error("Giving up on unit {} after {} attempt(s): {}", unit, attempts[unitId], reason);
+            failed.put(unitId, reason);
+        }
+        notifyAll();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        if (connections != null) {
+            connections.shutdownNow();
+        }
+    }
+
+    private static class Running {
+        private final WorkUnit unit;
+        private final Set<String> workers = new HashSet<>();
+        private final long startedNanos = System.nanoTime();
+
+        Running(WorkUnit unit, String worker) {
+            this.unit = unit;
+            workers.add(worker);
+        }
+    }
+
+    /**
+     * 一个工作单元的抽取结果
+     */
+    public static class UnitResult implements Closeable {
+        private final WorkUnit unit;
+        private final String dbType;
+        private final String dbName;
+        private final List<Map<String, Object>> tables;
+        private final List<Map<String, Object>> objects;
+        private final List<TableFailure> failures;
+
+        UnitResult(WorkUnit unit, String dbType, String dbName, List<Map<String, Object>> tables,
+                   List<Map<String, Object>> objects, List<TableFailure> failures) {
+            this.unit = unit;
+            this.dbType = dbType;
+            this.dbName = dbName;
+            this.tables = tables != null ? tables : new ArrayList<>();
+            this.objects = objects != null ? objects : new ArrayList<>();
+            this.failures = failures;
+        }
+
+        public WorkUnit getUnit() {
+            return unit;
+        }
+
+        public String getDbType() {
+            return dbType;
+        }
+
+        public String getDbName() {
+            return dbName;
+        }
+
+        public List<Map<String, Object>> getTables() {
+            return tables;
+        }
+
+        public List<Map<String, Object>> getObjects() {
+            return objects;
+        }
+
+        public List<TableFailure> getFailures() {
+            return failures;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                closeStore(tables);
+            } finally {
+                closeStore(objects);
+            }
+        }
+
+        static void closeStore(List<Map<String, Object>> store) throws IOException {
+            if (store instanceof Closeable) {
+                ((Closeable) store).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.code2rich.kydb.ddg.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分布式抽取配置
+ */
+public class ClusterOptions {
+    // 协调者监听端口，0表示任选空闲端口（只有本机工作进程时使用）
+    private int port;
+    // 由协调者在本机启动的工作进程数
+    private int localWorkers;
+    // 表数超过该值的schema按表名分段，每段一个工作单元
+    private int unitSize = 2000;
+    // 每个单元最多分配的次数（首次加重试）
+    private int maxAttempts = 3;
+    // 工作进程连接协调者时需要提供的共享口令
+    private String token;
+    // 启动本机工作进程的命令，协调者会在末尾加上 --worker host:port
+    private List<String> workerCommand = new ArrayList<>();
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public int getLocalWorkers() {
+        return localWorkers;
+    }
+
+    public void setLocalWorkers(int localWorkers) {
+        this.localWorkers = localWorkers;
+    }
+
+    public int getUnitSize() {
+        return unitSize;
+    }
+
+    public void setUnitSize(int unitSize) {
+        this.unitSize = unitSize;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public List<String> getWorkerCommand() {
+        return workerCommand;
+    }
+
+    public void setWorkerCommand(List<String> workerCommand) {
+        this.workerCommand = workerCommand;
+    }
+}
@@ -0,0 +1,111 @@
+package com.code2rich.kydb.ddg.cluster;
+
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作进程：连接协调者，逐个领取工作单元，抽取后把表模型发回
+ * 空闲时主动领取（拉取模式），处理快的进程自然会领到更多单元；抽取期间定时发送心跳，
+ * 协调者据此判断进程是否还在，进程退出或失联时它的单元会交给其他进程重试
+ */
+public class ClusterWorker {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterWorker.class);
+
+    // 心跳间隔，协调者在 ClusterCoordinator.WORKER_TIMEOUT_MILLIS 内收不到任何消息即认为进程失联
+    static final long HEARTBEAT_MILLIS = 5_000;
+
+    /**
+     * 抽取一个工作单元
+     */
+    public interface UnitExtractor {
+        SchemaSnapshot extract(WorkUnit unit) throws Exception;
+    }
+
+    private final String host;
+    private final int port;
+    private final String token;
+
+    public ClusterWorker(String host, int port, String token) {
+        this.host = host;
+        this.port = port;
+        this.token = token;
+    }
+
+    /**
+     * 领取并处理工作单元，直到协调者通知全部完成
+     * @return 处理的单元数
+     */
+    public int run(UnitExtractor extractor) throws IOException, InterruptedException {
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int processed = 0;
+        try (ClusterConnection connection = new ClusterConnection(new Socket(host, port))) {
+            Map<String, Object> hello = ClusterConnection.message(ClusterConnection.HELLO);
+            hello.put("token", token);
+            hello.put("worker", name);
+            connection.send(hello);
+            LOGGER.info("Worker {} connected to coordinator {}:{}", name, host, port);
+            heartbeat.scheduleWithFixedDelay(() -> {
+                try {
+                    connection.send(ClusterConnection.message(ClusterConnection.HEARTBEAT));
+                } catch (IOException e) {
+                    LOGGER.debug("Heartbeat failed: {}", e.getMessage());
+                }
+            }, HEARTBEAT_MILLIS, HEARTBEAT_MILLIS, TimeUnit.MILLISECONDS);
+
+            while (true) {
+                connection.send(ClusterConnection.message(ClusterConnection.NEXT));
+                Map<String, Object> reply = connection.read();
+                Object type = reply.get("type");
+                if (ClusterConnection.DONE.equals(type)) {
+                    break;
+                }
+                if (ClusterConnection.WAIT.equals(type)) {
+                    Thread.sleep(((Number) reply.get("millis")).longValue());
+                    continue;
+                }
+                if (!ClusterConnection.UNIT.equals(type)) {
+                    throw new IOException("Unexpected message from coordinator: " + type);
+                }
+                WorkUnit unit = WorkUnit.fromMessage(reply);
+                LOGGER.info("Extracting unit {}", unit);
+                SchemaSnapshot snapshot;
+                try {
+                    snapshot = extractor.extract(unit);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    LOGGER.warn("Unit {} failed: {}", unit, e.getMessage());
+                    Map<String, Object> error = ClusterConnection.message(ClusterConnection.ERROR);
+                    error.put("unit", unit.getId());
+                    error.put("message", e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+                    connection.send(error);
+                    continue;
+                }
+                try {
+                    connection.sendResult(unit.getId(), snapshot);
+                } finally {
+                    snapshot.close();
+                }
+                processed++;
+            }
+        } finally {
+            heartbeat.shutdownNow();
+        }
+        LOGGER.info("Worker {} finished after {} units", name, processed);
+        return processed;
+    }
+}
@@ -0,0 +1,87 @@
+package com.code2rich.kydb.ddg.cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分布式抽取的工作单元：一个schema，或schema中按表名排序后的一段表
+ * 一个schema拆成多段时，只有第一段抽取视图、序列等对象
+ */
+public class WorkUnit {
+    private final int id;
+    private final String schema;
+    // null 表示整个schema
+    private final List<String> tables;
+    private final boolean includeObjects;
+
+    public WorkUnit(int id, String schema, List<String> tables, boolean includeObjects) {
+        this.id = id;
+        this.schema = schema;
+        this.tables = tables;
+        this.includeObjects = includeObjects;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    public List<String> getTables() {
+        return tables;
+    }
+
+    public boolean isIncludeObjects() {
+        return includeObjects;
+    }
+
+    /**
+     * 按schema拆分工作单元：表数不超过 unitSize 时整个schema是一个单元，否则按表名排序后每 unitSize 个表一个单元
+     * @param firstId 第一个单元的编号
+     */
+    public static List<WorkUnit> split(int firstId, String schema, List<String> tableNames, int unitSize) {
+        List<WorkUnit> units = new ArrayList<>();
+        if (unitSize <= 0 || tableNames.size() <= unitSize) {
+            units.add(new WorkUnit(firstId, schema, null, true));
+            return units;
+        }
+        List<String> sorted = new ArrayList<>(tableNames);
+        Collections.sort(sorted);
+        for (int from = 0; from < sorted.size(); from += unitSize) {
+            List<String> range = new ArrayList<>(sorted.subList(from, Math.min(sorted.size(), from + unitSize)));
+            units.add(new WorkUnit(firstId + units.size(), schema, range, from == 0));
+        }
+        return units;
+    }
+
+    Map<String, Object> toMessage() {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("type", ClusterConnection.UNIT);
+        message.put("id", id);
+        message.put("schema", schema);
+        message.put("tables", tables);
+        message.put("objects", includeObjects);
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    static WorkUnit fromMessage(Map<String, Object> message) {
+        return new WorkUnit(((Number) message.get("id")).intValue(), (String) message.get("schema"),
+                (List<String>) message.get("tables"), Boolean.TRUE.equals(message.get("objects")));
+    }
+
+    @Override
+    public String toString() {
+        String target = schema != null ? schema : "<default schema>";
+        if (tables == null) {
+            return "#" + id + " " + target;
+        }
+        return "#" + id + " " + target + " [" + tables.get(0) + " .. " + tables.get(tables.size() - 1)
+                + ", " + tables.size() + " tables]";
+    }
+}
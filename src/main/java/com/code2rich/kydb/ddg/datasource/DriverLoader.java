@@ -0,0 +1,220 @@
+package com.code2rich.kydb.ddg.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.sql.Driver;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+
+/**
+ * 按驱动类名加载JDBC驱动
+ * - 驱动目录中的每个jar是一个加载单元；驱动依赖其他jar时，把它们放在同一个子目录中，子目录作为一个单元
+ * - 每个单元使用独立的 URLClassLoader，同一驱动的不同版本可以放在不同单元中并存，用 --driver-path 选择
+ * - 只在需要某个驱动类时才查找，查找只读取jar的目录区，不加载类；类加载器和驱动实例在进程内缓存
+ * - 驱动目录中找不到时从应用的类路径加载（打包在jar中的驱动、回放驱动）
+ */
+public final class DriverLoader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DriverLoader.class);
+
+    /**
+     * 默认的驱动目录，依次在当前目录和程序jar所在目录下查找
+     */
+    public static final String DEFAULT_DIRECTORY = "drivers";
+
+    // 加载单元（jar或子目录）到类加载器，进程内共享
+    private static final Map<File, URLClassLoader> LOADERS = new ConcurrentHashMap<>();
+    // 单元路径与驱动类名到驱动实例
+    private static final Map<String, Driver> DRIVERS = new ConcurrentHashMap<>();
+
+    private final List<File> paths;
+    // 本加载器已解析的驱动，之后不再查找目录
+    private final Map<String, Driver> resolved = new ConcurrentHashMap<>();
+
+    /**
+     * @param paths 驱动jar或驱动目录，按顺序查找
+     */
+    public DriverLoader(List<File> paths) {
+        this.paths = new ArrayList<>(paths);
+    }
+
+    /**
+     * 使用默认驱动目录
+     */
+    public static DriverLoader defaults() {
+        List<File> paths = new ArrayList<>();
+        File working = new File(DEFAULT_DIRECTORY);
+        if (working.isDirectory()) {
+            paths.add(working);
+        }
+        File installed = installedDirectory();
+        if (installed != null && installed.isDirectory() && !sameFile(installed, working)) {
+            paths.add(installed);
+        }
+        return new DriverLoader(paths);
+    }
+
+    /**
+     * 使用指定的驱动路径，未指定时使用默认驱动目录
+     */
+    public static DriverLoader of(List<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return defaults();
+        }
+        List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path);
+            if (!file.exists()) {
+                throw new IllegalArgumentException("Driver path not found: " + path);
+            }
+            files.add(file);
+        }
+        return new DriverLoader(files);
+    }
+
+    /**
+     * 加载驱动
+     * @param driverClassName 驱动类名
+     * @return 驱动实例，同一单元中的同一驱动只创建一次
+     */
+    public Driver load(String driverClassName) {
+        return resolved.computeIfAbsent(driverClassName, this::resolve);
+    }
+
+    private Driver resolve(String driverClassName) {
+        String entry = driverClassName.replace('.', '/') + ".class";
+        File found = null;
+        for (File unit : units()) {
+            if (!contains(unit, entry)) {
+                continue;
+            }
+            if (found == null) {
+                found = unit;
+            } else {
+                LOGGER.warn("Driver {} is also in {}, using {}; choose one with --driver-path",
+                        driverClassName, unit, found);
+            }
+        }
+        if (found == null) {
+            return DRIVERS.computeIfAbsent("classpath!" + driverClassName, key -> loadFromClasspath(driverClassName));
+        }
+        File unit = found;
+        return DRIVERS.computeIfAbsent(unit.getAbsolutePath() + "!" + driverClassName, key -> {
+            URLClassLoader loader = LOADERS.computeIfAbsent(unit.getAbsoluteFile(), DriverLoader::createLoader);
+            LOGGER.info("Loading driver {} from {}", driverClassName, unit);
+            return instantiate(driverClassName, loader);
+        });
+    }
+
+    // 展开为加载单元：路径本身是jar时为一个单元；目录中的每个jar、每个包含jar的子目录各为一个单元
+    private List<File> units() {
+        List<File> units = new ArrayList<>();
+        for (File path : paths) {
+            if (path.isFile()) {
+                units.add(path);
+                continue;
+            }
+            File[] children = path.listFiles();
+            if (children == null) {
+                continue;
+            }
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isFile() && isJar(child) || child.isDirectory() && !jars(child).isEmpty()) {
+                    units.add(child);
+                }
+            }
+        }
+        return units;
+    }
+
+    private static boolean contains(File unit, String entry) {
+        for (File jar : unit.isDirectory() ? jars(unit) : Collections.singletonList(unit)) {
+            try (JarFile jarFile = new JarFile(jar)) {
+                if (jarFile.getEntry(entry) != null) {
+                    return true;
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Skipping unreadable driver jar {}: {}", jar, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    private static URLClassLoader createLoader(File unit) {
+        List<File> jars = unit.isDirectory() ? jars(unit) : Collections.singletonList(unit);
+        URL[] urls = new URL[jars.size()];
+        try {
+            for (int i = 0; i < urls.length; i++) {
+                urls[i] = jars.get(i).toURI().toURL();
+            }
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid driver path: " + unit, e);
+        }
+        // 父加载器为平台类加载器，驱动看不到应用类路径中的其他版本
+        return new URLClassLoader(urls, ClassLoader.getSystemClassLoader().getParent());
+    }
+
+    private static Driver loadFromClasspath(String driverClassName) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return instantiate(driverClassName, loader != null ? loader : DriverLoader.class.getClassLoader());
+    }
+
+    private static Driver instantiate(String driverClassName, ClassLoader loader) {
+        Class<?> driverClass;
+        try {
+            driverClass = Class.forName(driverClassName, true, loader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("JDBC driver " + driverClassName + " was not found in the driver path"
+                    + " or the class path; put the driver jar in the '" + DEFAULT_DIRECTORY + "' directory"
+                    + " or pass --driver-path", e);
+        }
+        if (!Driver.class.isAssignableFrom(driverClass)) {
+            throw new IllegalArgumentException(driverClassName + " is not a java.sql.Driver");
+        }
+        try {
+            return (Driver) driverClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create JDBC driver " + driverClassName, e);
+        }
+    }
+
+    private static List<File> jars(File directory) {
+        File[] files = directory.listFiles(file -> file.isFile() && isJar(file));
+        if (files == null) {
+            return Collections.emptyList();
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    private static boolean isJar(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".jar");
+    }
+
+    // 程序jar所在目录下的驱动目录，从类目录运行时为空
+    private static File installedDirectory() {
+        try {
+            File location = new File(DriverLoader.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return location.isFile() ? new File(location.getParentFile(), DEFAULT_DIRECTORY) : null;
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static boolean sameFile(File a, File b) {
+        return a.getAbsoluteFile().toPath().normalize().equals(b.getAbsoluteFile().toPath().normalize());
+    }
+}
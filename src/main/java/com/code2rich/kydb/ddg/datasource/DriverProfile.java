@@ -0,0 +1,182 @@
+package com.code2rich.kydb.ddg.datasource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按驱动区分的连接调优配置
+ * 只设置对应驱动认识的属性：抽取元数据和采样时的预取行数、语句缓存、网络超时等
+ */
+public final class DriverProfile {
+    private static final String APPLICATION_NAME = "KnowYourDB";
+    private static final String MASK = "******";
+    private static final String[] SENSITIVE_WORDS = { "password", "secret", "token" };
+
+    public static final DriverProfile ORACLE = new DriverProfile("oracle",
+            new String[] { "oracle.jdbc." }, new String[] { "jdbc:oracle:" },
+            properties(
+                    // 元数据查询和采样一次往返取回更多行（默认只有10行）
+                    "defaultRowPrefetch", "500",
+                    // 不开启 remarksReporting：它让每次 getTables/getColumns 都关联注释视图，元数据查询明显变慢；
+                    // 注释由 CommentCollector 每个schema一次性读取
+                    "v$session.program", APPLICATION_NAME),
+            "oracle.jdbc.ReadTimeout", true);
+
+    public static final DriverProfile MYSQL = new DriverProfile("mysql",
+            new String[] { "com.mysql." }, new String[] { "jdbc:mysql:" },
+            properties(
+                    // 表注释需要通过 information_schema 读取
+                    "useInformationSchema", "true",
+                    // 服务端游标 + 分批读取，避免大结果集整体加载到内存
+                    "useCursorFetch", "true",
+                    "defaultFetchSize", "1000",
+                    "cachePrepStmts", "true",
+                    "prepStmtCacheSize", "250",
+                    "prepStmtCacheSqlLimit", "2048"),
+            "socketTimeout", true);
+
+    public static final DriverProfile MARIADB = new DriverProfile("mariadb",
+            new String[] { "org.mariadb." }, new String[] { "jdbc:mariadb:" },
+            properties(
+                    "useInformationSchema", "true",
+                    "defaultFetchSize", "1000",
+                    "cachePrepStmts", "true"),
+            "socketTimeout", true);
+
+    public static final DriverProfile POSTGRESQL = new DriverProfile("postgresql",
+            new String[] { "org.postgresql." }, new String[] { "jdbc:postgresql:" },
+            properties(
+                    // 非自动提交模式下按批读取结果集
+                    "defaultRowFetchSize", "1000",
+                    "ApplicationName", APPLICATION_NAME),
+            "socketTimeout", false);
+
+    public static final DriverProfile SQLSERVER = new DriverProfile("sqlserver",
+            new String[] { "com.microsoft.sqlserver." }, new String[] { "jdbc:sqlserver:" },
+            properties(
+                    "responseBuffering", "adaptive",
+                    "applicationName", APPLICATION_NAME),
+            "socketTimeout", true);
+
+    // 未识别的驱动不设置任何驱动属性
+    public static final DriverProfile GENERIC = new DriverProfile("generic",
+            new String[0], new String[0], Collections.emptyMap(), null, false);
+
+    private static final List<DriverProfile> BUILT_IN = Arrays.asList(ORACLE, MYSQL, MARIADB, POSTGRESQL, SQLSERVER, GENERIC);
+
+    private final String name;
+    private final String[] driverPrefixes;
+    private final String[] urlPrefixes;
+    private final Map<String, String> properties;
+    // 网络（socket读）超时属性名，以及其单位是否为毫秒
+    private final String timeoutProperty;
+    private final boolean timeoutInMillis;
+
+    private DriverProfile(String name, String[] driverPrefixes, String[] urlPrefixes,
+                          Map<String, String> properties, String timeoutProperty, boolean timeoutInMillis) {
+        this.name = name;
+        this.driverPrefixes = driverPrefixes;
+        this.urlPrefixes = urlPrefixes;
+        this.properties = properties;
+        this.timeoutProperty = timeoutProperty;
+        this.timeoutInMillis = timeoutInMillis;
+    }
+
+    /**
+     * 根据驱动类名或JDBC URL识别配置
+     */
+    public static DriverProfile detect(String driverClassName, String jdbcUrl) {
+        for (DriverProfile profile : BUILT_IN) {
+            for (String prefix : profile.driverPrefixes) {
+                if (driverClassName != null && driverClassName.startsWith(prefix)) {
+                    return profile;
+                }
+            }
+            for (String prefix : profile.urlPrefixes) {
+                if (jdbcUrl != null && jdbcUrl.toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                    return profile;
+                }
+            }
+        }
+        return GENERIC;
+    }
+
+    /**
+     * 按名称查找配置
+     * @throws IllegalArgumentException 名称不存在时
+     */
+    public static DriverProfile forName(String name) {
+        for (DriverProfile profile : BUILT_IN) {
+            if (profile.name.equalsIgnoreCase(name)) {
+                return profile;
+            }
+        }
+        throw new IllegalArgumentException("Unknown driver profile: " + name + ", expected one of " + names());
+    }
+
+    public static List<String> names() {
+        String[] names = new String[BUILT_IN.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = BUILT_IN.get(i).name;
+        }
+        return Arrays.asList(names);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 生成驱动属性
+     * @param networkTimeoutSeconds 网络超时（秒），不大于0时不设置
+     * @param overrides 用户指定的属性，覆盖配置中的同名属性
+     */
+    public Map<String, String> buildProperties(int networkTimeoutSeconds, Map<String, String> overrides) {
+        Map<String, String> result = new LinkedHashMap<>(properties);
+        if (timeoutProperty != null && networkTimeoutSeconds > 0) {
+            result.put(timeoutProperty, String.valueOf(timeoutInMillis ? networkTimeoutSeconds * 1000L : networkTimeoutSeconds));
+        }
+        if (overrides != null) {
+            result.putAll(overrides);
+        }
+        return result;
+    }
+
+    /**
+     * 用于日志的驱动属性：名称中含 password、secret 或 token 的属性值被遮盖
+     */
+    public static Map<String, String> mask(Map<String, String> properties) {
+        Map<String, String> masked = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            masked.put(entry.getKey(), isSensitive(entry.getKey()) ? MASK : entry.getValue());
+        }
+        return masked;
+    }
+
+    private static boolean isSensitive(String key) {
+        String lowerKey = key.toLowerCase(Locale.ROOT);
+        for (String word : SENSITIVE_WORDS) {
+            if (lowerKey.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> properties(String... keyValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            map.put(keyValues[i], keyValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
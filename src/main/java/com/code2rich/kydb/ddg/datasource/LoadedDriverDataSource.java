@@ -0,0 +1,105 @@
+package com.code2rich.kydb.ddg.datasource;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * 直接通过驱动实例建立连接的数据源，供连接池使用
+ * 驱动由 {@link DriverLoader} 从独立的类加载器加载，DriverManager 看不到它；
+ * 建立连接时把线程上下文类加载器切换为驱动的类加载器，驱动按需加载的辅助类也能找到
+ */
+public class LoadedDriverDataSource implements DataSource {
+    private final Driver driver;
+    private final String jdbcUrl;
+    private final Properties properties;
+    private PrintWriter logWriter;
+
+    public LoadedDriverDataSource(Driver driver, String jdbcUrl, Properties properties, String username, String password) {
+        this.driver = driver;
+        this.jdbcUrl = jdbcUrl;
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+        setCredentials(this.properties, username, password);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(properties);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Properties info = new Properties();
+        info.putAll(properties);
+        setCredentials(info, username, password);
+        return connect(info);
+    }
+
+    private Connection connect(Properties info) throws SQLException {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(driver.getClass().getClassLoader());
+        try {
+            Connection connection = driver.connect(jdbcUrl, info);
+            if (connection == null) {
+                throw new SQLException("Driver " + driver.getClass().getName() + " does not accept URL " + jdbcUrl, "08001");
+            }
+            return connection;
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static void setCredentials(Properties info, String username, String password) {
+        if (username != null) {
+            info.setProperty("user", username);
+        }
+        if (password != null) {
+            info.setProperty("password", password);
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        this.logWriter = out;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        // 超时由驱动属性和连接池控制
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return driver.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
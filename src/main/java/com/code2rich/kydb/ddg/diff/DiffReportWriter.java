@@ -0,0 +1,282 @@
+package com.code2rich.kydb.ddg.diff;
+
+import com.code2rich.kydb.ddg.diff.SchemaDiff.ChangeType;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.ColumnChange;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.FieldChange;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.TableChange;
+import com.code2rich.kydb.ddg.extension.ColumnWidthTracker;
+import com.code2rich.kydb.ddg.util.JsonWriter;
+import org.apache.poi.ss.usermodel.BorderStyle;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 差异报告输出，支持 Excel、Markdown、JSON 三种格式
+ */
+public class DiffReportWriter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiffReportWriter.class);
+
+    /**
+     * 在输出目录中生成三种格式的差异报告
+     * @param outputDir 输出目录
+     * @param fileName 文件名（不含扩展名）
+     * @param diff 差异结果
+     */
+    public void writeAll(String outputDir, String fileName, SchemaDiff diff) throws IOException {
+        File directory = new File(outputDir);
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        writeExcel(new File(directory, fileName + ".xlsx"), diff);
+        writeMarkdown(new File(directory, fileName + ".md"), diff);
+        writeJson(new File(directory, fileName + ".json"), diff);
+        LOGGER.info("Diff report generated in {}", directory.getAbsolutePath());
+    }
+
+    /**
+     * Excel报告：汇总页 + 变更明细页（每个属性变化一行，便于筛选）
+     */
+    public void writeExcel(File file, SchemaDiff diff) throws IOException {
+        // 大schema的明细行数可能很多，使用流式工作簿控制内存
+        SXSSFWorkbook workbook = new SXSSFWorkbook(500);
+        try {
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_YELLOW.getIndex());
+            headerStyle.setBorderTop(BorderStyle.THIN);
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            headerStyle.setBorderLeft(BorderStyle.THIN);
+            headerStyle.setBorderRight(BorderStyle.THIN);
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
+
+            Sheet summary = workbook.createSheet("变更汇总");
+            ColumnWidthTracker summaryWidths = new ColumnWidthTracker(2, 12, 80);
+            String[][] summaryRows = {
+                    { "基准", diff.getBaselineName() },
+                    { "目标", diff.getTargetName() },
+                    { "新增表", String.valueOf(diff.countTables(ChangeType.ADDED)) },
+                    { "删除表", String.valueOf(diff.countTables(ChangeType.DROPPED)) },
+                    { "修改表", String.valueOf(diff.countTables(ChangeType.ALTERED)) },
+                    { "未变化的表", String.valueOf(diff.getUnchangedTables()) }
+            };
+            for (int i = 0; i < summaryRows.length; i++) {
+                Row row = summary.createRow(i);
+                Cell label = row.createCell(0);
+                label.setCellValue(summaryRows[i][0]);
+                label.setCellStyle(headerStyle);
+                row.createCell(1).setCellValue(summaryRows[i][1] != null ? summaryRows[i][1] : "");
+                summaryWidths.observe(0, summaryRows[i][0]);
+                summaryWidths.observe(1, summaryRows[i][1]);
+            }
+            summaryWidths.apply(summary);
+
+            Sheet detail = workbook.createSheet("变更明细");
+            String[] headers = { "序号", "变更类型", "表名", "列名", "属性", "原值", "新值" };
+            // 流式工作簿写出的行不在内存中，无法事后 autoSize，写入时估算列宽
+            ColumnWidthTracker widths = new ColumnWidthTracker(headers.length, 6, 40)
+                    .limit(5, 12, 80)
+                    .limit(6, 12, 80);
+            Row headerRow = detail.createRow(0);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+                widths.observe(i, headers[i]);
+            }
+            detail.createFreezePane(0, 1);
+
+            int rowNum = 1;
+            for (TableChange table : diff.getTableChanges()) {
+                if (table.getType() != ChangeType.ALTERED) {
+                    rowNum = writeDetailRow(detail, widths, rowNum, table.getType(), table.getTableName(), "", null);
+                    continue;
+                }
+                for (FieldChange field : table.getFieldChanges()) {
+                    rowNum = writeDetailRow(detail, widths, rowNum, ChangeType.ALTERED, table.getTableName(), "", field);
+                }
+                for (ColumnChange column : table.getColumnChanges()) {
+                    if (column.getFieldChanges().isEmpty()) {
+                        rowNum = writeDetailRow(detail, widths, rowNum, column.getType(), table.getTableName(), column.getColumnName(), null);
+                    }
+                    for (FieldChange field : column.getFieldChanges()) {
+                        rowNum = writeDetailRow(detail, widths, rowNum, column.getType(), table.getTableName(), column.getColumnName(), field);
+                    }
+                }
+            }
+
+            widths.apply(detail);
+
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private int writeDetailRow(Sheet sheet, ColumnWidthTracker widths, int rowNum, ChangeType type,
+                               String tableName, String columnName, FieldChange field) {
+        Row row = sheet.createRow(rowNum);
+        row.createCell(0).setCellValue(rowNum);
+        widths.observe(0, rowNum);
+        setCell(row, 1, type.getLabel(), widths);
+        setCell(row, 2, tableName, widths);
+        setCell(row, 3, columnName, widths);
+        if (field != null) {
+            setCell(row, 4, field.getField(), widths);
+            setCell(row, 5, field.getOldValue(), widths);
+            setCell(row, 6, field.getNewValue(), widths);
+        }
+        return rowNum + 1;
+    }
+
+    private void setCell(Row row, int column, String value, ColumnWidthTracker widths) {
+        row.createCell(column).setCellValue(value);
+        widths.observe(column, value);
+    }
+
+    /**
+     * Markdown报告
+     */
+    public void writeMarkdown(File file, SchemaDiff diff) throws IOException {
+        try (Writer writer = newWriter(file)) {
+            writer.write("# Schema 差异报告\n\n");
+            writer.write("- 基准: " + nullToEmpty(diff.getBaselineName()) + "\n");
+            writer.write("- 目标: " + nullToEmpty(diff.getTargetName()) + "\n\n");
+            writer.write("| 新增表 | 删除表 | 修改表 | 未变化的表 |\n| --- | --- | --- | --- |\n");
+            writer.write("| " + diff.countTables(ChangeType.ADDED) + " | " + diff.countTables(ChangeType.DROPPED)
+                    + " | " + diff.countTables(ChangeType.ALTERED) + " | " + diff.getUnchangedTables() + " |\n\n");
+
+            writeTableNameList(writer, "新增表", diff, ChangeType.ADDED);
+            writeTableNameList(writer, "删除表", diff, ChangeType.DROPPED);
+
+            if (diff.countTables(ChangeType.ALTERED) > 0) {
+                writer.write("## 修改表\n\n");
+                for (TableChange table : diff.getTableChanges()) {
+                    if (table.getType() != ChangeType.ALTERED) {
+                        continue;
+                    }
+                    writer.write("### " + escapeMarkdown(table.getTableName()) + "\n\n");
+                    writer.write("| 变更类型 | 列名 | 属性 | 原值 | 新值 |\n| --- | --- | --- | --- | --- |\n");
+                    for (FieldChange field : table.getFieldChanges()) {
+                        writeMarkdownRow(writer, ChangeType.ALTERED, "", field);
+                    }
+                    for (ColumnChange column : table.getColumnChanges()) {
+                        if (column.getFieldChanges().isEmpty()) {
+                            writeMarkdownRow(writer, column.getType(), column.getColumnName(), null);
+                        }
+                        for (FieldChange field : column.getFieldChanges()) {
+                            writeMarkdownRow(writer, column.getType(), column.getColumnName(), field);
+                        }
+                    }
+                    writer.write("\n");
+                }
+            }
+        }
+    }
+
+    private void writeTableNameList(Writer writer, String title, SchemaDiff diff, ChangeType type) throws IOException {
+        if (diff.countTables(type) == 0) {
+            return;
+        }
+        writer.write("## " + title + "\n\n");
+        for (TableChange table : diff.getTableChanges()) {
+            if (table.getType() == type) {
+                writer.write("- `" + table.getTableName() + "`\n");
+            }
+        }
+        writer.write("\n");
+    }
+
+    private void writeMarkdownRow(Writer writer, ChangeType type, String columnName, FieldChange field) throws IOException {
+        writer.write("| " + type.getLabel()
+                + " | " + escapeMarkdown(columnName)
+                + " | " + (field != null ? field.getField() : "")
+                + " | " + (field != null ? escapeMarkdown(field.getOldValue()) : "")
+                + " | " + (field != null ? escapeMarkdown(field.getNewValue()) : "")
+                + " |\n");
+    }
+
+    /**
+     * JSON报告
+     */
+    public void writeJson(File file, SchemaDiff diff) throws IOException {
+        try (JsonWriter json = new JsonWriter(newWriter(file))) {
+            json.beginObject();
+            json.field("baseline", diff.getBaselineName());
+            json.field("target", diff.getTargetName());
+            json.name("summary").beginObject()
+                    .field("added", diff.countTables(ChangeType.ADDED))
+                    .field("dropped", diff.countTables(ChangeType.DROPPED))
+                    .field("altered", diff.countTables(ChangeType.ALTERED))
+                    .field("unchanged", diff.getUnchangedTables())
+                    .endObject();
+            json.name("tables").beginArray();
+            for (TableChange table : diff.getTableChanges()) {
+                json.beginObject();
+                json.field("change", table.getType().name());
+                json.field("table", table.getTableName());
+                writeJsonFields(json, table.getFieldChanges());
+                json.name("columns").beginArray();
+                for (ColumnChange column : table.getColumnChanges()) {
+                    json.beginObject();
+                    json.field("change", column.getType().name());
+                    json.field("column", column.getColumnName());
+                    writeJsonFields(json, column.getFieldChanges());
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+
+    private void writeJsonFields(JsonWriter json, List<FieldChange> fields) throws IOException {
+        json.name("fields").beginArray();
+        for (FieldChange field : fields) {
+            json.beginObject()
+                    .field("field", field.getField())
+                    .field("old", field.getOldValue())
+                    .field("new", field.getNewValue())
+                    .endObject();
+        }
+        json.endArray();
+    }
+
+    private Writer newWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8));
+    }
+
+    private String escapeMarkdown(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("|", "\\|").replace("\r", "").replace("\n", "<br>");
+    }
+
+    private String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
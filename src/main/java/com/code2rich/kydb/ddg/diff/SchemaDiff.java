@@ -0,0 +1,159 @@
+package com.code2rich.kydb.ddg.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 两个schema之间的差异
+ */
+public class SchemaDiff {
+    /**
+     * 变更类型
+     */
+    public enum ChangeType {
+        ADDED("新增"),
+        DROPPED("删除"),
+        ALTERED("修改");
+
+        private final String label;
+
+        ChangeType(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * 单个属性的变化
+     */
+    public static class FieldChange {
+        private final String field;
+        private final String oldValue;
+        private final String newValue;
+
+        public FieldChange(String field, String oldValue, String newValue) {
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        public String getOldValue() {
+            return oldValue;
+        }
+
+        public String getNewValue() {
+            return newValue;
+        }
+    }
+
+    /**
+     * 列的变化
+     */
+    public static class ColumnChange {
+        private final ChangeType type;
+        private final String columnName;
+        private final List<FieldChange> fieldChanges = new ArrayList<>();
+
+        public ColumnChange(ChangeType type, String columnName) {
+            this.type = type;
+            this.columnName = columnName;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public List<FieldChange> getFieldChanges() {
+            return fieldChanges;
+        }
+    }
+
+    /**
+     * 表的变化
+     */
+    public static class TableChange {
+        private final ChangeType type;
+        private final String tableName;
+        private final List<FieldChange> fieldChanges = new ArrayList<>();
+        private final List<ColumnChange> columnChanges = new ArrayList<>();
+
+        public TableChange(ChangeType type, String tableName) {
+            this.type = type;
+            this.tableName = tableName;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public List<FieldChange> getFieldChanges() {
+            return fieldChanges;
+        }
+
+        public List<ColumnChange> getColumnChanges() {
+            return columnChanges;
+        }
+    }
+
+    private final String baselineName;
+    private final String targetName;
+    private final List<TableChange> tableChanges = new ArrayList<>();
+    private int unchangedTables;
+
+    public SchemaDiff(String baselineName, String targetName) {
+        this.baselineName = baselineName;
+        this.targetName = targetName;
+    }
+
+    public String getBaselineName() {
+        return baselineName;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    public List<TableChange> getTableChanges() {
+        return tableChanges;
+    }
+
+    public int getUnchangedTables() {
+        return unchangedTables;
+    }
+
+    void setUnchangedTables(int unchangedTables) {
+        this.unchangedTables = unchangedTables;
+    }
+
+    /**
+     * 统计指定类型的表变更数量
+     */
+    public int countTables(ChangeType type) {
+        int count = 0;
+        for (TableChange change : tableChanges) {
+            if (change.getType() == type) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return tableChanges.isEmpty();
+    }
+}
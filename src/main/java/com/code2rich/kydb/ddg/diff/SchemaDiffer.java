@@ -0,0 +1,192 @@
+package com.code2rich.kydb.ddg.diff;
+
+import com.code2rich.kydb.ddg.diff.SchemaDiff.ChangeType;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.ColumnChange;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.FieldChange;
+import com.code2rich.kydb.ddg.diff.SchemaDiff.TableChange;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.util.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Schema差异比较
+ * 先比较每张表的指纹，指纹相同的表直接跳过，只有指纹不同的表才逐列、逐属性比较
+ */
+public class SchemaDiffer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaDiffer.class);
+
+    // 参与比较的列属性及其显示名称
+    private static final Map<String, String> COLUMN_FIELDS = new LinkedHashMap<>();
+    static {
+        COLUMN_FIELDS.put("typeName", "数据类型");
+        COLUMN_FIELDS.put("length", "长度");
+        COLUMN_FIELDS.put("scale", "精度");
+        COLUMN_FIELDS.put("nullable", "可空");
+        COLUMN_FIELDS.put("primaryKey", "主键");
+        COLUMN_FIELDS.put("defaultValue", "默认值");
+        COLUMN_FIELDS.put("remarks", "注释");
+    }
+
+    private static final String[] FINGERPRINT_FIELDS = COLUMN_FIELDS.keySet().toArray(new String[0]);
+
+    /**
+     * 比较两个快照
+     * @param baseline 基准（旧）
+     * @param target 目标（新）
+     * @return 差异结果，按表名排序
+     */
+    public SchemaDiff diff(SchemaSnapshot baseline, SchemaSnapshot target) {
+        long start = System.currentTimeMillis();
+        SchemaDiff diff = new SchemaDiff(baseline.getDbName(), target.getDbName());
+
+        // 只索引表的位置，表模型可能溢出在磁盘上，比较时逐个取出
+        Map<String, Integer> baselineTables = indexTables(baseline.getTables());
+        Map<String, Integer> targetTables = indexTables(target.getTables());
+
+        TreeSet<String> tableNames = new TreeSet<>(baselineTables.keySet());
+        tableNames.addAll(targetTables.keySet());
+
+        int unchanged = 0;
+        for (String tableName : tableNames) {
+            Map<String, Object> oldTable = tableAt(baseline.getTables(), baselineTables.get(tableName));
+            Map<String, Object> newTable = tableAt(target.getTables(), targetTables.get(tableName));
+            if (oldTable == null) {
+                diff.getTableChanges().add(new TableChange(ChangeType.ADDED, tableName));
+            } else if (newTable == null) {
+                diff.getTableChanges().add(new TableChange(ChangeType.DROPPED, tableName));
+            } else if (fingerprint(oldTable) == fingerprint(newTable)) {
+                unchanged++;
+            } else {
+                TableChange change = compareTables(tableName, oldTable, newTable);
+                // 指纹不同但属性相同（例如仅列顺序变化）时不计为变更
+                if (change.getFieldChanges().isEmpty() && change.getColumnChanges().isEmpty()) {
+                    unchanged++;
+                } else {
+                    diff.getTableChanges().add(change);
+                }
+            }
+        }
+        diff.setUnchangedTables(unchanged);
+
+        LOGGER.info("Compared {} tables in {} ms: {} added, {} dropped, {} altered, {} unchanged",
+                tableNames.size(), System.currentTimeMillis() - start,
+                diff.countTables(ChangeType.ADDED), diff.countTables(ChangeType.DROPPED),
+                diff.countTables(ChangeType.ALTERED), unchanged);
+        return diff;
+    }
+
+    private TableChange compareTables(String tableName, Map<String, Object> oldTable, Map<String, Object> newTable) {
+        TableChange change = new TableChange(ChangeType.ALTERED, tableName);
+        addFieldChange(change.getFieldChanges(), "表注释", oldTable.get("remarks"), newTable.get("remarks"));
+
+        Map<String, Map<String, Object>> oldColumns = indexColumns(oldTable);
+        Map<String, Map<String, Object>> newColumns = indexColumns(newTable);
+
+        // 保持新表的列顺序，删除的列追加在后面
+        for (Map.Entry<String, Map<String, Object>> entry : newColumns.entrySet()) {
+            Map<String, Object> oldColumn = oldColumns.get(entry.getKey());
+            if (oldColumn == null) {
+                change.getColumnChanges().add(new ColumnChange(ChangeType.ADDED, entry.getKey()));
+                continue;
+            }
+            ColumnChange columnChange = new ColumnChange(ChangeType.ALTERED, entry.getKey());
+            for (Map.Entry<String, String> field : COLUMN_FIELDS.entrySet()) {
+                addFieldChange(columnChange.getFieldChanges(), field.getValue(),
+                        oldColumn.get(field.getKey()), entry.getValue().get(field.getKey()));
+            }
+            if (!columnChange.getFieldChanges().isEmpty()) {
+                change.getColumnChanges().add(columnChange);
+            }
+        }
+        for (String columnName : oldColumns.keySet()) {
+            if (!newColumns.containsKey(columnName)) {
+                change.getColumnChanges().add(new ColumnChange(ChangeType.DROPPED, columnName));
+            }
+        }
+        return change;
+    }
+
+    private void addFieldChange(List<FieldChange> changes, String field, Object oldValue, Object newValue) {
+        String oldText = normalize(oldValue);
+        String newText = normalize(newValue);
+        if (!Objects.equals(oldText, newText)) {
+            changes.add(new FieldChange(field, oldText, newText));
+        }
+    }
+
+    /**
+     * 计算表指纹：表注释 + 按顺序的所有列属性
+     */
+    public static long fingerprint(Map<String, Object> table) {
+        long hash = hashValue(Hashing.SEED, table.get("remarks"));
+        for (Map<String, Object> column : getColumns(table)) {
+            hash = hashValue(hash, column.get("name"));
+            for (String field : FINGERPRINT_FIELDS) {
+                hash = hashValue(hash, column.get(field));
+            }
+        }
+        return Hashing.finish(hash);
+    }
+
+    // 与normalize保持一致（null视为空串、忽略首尾空白），字符串值不额外分配内存
+    private static long hashValue(long hash, Object value) {
+        if (value instanceof String) {
+            String text = (String) value;
+            int start = 0;
+            int end = text.length();
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            hash = Hashing.update(hash, start == 0 && end == text.length() ? text : text.subSequence(start, end));
+        } else if (value != null) {
+            hash = Hashing.update(hash, value.toString());
+        }
+        return Hashing.separator(hash);
+    }
+
+    private Map<String, Integer> indexTables(List<Map<String, Object>> tables) {
+        Map<String, Integer> index = new HashMap<>(tables.size() * 2);
+        for (int i = 0; i < tables.size(); i++) {
+            index.put(String.valueOf(tables.get(i).get("tableName")), i);
+        }
+        return index;
+    }
+
+    private static Map<String, Object> tableAt(List<Map<String, Object>> tables, Integer index) {
+        return index != null ? tables.get(index) : null;
+    }
+
+    private Map<String, Map<String, Object>> indexColumns(Map<String, Object> table) {
+        Map<String, Map<String, Object>> index = new LinkedHashMap<>();
+        for (Map<String, Object> column : getColumns(table)) {
+            index.put(String.valueOf(column.get("name")), column);
+        }
+        return index;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getColumns(Map<String, Object> table) {
+        Object columns = table.get("columns");
+        return columns instanceof List ? (List<Map<String, Object>>) columns : Collections.emptyList();
+    }
+
+    // null 与空字符串视为相同，避免不同驱动返回值差异造成误报
+    private static String normalize(Object value) {
+        if (value == null) {
+            return "";
+        }
+        return value.toString().trim();
+    }
+}
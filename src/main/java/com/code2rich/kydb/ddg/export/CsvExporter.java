@@ -0,0 +1,113 @@
+package com.code2rich.kydb.ddg.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CSV导出
+ * 首行为 snake_case 列名；字段含逗号、引号、换行、反斜杠或为空串时加双引号，引号写成两个引号；
+ * 反斜杠写成两个反斜杠，null 输出为 \N，空串输出为 ""，数值列不会把未采集的值读成0，默认值也能区分 NULL 和空串。
+ * 按 MySQL 的默认转义符（ESCAPED BY '\\'）直接导入：
+ * LOAD DATA LOCAL INFILE 'columns.csv' INTO TABLE t CHARACTER SET utf8mb4
+ *     FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '"' LINES TERMINATED BY '\n' IGNORE 1 LINES
+ * 布尔值输出为 true/false，导入到数值列时用 (@primary_key) SET primary_key = @primary_key = 'true' 转换
+ */
+class CsvExporter extends MetadataExporter {
+    // LOAD DATA 的 NULL 标记
+    static final String NULL = "\\N";
+
+    CsvExporter(Writer writer, ExportRecord record) {
+        super(writer, record);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        appendNames(line, HEADER_FIELDS);
+        if (record == ExportRecord.TABLE) {
+            appendNames(line, TABLE_FIELDS);
+        } else {
+            appendNames(line, COLUMN_OWNER_FIELDS);
+            appendNames(line, COLUMN_FIELDS);
+        }
+        endLine(line);
+    }
+
+    @Override
+    protected void writeTable(Map<String, Object> table, List<Map<String, Object>> columns) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        appendValues(line, headerValues());
+        appendValues(line, tableValues(table, columns));
+        endLine(line);
+    }
+
+    @Override
+    protected void writeColumn(Map<String, Object> table, int position, Map<String, Object> column) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        appendValues(line, headerValues());
+        appendValues(line, new Object[] { table.get("tableName"), table.get("remarks") });
+        appendValues(line, columnValues(position, column));
+        endLine(line);
+    }
+
+    private void endLine(StringBuilder line) throws IOException {
+        // 去掉最后一个分隔符
+        line.setLength(line.length() - 1);
+        line.append('\n');
+        writer.write(line.toString());
+    }
+
+    private static void appendNames(StringBuilder line, String[] names) {
+        for (String name : names) {
+            line.append(toSnakeCase(name)).append(',');
+        }
+    }
+
+    private static void appendValues(StringBuilder line, Object[] values) {
+        for (Object value : values) {
+            if (value != null) {
+                appendEscaped(line, value.toString());
+            } else {
+                line.append(NULL);
+            }
+            line.append(',');
+        }
+    }
+
+    static void appendEscaped(StringBuilder line, String value) {
+        boolean quote = value.isEmpty();
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r' || c == '\\';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // 值中的 \n、\t 等按原样导入，不被当成转义序列
+            if (c == '"' || c == '\\') {
+                line.append(c);
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    static String toSnakeCase(String name) {
+        StringBuilder result = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                result.append('_').append(Character.toLowerCase(c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
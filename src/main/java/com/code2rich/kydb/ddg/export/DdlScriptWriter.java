@@ -0,0 +1,46 @@
+package com.code2rich.kydb.ddg.export;
+
+import com.code2rich.kydb.ddg.metadata.TableSink;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * 把各表的建表语句依次写成一个SQL脚本
+ * 每收到一个表立即写出，没有建表语句的表（未开启 --ddl）被跳过；抽取失败的表不在脚本中，见文档的抽取错误页
+ */
+public class DdlScriptWriter implements TableSink, Flushable {
+    private final Writer writer;
+    private long tableCount;
+
+    public DdlScriptWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void begin(String dbType, String dbName) throws IOException {
+        writer.write("-- " + dbName + " (" + dbType + ")\n\n");
+    }
+
+    @Override
+    public void accept(Map<String, Object> table) throws IOException {
+        Object ddl = table.get("ddl");
+        if (ddl == null) {
+            return;
+        }
+        writer.write(ddl.toString());
+        writer.write("\n\n");
+        tableCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public long getTableCount() {
+        return tableCount;
+    }
+}
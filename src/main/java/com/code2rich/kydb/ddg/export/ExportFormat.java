@@ -0,0 +1,46 @@
+package com.code2rich.kydb.ddg.export;
+
+import java.util.Locale;
+
+/**
+ * 机器可读的元数据导出格式
+ */
+public enum ExportFormat {
+    /**
+     * JSON Lines：每行一个JSON对象
+     */
+    JSONL(".jsonl"),
+    /**
+     * CSV：首行为列名，引号规则同 RFC 4180，null 为 \N、反斜杠转义，可直接 LOAD DATA 导入
+     */
+    CSV(".csv");
+
+    private final String fileSuffix;
+
+    ExportFormat(String fileSuffix) {
+        this.fileSuffix = fileSuffix;
+    }
+
+    public String getFileSuffix() {
+        return fileSuffix;
+    }
+
+    /**
+     * 根据输出文件类型识别导出格式
+     * @return 不是导出格式时返回 null
+     */
+    public static ExportFormat of(String fileType) {
+        if (fileType == null) {
+            return null;
+        }
+        switch (fileType.toUpperCase(Locale.ROOT)) {
+            case "JSONL":
+            case "NDJSON":
+                return JSONL;
+            case "CSV":
+                return CSV;
+            default:
+                return null;
+        }
+    }
+}
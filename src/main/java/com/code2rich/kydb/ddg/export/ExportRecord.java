@@ -0,0 +1,35 @@
+package com.code2rich.kydb.ddg.export;
+
+import java.util.Locale;
+
+/**
+ * 导出记录的粒度
+ */
+public enum ExportRecord {
+    /**
+     * 每个表一条记录（JSONL中列信息嵌套在 columns 数组里，CSV中只输出列数）
+     */
+    TABLE,
+    /**
+     * 每个列一条记录，带上所属表的信息
+     */
+    COLUMN;
+
+    /**
+     * @throws IllegalArgumentException 名称不存在时
+     */
+    public static ExportRecord of(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export record type: " + name + ", expected TABLE or COLUMN");
+        }
+    }
+
+    /**
+     * 未指定时的默认粒度：JSONL按表，CSV按列
+     */
+    public static ExportRecord defaultFor(ExportFormat format) {
+        return format == ExportFormat.CSV ? COLUMN : TABLE;
+    }
+}
@@ -0,0 +1,64 @@
+package com.code2rich.kydb.ddg.export;
+
+import com.code2rich.kydb.ddg.util.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON Lines导出：每条记录一行，可直接用 jq、Spark（spark.read.json）等逐行处理
+ * 除公共字段外每条记录带 record 字段（table / column）标明记录类型
+ */
+class JsonLinesExporter extends MetadataExporter {
+
+    JsonLinesExporter(Writer writer, ExportRecord record) {
+        super(writer, record);
+    }
+
+    @Override
+    protected void writeTable(Map<String, Object> table, List<Map<String, Object>> columns) throws IOException {
+        JsonWriter json = beginRecord("table");
+        writeFields(json, TABLE_FIELDS, tableValues(table, columns));
+        json.name("columns").beginArray();
+        for (int i = 0; i < columns.size(); i++) {
+            json.beginObject();
+            writeFields(json, COLUMN_FIELDS, columnValues(i + 1, columns.get(i)));
+            json.endObject();
+        }
+        json.endArray();
+        endRecord(json);
+    }
+
+    @Override
+    protected void writeColumn(Map<String, Object> table, int position, Map<String, Object> column) throws IOException {
+        JsonWriter json = beginRecord("column");
+        writeFields(json, COLUMN_OWNER_FIELDS, new Object[] { table.get("tableName"), table.get("remarks") });
+        writeFields(json, COLUMN_FIELDS, columnValues(position, column));
+        endRecord(json);
+    }
+
+    // 每条记录使用独立的JsonWriter，共享底层Writer
+    private JsonWriter beginRecord(String type) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.beginObject();
+        Object[] header = headerValues();
+        json.field(HEADER_FIELDS[0], header[0]);
+        json.field("record", type);
+        for (int i = 1; i < HEADER_FIELDS.length; i++) {
+            json.field(HEADER_FIELDS[i], header[i]);
+        }
+        return json;
+    }
+
+    private void endRecord(JsonWriter json) throws IOException {
+        json.endObject().newLine();
+    }
+
+    private static void writeFields(JsonWriter json, String[] names, Object[] values) throws IOException {
+        for (int i = 0; i < names.length; i++) {
+            json.field(names[i], values[i]);
+        }
+    }
+}
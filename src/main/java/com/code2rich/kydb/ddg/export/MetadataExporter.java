@@ -0,0 +1,170 @@
+package com.code2rich.kydb.ddg.export;
+
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.metadata.TableSink;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 元数据导出
+ * 每收到一个表立即写出对应的记录，不缓存已写出的表，内存占用与schema大小无关。
+ *
+ * 输出结构带版本号（schemaVersion / schema_version），同一版本内字段的名称、顺序和含义保持不变，
+ * 未采集到的值输出为 null（CSV中为 \N）；只允许在新版本中追加字段。
+ */
+public abstract class MetadataExporter implements TableSink, Flushable {
+    /**
+     * 导出结构版本
+     */
+    public static final int SCHEMA_VERSION = 1;
+
+    // 每条记录开头的公共字段
+    static final String[] HEADER_FIELDS = { "schemaVersion", "dbType", "dbName" };
+
+    // 表记录字段
+    static final String[] TABLE_FIELDS = {
+            "table", "remarks", "rowCount", "dataSize", "columnCount", "profileSampledRows", "profilePartial"
+    };
+
+    // 列记录字段，按列输出时前面还有所属表的 table、tableRemarks
+    static final String[] COLUMN_FIELDS = {
+            "position", "column", "typeName", "dataType", "length", "scale", "primaryKey", "nullable",
+            "defaultValue", "remarks", "nullRatio", "distinctCount", "minValue", "maxValue", "topValues"
+    };
+
+    static final String[] COLUMN_OWNER_FIELDS = { "table", "tableRemarks" };
+
+    protected final Writer writer;
+    protected final ExportRecord record;
+    private String dbType;
+    private String dbName;
+    private long tableCount;
+    private long columnCount;
+    private long failureCount;
+
+    protected MetadataExporter(Writer writer, ExportRecord record) {
+        this.writer = writer;
+        this.record = record;
+    }
+
+    public static MetadataExporter create(ExportFormat format, ExportRecord record, Writer writer) {
+        ExportRecord granularity = record != null ? record : ExportRecord.defaultFor(format);
+        switch (format) {
+            case JSONL:
+                return new JsonLinesExporter(writer, granularity);
+            case CSV:
+                return new CsvExporter(writer, granularity);
+            default:
+                throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+    }
+
+    @Override
+    public void begin(String dbType, String dbName) throws IOException {
+        this.dbType = dbType;
+        this.dbName = dbName;
+        writeHeader();
+    }
+
+    @Override
+    public void accept(Map<String, Object> table) throws IOException {
+        List<Map<String, Object>> columns = getColumns(table);
+        tableCount++;
+        columnCount += columns.size();
+        if (record == ExportRecord.TABLE) {
+            writeTable(table, columns);
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                writeColumn(table, i + 1, columns.get(i));
+            }
+        }
+    }
+
+    /**
+     * 抽取失败的表不写出记录（记录结构只包含表和列），只计数
+     */
+    @Override
+    public void fail(TableFailure failure) {
+        failureCount++;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    public long getTableCount() {
+        return tableCount;
+    }
+
+    public long getColumnCount() {
+        return columnCount;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * 输出开始前的内容，如CSV的列名行
+     */
+    protected void writeHeader() throws IOException {
+    }
+
+    protected abstract void writeTable(Map<String, Object> table, List<Map<String, Object>> columns) throws IOException;
+
+    protected abstract void writeColumn(Map<String, Object> table, int position, Map<String, Object> column) throws IOException;
+
+    protected Object[] headerValues() {
+        return new Object[] { SCHEMA_VERSION, dbType, dbName };
+    }
+
+    /**
+     * 表记录的字段值，顺序与 TABLE_FIELDS 一致
+     */
+    protected static Object[] tableValues(Map<String, Object> table, List<Map<String, Object>> columns) {
+        return new Object[] {
+                table.get("tableName"),
+                table.get("remarks"),
+                table.get("rowCount"),
+                table.get("dataSize"),
+                columns.size(),
+                table.get("profileSampledRows"),
+                table.get("profilePartial")
+        };
+    }
+
+    /**
+     * 列记录的字段值，顺序与 COLUMN_FIELDS 一致
+     */
+    protected static Object[] columnValues(int position, Map<String, Object> column) {
+        return new Object[] {
+                position,
+                column.get("name"),
+                column.get("typeName"),
+                column.get("dataType"),
+                column.get("length"),
+                column.get("scale"),
+                column.get("primaryKey"),
+                column.get("nullable"),
+                column.get("defaultValue"),
+                column.get("remarks"),
+                column.get("nullRatio"),
+                column.get("distinctCount"),
+                column.get("minValue"),
+                column.get("maxValue"),
+                column.get("topValues")
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getColumns(Map<String, Object> table) {
+        Object columns = table.get("columns");
+        return columns instanceof List ? (List<Map<String, Object>>) columns : Collections.emptyList();
+    }
+}
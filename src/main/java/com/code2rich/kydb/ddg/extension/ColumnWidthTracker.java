@@ -0,0 +1,116 @@
+package com.code2rich.kydb.ddg.extension;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.Arrays;
+
+/**
+ * 列宽估算
+ * 写入单元格时按字符估算显示宽度并记录每列的最大值，写完后一次性设置列宽。
+ * POI 的 autoSizeColumn 需要用 AWT 逐个单元格测量字体，大schema下非常慢，
+ * 且流式工作簿（SXSSF）只能测量仍在内存窗口中的行；这里只做字符计数，开销可以忽略。
+ * 宽度单位为Excel的字符宽度：半角字符计 1，中日韩等全角字符计 2
+ */
+public class ColumnWidthTracker {
+    // 单元格左右留白
+    private static final int PADDING = 2;
+    // Excel 允许的最大列宽
+    private static final int EXCEL_MAX_WIDTH = 255;
+
+    private final int[] widths;
+    private final int[] minWidths;
+    private final int[] maxWidths;
+
+    /**
+     * @param columns 列数
+     * @param minWidth 默认最小列宽（字符）
+     * @param maxWidth 默认最大列宽（字符），超出部分由单元格换行或截断显示
+     */
+    public ColumnWidthTracker(int columns, int minWidth, int maxWidth) {
+        this.widths = new int[columns];
+        this.minWidths = new int[columns];
+        this.maxWidths = new int[columns];
+        Arrays.fill(minWidths, minWidth);
+        Arrays.fill(maxWidths, Math.min(maxWidth, EXCEL_MAX_WIDTH));
+    }
+
+    /**
+     * 单独指定某一列的宽度范围
+     */
+    public ColumnWidthTracker limit(int column, int minWidth, int maxWidth) {
+        minWidths[column] = minWidth;
+        maxWidths[column] = Math.min(maxWidth, EXCEL_MAX_WIDTH);
+        return this;
+    }
+
+    /**
+     * 记录一个单元格的内容
+     */
+    public void observe(int column, Object value) {
+        if (value == null || column < 0 || column >= widths.length) {
+            return;
+        }
+        String text;
+        if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            text = number == Math.rint(number) && !Double.isInfinite(number)
+                    ? String.valueOf((long) number) : String.valueOf(number);
+        } else {
+            text = value.toString();
+        }
+        // 已经达到上限，或者内容即使全是全角字符也不会更宽时，不需要逐字符计算
+        int current = widths[column];
+        if (current >= maxWidths[column] || text.length() * 2 + PADDING <= current) {
+            return;
+        }
+        int width = displayWidth(text) + PADDING;
+        if (width > current) {
+            widths[column] = width;
+        }
+    }
+
+    /**
+     * 按记录的最大宽度设置列宽，未记录内容的列使用最小宽度
+     */
+    public void apply(Sheet sheet) {
+        for (int i = 0; i < widths.length; i++) {
+            int width = Math.max(minWidths[i], Math.min(widths[i], maxWidths[i]));
+            sheet.setColumnWidth(i, width * 256);
+        }
+    }
+
+    /**
+     * 文本的显示宽度，多行文本取最长的一行
+     */
+    static int displayWidth(String text) {
+        int max = 0;
+        int line = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                max = Math.max(max, line);
+                line = 0;
+            } else if (Character.isLowSurrogate(c)) {
+                // 代理对按高位计算宽度
+                continue;
+            } else {
+                line += isFullWidth(c) ? 2 : 1;
+            }
+        }
+        return Math.max(max, line);
+    }
+
+    private static boolean isFullWidth(char c) {
+        if (c < 0x1100) {
+            return false;
+        }
+        return c <= 0x115F                       // 谚文字母
+                || (c >= 0x2E80 && c <= 0xA4CF)  // 中日韩部首、标点、假名、统一表意文字
+                || (c >= 0xAC00 && c <= 0xD7A3)  // 谚文音节
+                || (c >= 0xD840 && c <= 0xD87F)  // 扩展B及以后的表意文字（高位代理）
+                || (c >= 0xF900 && c <= 0xFAFF)  // 兼容表意文字
+                || (c >= 0xFE30 && c <= 0xFE4F)  // 兼容形式
+                || (c >= 0xFF00 && c <= 0xFF60)  // 全角ASCII和标点
+                || (c >= 0xFFE0 && c <= 0xFFE6);
+    }
+}
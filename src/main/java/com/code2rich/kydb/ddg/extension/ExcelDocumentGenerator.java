@@ -1,8 +1,19 @@
 package com.code2rich.kydb.ddg.extension;
 
+import com.code2rich.kydb.ddg.lint.LintReport;
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import com.code2rich.kydb.ddg.lint.LintReport.Severity;
+import com.code2rich.kydb.ddg.metadata.PartitionCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectType;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.output.ContentHash;
+import com.code2rich.kydb.ddg.output.OutputManifest;
 import org.apache.poi.common.usermodel.HyperlinkType;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFFont;
@@ -13,11 +24,22 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Excel文档生成器
@@ -34,6 +56,32 @@ public class ExcelDocumentGenerator {
     private static final byte[] SUB_HEADER_RGB = new byte[] { (byte) 255, (byte) 255, (byte) 153 }; // FFFF99 黄色
     private static final byte[] HYPERLINK_RGB = new byte[] { (byte) 0, (byte) 0, (byte) 255 }; // 超链接蓝色
 
+    // 流式写出时内存中保留的行数
+    private static final int ROW_ACCESS_WINDOW = 200;
+    // 单元格最多容纳的字符数，更长的定义行拆成多行
+    private static final int MAX_CELL_CHARS = 32767;
+    // 版式版本，计入内容哈希；修改输出格式时递增，使旧的清单失效（服务模式的下载 ETag 也计入此版本）
+    public static final int LAYOUT_VERSION = 1;
+
+    // 封面、修订记录和文档属性中的日期取自此时钟
+    private Clock clock = Clock.systemDefaultZone();
+    // 内容哈希与上一次的清单相同时跳过生成
+    private boolean skipUnchanged = true;
+    // 规范检查结果，不为 null 时在表目录后增加"规范检查"页
+    private LintReport lintReport;
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public void setLintReport(LintReport lintReport) {
+        this.lintReport = lintReport;
+    }
+
     /**
      * 生成Excel文档
      * @param outputDir 输出目录
@@ -43,35 +91,201 @@ public class ExcelDocumentGenerator {
      * @param tableList 表列表，每个表是一个Map，包含表名、注释和列信息
      */
     public void generate(String outputDir, String fileName, String dbType, String dbName, List<Map<String, Object>> tableList) {
-        LOGGER.info("Generating Excel documentation...");
+        generate(outputDir, fileName, dbType, dbName, tableList, Collections.emptyList());
+    }
+    
+    /**
+     * 生成Excel文档，抽取失败的表列在"抽取错误"页中
+     */
+    public void generate(String outputDir, String fileName, String dbType, String dbName, List<Map<String, Object>> tableList,
+                         List<TableFailure> failures) {
+        generate(outputDir, fileName, dbType, dbName, tableList, Collections.emptyList(), failures);
+    }
+    
+    /**
+     * 生成Excel文档，视图、序列、存储过程、触发器等对象各有一个目录页，除序列外每个对象一个明细页
+     * 先计算各工作表的内容哈希，与输出目录中的清单相同时保留原文件不再生成；
+     * 否则写入临时文件后替换，下游同步看到的始终是完整的文件
+     * @param objects 表以外的对象，结构见 {@link SchemaObjectCollector}
+     */
+    public void generate(String outputDir, String fileName, String dbType, String dbName, List<Map<String, Object>> tableList,
+                         List<Map<String, Object>> objects, List<TableFailure> failures) {
+        File directory = new File(outputDir);
+        String excelName = fileName + ".xlsx";
+        File target = new File(directory, excelName);
         
-        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
-            // 创建各种样式
-            Map<String, CellStyle> styles = createStyles(workbook);
-            
-            // 创建封面页
-            createCoverSheet(workbook, styles, dbType, dbName);
-            
-            // 创建修订记录页
-            createRevisionSheet(workbook, styles);
-            
-            // 创建表目录页
-            createTableListSheet(workbook, tableList, styles);
-            
-            // 为每个表创建工作表
-            for (Map<String, Object> table : tableList) {
-                createTableSheet(workbook, table, styles);
-            }
-            
-            // 保存Excel文件
-            String filePath = outputDir + File.separator + fileName + ".xlsx";
-            try (FileOutputStream fileOut = new FileOutputStream(filePath)) {
-                workbook.write(fileOut);
+        OutputManifest manifest = OutputManifest.load(directory);
+        Map<String, String> sheetHashes = hashSheets(dbType, dbName, tableList, objects, failures);
+        ContentHash contentHash = new ContentHash().add(LAYOUT_VERSION).add(dbType).add(dbName);
+        for (Map.Entry<String, String> entry : sheetHashes.entrySet()) {
+            contentHash.add(entry.getKey()).add(entry.getValue());
+        }
+        String hash = contentHash.toHex();
+        if (skipUnchanged && manifest.isUnchanged(excelName, hash)) {
+            LOGGER.info("Excel documentation is unchanged, keeping {}", target.getPath());
+            return;
+        }
+        
+        LOGGER.info("Generating Excel documentation...");
+        File temp = new File(directory, "." + excelName + ".tmp");
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+                write(fileOut, dbType, dbName, tableList, objects, failures);
             }
-            
-            LOGGER.info("Excel documentation generated successfully: {}", filePath);
+            OutputManifest.replace(temp, target);
+            manifest.put(excelName, hash);
+            int changed = manifest.putSheets(excelName, sheetHashes);
+            manifest.save();
+            LOGGER.info("Excel documentation generated successfully: {} ({} of {} sheets changed)",
+                    target.getPath(), changed, sheetHashes.size());
         } catch (IOException e) {
             LOGGER.error("Failed to generate Excel documentation", e);
+            if (temp.exists() && !temp.delete()) {
+                LOGGER.warn("Could not delete temporary file {}", temp);
+            }
+        }
+    }
+    
+    /**
+     * 按工作表顺序计算各页的内容哈希，封面和修订记录只含日期和库名，库名计入整个文件的哈希
+     */
+    private Map<String, String> hashSheets(String dbType, String dbName, List<Map<String, Object>> tableList,
+                                           List<Map<String, Object>> objects, List<TableFailure> failures) {
+        Map<String, String> hashes = new LinkedHashMap<>();
+        Map<String, String> tableHashes = new LinkedHashMap<>();
+        ContentHash listHash = new ContentHash();
+        for (Map<String, Object> table : tableList) {
+            String tableName = table.get("tableName") != null ? table.get("tableName").toString() : "未命名表";
+            listHash.add(tableName).add(table.get("remarks")).add(table.get("rowCount")).add(table.get("dataSize"))
+                    .add(table.get("partition"));
+            // 以完整表名为键，截断后同名的工作表不会互相覆盖
+            tableHashes.put(tableName, new ContentHash().add(table).toHex());
+        }
+        hashes.put("表目录", listHash.toHex());
+        
+        if (!failures.isEmpty()) {
+            ContentHash failureHash = new ContentHash();
+            for (TableFailure failure : failures) {
+                failureHash.add(failure.getTableName()).add(failure.getSqlState()).add(failure.getErrorCode())
+                        .add(failure.getMessage());
+            }
+            hashes.put("抽取错误", failureHash.toHex());
+        }
+        
+        if (lintReport != null) {
+            ContentHash lintHash = new ContentHash().add(lintReport.getTableCount()).add(lintReport.getColumnCount());
+            for (Finding finding : lintReport.getFindings()) {
+                lintHash.add(finding.getRuleId()).add(finding.getTableName()).add(finding.getColumnName())
+                        .add(finding.getMessage());
+            }
+            hashes.put("规范检查", lintHash.toHex());
+        }
+        
+        List<String> objectSheetNames = new ArrayList<>();
+        Map<SchemaObjectType, Integer> objectCounts = assignObjectSheetNames(objects, objectSheetNames);
+        Map<SchemaObjectType, ContentHash> objectListHashes = new EnumMap<>(SchemaObjectType.class);
+        for (SchemaObjectType type : objectCounts.keySet()) {
+            objectListHashes.put(type, new ContentHash());
+        }
+        Map<String, String> objectHashes = new LinkedHashMap<>();
+        int objectIndex = 0;
+        for (Map<String, Object> object : objects) {
+            String objectHash = new ContentHash().add(object).toHex();
+            objectListHashes.get(getObjectType(object)).add(objectHash);
+            String sheetName = objectSheetNames.get(objectIndex++);
+            if (sheetName != null) {
+                objectHashes.put(sheetName, objectHash);
+            }
+        }
+        for (Map.Entry<SchemaObjectType, ContentHash> entry : objectListHashes.entrySet()) {
+            hashes.put(getObjectListSheetName(entry.getKey()), entry.getValue().toHex());
+        }
+        hashes.putAll(tableHashes);
+        hashes.putAll(objectHashes);
+        return hashes;
+    }
+    
+    /**
+     * 将Excel文档写入输出流（不关闭输出流）
+     * 表目录和各表工作表以流式写出，按顺序逐个读取表，不需要把整个schema和所有行同时放在内存中
+     * @param out 输出流
+     * @param dbType 数据库类型
+     * @param dbName 数据库名称
+     * @param tableList 表列表
+     */
+    public void write(OutputStream out, String dbType, String dbName, List<Map<String, Object>> tableList) throws IOException {
+        write(out, dbType, dbName, tableList, Collections.emptyList());
+    }
+    
+    /**
+     * 将Excel文档写入输出流（不关闭输出流），有抽取失败的表时在表目录后增加"抽取错误"页
+     */
+    public void write(OutputStream out, String dbType, String dbName, List<Map<String, Object>> tableList,
+                      List<TableFailure> failures) throws IOException {
+        write(out, dbType, dbName, tableList, Collections.emptyList(), failures);
+    }
+    
+    /**
+     * 将Excel文档写入输出流（不关闭输出流）
+     * 对象目录页放在表目录之后，对象明细页放在各表工作表之后
+     */
+    public void write(OutputStream out, String dbType, String dbName, List<Map<String, Object>> tableList,
+                      List<Map<String, Object>> objects, List<TableFailure> failures) throws IOException {
+        XSSFWorkbook template = new XSSFWorkbook();
+        // 文档属性中的创建时间默认为当前时间，改用注入的时钟，相同输入得到相同的文件
+        template.getProperties().getCoreProperties().setCreated(Optional.of(Date.from(clock.instant())));
+        
+        // 创建各种样式
+        Map<String, CellStyle> styles = createStyles(template);
+        
+        // 创建封面页
+        createCoverSheet(template, styles, dbType, dbName);
+        
+        // 创建修订记录页
+        createRevisionSheet(template, styles);
+        
+        try (StreamingWorkbook workbook = new StreamingWorkbook(template, ROW_ACCESS_WINDOW)) {
+            try {
+                // 创建表目录页
+                workbook.finishSheet(createTableListSheet(workbook, tableList, styles));
+                
+                // 抽取失败的表
+                if (!failures.isEmpty()) {
+                    workbook.finishSheet(createErrorSheet(workbook, failures, styles));
+                }
+                
+                // 规范检查结果
+                if (lintReport != null) {
+                    workbook.finishSheet(createLintSheet(workbook, lintReport, styles));
+                }
+                
+                // 各种对象的目录页
+                List<String> objectSheetNames = new ArrayList<>();
+                Map<SchemaObjectType, Integer> objectCounts = assignObjectSheetNames(objects, objectSheetNames);
+                for (Map.Entry<SchemaObjectType, Integer> entry : objectCounts.entrySet()) {
+                    workbook.finishSheet(createObjectListSheet(workbook, entry.getKey(), entry.getValue(), objects,
+                            objectSheetNames, styles));
+                }
+                
+                // 为每个表创建工作表
+                for (Map<String, Object> table : tableList) {
+                    workbook.finishSheet(createTableSheet(workbook, table, styles));
+                }
+                
+                // 对象明细页，序列的信息都在目录页中
+                int objectIndex = 0;
+                for (Map<String, Object> object : objects) {
+                    String sheetName = objectSheetNames.get(objectIndex++);
+                    if (sheetName != null) {
+                        workbook.finishSheet(createObjectSheet(workbook, object, sheetName, styles));
+                    }
+                }
+                
+                workbook.write(out);
+            } finally {
+                // 删除流式写出的临时文件
+                workbook.dispose();
+            }
         }
     }
     
@@ -158,6 +372,20 @@ public class ExcelDocumentGenerator {
         alternatingRowStyle.setFillForegroundColor(new XSSFColor(TABLE_ROW_EVEN_RGB, null));
         styles.put("alternatingRow", alternatingRowStyle);
         
+        // 数值单元格样式（千分位），保证行数、大小列可以按数值排序
+        short numberFormat = workbook.createDataFormat().getFormat("#,##0");
+        XSSFCellStyle numberStyle = workbook.createCellStyle();
+        numberStyle.cloneStyleFrom(cellStyle);
+        numberStyle.setAlignment(HorizontalAlignment.RIGHT);
+        numberStyle.setDataFormat(numberFormat);
+        styles.put("number", numberStyle);
+        
+        XSSFCellStyle alternatingNumberStyle = workbook.createCellStyle();
+        alternatingNumberStyle.cloneStyleFrom(alternatingRowStyle);
+        alternatingNumberStyle.setAlignment(HorizontalAlignment.RIGHT);
+        alternatingNumberStyle.setDataFormat(numberFormat);
+        styles.put("alternatingNumber", alternatingNumberStyle);
+        
         // 链接样式
         XSSFCellStyle hyperlinkStyle = workbook.createCellStyle();
         hyperlinkStyle.cloneStyleFrom(cellStyle);
@@ -169,6 +397,15 @@ public class ExcelDocumentGenerator {
         hyperlinkStyle.setFont(hyperlinkFont);
         styles.put("hyperlink", hyperlinkStyle);
         
+        // 对象定义（源码）样式，等宽字体
+        XSSFCellStyle codeStyle = workbook.createCellStyle();
+        codeStyle.setVerticalAlignment(VerticalAlignment.TOP);
+        XSSFFont codeFont = workbook.createFont();
+        codeFont.setFontName("Consolas");
+        codeFont.setFontHeightInPoints((short) 10);
+        codeStyle.setFont(codeFont);
+        styles.put("code", codeStyle);
+        
         return styles;
     }
     
@@ -190,7 +427,8 @@ public class ExcelDocumentGenerator {
         // 合并单元格使标题居中
         sheet.addMergedRegion(new CellRangeAddress(10, 10, 4, 8));
         
-        // 设置整个工作表为浅蓝色背景
+        // 设置整个工作表为浅蓝色背景（所有单元格共用一个样式）
+        CellStyle backgroundStyle = createBackgroundStyle(workbook);
         for (int i = 0; i < 100; i++) {
             Row row = sheet.getRow(i);
             if (row == null) {
@@ -201,10 +439,7 @@ public class ExcelDocumentGenerator {
                 if (cell == null) {
                     cell = row.createCell(j);
                 }
-                CellStyle style = workbook.createCellStyle();
-                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                style.setFillForegroundColor(new XSSFColor(TITLE_BACKGROUND_RGB, null));
-                cell.setCellStyle(style);
+                cell.setCellStyle(backgroundStyle);
             }
         }
         
@@ -220,8 +455,7 @@ public class ExcelDocumentGenerator {
         // 设置生成日期
         Row dateRow = sheet.getRow(14);
         Cell dateCell = dateRow.getCell(4);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-        dateCell.setCellValue("生成日期: " + sdf.format(new Date()));
+        dateCell.setCellValue("生成日期: " + LocalDate.now(clock).format(DateTimeFormatter.ISO_LOCAL_DATE));
         
         // 设置标题行样式
         CellStyle titleRowStyle = workbook.createCellStyle();
@@ -243,6 +477,13 @@ public class ExcelDocumentGenerator {
         sheet.getPrintSetup().setFitHeight((short)1);
     }
     
+    private CellStyle createBackgroundStyle(XSSFWorkbook workbook) {
+        XSSFCellStyle style = workbook.createCellStyle();
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        style.setFillForegroundColor(new XSSFColor(TITLE_BACKGROUND_RGB, null));
+        return style;
+    }
+    
     /**
      * 创建修订记录页
      */
@@ -278,8 +519,7 @@ public class ExcelDocumentGenerator {
         versionCell.setCellStyle(styles.get("cell"));
         
         Cell dateCell = dataRow.createCell(1);
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy/MM/dd");
-        dateCell.setCellValue(sdf.format(new Date()));
+        dateCell.setCellValue(LocalDate.now(clock).format(DateTimeFormatter.ofPattern("yyyy/MM/dd")));
         dateCell.setCellStyle(styles.get("cell"));
         
         Cell contentCell = dataRow.createCell(2);
@@ -293,6 +533,7 @@ public class ExcelDocumentGenerator {
         }
         
         // 为工作表添加浅蓝色背景
+        CellStyle backgroundStyle = createBackgroundStyle(workbook);
         for (int i = 5; i < 100; i++) {
             Row row = sheet.getRow(i);
             if (row == null) {
@@ -303,10 +544,7 @@ public class ExcelDocumentGenerator {
                 if (cell == null) {
                     cell = row.createCell(j);
                 }
-                CellStyle style = workbook.createCellStyle();
-                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-                style.setFillForegroundColor(new XSSFColor(TITLE_BACKGROUND_RGB, null));
-                cell.setCellStyle(style);
+                cell.setCellStyle(backgroundStyle);
             }
         }
         
@@ -319,28 +557,29 @@ public class ExcelDocumentGenerator {
     /**
      * 创建表目录页
      */
-    private void createTableListSheet(XSSFWorkbook workbook, List<Map<String, Object>> tableList, Map<String, CellStyle> styles) {
-        Sheet sheet = workbook.createSheet("表目录");
+    private SXSSFSheet createTableListSheet(StreamingWorkbook workbook, List<Map<String, Object>> tableList, Map<String, CellStyle> styles) {
+        SXSSFSheet sheet = workbook.createSheet("表目录");
         
-        // 设置列宽
-        sheet.setColumnWidth(0, 10 * 256); // 序号
-        sheet.setColumnWidth(1, 30 * 256); // 表名
-        sheet.setColumnWidth(2, 50 * 256); // 表备注
+        // 列宽按内容估算，写完数据后统一设置
+        ColumnWidthTracker widths = new ColumnWidthTracker(6, 8, 60)
+                .limit(1, 12, 40)  // 表名
+                .limit(2, 20, 80); // 表备注
         
         // 创建标题行
         Row titleRow = sheet.createRow(0);
         Cell titleCell = titleRow.createCell(0);
         titleCell.setCellValue("表目录");
         titleCell.setCellStyle(styles.get("title"));
-        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 3));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5));
         
         // 创建表头行
         Row headerRow = sheet.createRow(2);
-        String[] headers = new String[] { "序号", "表名", "表备注" };
+        String[] headers = new String[] { "序号", "表名", "表备注", "行数(估算)", "数据大小(KB)", "分区数" };
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(styles.get("header"));
+            widths.observe(i, headers[i]);
         }
         
         // 填充表数据，交替背景色
@@ -360,6 +599,7 @@ public class ExcelDocumentGenerator {
             Cell nameCell = tableRow.createCell(1);
             String tableName = table.get("tableName") != null ? table.get("tableName").toString() : "";
             nameCell.setCellValue(tableName);
+            widths.observe(1, tableName);
             
             // 创建工作表内部超链接
             Hyperlink link = workbook.getCreationHelper().createHyperlink(HyperlinkType.DOCUMENT);
@@ -372,11 +612,24 @@ public class ExcelDocumentGenerator {
             nameCell.setCellStyle(styles.get("hyperlink"));
             
             // 表备注
-            Cell remarksCell = tableRow.createCell(2);
-            remarksCell.setCellValue(table.get("remarks") != null ? table.get("remarks").toString() : "");
-            remarksCell.setCellStyle(rowStyle);
+            createCell(tableRow, 2, table.get("remarks") != null ? table.get("remarks").toString() : "", rowStyle, widths);
+            
+            // 统计信息来自优化器，未收集时留空
+            CellStyle numberStyle = (rowStyle == styles.get("alternatingRow")) ? styles.get("alternatingNumber") : styles.get("number");
+            Object rowCount = table.get("rowCount");
+            createCell(tableRow, 3, rowCount instanceof Number ? rowCount : null, numberStyle, widths);
+            Object dataSize = table.get("dataSize");
+            createCell(tableRow, 4, dataSize instanceof Number ? ((Number) dataSize).longValue() / 1024 : null, numberStyle, widths);
+            Map<String, Object> partition = getPartition(table);
+            createCell(tableRow, 5, partition != null ? partition.get("count") : null, numberStyle, widths);
         }
         
+        // 表头添加筛选，支持按行数、大小排序
+        if (!tableList.isEmpty()) {
+            sheet.setAutoFilter(new CellRangeAddress(2, tableList.size() + 2, 0, headers.length - 1));
+        }
+        widths.apply(sheet);
+        
         // 设置打印区域和分页符，确保表目录独立一页
         sheet.setFitToPage(true);
         sheet.getPrintSetup().setLandscape(true);
@@ -388,28 +641,383 @@ public class ExcelDocumentGenerator {
         sheet.setMargin(Sheet.RightMargin, 0.5);
         sheet.setMargin(Sheet.TopMargin, 0.5);
         sheet.setMargin(Sheet.BottomMargin, 0.5);
+        return sheet;
+    }
+    
+    /**
+     * 创建抽取错误页
+     */
+    private SXSSFSheet createErrorSheet(StreamingWorkbook workbook, List<TableFailure> failures, Map<String, CellStyle> styles) {
+        SXSSFSheet sheet = workbook.createSheet("抽取错误");
+        
+        ColumnWidthTracker widths = new ColumnWidthTracker(6, 8, 40)
+                .limit(1, 12, 40)  // 表名
+                .limit(2, 30, 100); // 错误信息
+        
+        Row titleRow = sheet.createRow(0);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue("抽取错误");
+        titleCell.setCellStyle(styles.get("title"));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5));
+        
+        Row headerRow = sheet.createRow(2);
+        String[] headers = new String[] { "序号", "表名", "错误信息", "SQLState", "错误码", "尝试次数" };
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(styles.get("header"));
+            widths.observe(i, headers[i]);
+        }
+        
+        int index = 1;
+        for (TableFailure failure : failures) {
+            Row row = sheet.createRow(index + 2);
+            CellStyle rowStyle = (index % 2 == 0) ? styles.get("alternatingRow") : styles.get("cell");
+            createCell(row, 0, index++, rowStyle, widths);
+            createCell(row, 1, failure.getTableName(), rowStyle, widths);
+            createCell(row, 2, failure.getMessage() != null ? failure.getMessage() : "", rowStyle, widths);
+            createCell(row, 3, failure.getSqlState() != null ? failure.getSqlState() : "", rowStyle, widths);
+            createCell(row, 4, failure.getErrorCode() != 0 ? failure.getErrorCode() : null, rowStyle, widths);
+            createCell(row, 5, failure.getAttempts(), rowStyle, widths);
+        }
+        widths.apply(sheet);
+        
+        sheet.setFitToPage(true);
+        sheet.getPrintSetup().setLandscape(true);
+        sheet.getPrintSetup().setFitWidth((short)1);
+        sheet.getPrintSetup().setFitHeight((short)0);
+        return sheet;
+    }
+    
+    /**
+     * 创建规范检查页：汇总行之后每个问题一行，表名链接到表的工作表
+     */
+    private SXSSFSheet createLintSheet(StreamingWorkbook workbook, LintReport report, Map<String, CellStyle> styles) {
+        SXSSFSheet sheet = workbook.createSheet("规范检查");
+        
+        ColumnWidthTracker widths = new ColumnWidthTracker(6, 8, 40)
+                .limit(2, 12, 30)  // 规则
+                .limit(3, 12, 40)  // 表名
+                .limit(5, 30, 100); // 说明
+        
+        Row titleRow = sheet.createRow(0);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue("规范检查");
+        titleCell.setCellStyle(styles.get("title"));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5));
+        
+        Map<Severity, Integer> counts = report.countBySeverity();
+        Row summaryRow = sheet.createRow(1);
+        Cell summaryCell = summaryRow.createCell(0);
+        summaryCell.setCellValue(String.format("共检查 %d 个表、%d 个列：%s %d，%s %d，%s %d",
+                report.getTableCount(), report.getColumnCount(),
+                Severity.ERROR.getLabel(), counts.get(Severity.ERROR),
+                Severity.WARNING.getLabel(), counts.get(Severity.WARNING),
+                Severity.INFO.getLabel(), counts.get(Severity.INFO)));
+        sheet.addMergedRegion(new CellRangeAddress(1, 1, 0, 5));
+        
+        Row headerRow = sheet.createRow(2);
+        String[] headers = new String[] { "序号", "级别", "规则", "表名", "列名", "说明" };
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(styles.get("header"));
+            widths.observe(i, headers[i]);
+        }
+        
+        // 问题数超出工作表行数上限时截断，完整结果见JSON报告
+        int lastRow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+        int index = 1;
+        for (Finding finding : report.getFindings()) {
+            if (index + 2 > lastRow) {
+                LOGGER.warn("Lint sheet truncated at {} of {} findings", index - 1, report.getFindings().size());
+                break;
+            }
+            Row row = sheet.createRow(index + 2);
+            CellStyle rowStyle = (index % 2 == 0) ? styles.get("alternatingRow") : styles.get("cell");
+            createCell(row, 0, index++, rowStyle, widths);
+            createCell(row, 1, finding.getSeverity().getLabel(), rowStyle, widths);
+            createCell(row, 2, finding.getRuleId(), rowStyle, widths);
+            String tableName = finding.getTableName() != null ? finding.getTableName() : "";
+            Cell nameCell = row.createCell(3);
+            nameCell.setCellValue(tableName);
+            widths.observe(3, tableName);
+            if (!tableName.isEmpty()) {
+                Hyperlink link = workbook.getCreationHelper().createHyperlink(HyperlinkType.DOCUMENT);
+                link.setAddress("'" + getSafeSheetName(tableName) + "'!A1");
+                nameCell.setHyperlink(link);
+                nameCell.setCellStyle(styles.get("hyperlink"));
+            } else {
+                nameCell.setCellStyle(rowStyle);
+            }
+            createCell(row, 4, finding.getColumnName() != null ? finding.getColumnName() : "", rowStyle, widths);
+            createCell(row, 5, finding.getMessage(), rowStyle, widths);
+        }
+        
+        // 表头添加筛选，便于按级别、规则筛选
+        if (index > 1) {
+            sheet.setAutoFilter(new CellRangeAddress(2, index + 1, 0, headers.length - 1));
+        }
+        widths.apply(sheet);
+        
+        sheet.setFitToPage(true);
+        sheet.getPrintSetup().setLandscape(true);
+        sheet.getPrintSetup().setFitWidth((short)1);
+        sheet.getPrintSetup().setFitHeight((short)0);
+        return sheet;
+    }
+    
+    /**
+     * 为除序列外的每个对象分配明细页名称（种类前缀 + 对象名，重名时加序号），序列对应 null
+     * @return 各种对象的数量，按种类顺序排列
+     */
+    private Map<SchemaObjectType, Integer> assignObjectSheetNames(List<Map<String, Object>> objects, List<String> sheetNames) {
+        Map<SchemaObjectType, Integer> counts = new EnumMap<>(SchemaObjectType.class);
+        // Excel工作表名不区分大小写
+        Set<String> used = new HashSet<>();
+        for (Map<String, Object> object : objects) {
+            SchemaObjectType type = getObjectType(object);
+            counts.merge(type, 1, Integer::sum);
+            if (type == SchemaObjectType.SEQUENCE) {
+                sheetNames.add(null);
+                continue;
+            }
+            String base = getSafeSheetName(getObjectPrefix(object) + "-" + getStringValue(object, "name"));
+            String sheetName = base;
+            for (int i = 2; !used.add(sheetName.toLowerCase(Locale.ROOT)); i++) {
+                String suffix = "~" + i;
+                sheetName = base.substring(0, Math.min(base.length(), 31 - suffix.length())) + suffix;
+            }
+            sheetNames.add(sheetName);
+        }
+        return counts;
+    }
+    
+    /**
+     * 创建一种对象的目录页
+     */
+    private SXSSFSheet createObjectListSheet(StreamingWorkbook workbook, SchemaObjectType type, int count,
+                                             List<Map<String, Object>> objects, List<String> sheetNames,
+                                             Map<String, CellStyle> styles) {
+        SXSSFSheet sheet = workbook.createSheet(getObjectListSheetName(type));
+        
+        String[] headers;
+        String[] keys;
+        switch (type) {
+            case SEQUENCE:
+                headers = new String[] { "序号", "序列名", "起始值", "步长", "最小值", "最大值", "循环", "当前值" };
+                keys = new String[] { "name", "startValue", "incrementBy", "minValue", "maxValue", "cycle", "lastValue" };
+                break;
+            case ROUTINE:
+                headers = new String[] { "序号", "名称", "类型", "参数", "返回类型", "语言", "注释" };
+                keys = new String[] { "name", "routineType", "arguments", "returnType", "language", "remarks" };
+                break;
+            case TRIGGER:
+                headers = new String[] { "序号", "名称", "所属表", "时机", "事件" };
+                keys = new String[] { "name", "tableName", "timing", "event" };
+                break;
+            default:
+                headers = new String[] { "序号", "名称", "注释", "依赖对象" };
+                keys = new String[] { "name", "remarks", "dependencies" };
+                break;
+        }
+        
+        ColumnWidthTracker widths = new ColumnWidthTracker(headers.length, 8, 60)
+                .limit(1, 12, 40); // 名称
+        
+        Row titleRow = sheet.createRow(0);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue(getObjectListSheetName(type));
+        titleCell.setCellStyle(styles.get("title"));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, headers.length - 1));
+        
+        Row headerRow = sheet.createRow(2);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(styles.get("header"));
+            widths.observe(i, headers[i]);
+        }
+        
+        int index = 1;
+        int objectIndex = 0;
+        for (Map<String, Object> object : objects) {
+            String sheetName = sheetNames.get(objectIndex++);
+            if (getObjectType(object) != type) {
+                continue;
+            }
+            Row row = sheet.createRow(index + 2);
+            CellStyle rowStyle = (index % 2 == 0) ? styles.get("alternatingRow") : styles.get("cell");
+            createCell(row, 0, index++, rowStyle, widths);
+            for (int i = 0; i < keys.length; i++) {
+                createCell(row, i + 1, getDisplayValue(object, keys[i]), rowStyle, widths);
+            }
+            // 名称链接到明细页
+            if (sheetName != null) {
+                Cell nameCell = row.getCell(1);
+                Hyperlink link = workbook.getCreationHelper().createHyperlink(HyperlinkType.DOCUMENT);
+                link.setAddress("'" + sheetName + "'!A1");
+                nameCell.setHyperlink(link);
+                nameCell.setCellStyle(styles.get("hyperlink"));
+            }
+        }
+        
+        sheet.setAutoFilter(new CellRangeAddress(2, count + 2, 0, headers.length - 1));
+        widths.apply(sheet);
+        
+        sheet.setFitToPage(true);
+        sheet.getPrintSetup().setLandscape(true);
+        sheet.getPrintSetup().setFitWidth((short)1);
+        sheet.getPrintSetup().setFitHeight((short)0);
+        return sheet;
+    }
+    
+    /**
+     * 创建对象明细页：基本信息和逐行输出的定义
+     */
+    private SXSSFSheet createObjectSheet(StreamingWorkbook workbook, Map<String, Object> object, String sheetName,
+                                         Map<String, CellStyle> styles) {
+        SchemaObjectType type = getObjectType(object);
+        SXSSFSheet sheet = workbook.createSheet(sheetName);
+        ColumnWidthTracker widths = new ColumnWidthTracker(2, 12, 100);
+        
+        int rowNum = 0;
+        Row titleRow = sheet.createRow(rowNum++);
+        Cell titleCell = titleRow.createCell(0);
+        titleCell.setCellValue(getObjectPrefix(object) + ": " + getStringValue(object, "name"));
+        titleCell.setCellStyle(styles.get("title"));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 1));
+        rowNum++;
+        
+        // 基本信息
+        String[][] fields;
+        switch (type) {
+            case ROUTINE:
+                fields = new String[][] { { "类型", "routineType" }, { "参数", "arguments" }, { "返回类型", "returnType" },
+                        { "语言", "language" }, { "注释", "remarks" } };
+                break;
+            case TRIGGER:
+                fields = new String[][] { { "所属表", "tableName" }, { "时机", "timing" }, { "事件", "event" } };
+                break;
+            default:
+                fields = new String[][] { { "注释", "remarks" }, { "依赖对象", "dependencies" } };
+                break;
+        }
+        for (String[] field : fields) {
+            String value = getDisplayValue(object, field[1]);
+            if (value.isEmpty()) {
+                continue;
+            }
+            Row row = sheet.createRow(rowNum++);
+            createCell(row, 0, field[0], styles.get("subHeader"), widths);
+            createCell(row, 1, value, styles.get("cell"), widths);
+        }
+        
+        Row backLinkRow = sheet.createRow(rowNum++);
+        Cell backLinkCell = backLinkRow.createCell(0);
+        backLinkCell.setCellValue("返回" + getObjectListSheetName(type));
+        Hyperlink backLink = workbook.getCreationHelper().createHyperlink(HyperlinkType.DOCUMENT);
+        backLink.setAddress("'" + getObjectListSheetName(type) + "'!A1");
+        backLinkCell.setHyperlink(backLink);
+        backLinkCell.setCellStyle(styles.get("hyperlink"));
+        widths.observe(0, backLinkCell.getStringCellValue());
+        rowNum++;
+        
+        // 定义按行写出，超长的行拆成多个单元格行
+        String definition = getStringValue(object, "definition");
+        if (!definition.isEmpty()) {
+            Row headerRow = sheet.createRow(rowNum++);
+            Cell headerCell = headerRow.createCell(0);
+            headerCell.setCellValue(getBooleanValue(object, "definitionTruncated")
+                    ? "定义（超过 " + SchemaObjectCollector.MAX_DEFINITION_CHARS + " 字符，已截断）" : "定义");
+            headerCell.setCellStyle(styles.get("subHeader"));
+            sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, 1));
+            
+            CellStyle codeStyle = styles.get("code");
+            int lastRow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+            for (String line : definition.split("\r?\n", -1)) {
+                int from = 0;
+                do {
+                    if (rowNum > lastRow) {
+                        break;
+                    }
+                    int to = Math.min(line.length(), from + MAX_CELL_CHARS);
+                    Row row = sheet.createRow(rowNum++);
+                    Cell cell = row.createCell(0);
+                    cell.setCellValue(line.substring(from, to));
+                    cell.setCellStyle(codeStyle);
+                    from = to;
+                } while (from < line.length());
+            }
+            // 定义列不参与宽度估算，固定为较宽的列
+            sheet.setColumnWidth(0, 100 * 256);
+        } else {
+            widths.apply(sheet);
+        }
+        
+        sheet.getPrintSetup().setLandscape(true);
+        return sheet;
+    }
+    
+    private static SchemaObjectType getObjectType(Map<String, Object> object) {
+        return SchemaObjectType.valueOf(String.valueOf(object.get("objectType")));
+    }
+    
+    private static String getObjectListSheetName(SchemaObjectType type) {
+        return type.getLabel() + "目录";
+    }
+    
+    // 明细页标题和页名的前缀，存储过程按具体类型区分
+    private String getObjectPrefix(Map<String, Object> object) {
+        SchemaObjectType type = getObjectType(object);
+        if (type != SchemaObjectType.ROUTINE) {
+            return type.getLabel();
+        }
+        switch (getStringValue(object, "routineType")) {
+            case "FUNCTION":
+                return "函数";
+            case "PACKAGE":
+                return "包";
+            case "PACKAGE BODY":
+                return "包体";
+            default:
+                return "过程";
+        }
+    }
+    
+    // 列表值用逗号连接，布尔值显示为"是"
+    private String getDisplayValue(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (value instanceof List) {
+            return String.join(", ", ((List<?>) value).stream().map(String::valueOf).toArray(String[]::new));
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? "是" : "";
+        }
+        return value != null ? value.toString() : "";
     }
     
     /**
      * 创建表工作表
      */
-    private void createTableSheet(Workbook workbook, Map<String, Object> table, Map<String, CellStyle> styles) {
+    private SXSSFSheet createTableSheet(StreamingWorkbook workbook, Map<String, Object> table, Map<String, CellStyle> styles) {
         // 限制工作表名长度，避免超出Excel限制
         String tableName = table.get("tableName") != null ? table.get("tableName").toString() : "未命名表";
         String sheetName = getSafeSheetName(tableName);
         
-        Sheet sheet = workbook.createSheet(sheetName);
+        SXSSFSheet sheet = workbook.createSheet(sheetName);
         
-        // 自动适应列宽
-        sheet.setColumnWidth(0, 15 * 256);  // 序号
-        sheet.setColumnWidth(1, 25 * 256);  // 列名
-        sheet.setColumnWidth(2, 20 * 256);  // 数据类型
-        sheet.setColumnWidth(3, 10 * 256);  // 长度
-        sheet.setColumnWidth(4, 10 * 256);  // 精度
-        sheet.setColumnWidth(5, 10 * 256);  // 主键
-        sheet.setColumnWidth(6, 10 * 256);  // 非空
-        sheet.setColumnWidth(7, 20 * 256);  // 默认值
-        sheet.setColumnWidth(8, 40 * 256);  // 注释
+        // 执行过列画像的表额外输出画像列
+        boolean profiled = table.get("profileSampledRows") != null;
+        int lastColumn = profiled ? 13 : 8;
+        
+        // 列宽按内容估算：写入时记录每列最大显示宽度，写完后统一设置
+        ColumnWidthTracker widths = new ColumnWidthTracker(lastColumn + 1, 6, 40)
+                .limit(1, 12, 40)  // 列名
+                .limit(8, 20, 80); // 注释
+        if (profiled) {
+            widths.limit(13, 20, 80); // 高频值
+        }
         
         // 表基本信息
         int rowNum = 0;
@@ -419,7 +1027,7 @@ public class ExcelDocumentGenerator {
         Cell nameCell = tableNameRow.createCell(0);
         nameCell.setCellValue("表名: " + tableName);
         nameCell.setCellStyle(styles.get("title"));
-        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 8));
+        sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, lastColumn));
         
         rowNum++; // 空行
         
@@ -429,13 +1037,25 @@ public class ExcelDocumentGenerator {
             Cell remarkCell = tableRemarkRow.createCell(0);
             remarkCell.setCellValue("表注释: " + remarks);
             remarkCell.setCellStyle(styles.get("subHeader"));
-            sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, 8));
+            sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, lastColumn));
             
             rowNum++; // 空行
         } else {
             rowNum++;
         }
         
+        // 分区表只输出父表，子分区以摘要说明
+        Map<String, Object> partition = getPartition(table);
+        if (partition != null) {
+            Row partitionRow = sheet.createRow(rowNum++);
+            Cell partitionCell = partitionRow.createCell(0);
+            partitionCell.setCellValue("分区: " + PartitionCollector.describe(partition));
+            partitionCell.setCellStyle(styles.get("subHeader"));
+            sheet.addMergedRegion(new CellRangeAddress(rowNum-1, rowNum-1, 0, lastColumn));
+            
+            rowNum++; // 空行
+        }
+        
         // 添加返回链接
         Row backLinkRow = sheet.createRow(rowNum++);
         Cell backLinkCell = backLinkRow.createCell(0);
@@ -444,16 +1064,29 @@ public class ExcelDocumentGenerator {
         backLink.setAddress("'表目录'!A1");
         backLinkCell.setHyperlink(backLink);
         backLinkCell.setCellStyle(styles.get("hyperlink"));
+        widths.observe(0, backLinkCell.getStringCellValue());
+        
+        // 列画像说明
+        if (profiled) {
+            Cell profileNoteCell = backLinkRow.createCell(9);
+            boolean partial = getBooleanValue(table, "profilePartial");
+            profileNoteCell.setCellValue("列画像基于 " + getStringValue(table, "profileSampledRows") + " 行采样"
+                    + (partial ? "（超出时间预算，结果不完整）" : ""));
+        }
         
         rowNum++; // 空行
         
         // 列信息表头
         Row headerRow = sheet.createRow(rowNum++);
-        String[] headers = new String[] { "序号", "列名", "数据类型", "长度", "精度", "主键", "非空", "默认值", "注释" };
+        String[] headers = profiled
+                ? new String[] { "序号", "列名", "数据类型", "长度", "精度", "主键", "非空", "默认值", "注释",
+                        "空值率", "去重数(估算)", "最小值", "最大值", "高频值" }
+                : new String[] { "序号", "列名", "数据类型", "长度", "精度", "主键", "非空", "默认值", "注释" };
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
             cell.setCellStyle(styles.get("header"));
+            widths.observe(i, headers[i]);
         }
         
         // 填充列数据
@@ -467,15 +1100,49 @@ public class ExcelDocumentGenerator {
                 // 使用交替背景色
                 CellStyle rowStyle = (columnIndex % 2 == 0) ? styles.get("alternatingRow") : styles.get("cell");
                 
-                createCell(row, 0, columnIndex++, rowStyle);
-                createCell(row, 1, getStringValue(column, "name"), rowStyle);
-                createCell(row, 2, getStringValue(column, "typeName"), rowStyle);
-                createCell(row, 3, getStringValue(column, "length"), rowStyle);
-                createCell(row, 4, getStringValue(column, "scale"), rowStyle);
-                createCell(row, 5, getBooleanValue(column, "primaryKey") ? "是" : "", rowStyle);
-                createCell(row, 6, getBooleanValue(column, "nullable") ? "" : "是", rowStyle);
-                createCell(row, 7, getStringValue(column, "defaultValue"), rowStyle);
-                createCell(row, 8, getStringValue(column, "remarks"), rowStyle);
+                createCell(row, 0, columnIndex++, rowStyle, widths);
+                createCell(row, 1, getStringValue(column, "name"), rowStyle, widths);
+                createCell(row, 2, getStringValue(column, "typeName"), rowStyle, widths);
+                createCell(row, 3, getStringValue(column, "length"), rowStyle, widths);
+                createCell(row, 4, getStringValue(column, "scale"), rowStyle, widths);
+                createCell(row, 5, getBooleanValue(column, "primaryKey") ? "是" : "", rowStyle, widths);
+                createCell(row, 6, getBooleanValue(column, "nullable") ? "" : "是", rowStyle, widths);
+                createCell(row, 7, getStringValue(column, "defaultValue"), rowStyle, widths);
+                createCell(row, 8, getStringValue(column, "remarks"), rowStyle, widths);
+                
+                if (profiled) {
+                    Object nullRatio = column.get("nullRatio");
+                    createCell(row, 9, nullRatio instanceof Number
+                            ? String.format("%.1f%%", ((Number) nullRatio).doubleValue() * 100) : "", rowStyle, widths);
+                    createCell(row, 10, column.get("distinctCount"), rowStyle, widths);
+                    createCell(row, 11, getStringValue(column, "minValue"), rowStyle, widths);
+                    createCell(row, 12, getStringValue(column, "maxValue"), rowStyle, widths);
+                    createCell(row, 13, getStringValue(column, "topValues"), rowStyle, widths);
+                }
+            }
+        }
+        
+        widths.apply(sheet);
+        
+        // 建表语句逐行写在第一列，不换行的文本在相邻空单元格上完整显示
+        String ddl = getStringValue(table, "ddl");
+        if (!ddl.isEmpty()) {
+            rowNum++; // 空行
+            Row ddlHeaderRow = sheet.createRow(rowNum++);
+            Cell ddlHeaderCell = ddlHeaderRow.createCell(0);
+            ddlHeaderCell.setCellValue("建表语句");
+            ddlHeaderCell.setCellStyle(styles.get("subHeader"));
+            sheet.addMergedRegion(new CellRangeAddress(rowNum - 1, rowNum - 1, 0, lastColumn));
+            
+            CellStyle codeStyle = styles.get("code");
+            int lastRow = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+            for (String line : ddl.split("\r?\n")) {
+                if (rowNum > lastRow) {
+                    break;
+                }
+                Cell cell = sheet.createRow(rowNum++).createCell(0);
+                cell.setCellValue(line.length() > MAX_CELL_CHARS ? line.substring(0, MAX_CELL_CHARS) : line);
+                cell.setCellStyle(codeStyle);
             }
         }
         
@@ -490,13 +1157,15 @@ public class ExcelDocumentGenerator {
         sheet.setMargin(Sheet.RightMargin, 0.5);
         sheet.setMargin(Sheet.TopMargin, 0.5);
         sheet.setMargin(Sheet.BottomMargin, 0.5);
+        return sheet;
     }
     
     /**
      * 创建单元格并设置样式
      */
-    private void createCell(Row row, int column, Object value, CellStyle style) {
+    private void createCell(Row row, int column, Object value, CellStyle style, ColumnWidthTracker widths) {
         Cell cell = row.createCell(column);
+        widths.observe(column, value);
         if (value instanceof String) {
             cell.setCellValue((String) value);
         } else if (value instanceof Number) {
@@ -539,4 +1208,13 @@ public class ExcelDocumentGenerator {
         }
         return "true".equalsIgnoreCase(String.valueOf(value));
     }
-}
\ No newline at end of file
+    
+    /**
+     * 分区表的分区摘要，普通表返回null
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> getPartition(Map<String, Object> table) {
+        Object partition = table.get("partition");
+        return partition instanceof Map ? (Map<String, Object>) partition : null;
+    }
+}
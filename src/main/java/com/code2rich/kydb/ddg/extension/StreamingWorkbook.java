@@ -0,0 +1,119 @@
+package com.code2rich.kydb.ddg.extension;
+
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 流式写出的Excel工作簿
+ * SXSSF只在内存中保留最近的若干行，其余行写入每个工作表的临时文件；
+ * 但每个临时文件会一直占用一个文件句柄直到整个工作簿写出，表很多时会耗尽句柄。
+ * 这里在工作表写完后释放句柄，之后如果还有写入则以追加方式重新打开
+ */
+class StreamingWorkbook extends SXSSFWorkbook {
+    private ReleasableSheetDataWriter currentWriter;
+
+    /**
+     * @param template 已创建好样式和前置工作表的工作簿，新建的工作表都以流式写出
+     * @param rowAccessWindowSize 内存中保留的行数
+     */
+    StreamingWorkbook(XSSFWorkbook template, int rowAccessWindowSize) {
+        super(template, rowAccessWindowSize);
+    }
+
+    @Override
+    protected SheetDataWriter createSheetDataWriter() throws IOException {
+        currentWriter = new ReleasableSheetDataWriter();
+        return currentWriter;
+    }
+
+    /**
+     * 最近创建的工作表已写完：刷出剩余行并释放临时文件句柄
+     */
+    void finishSheet(SXSSFSheet sheet) throws IOException {
+        sheet.flushRows();
+        if (currentWriter != null) {
+            currentWriter.release();
+        }
+    }
+
+    private static class ReleasableSheetDataWriter extends SheetDataWriter {
+        ReleasableSheetDataWriter() throws IOException {
+            super();
+        }
+
+        // POI 5.2.x 只通过这个已弃用的方法创建工作表临时文件的写入器，没有可替代的扩展点；
+        // 不带参数的构造器在父类中调用它，getWorksheetXMLInputStream 之后仍读取同一个临时文件
+        @SuppressWarnings("deprecation")
+        @Override
+        public Writer createWriter(File file) {
+            return new ReleasableWriter(file);
+        }
+
+        void release() throws IOException {
+            ((ReleasableWriter) _out).release();
+        }
+    }
+
+    /**
+     * 按需打开的文件写入器，release后再次写入时追加到文件末尾
+     */
+    private static class ReleasableWriter extends Writer {
+        private final File file;
+        private Writer out;
+
+        ReleasableWriter(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            open().write(buffer, offset, length);
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            open().write(text, offset, length);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            open().write(c);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out != null) {
+                out.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            release();
+        }
+
+        void release() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        }
+
+        private Writer open() throws IOException {
+            if (out == null) {
+                out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8), 64 * 1024);
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,814 @@
+package com.code2rich.kydb.ddg.extension;
+
+import com.code2rich.kydb.ddg.lint.LintReport;
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import com.code2rich.kydb.ddg.metadata.PartitionCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectCollector;
+import com.code2rich.kydb.ddg.metadata.SchemaObjectType;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.output.ContentHash;
+import com.code2rich.kydb.ddg.output.OutputManifest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Word文档生成器，直接写出DOCX（OOXML）
+ * 各部件用 XMLStreamWriter 依次写入ZIP输出流，正文按表逐节写出，内存占用与表的数量无关；
+ * 样式在 styles.xml 中定义一次，段落和表格只引用样式名，文件比screw的Word 2003 XML模板小得多。
+ * 目录是 TOC 域，预先写好各节的目录项（带跳转链接），打开文档时Word提示更新域以补全页码
+ */
+public class WordDocumentGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WordDocumentGenerator.class);
+
+    private static final String W = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String R = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PACKAGE_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String CONTENT_TYPES = "http://schemas.openxmlformats.org/package/2006/content-types";
+    private static final String CORE_PROPERTIES = "http://schemas.openxmlformats.org/package/2006/metadata/core-properties";
+    private static final String DUBLIN_CORE = "http://purl.org/dc/elements/1.1/";
+    private static final String DUBLIN_CORE_TERMS = "http://purl.org/dc/terms/";
+    private static final String XSI = "http://www.w3.org/2001/XMLSchema-instance";
+
+    // 与Excel文档一致的配色：表头黄色，隔行浅蓝
+    private static final String HEADER_FILL = "FFFF99";
+    private static final String ALTERNATING_FILL = "CCFFFF";
+    // A4横向，页边距0.5英寸，单位为缇（1/20磅）
+    private static final int PAGE_WIDTH = 16838;
+    private static final int PAGE_HEIGHT = 11906;
+    private static final int PAGE_MARGIN = 720;
+    private static final int TEXT_WIDTH = PAGE_WIDTH - 2 * PAGE_MARGIN;
+    // 列信息表各列宽度，合计为版心宽度
+    private static final int[] COLUMN_WIDTHS = { 700, 2400, 1800, 900, 900, 700, 700, 2000, 5298 };
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // 版式版本，计入内容哈希；修改输出格式时递增，使旧的清单失效
+    private static final int LAYOUT_VERSION = 1;
+
+    // 文档属性和封面中的日期取自此时钟
+    private Clock clock = Clock.systemDefaultZone();
+    // 内容哈希与上一次的清单相同时跳过生成
+    private boolean skipUnchanged = true;
+    // 规范检查结果，不为 null 时增加"规范检查"一节
+    private LintReport lintReport;
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void setSkipUnchanged(boolean skipUnchanged) {
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    public void setLintReport(LintReport lintReport) {
+        this.lintReport = lintReport;
+    }
+
+    /**
+     * 生成Word文档，内容哈希与输出目录中的清单相同时保留原文件；否则写入临时文件后替换
+     * @param outputDir 输出目录
+     * @param fileName 文件名（不含扩展名）
+     * @param dbType 数据库类型
+     * @param dbName 数据库名称
+     * @param tableList 表列表，结构见 {@link ExcelDocumentGenerator}
+     * @param objects 表以外的对象，结构见 {@link SchemaObjectCollector}
+     * @param failures 抽取失败的表
+     */
+    public void generate(String outputDir, String fileName, String dbType, String dbName, List<Map<String, Object>> tableList,
+                         List<Map<String, Object>> objects, List<TableFailure> failures) {
+        File directory = new File(outputDir);
+        String wordName = fileName + ".docx";
+        File target = new File(directory, wordName);
+
+        OutputManifest manifest = OutputManifest.load(directory);
+        String hash = hashContent(dbType, dbName, tableList, objects, failures);
+        if (skipUnchanged && manifest.isUnchanged(wordName, hash)) {
+            LOGGER.info("Word documentation is unchanged, keeping {}", target.getPath());
+            return;
+        }
+
+        LOGGER.info("Generating Word documentation...");
+        File temp = new File(directory, "." + wordName + ".tmp");
+        try {
+            try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+                write(fileOut, dbType, dbName, tableList, objects, failures);
+            }
+            OutputManifest.replace(temp, target);
+            manifest.put(wordName, hash);
+            manifest.save();
+            LOGGER.info("Word documentation generated successfully: {} ({} tables)", target.getPath(), tableList.size());
+        } catch (IOException e) {
+            LOGGER.error("Failed to generate Word documentation", e);
+            if (temp.exists() && !temp.delete()) {
+                LOGGER.warn("Could not delete temporary file {}", temp);
+            }
+        }
+    }
+
+    // 封面日期不计入哈希，与Excel文档一致
+    private String hashContent(String dbType, String dbName, List<Map<String, Object>> tableList,
+                               List<Map<String, Object>> objects, List<TableFailure> failures) {
+        ContentHash hash = new ContentHash().add(LAYOUT_VERSION).add(dbType).add(dbName);
+        for (Map<String, Object> table : tableList) {
+            hash.add(table);
+        }
+        for (Map<String, Object> object : objects) {
+            hash.add(object);
+        }
+        for (TableFailure failure : failures) {
+            hash.add(failure.getTableName()).add(failure.getSqlState()).add(failure.getErrorCode())
+                    .add(failure.getMessage()).add(failure.getAttempts());
+        }
+        if (lintReport != null) {
+            hash.add(lintReport.getTableCount()).add(lintReport.getColumnCount());
+            for (Finding finding : lintReport.getFindings()) {
+                hash.add(finding.getRuleId()).add(finding.getSeverity().name()).add(finding.getTableName())
+                        .add(finding.getColumnName()).add(finding.getMessage());
+            }
+        }
+        return hash.toHex();
+    }
+
+    /**
+     * 将Word文档写入输出流（不关闭输出流）
+     * 表列表遍历两次：第一次写目录项，第二次逐表写出正文
+     */
+    public void write(OutputStream out, String dbType, String dbName, List<Map<String, Object>> tableList,
+                      List<Map<String, Object>> objects, List<TableFailure> failures) throws IOException {
+        // 条目时间取自注入的时钟，相同输入得到相同的文件
+        long time = clock.millis();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        try {
+            putPart(zip, "[Content_Types].xml", time, this::writeContentTypes);
+            putPart(zip, "_rels/.rels", time, this::writePackageRelationships);
+            putPart(zip, "docProps/core.xml", time, xml -> writeCoreProperties(xml, dbName));
+            putPart(zip, "word/_rels/document.xml.rels", time, this::writeDocumentRelationships);
+            putPart(zip, "word/styles.xml", time, this::writeStyles);
+            putPart(zip, "word/settings.xml", time, this::writeSettings);
+            putPart(zip, "word/document.xml", time,
+                    xml -> new Body(xml).write(dbType, dbName, tableList, objects, failures));
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to write Word document", e);
+        }
+        zip.finish();
+    }
+
+    private interface PartWriter {
+        void write(XMLStreamWriter xml) throws XMLStreamException;
+    }
+
+    private static void putPart(ZipOutputStream zip, String name, long time, PartWriter part)
+            throws IOException, XMLStreamException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        zip.putNextEntry(entry);
+        // XMLStreamWriter 按很小的片段写出，经缓冲后再压缩；close 不关闭底层的ZIP输出流
+        BufferedOutputStream buffer = new BufferedOutputStream(zip, BUFFER_SIZE);
+        XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(buffer, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        part.write(xml);
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+        buffer.flush();
+        zip.closeEntry();
+    }
+
+    private void writeContentTypes(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("Types");
+        xml.writeDefaultNamespace(CONTENT_TYPES);
+        writeContentType(xml, "Default", "Extension", "rels", "application/vnd.openxmlformats-package.relationships+xml");
+        writeContentType(xml, "Default", "Extension", "xml", "application/xml");
+        writeContentType(xml, "Override", "PartName", "/word/document.xml",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document.main+xml");
+        writeContentType(xml, "Override", "PartName", "/word/styles.xml",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.styles+xml");
+        writeContentType(xml, "Override", "PartName", "/word/settings.xml",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.settings+xml");
+        writeContentType(xml, "Override", "PartName", "/docProps/core.xml",
+                "application/vnd.openxmlformats-package.core-properties+xml");
+        xml.writeEndElement();
+    }
+
+    private static void writeContentType(XMLStreamWriter xml, String element, String key, String value, String contentType)
+            throws XMLStreamException {
+        xml.writeEmptyElement(element);
+        xml.writeAttribute(key, value);
+        xml.writeAttribute("ContentType", contentType);
+    }
+
+    private void writePackageRelationships(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("Relationships");
+        xml.writeDefaultNamespace(PACKAGE_RELATIONSHIPS);
+        writeRelationship(xml, "rId1", "http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument",
+                "word/document.xml");
+        writeRelationship(xml, "rId2", "http://schemas.openxmlformats.org/package/2006/relationships/metadata/core-properties",
+                "docProps/core.xml");
+        xml.writeEndElement();
+    }
+
+    private void writeDocumentRelationships(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("Relationships");
+        xml.writeDefaultNamespace(PACKAGE_RELATIONSHIPS);
+        writeRelationship(xml, "rId1", "http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles",
+                "styles.xml");
+        writeRelationship(xml, "rId2", "http://schemas.openxmlformats.org/officeDocument/2006/relationships/settings",
+                "settings.xml");
+        xml.writeEndElement();
+    }
+
+    private static void writeRelationship(XMLStreamWriter xml, String id, String type, String target)
+            throws XMLStreamException {
+        xml.writeEmptyElement("Relationship");
+        xml.writeAttribute("Id", id);
+        xml.writeAttribute("Type", type);
+        xml.writeAttribute("Target", target);
+    }
+
+    private void writeCoreProperties(XMLStreamWriter xml, String dbName) throws XMLStreamException {
+        xml.writeStartElement("cp", "coreProperties", CORE_PROPERTIES);
+        xml.writeNamespace("cp", CORE_PROPERTIES);
+        xml.writeNamespace("dc", DUBLIN_CORE);
+        xml.writeNamespace("dcterms", DUBLIN_CORE_TERMS);
+        xml.writeNamespace("xsi", XSI);
+        xml.writeStartElement("dc", "title", DUBLIN_CORE);
+        xml.writeCharacters(clean((dbName != null ? dbName : "") + " 数据库设计说明书"));
+        xml.writeEndElement();
+        xml.writeStartElement("dcterms", "created", DUBLIN_CORE_TERMS);
+        xml.writeAttribute("xsi", XSI, "type", "dcterms:W3CDTF");
+        xml.writeCharacters(clock.instant().truncatedTo(ChronoUnit.SECONDS).toString());
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    /**
+     * 共享样式：正文、标题、各级标题、目录、代码和列信息表格，段落只引用样式名
+     */
+    private void writeStyles(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("w", "styles", W);
+        xml.writeNamespace("w", W);
+
+        start(xml, "docDefaults");
+        start(xml, "rPrDefault");
+        start(xml, "rPr");
+        empty(xml, "rFonts", "ascii", "Calibri", "hAnsi", "Calibri", "eastAsia", "宋体", "cs", "Calibri");
+        empty(xml, "sz", "val", "20");
+        empty(xml, "szCs", "val", "20");
+        empty(xml, "lang", "val", "en-US", "eastAsia", "zh-CN");
+        end(xml);
+        end(xml);
+        start(xml, "pPrDefault");
+        start(xml, "pPr");
+        empty(xml, "spacing", "after", "60", "line", "264", "lineRule", "auto");
+        end(xml);
+        end(xml);
+        end(xml);
+
+        startStyle(xml, "paragraph", "Normal", "Normal", null, true);
+        end(xml);
+
+        startStyle(xml, "paragraph", "Title", "Title", "Normal", false);
+        start(xml, "pPr");
+        empty(xml, "spacing", "before", "2400", "after", "480");
+        empty(xml, "jc", "val", "center");
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "b");
+        empty(xml, "sz", "val", "48");
+        end(xml);
+        end(xml);
+
+        startStyle(xml, "paragraph", "Subtitle", "Subtitle", "Normal", false);
+        start(xml, "pPr");
+        empty(xml, "jc", "val", "center");
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "sz", "val", "24");
+        end(xml);
+        end(xml);
+
+        writeHeadingStyle(xml, "Heading1", "heading 1", 0, "32", true);
+        writeHeadingStyle(xml, "Heading2", "heading 2", 1, "26", false);
+
+        // 目录标题不带大纲级别，不出现在目录中
+        startStyle(xml, "paragraph", "TOCHeading", "TOC Heading", "Normal", false);
+        start(xml, "pPr");
+        empty(xml, "keepNext");
+        empty(xml, "spacing", "before", "240", "after", "120");
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "b");
+        empty(xml, "sz", "val", "32");
+        end(xml);
+        end(xml);
+
+        writeTocStyle(xml, "TOC1", "toc 1", 0);
+        writeTocStyle(xml, "TOC2", "toc 2", 440);
+
+        startStyle(xml, "paragraph", "Code", "Code", "Normal", false);
+        start(xml, "pPr");
+        empty(xml, "spacing", "after", "0", "line", "240", "lineRule", "auto");
+        empty(xml, "shd", "val", "clear", "color", "auto", "fill", "F2F2F2");
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "rFonts", "ascii", "Consolas", "hAnsi", "Consolas", "eastAsia", "宋体", "cs", "Consolas");
+        empty(xml, "sz", "val", "16");
+        empty(xml, "szCs", "val", "16");
+        end(xml);
+        end(xml);
+
+        startStyle(xml, "paragraph", "TableText", "Table Text", "Normal", false);
+        start(xml, "pPr");
+        empty(xml, "spacing", "after", "0", "line", "240", "lineRule", "auto");
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "sz", "val", "18");
+        empty(xml, "szCs", "val", "18");
+        end(xml);
+        end(xml);
+
+        startStyle(xml, "character", "Hyperlink", "Hyperlink", null, false);
+        start(xml, "rPr");
+        empty(xml, "color", "val", "0000FF");
+        empty(xml, "u", "val", "single");
+        end(xml);
+        end(xml);
+
+        // 表格样式：全框线，首行为黄色表头，隔行浅蓝
+        startStyle(xml, "table", "ColumnTable", "Column Table", null, false);
+        start(xml, "pPr");
+        empty(xml, "spacing", "after", "0");
+        end(xml);
+        start(xml, "tblPr");
+        empty(xml, "tblStyleRowBandSize", "val", "1");
+        start(xml, "tblBorders");
+        for (String side : new String[] { "top", "left", "bottom", "right", "insideH", "insideV" }) {
+            empty(xml, side, "val", "single", "sz", "4", "space", "0", "color", "808080");
+        }
+        end(xml);
+        start(xml, "tblCellMar");
+        empty(xml, "left", "w", "80", "type", "dxa");
+        empty(xml, "right", "w", "80", "type", "dxa");
+        end(xml);
+        end(xml);
+        start(xml, "tblStylePr", "type", "firstRow");
+        start(xml, "rPr");
+        empty(xml, "b");
+        end(xml);
+        start(xml, "tcPr");
+        empty(xml, "shd", "val", "clear", "color", "auto", "fill", HEADER_FILL);
+        end(xml);
+        end(xml);
+        start(xml, "tblStylePr", "type", "band2Horz");
+        start(xml, "tcPr");
+        empty(xml, "shd", "val", "clear", "color", "auto", "fill", ALTERNATING_FILL);
+        end(xml);
+        end(xml);
+        end(xml);
+
+        end(xml);
+    }
+
+    private static void writeHeadingStyle(XMLStreamWriter xml, String id, String name, int level, String size,
+                                          boolean pageBreak) throws XMLStreamException {
+        startStyle(xml, "paragraph", id, name, "Normal", false);
+        empty(xml, "next", "val", "Normal");
+        start(xml, "pPr");
+        empty(xml, "keepNext");
+        if (pageBreak) {
+            empty(xml, "pageBreakBefore");
+        }
+        empty(xml, "spacing", "before", "240", "after", "120");
+        empty(xml, "outlineLvl", "val", String.valueOf(level));
+        end(xml);
+        start(xml, "rPr");
+        empty(xml, "b");
+        empty(xml, "sz", "val", size);
+        empty(xml, "szCs", "val", size);
+        end(xml);
+        end(xml);
+    }
+
+    private static void writeTocStyle(XMLStreamWriter xml, String id, String name, int indent) throws XMLStreamException {
+        startStyle(xml, "paragraph", id, name, "Normal", false);
+        start(xml, "pPr");
+        start(xml, "tabs");
+        empty(xml, "tab", "val", "right", "leader", "dot", "pos", String.valueOf(TEXT_WIDTH));
+        end(xml);
+        empty(xml, "spacing", "after", "40");
+        empty(xml, "ind", "left", String.valueOf(indent));
+        end(xml);
+        end(xml);
+    }
+
+    private static void startStyle(XMLStreamWriter xml, String type, String id, String name, String basedOn,
+                                   boolean isDefault) throws XMLStreamException {
+        if (isDefault) {
+            start(xml, "style", "type", type, "default", "1", "styleId", id);
+        } else {
+            start(xml, "style", "type", type, "styleId", id);
+        }
+        empty(xml, "name", "val", name);
+        if (basedOn != null) {
+            empty(xml, "basedOn", "val", basedOn);
+        }
+        empty(xml, "qFormat");
+    }
+
+    // 打开文档时更新域，目录补全页码
+    private void writeSettings(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeStartElement("w", "settings", W);
+        xml.writeNamespace("w", W);
+        empty(xml, "updateFields", "val", "true");
+        empty(xml, "defaultTabStop", "val", "420");
+        empty(xml, "characterSpacingControl", "val", "compressPunctuation");
+        end(xml);
+    }
+
+    /**
+     * 正文：封面、目录、抽取错误、规范检查、各表结构和其他对象，每个表写完即输出，不在内存中累积
+     */
+    private final class Body {
+        private final XMLStreamWriter xml;
+        // 目录项和标题共用的书签编号
+        private int bookmark;
+
+        Body(XMLStreamWriter xml) {
+            this.xml = xml;
+        }
+
+        void write(String dbType, String dbName, List<Map<String, Object>> tableList, List<Map<String, Object>> objects,
+                   List<TableFailure> failures) throws XMLStreamException {
+            xml.writeStartElement("w", "document", W);
+            xml.writeNamespace("w", W);
+            xml.writeNamespace("r", R);
+            start(xml, "body");
+
+            paragraph("Title", "数据库设计说明书");
+            paragraph("Subtitle", "数据库类型: " + (dbType != null ? dbType : ""));
+            paragraph("Subtitle", "数据库名称: " + (dbName != null ? dbName : ""));
+            paragraph("Subtitle", "生成日期: " + LocalDate.now(clock).format(DateTimeFormatter.ISO_LOCAL_DATE));
+
+            writeToc(tableList, objects, failures);
+
+            bookmark = 0;
+            if (!failures.isEmpty()) {
+                heading("Heading1", "抽取错误");
+                writeFailures(failures);
+            }
+            if (lintReport != null) {
+                heading("Heading1", "规范检查");
+                writeLint(lintReport);
+            }
+            heading("Heading1", "表结构");
+            for (Map<String, Object> table : tableList) {
+                writeTable(table);
+            }
+            if (!objects.isEmpty()) {
+                heading("Heading1", "其他对象");
+                for (Map<String, Object> object : objects) {
+                    writeObject(object);
+                }
+            }
+
+            start(xml, "sectPr");
+            empty(xml, "pgSz", "w", String.valueOf(PAGE_WIDTH), "h", String.valueOf(PAGE_HEIGHT), "orient", "landscape");
+            String margin = String.valueOf(PAGE_MARGIN);
+            empty(xml, "pgMar", "top", margin, "right", margin, "bottom", margin, "left", margin,
+                    "header", "425", "footer", "425", "gutter", "0");
+            end(xml);
+            end(xml);
+            end(xml);
+        }
+
+        // 目录项与正文标题的顺序和书签编号一一对应
+        private void writeToc(List<Map<String, Object>> tableList, List<Map<String, Object>> objects,
+                              List<TableFailure> failures) throws XMLStreamException {
+            start(xml, "p");
+            start(xml, "pPr");
+            empty(xml, "pStyle", "val", "TOCHeading");
+            empty(xml, "pageBreakBefore");
+            end(xml);
+            run("目录");
+            end(xml);
+
+            start(xml, "p");
+            start(xml, "r");
+            empty(xml, "fldChar", "fldCharType", "begin");
+            end(xml);
+            start(xml, "r");
+            start(xml, "instrText", "xml:space", "preserve");
+            xml.writeCharacters(" TOC \\o \"1-2\" \\h \\z \\u ");
+            end(xml);
+            end(xml);
+            start(xml, "r");
+            empty(xml, "fldChar", "fldCharType", "separate");
+            end(xml);
+            end(xml);
+
+            bookmark = 0;
+            if (!failures.isEmpty()) {
+                tocEntry("TOC1", "抽取错误");
+            }
+            if (lintReport != null) {
+                tocEntry("TOC1", "规范检查");
+            }
+            tocEntry("TOC1", "表结构");
+            for (Map<String, Object> table : tableList) {
+                tocEntry("TOC2", getTableTitle(table));
+            }
+            if (!objects.isEmpty()) {
+                tocEntry("TOC1", "其他对象");
+                for (Map<String, Object> object : objects) {
+                    tocEntry("TOC2", getObjectTitle(object));
+                }
+            }
+
+            start(xml, "p");
+            start(xml, "r");
+            empty(xml, "fldChar", "fldCharType", "end");
+            end(xml);
+            end(xml);
+        }
+
+        private void tocEntry(String style, String text) throws XMLStreamException {
+            start(xml, "p");
+            start(xml, "pPr");
+            empty(xml, "pStyle", "val", style);
+            end(xml);
+            start(xml, "hyperlink", "anchor", bookmarkName(++bookmark), "history", "1");
+            start(xml, "r");
+            start(xml, "rPr");
+            empty(xml, "rStyle", "val", "Hyperlink");
+            end(xml);
+            text(text);
+            end(xml);
+            end(xml);
+            end(xml);
+        }
+
+        private void writeTable(Map<String, Object> table) throws XMLStreamException {
+            heading("Heading2", getTableTitle(table));
+
+            String remarks = getStringValue(table, "remarks");
+            if (!remarks.isEmpty()) {
+                paragraph(null, "表注释: " + remarks);
+            }
+            Map<String, Object> partition = getPartition(table);
+            if (partition != null) {
+                paragraph(null, "分区: " + PartitionCollector.describe(partition));
+            }
+
+            startTable(COLUMN_WIDTHS);
+            headerRow(COLUMN_WIDTHS, "序号", "列名", "数据类型", "长度", "精度", "主键", "非空", "默认值", "注释");
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> columns = (List<Map<String, Object>>) table.get("columns");
+            if (columns != null) {
+                int columnIndex = 1;
+                for (Map<String, Object> column : columns) {
+                    row(COLUMN_WIDTHS, String.valueOf(columnIndex++),
+                            getStringValue(column, "name"),
+                            getStringValue(column, "typeName"),
+                            getStringValue(column, "length"),
+                            getStringValue(column, "scale"),
+                            getBooleanValue(column, "primaryKey") ? "是" : "",
+                            getBooleanValue(column, "nullable") ? "" : "是",
+                            getStringValue(column, "defaultValue"),
+                            getStringValue(column, "remarks"));
+                }
+            }
+            end(xml);
+
+            String ddl = getStringValue(table, "ddl");
+            if (!ddl.isEmpty()) {
+                paragraph(null, "建表语句");
+                code(ddl);
+            }
+        }
+
+        private void writeFailures(List<TableFailure> failures) throws XMLStreamException {
+            int[] widths = { 700, 3000, 7698, 1200, 1200, 1600 };
+            startTable(widths);
+            headerRow(widths, "序号", "表名", "错误信息", "SQLState", "错误码", "尝试次数");
+            int index = 1;
+            for (TableFailure failure : failures) {
+                row(widths, String.valueOf(index++), failure.getTableName(), failure.getMessage(),
+                        failure.getSqlState() != null ? failure.getSqlState() : "",
+                        String.valueOf(failure.getErrorCode()), String.valueOf(failure.getAttempts()));
+            }
+            end(xml);
+        }
+
+        private void writeLint(LintReport report) throws XMLStreamException {
+            int[] widths = { 700, 1000, 2600, 3000, 2400, 5698 };
+            startTable(widths);
+            headerRow(widths, "序号", "级别", "规则", "表名", "列名", "说明");
+            int index = 1;
+            for (Finding finding : report.getFindings()) {
+                row(widths, String.valueOf(index++), finding.getSeverity().getLabel(), finding.getRuleId(),
+                        finding.getTableName() != null ? finding.getTableName() : "",
+                        finding.getColumnName() != null ? finding.getColumnName() : "", finding.getMessage());
+            }
+            end(xml);
+        }
+
+        private void writeObject(Map<String, Object> object) throws XMLStreamException {
+            heading("Heading2", getObjectTitle(object));
+            String remarks = getStringValue(object, "remarks");
+            if (!remarks.isEmpty()) {
+                paragraph(null, "注释: " + remarks);
+            }
+            String definition = getStringValue(object, "definition");
+            if (!definition.isEmpty()) {
+                code(definition);
+            }
+        }
+
+        // 标题段落带书签，供目录项跳转
+        private void heading(String style, String text) throws XMLStreamException {
+            String name = bookmarkName(++bookmark);
+            start(xml, "p");
+            start(xml, "pPr");
+            empty(xml, "pStyle", "val", style);
+            end(xml);
+            empty(xml, "bookmarkStart", "id", String.valueOf(bookmark), "name", name);
+            run(text);
+            empty(xml, "bookmarkEnd", "id", String.valueOf(bookmark));
+            end(xml);
+        }
+
+        private void paragraph(String style, String text) throws XMLStreamException {
+            start(xml, "p");
+            if (style != null) {
+                start(xml, "pPr");
+                empty(xml, "pStyle", "val", style);
+                end(xml);
+            }
+            run(text);
+            end(xml);
+        }
+
+        // 代码块每行一个段落，空行也保留
+        private void code(String text) throws XMLStreamException {
+            for (String line : text.split("\r?\n", -1)) {
+                paragraph("Code", line);
+            }
+        }
+
+        private void run(String text) throws XMLStreamException {
+            start(xml, "r");
+            text(text);
+            end(xml);
+        }
+
+        private void text(String text) throws XMLStreamException {
+            start(xml, "t", "xml:space", "preserve");
+            xml.writeCharacters(clean(text));
+            end(xml);
+        }
+
+        private void startTable(int[] widths) throws XMLStreamException {
+            start(xml, "tbl");
+            start(xml, "tblPr");
+            empty(xml, "tblStyle", "val", "ColumnTable");
+            empty(xml, "tblW", "w", String.valueOf(TEXT_WIDTH), "type", "dxa");
+            empty(xml, "tblLayout", "type", "fixed");
+            empty(xml, "tblLook", "val", "0020", "firstRow", "1", "lastRow", "0", "firstColumn", "0",
+                    "lastColumn", "0", "noHBand", "0", "noVBand", "1");
+            end(xml);
+            start(xml, "tblGrid");
+            for (int width : widths) {
+                empty(xml, "gridCol", "w", String.valueOf(width));
+            }
+            end(xml);
+        }
+
+        // 表头行跨页重复，行内不拆分
+        private void headerRow(int[] widths, String... values) throws XMLStreamException {
+            start(xml, "tr");
+            start(xml, "trPr");
+            empty(xml, "cantSplit");
+            empty(xml, "tblHeader");
+            end(xml);
+            cells(widths, values);
+            end(xml);
+        }
+
+        private void row(int[] widths, String... values) throws XMLStreamException {
+            start(xml, "tr");
+            start(xml, "trPr");
+            empty(xml, "cantSplit");
+            end(xml);
+            cells(widths, values);
+            end(xml);
+        }
+
+        private void cells(int[] widths, String[] values) throws XMLStreamException {
+            for (int i = 0; i < values.length; i++) {
+                start(xml, "tc");
+                start(xml, "tcPr");
+                empty(xml, "tcW", "w", String.valueOf(widths[i]), "type", "dxa");
+                end(xml);
+                paragraph("TableText", values[i] != null ? values[i] : "");
+                end(xml);
+            }
+        }
+    }
+
+    // 书签名不超过40个字符，以 _Toc 开头的书签在Word中默认隐藏
+    private static String bookmarkName(int index) {
+        return "_Toc" + index;
+    }
+
+    private static String getTableTitle(Map<String, Object> table) {
+        String tableName = table.get("tableName") != null ? table.get("tableName").toString() : "未命名表";
+        String remarks = getStringValue(table, "remarks");
+        return remarks.isEmpty() ? tableName : tableName + " " + firstLine(remarks);
+    }
+
+    private static String getObjectTitle(Map<String, Object> object) {
+        String label = SchemaObjectType.valueOf(String.valueOf(object.get("objectType"))).getLabel();
+        return label + " " + getStringValue(object, "name");
+    }
+
+    private static String firstLine(String text) {
+        int end = text.indexOf('\n');
+        return end < 0 ? text : text.substring(0, end).trim();
+    }
+
+    private static String getStringValue(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value != null ? value.toString() : "";
+    }
+
+    private static boolean getBooleanValue(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Boolean ? (Boolean) value : value != null && Boolean.parseBoolean(value.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getPartition(Map<String, Object> table) {
+        Object partition = table.get("partition");
+        return partition instanceof Map ? (Map<String, Object>) partition : null;
+    }
+
+    // 去掉XML 1.0不允许的控制字符，注释和定义文本中偶尔会有
+    private static String clean(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!isXmlChar(text.charAt(i))) {
+                StringBuilder builder = new StringBuilder(text.length());
+                for (int j = 0; j < text.length(); j++) {
+                    if (isXmlChar(text.charAt(j))) {
+                        builder.append(text.charAt(j));
+                    }
+                }
+                return builder.toString();
+            }
+        }
+        return text;
+    }
+
+    private static boolean isXmlChar(char c) {
+        return c >= 0x20 ? c != 0xFFFE && c != 0xFFFF : c == '\t' || c == '\n' || c == '\r';
+    }
+
+    // w 命名空间的元素和属性，属性以名称、值交替给出；xml:space 属性写在 XML 命名空间中
+    private static void start(XMLStreamWriter xml, String name, String... attributes) throws XMLStreamException {
+        xml.writeStartElement("w", name, W);
+        writeAttributes(xml, attributes);
+    }
+
+    private static void empty(XMLStreamWriter xml, String name, String... attributes) throws XMLStreamException {
+        xml.writeEmptyElement("w", name, W);
+        writeAttributes(xml, attributes);
+    }
+
+    private static void end(XMLStreamWriter xml) throws XMLStreamException {
+        xml.writeEndElement();
+    }
+
+    private static void writeAttributes(XMLStreamWriter xml, String[] attributes) throws XMLStreamException {
+        for (int i = 0; i < attributes.length; i += 2) {
+            if ("xml:space".equals(attributes[i])) {
+                xml.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", attributes[i + 1]);
+            } else {
+                xml.writeAttribute("w", W, attributes[i], attributes[i + 1]);
+            }
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package com.code2rich.kydb.ddg.gui;
 
 import com.code2rich.kydb.ddg.DatabaseDocumentGenerator;
+import com.code2rich.kydb.ddg.metadata.TableFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -11,6 +18,8 @@ import java.util.Map;
 import java.util.List;
 
 public class KnowYourDBGUI extends JFrame {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KnowYourDBGUI.class);
+
     private final JTextField jdbcUrlField;
     private final JTextField usernameField;
     private final JPasswordField passwordField;
@@ -32,6 +41,12 @@ public class KnowYourDBGUI extends JFrame {
     private final JTextArea ignoreTablePrefixesArea;
     private final JTextArea ignoreTableSuffixesArea;
 
+    // 表浏览与过滤预览
+    private final SchemaBrowserPanel schemaBrowserPanel;
+
+    // 运行日志与指标
+    private final LogConsolePanel logConsolePanel;
+
     // Common JDBC drivers
     private final Map<String, String> driverClassMapping = new HashMap<String, String>() {{
         put("MySQL", "com.mysql.cj.jdbc.Driver");
@@ -42,11 +57,11 @@ public class KnowYourDBGUI extends JFrame {
     }};
 
     // Output file types
-    private final String[] fileTypes = {"HTML", "Word", "Markdown", "Excel"};
+    private final String[] fileTypes = {"HTML", "Word", "Markdown", "Excel", "JSON Lines", "CSV"};
     public KnowYourDBGUI() {
         // Set up the main frame
         super("KnowYourDB - Database Documentation Generator");
-        setSize(900, 700);
+        setSize(1280, 900);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null);
 
@@ -208,6 +223,37 @@ public class KnowYourDBGUI extends JFrame {
         gbc.fill = GridBagConstraints.BOTH;
         formPanel.add(tableFilterPanel, gbc);
 
+        // 表浏览面板：过滤条件修改后实时预览匹配的表
+        schemaBrowserPanel = new SchemaBrowserPanel(this::createCatalogOpener, this::getTableFilter);
+        DocumentListener filterListener = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                schemaBrowserPanel.filterChanged();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                schemaBrowserPanel.filterChanged();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                schemaBrowserPanel.filterChanged();
+            }
+        };
+        for (JTextArea area : new JTextArea[] { designatedTableNamesArea, designatedTablePrefixesArea, designatedTableSuffixesArea,
+                ignoreTableNamesArea, ignoreTablePrefixesArea, ignoreTableSuffixesArea }) {
+            area.getDocument().addDocumentListener(filterListener);
+        }
+        logConsolePanel = new LogConsolePanel();
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                schemaBrowserPanel.close();
+                logConsolePanel.close();
+            }
+        });
+
         // Generate button panel
         JPanel buttonPanel = new JPanel();
         generateButton = new JButton("生成文档");
@@ -217,7 +263,11 @@ public class KnowYourDBGUI extends JFrame {
 
         // Add components to the main frame
         add(topPanel, BorderLayout.NORTH);
-        add(new JScrollPane(formPanel), BorderLayout.CENTER);
+        JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, new JScrollPane(formPanel), schemaBrowserPanel);
+        splitPane.setResizeWeight(0.6);
+        JSplitPane consoleSplitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT, splitPane, logConsolePanel);
+        consoleSplitPane.setResizeWeight(0.75);
+        add(consoleSplitPane, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
         // Add action listeners
@@ -301,6 +351,26 @@ public class KnowYourDBGUI extends JFrame {
         return lines;
     }
 
+    // 在EDT上读取连接参数，返回在后台线程打开目录的操作
+    private SchemaBrowserPanel.CatalogOpener createCatalogOpener() {
+        final String driverClass = driverClassMapping.get((String) driverComboBox.getSelectedItem());
+        final String jdbcUrl = jdbcUrlField.getText();
+        final String username = usernameField.getText();
+        final String password = new String(passwordField.getPassword());
+        final String schema = schemaField.getText().trim().isEmpty() ? null : schemaField.getText().trim();
+        return () -> new DatabaseDocumentGenerator().openCatalog(driverClass, jdbcUrl, username, password, schema);
+    }
+
+    private TableFilter getTableFilter() {
+        return new TableFilter(
+                getTextAreaLines(designatedTableNamesArea),
+                getTextAreaLines(designatedTablePrefixesArea),
+                getTextAreaLines(designatedTableSuffixesArea),
+                getTextAreaLines(ignoreTableNamesArea),
+                getTextAreaLines(ignoreTablePrefixesArea),
+                getTextAreaLines(ignoreTableSuffixesArea));
+    }
+
     private void addActionListeners() {
         // Browse button action
         browseButton.addActionListener(e -> {
@@ -407,7 +477,7 @@ public class KnowYourDBGUI extends JFrame {
                                 "错误",
                                 JOptionPane.ERROR_MESSAGE
                         );
-                        ex.printStackTrace();
+                        LOGGER.error("Failed to generate documentation", ex);
                     } finally {
                         // Re-enable the button
                         generateButton.setEnabled(true);
@@ -425,7 +495,7 @@ public class KnowYourDBGUI extends JFrame {
                     "错误",
                     JOptionPane.ERROR_MESSAGE
             );
-            ex.printStackTrace();
+            LOGGER.error("Failed to start documentation generation", ex);
         }
     }
 
@@ -440,6 +510,10 @@ public class KnowYourDBGUI extends JFrame {
             return "MD";
         } else if (selectedType.equalsIgnoreCase("Excel")) {
             return "EXCEL";
+        } else if (selectedType.equalsIgnoreCase("JSON Lines")) {
+            return "JSONL";
+        } else if (selectedType.equalsIgnoreCase("CSV")) {
+            return "CSV";
         } else {
             return "HTML";
         }
@@ -450,7 +524,7 @@ public class KnowYourDBGUI extends JFrame {
             // Set system look and feel
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
-            e.printStackTrace();
+            LOGGER.warn("Failed to set system look and feel", e);
         }
 
         SwingUtilities.invokeLater(KnowYourDBGUI::new);
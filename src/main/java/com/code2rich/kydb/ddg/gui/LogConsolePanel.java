@@ -0,0 +1,120 @@
+package com.code2rich.kydb.ddg.gui;
+
+import com.code2rich.kydb.ddg.monitor.ExtractionMetrics;
+import com.code2rich.kydb.ddg.monitor.RingBufferAppender;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import java.awt.*;
+
+/**
+ * 日志与运行指标面板
+ * - 日志线程只写环形缓冲区，面板按固定帧率在EDT上成批取出并一次追加，日志再多也不会堵塞EDT
+ * - 文本区只保留最近的若干行，来不及显示而被覆盖的日志以一行提示代替
+ * - 同一帧刷新抽取速度、JDBC调用数和堆内存
+ */
+public class LogConsolePanel extends JPanel {
+    // 刷新间隔（毫秒），约10帧每秒
+    private static final int FRAME_MILLIS = 100;
+    // 每帧最多追加的日志条数
+    private static final int MAX_ENTRIES_PER_FRAME = 2000;
+    // 文本区保留的行数
+    private static final int MAX_LINES = 5000;
+    // 环形缓冲区容量
+    private static final int BUFFER_CAPACITY = 8192;
+    // 计算速率的采样间隔（毫秒）
+    private static final long RATE_WINDOW_MILLIS = 1000;
+
+    private final RingBufferAppender appender;
+    private final JTextArea textArea = new JTextArea();
+    private final JLabel tableRateLabel = new JLabel();
+    private final JLabel queryLabel = new JLabel();
+    private final JLabel heapLabel = new JLabel();
+    private final Timer frameTimer;
+    private final StringBuilder frame = new StringBuilder();
+
+    private long nextSequence;
+    private long rateSampleTime = System.currentTimeMillis();
+    private long rateSampleTables = ExtractionMetrics.getTables();
+    private double tableRate;
+
+    public LogConsolePanel() {
+        super(new BorderLayout(5, 5));
+        setBorder(BorderFactory.createTitledBorder("运行日志"));
+
+        JPanel metricsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 15, 0));
+        metricsPanel.add(tableRateLabel);
+        metricsPanel.add(queryLabel);
+        metricsPanel.add(heapLabel);
+        JButton clearButton = new JButton("清空");
+        clearButton.addActionListener(e -> textArea.setText(""));
+        metricsPanel.add(clearButton);
+        add(metricsPanel, BorderLayout.NORTH);
+
+        textArea.setEditable(false);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        add(new JScrollPane(textArea), BorderLayout.CENTER);
+
+        appender = RingBufferAppender.install(BUFFER_CAPACITY);
+        nextSequence = appender.getNextSequence();
+        frameTimer = new Timer(FRAME_MILLIS, e -> refresh());
+        frameTimer.start();
+        updateMetrics();
+    }
+
+    /**
+     * 停止刷新并从日志系统中移除
+     */
+    public void close() {
+        frameTimer.stop();
+        appender.uninstall();
+    }
+
+    private void refresh() {
+        long from = nextSequence;
+        long[] read = new long[1];
+        nextSequence = appender.drain(from, MAX_ENTRIES_PER_FRAME, entry -> {
+            frame.append(entry.getText());
+            read[0]++;
+        });
+        long dropped = nextSequence - from - read[0];
+        if (dropped > 0) {
+            frame.insert(0, "... 丢弃了 " + dropped + " 条日志\n");
+        }
+        if (frame.length() > 0) {
+            textArea.append(frame.toString());
+            frame.setLength(0);
+            trimLines();
+            textArea.setCaretPosition(textArea.getDocument().getLength());
+        }
+        updateMetrics();
+    }
+
+    private void trimLines() {
+        int excess = textArea.getLineCount() - MAX_LINES;
+        if (excess <= 0) {
+            return;
+        }
+        try {
+            textArea.replaceRange(null, 0, textArea.getLineStartOffset(excess));
+        } catch (BadLocationException e) {
+            textArea.setText("");
+        }
+    }
+
+    private void updateMetrics() {
+        long now = System.currentTimeMillis();
+        long tables = ExtractionMetrics.getTables();
+        if (now - rateSampleTime >= RATE_WINDOW_MILLIS) {
+            tableRate = (tables - rateSampleTables) * 1000.0 / (now - rateSampleTime);
+            rateSampleTime = now;
+            rateSampleTables = tables;
+        }
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) >> 20;
+        long maxMb = runtime.maxMemory() >> 20;
+        tableRateLabel.setText(String.format("表/秒: %.1f（累计 %d）", tableRate, tables));
+        queryLabel.setText("JDBC调用: " + ExtractionMetrics.getQueries());
+        heapLabel.setText("堆内存: " + usedMb + " / " + maxMb + " MB");
+    }
+}
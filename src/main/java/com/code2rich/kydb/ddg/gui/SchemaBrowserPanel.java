@@ -0,0 +1,382 @@
+package com.code2rich.kydb.ddg.gui;
+
+import com.code2rich.kydb.ddg.metadata.SchemaCatalog;
+import com.code2rich.kydb.ddg.metadata.SchemaCatalog.TableEntry;
+import com.code2rich.kydb.ddg.metadata.TableFilter;
+
+import javax.swing.*;
+import javax.swing.event.TreeExpansionEvent;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.event.TreeWillExpandListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.awt.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * schema浏览面板
+ * - 表清单只查询一次表名和注释，展开表节点时才加载列，加载过的列在会话内缓存
+ * - 树模型按需计算节点，配合 JTree 的 largeModel 只布局可见行，几万张表也能流畅滚动
+ * - 过滤条件变化后延迟一小段时间在后台线程重新过滤，只应用最后一次的结果
+ */
+public class SchemaBrowserPanel extends JPanel {
+    // 过滤条件停止变化多久后开始过滤（毫秒）
+    private static final int FILTER_DELAY_MILLIS = 250;
+
+    /**
+     * 打开目录，在后台线程执行
+     */
+    public interface CatalogOpener {
+        SchemaCatalog open() throws Exception;
+    }
+
+    private final Supplier<CatalogOpener> openerSupplier;
+    private final Supplier<TableFilter> filterSupplier;
+    private final SchemaTreeModel model = new SchemaTreeModel();
+    private final JTree tree = new JTree(model);
+    private final JButton loadButton = new JButton("加载表清单");
+    private final JLabel statusLabel = new JLabel("未加载");
+    private final Timer filterTimer;
+    private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "schema-browser-filter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // 每次发起过滤递增，后台结果只有仍是最新一次时才应用
+    private final AtomicLong filterGeneration = new AtomicLong();
+
+    private SchemaCatalog catalog;
+    private List<TableEntry> allTables = Collections.emptyList();
+
+    /**
+     * @param openerSupplier 在EDT上调用，读取当前连接参数并返回打开目录的操作
+     * @param filterSupplier 在EDT上调用，读取当前的过滤条件
+     */
+    public SchemaBrowserPanel(Supplier<CatalogOpener> openerSupplier, Supplier<TableFilter> filterSupplier) {
+        super(new BorderLayout(5, 5));
+        this.openerSupplier = openerSupplier;
+        this.filterSupplier = filterSupplier;
+        setBorder(BorderFactory.createTitledBorder("表浏览"));
+
+        JPanel toolbar = new JPanel(new BorderLayout(5, 0));
+        toolbar.add(loadButton, BorderLayout.WEST);
+        toolbar.add(statusLabel, BorderLayout.CENTER);
+        add(toolbar, BorderLayout.NORTH);
+
+        tree.setRootVisible(false);
+        tree.setShowsRootHandles(true);
+        // 固定行高 + largeModel：JTree 不再为所有行预先计算尺寸
+        tree.setRowHeight(20);
+        tree.setLargeModel(true);
+        tree.addTreeWillExpandListener(new TreeWillExpandListener() {
+            @Override
+            public void treeWillExpand(TreeExpansionEvent event) {
+                Object node = event.getPath().getLastPathComponent();
+                if (node instanceof TableEntry) {
+                    loadColumns((TableEntry) node, event.getPath());
+                }
+            }
+
+            @Override
+            public void treeWillCollapse(TreeExpansionEvent event) {
+            }
+        });
+        add(new JScrollPane(tree), BorderLayout.CENTER);
+
+        filterTimer = new Timer(FILTER_DELAY_MILLIS, e -> applyFilter());
+        filterTimer.setRepeats(false);
+
+        loadButton.addActionListener(e -> loadTables());
+    }
+
+    /**
+     * 过滤条件发生变化，延迟后在后台重新过滤
+     */
+    public void filterChanged() {
+        if (catalog != null) {
+            filterTimer.restart();
+        }
+    }
+
+    /**
+     * 释放连接池和后台线程
+     */
+    public void close() {
+        filterTimer.stop();
+        filterExecutor.shutdownNow();
+        closeCatalog();
+    }
+
+    private void loadTables() {
+        CatalogOpener opener = openerSupplier.get();
+        loadButton.setEnabled(false);
+        statusLabel.setText("加载中...");
+        closeCatalog();
+        model.reset();
+
+        new SwingWorker<List<TableEntry>, Void>() {
+            private SchemaCatalog opened;
+
+            @Override
+            protected List<TableEntry> doInBackground() throws Exception {
+                opened = opener.open();
+                return opened.listTables();
+            }
+
+            @Override
+            protected void done() {
+                loadButton.setEnabled(true);
+                try {
+                    allTables = get();
+                    catalog = opened;
+                    applyFilter();
+                } catch (Exception ex) {
+                    if (opened != null) {
+                        closeQuietly(opened);
+                    }
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    statusLabel.setText("加载失败: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void applyFilter() {
+        TableFilter filter = filterSupplier.get();
+        List<TableEntry> tables = allTables;
+        long generation = filterGeneration.incrementAndGet();
+        statusLabel.setText("过滤中...");
+        filterExecutor.execute(() -> {
+            List<TableEntry> matched = new ArrayList<>();
+            for (TableEntry table : tables) {
+                if (generation != filterGeneration.get()) {
+                    // 已有更新的过滤请求
+                    return;
+                }
+                if (filter.matches(table.getName())) {
+                    matched.add(table);
+                }
+            }
+            Map<TableEntry, Integer> index = new IdentityHashMap<>(matched.size() * 2);
+            for (int i = 0; i < matched.size(); i++) {
+                index.put(matched.get(i), i);
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (generation == filterGeneration.get()) {
+                    model.setTables(matched, index);
+                    statusLabel.setText(String.format("匹配 %,d / %,d 张表", matched.size(), tables.size()));
+                }
+            });
+        });
+    }
+
+    private void loadColumns(TableEntry table, TreePath path) {
+        if (!model.startLoading(table)) {
+            return;
+        }
+        SchemaCatalog current = catalog;
+        new SwingWorker<List<Map<String, Object>>, Void>() {
+            @Override
+            protected List<Map<String, Object>> doInBackground() throws Exception {
+                return current.getColumns(table.getName());
+            }
+
+            @Override
+            protected void done() {
+                if (current != catalog) {
+                    // 加载期间重新打开了目录
+                    return;
+                }
+                List<Object> children = new ArrayList<>();
+                try {
+                    for (Map<String, Object> column : get()) {
+                        children.add(new ColumnNode(column));
+                    }
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    children.add("加载失败: " + cause.getMessage());
+                }
+                if (model.setColumns(table, children)) {
+                    tree.expandPath(path);
+                }
+            }
+        }.execute();
+    }
+
+    private void closeCatalog() {
+        if (catalog != null) {
+            closeQuietly(catalog);
+            catalog = null;
+        }
+        allTables = Collections.emptyList();
+    }
+
+    private static void closeQuietly(SchemaCatalog catalog) {
+        try {
+            catalog.close();
+        } catch (IOException ignored) {
+            // 关闭连接池失败不影响界面
+        }
+    }
+
+    /**
+     * 列节点
+     */
+    private static class ColumnNode {
+        private final String text;
+
+        ColumnNode(Map<String, Object> column) {
+            StringBuilder builder = new StringBuilder();
+            builder.append(column.get("name")).append("  ").append(column.get("typeName"));
+            Object length = column.get("length");
+            if (length != null) {
+                builder.append('(').append(length);
+                Object scale = column.get("scale");
+                if (scale instanceof Number && ((Number) scale).intValue() > 0) {
+                    builder.append(',').append(scale);
+                }
+                builder.append(')');
+            }
+            if (Boolean.TRUE.equals(column.get("primaryKey"))) {
+                builder.append("  主键");
+            }
+            if (Boolean.FALSE.equals(column.get("nullable"))) {
+                builder.append("  非空");
+            }
+            Object remarks = column.get("remarks");
+            if (remarks != null && !remarks.toString().isEmpty()) {
+                builder.append("  ").append(remarks);
+            }
+            this.text = builder.toString();
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /**
+     * 按需计算节点的树模型：根节点下是过滤后的表，表节点在列加载前只有一个占位子节点
+     */
+    private static class SchemaTreeModel implements TreeModel {
+        private static final String ROOT = "tables";
+        private static final String LOADING = "加载中...";
+
+        private final List<TreeModelListener> listeners = new ArrayList<>();
+        private List<TableEntry> tables = Collections.emptyList();
+        private Map<TableEntry, Integer> tableIndex = Collections.emptyMap();
+        // 已加载的列，重新打开目录前一直保留
+        private final Map<TableEntry, List<Object>> columns = new HashMap<>();
+
+        void reset() {
+            columns.clear();
+            setTables(Collections.emptyList(), Collections.emptyMap());
+        }
+
+        void setTables(List<TableEntry> tables, Map<TableEntry, Integer> tableIndex) {
+            this.tables = tables;
+            this.tableIndex = tableIndex;
+            fireStructureChanged(new TreePath(ROOT));
+        }
+
+        /**
+         * @return false 表示已经加载或正在加载
+         */
+        boolean startLoading(TableEntry table) {
+            if (columns.containsKey(table)) {
+                return false;
+            }
+            columns.put(table, Collections.singletonList(LOADING));
+            return true;
+        }
+
+        /**
+         * @return 表当前是否在树中可见
+         */
+        boolean setColumns(TableEntry table, List<Object> children) {
+            columns.put(table, children);
+            if (!tableIndex.containsKey(table)) {
+                return false;
+            }
+            fireStructureChanged(new TreePath(new Object[] { ROOT, table }));
+            return true;
+        }
+
+        @Override
+        public Object getRoot() {
+            return ROOT;
+        }
+
+        @Override
+        public Object getChild(Object parent, int index) {
+            if (parent == ROOT) {
+                return tables.get(index);
+            }
+            return childrenOf(parent).get(index);
+        }
+
+        @Override
+        public int getChildCount(Object parent) {
+            if (parent == ROOT) {
+                return tables.size();
+            }
+            return childrenOf(parent).size();
+        }
+
+        @Override
+        public boolean isLeaf(Object node) {
+            return node != ROOT && !(node instanceof TableEntry);
+        }
+
+        @Override
+        public int getIndexOfChild(Object parent, Object child) {
+            if (parent == ROOT) {
+                Integer index = tableIndex.get(child);
+                return index != null ? index : -1;
+            }
+            return childrenOf(parent).indexOf(child);
+        }
+
+        @Override
+        public void valueForPathChanged(TreePath path, Object newValue) {
+        }
+
+        @Override
+        public void addTreeModelListener(TreeModelListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeTreeModelListener(TreeModelListener listener) {
+            listeners.remove(listener);
+        }
+
+        private List<Object> childrenOf(Object node) {
+            if (!(node instanceof TableEntry)) {
+                return Collections.emptyList();
+            }
+            List<Object> children = columns.get(node);
+            // 未展开过的表显示占位节点，使其可以展开
+            return children != null ? children : Collections.singletonList(LOADING);
+        }
+
+        private void fireStructureChanged(TreePath path) {
+            TreeModelEvent event = new TreeModelEvent(this, path);
+            for (TreeModelListener listener : new ArrayList<>(listeners)) {
+                listener.treeStructureChanged(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,358 @@
+package com.code2rich.kydb.ddg.lint;
+
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import com.code2rich.kydb.ddg.lint.LintReport.Severity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 内置的规范检查规则
+ */
+public final class BuiltinRules {
+
+    private BuiltinRules() {
+    }
+
+    public static List<LintRule<?>> create(LintOptions options) {
+        List<LintRule<?>> rules = new ArrayList<>();
+        rules.add(new MissingPrimaryKey());
+        rules.add(new MissingTableComment());
+        rules.add(new MissingColumnComment());
+        rules.add(new NullableForeignKey());
+        rules.add(new OversizedVarchar(options.getVarcharLimit()));
+        rules.add(new InconsistentColumnType());
+        return rules;
+    }
+
+    /**
+     * 表没有主键
+     */
+    static class MissingPrimaryKey implements LintRule<Void> {
+        @Override
+        public String getId() {
+            return "missing-primary-key";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.ERROR;
+        }
+
+        @Override
+        public String getDescription() {
+            return "表没有主键";
+        }
+
+        @Override
+        public void check(Map<String, Object> table, Void state, Consumer<Finding> findings) {
+            for (Map<String, Object> column : columns(table)) {
+                if (Boolean.TRUE.equals(column.get("primaryKey"))) {
+                    return;
+                }
+            }
+            findings.accept(finding(tableName(table), null, "表没有主键"));
+        }
+    }
+
+    /**
+     * 表没有注释
+     */
+    static class MissingTableComment implements LintRule<Void> {
+        @Override
+        public String getId() {
+            return "missing-table-comment";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.WARNING;
+        }
+
+        @Override
+        public String getDescription() {
+            return "表缺少注释";
+        }
+
+        @Override
+        public void check(Map<String, Object> table, Void state, Consumer<Finding> findings) {
+            if (isBlank(table.get("remarks"))) {
+                findings.accept(finding(tableName(table), null, "表缺少注释"));
+            }
+        }
+    }
+
+    /**
+     * 列没有注释，主键列除外
+     */
+    static class MissingColumnComment implements LintRule<Void> {
+        @Override
+        public String getId() {
+            return "missing-column-comment";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.INFO;
+        }
+
+        @Override
+        public String getDescription() {
+            return "非主键列缺少注释";
+        }
+
+        @Override
+        public void check(Map<String, Object> table, Void state, Consumer<Finding> findings) {
+            for (Map<String, Object> column : columns(table)) {
+                if (!Boolean.TRUE.equals(column.get("primaryKey")) && isBlank(column.get("remarks"))) {
+                    findings.accept(finding(tableName(table), columnName(column), "列缺少注释"));
+                }
+            }
+        }
+    }
+
+    /**
+     * 可为空的外键列
+     * 表模型中没有外键约束，按列名推断引用关系：xxx_id / xxxId 且存在名为 xxx、xxxs 或带前缀的 *_xxx 的表
+     */
+    static class NullableForeignKey implements LintRule<NullableForeignKey.State> {
+        static class State {
+            // 小写表名，以及去掉第一个下划线之前前缀的表名（t_user -> user）
+            private final Set<String> tableNames = new HashSet<>();
+            // 候选列：表名、列名、推断的被引用表名（小写）
+            private final List<String[]> candidates = new ArrayList<>();
+        }
+
+        @Override
+        public String getId() {
+            return "nullable-foreign-key";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.WARNING;
+        }
+
+        @Override
+        public String getDescription() {
+            return "外键列（按列名推断）允许为空";
+        }
+
+        @Override
+        public State newState() {
+            return new State();
+        }
+
+        @Override
+        public void check(Map<String, Object> table, State state, Consumer<Finding> findings) {
+            String tableName = tableName(table);
+            String lower = tableName.toLowerCase(Locale.ROOT);
+            state.tableNames.add(lower);
+            int prefix = lower.indexOf('_');
+            if (prefix > 0 && prefix < lower.length() - 1) {
+                state.tableNames.add(lower.substring(prefix + 1));
+            }
+            for (Map<String, Object> column : columns(table)) {
+                if (Boolean.TRUE.equals(column.get("primaryKey")) || !Boolean.TRUE.equals(column.get("nullable"))) {
+                    continue;
+                }
+                String referenced = referencedTable(columnName(column));
+                if (referenced != null) {
+                    state.candidates.add(new String[] { tableName, columnName(column), referenced });
+                }
+            }
+        }
+
+        // user_id / userId -> user
+        private static String referencedTable(String columnName) {
+            int length = columnName.length();
+            if (length > 3 && columnName.regionMatches(true, length - 3, "_id", 0, 3)) {
+                return columnName.substring(0, length - 3).toLowerCase(Locale.ROOT);
+            }
+            if (length > 2 && columnName.endsWith("Id") && Character.isLowerCase(columnName.charAt(length - 3))) {
+                return columnName.substring(0, length - 2).toLowerCase(Locale.ROOT);
+            }
+            return null;
+        }
+
+        @Override
+        public State merge(State left, State right) {
+            left.tableNames.addAll(right.tableNames);
+            left.candidates.addAll(right.candidates);
+            return left;
+        }
+
+        @Override
+        public void finish(State state, Consumer<Finding> findings) {
+            for (String[] candidate : state.candidates) {
+                String referenced = candidate[2];
+                if (state.tableNames.contains(referenced) || state.tableNames.contains(referenced + "s")
+                        || state.tableNames.contains(referenced + "es")) {
+                    findings.accept(finding(candidate[0], candidate[1], "外键列允许为空（推断引用表 " + referenced + "）"));
+                }
+            }
+        }
+    }
+
+    /**
+     * VARCHAR类列的长度超过上限
+     */
+    static class OversizedVarchar implements LintRule<Void> {
+        private final int limit;
+
+        OversizedVarchar(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public String getId() {
+            return "oversized-varchar";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.WARNING;
+        }
+
+        @Override
+        public String getDescription() {
+            return "VARCHAR列长度超过 " + limit;
+        }
+
+        @Override
+        public void check(Map<String, Object> table, Void state, Consumer<Finding> findings) {
+            for (Map<String, Object> column : columns(table)) {
+                Object typeName = column.get("typeName");
+                Object length = column.get("length");
+                if (typeName != null && length instanceof Number && ((Number) length).longValue() > limit
+                        && isVarchar(typeName.toString())) {
+                    findings.accept(finding(tableName(table), columnName(column),
+                            typeName + "(" + length + ") 超过长度上限 " + limit));
+                }
+            }
+        }
+
+        // VARCHAR、NVARCHAR、VARCHAR2、CHARACTER VARYING 等
+        private static boolean isVarchar(String typeName) {
+            String upper = typeName.toUpperCase(Locale.ROOT);
+            return upper.contains("VARCHAR") || upper.contains("VARYING");
+        }
+    }
+
+    /**
+     * 同名列在不同表中的类型不一致，报告与多数表不同的列
+     */
+    static class InconsistentColumnType implements LintRule<Map<String, Map<String, List<String[]>>>> {
+        @Override
+        public String getId() {
+            return "inconsistent-column-type";
+        }
+
+        @Override
+        public Severity getSeverity() {
+            return Severity.WARNING;
+        }
+
+        @Override
+        public String getDescription() {
+            return "同名列在不同表中的类型不一致";
+        }
+
+        // 小写列名 -> 类型 -> 出现的表名和列名
+        @Override
+        public Map<String, Map<String, List<String[]>>> newState() {
+            return new HashMap<>();
+        }
+
+        @Override
+        public void check(Map<String, Object> table, Map<String, Map<String, List<String[]>>> state,
+                          Consumer<Finding> findings) {
+            String tableName = tableName(table);
+            for (Map<String, Object> column : columns(table)) {
+                String columnName = columnName(column);
+                state.computeIfAbsent(columnName.toLowerCase(Locale.ROOT), key -> new LinkedHashMap<>())
+                        .computeIfAbsent(typeOf(column), key -> new ArrayList<>())
+                        .add(new String[] { tableName, columnName });
+            }
+        }
+
+        // 字符和定点数类型带上长度和精度，其他类型只比较类型名
+        private static String typeOf(Map<String, Object> column) {
+            String typeName = column.get("typeName") != null ? column.get("typeName").toString().toUpperCase(Locale.ROOT) : "";
+            if (typeName.contains("CHAR") || typeName.contains("VARYING") || typeName.contains("DEC")
+                    || typeName.contains("NUM")) {
+                Object scale = column.get("scale");
+                boolean hasScale = scale instanceof Number && ((Number) scale).intValue() > 0;
+                return typeName + "(" + column.get("length") + (hasScale ? "," + scale : "") + ")";
+            }
+            return typeName;
+        }
+
+        @Override
+        public Map<String, Map<String, List<String[]>>> merge(Map<String, Map<String, List<String[]>>> left,
+                                                               Map<String, Map<String, List<String[]>>> right) {
+            for (Map.Entry<String, Map<String, List<String[]>>> entry : right.entrySet()) {
+                Map<String, List<String[]>> types = left.computeIfAbsent(entry.getKey(), key -> new LinkedHashMap<>());
+                for (Map.Entry<String, List<String[]>> type : entry.getValue().entrySet()) {
+                    types.computeIfAbsent(type.getKey(), key -> new ArrayList<>()).addAll(type.getValue());
+                }
+            }
+            return left;
+        }
+
+        @Override
+        public void finish(Map<String, Map<String, List<String[]>>> state, Consumer<Finding> findings) {
+            for (Map<String, List<String[]>> types : state.values()) {
+                if (types.size() < 2) {
+                    continue;
+                }
+                // 出现次数最多的类型视为约定，次数相同时取类型名较小的，结果与表的顺序无关
+                String common = null;
+                int commonCount = 0;
+                for (Map.Entry<String, List<String[]>> type : types.entrySet()) {
+                    int count = type.getValue().size();
+                    if (count > commonCount || (count == commonCount && type.getKey().compareTo(common) < 0)) {
+                        common = type.getKey();
+                        commonCount = count;
+                    }
+                }
+                for (Map.Entry<String, List<String[]>> type : types.entrySet()) {
+                    if (type.getKey().equals(common)) {
+                        continue;
+                    }
+                    for (String[] occurrence : type.getValue()) {
+                        findings.accept(finding(occurrence[0], occurrence[1], "类型 " + type.getKey() + " 与其他 "
+                                + commonCount + " 个表中的同名列 " + common + " 不一致"));
+                    }
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> columns(Map<String, Object> table) {
+        Object columns = table.get("columns");
+        return columns instanceof List ? (List<Map<String, Object>>) columns : new ArrayList<>();
+    }
+
+    static String tableName(Map<String, Object> table) {
+        Object tableName = table.get("tableName");
+        return tableName != null ? tableName.toString() : "";
+    }
+
+    static String columnName(Map<String, Object> column) {
+        Object name = column.get("name");
+        return name != null ? name.toString() : "";
+    }
+
+    private static boolean isBlank(Object value) {
+        return value == null || value.toString().trim().isEmpty();
+    }
+}
@@ -0,0 +1,51 @@
+package com.code2rich.kydb.ddg.lint;
+
+import com.code2rich.kydb.ddg.lint.LintReport.Severity;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 规范检查配置
+ */
+public class LintOptions {
+    private boolean enabled;
+    // 有不低于该级别的问题时命令行以非零状态退出，null 表示不因检查结果失败
+    private Severity failOn = Severity.ERROR;
+    // 不执行的规则标识
+    private Set<String> excludedRules = new HashSet<>();
+    // VARCHAR类列的长度上限，超过时报告
+    private int varcharLimit = 4000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Severity getFailOn() {
+        return failOn;
+    }
+
+    public void setFailOn(Severity failOn) {
+        this.failOn = failOn;
+    }
+
+    public Set<String> getExcludedRules() {
+        return excludedRules;
+    }
+
+    public void setExcludedRules(Set<String> excludedRules) {
+        this.excludedRules = excludedRules;
+    }
+
+    public int getVarcharLimit() {
+        return varcharLimit;
+    }
+
+    public void setVarcharLimit(int varcharLimit) {
+        this.varcharLimit = varcharLimit;
+    }
+}
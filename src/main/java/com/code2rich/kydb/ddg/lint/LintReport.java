@@ -0,0 +1,159 @@
+package com.code2rich.kydb.ddg.lint;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一个schema的规范检查结果
+ */
+public class LintReport {
+    /**
+     * 问题级别，按严重程度从高到低排列
+     */
+    public enum Severity {
+        ERROR("错误"),
+        WARNING("警告"),
+        INFO("提示");
+
+        private final String label;
+
+        Severity(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * 是否不低于指定级别
+         */
+        public boolean isAtLeast(Severity threshold) {
+            return ordinal() <= threshold.ordinal();
+        }
+
+        public static Severity of(String name) {
+            try {
+                return valueOf(name.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown lint severity: " + name + " (expected ERROR, WARNING or INFO)");
+            }
+        }
+    }
+
+    /**
+     * 一条检查结果，表级问题的列名为 null
+     */
+    public static class Finding {
+        private final String ruleId;
+        private final Severity severity;
+        private final String tableName;
+        private final String columnName;
+        private final String message;
+
+        public Finding(String ruleId, Severity severity, String tableName, String columnName, String message) {
+            this.ruleId = ruleId;
+            this.severity = severity;
+            this.tableName = tableName;
+            this.columnName = columnName;
+            this.message = message;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String getColumnName() {
+            return columnName;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    private final List<LintRule<?>> rules;
+    private final List<Finding> findings;
+    private final int tableCount;
+    private final int columnCount;
+
+    public LintReport(List<LintRule<?>> rules, List<Finding> findings, int tableCount, int columnCount) {
+        this.rules = rules;
+        this.findings = findings;
+        this.tableCount = tableCount;
+        this.columnCount = columnCount;
+    }
+
+    public List<LintRule<?>> getRules() {
+        return rules;
+    }
+
+    public List<Finding> getFindings() {
+        return findings;
+    }
+
+    public int getTableCount() {
+        return tableCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int count(Severity severity) {
+        int count = 0;
+        for (Finding finding : findings) {
+            if (finding.getSeverity() == severity) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 各规则的问题数，按规则顺序排列
+     */
+    public Map<String, Integer> countByRule() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (LintRule<?> rule : rules) {
+            counts.put(rule.getId(), 0);
+        }
+        for (Finding finding : findings) {
+            counts.merge(finding.getRuleId(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public Map<Severity, Integer> countBySeverity() {
+        Map<Severity, Integer> counts = new EnumMap<>(Severity.class);
+        for (Severity severity : Severity.values()) {
+            counts.put(severity, 0);
+        }
+        for (Finding finding : findings) {
+            counts.merge(finding.getSeverity(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * 是否有不低于指定级别的问题
+     */
+    public boolean hasFindings(Severity threshold) {
+        for (Finding finding : findings) {
+            if (finding.getSeverity().isAtLeast(threshold)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
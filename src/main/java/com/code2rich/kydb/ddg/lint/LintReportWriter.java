@@ -0,0 +1,59 @@
+package com.code2rich.kydb.ddg.lint;
+
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import com.code2rich.kydb.ddg.lint.LintReport.Severity;
+import com.code2rich.kydb.ddg.util.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * 规范检查的JSON报告，供CI等工具读取
+ */
+public class LintReportWriter {
+
+    public void writeJson(File file, String dbName, LintReport report) throws IOException {
+        try (JsonWriter json = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8)))) {
+            json.beginObject();
+            json.field("database", dbName);
+            json.field("tables", report.getTableCount());
+            json.field("columns", report.getColumnCount());
+            json.name("summary").beginObject();
+            for (Map.Entry<Severity, Integer> entry : report.countBySeverity().entrySet()) {
+                json.field(entry.getKey().name(), entry.getValue());
+            }
+            json.endObject();
+
+            Map<String, Integer> ruleCounts = report.countByRule();
+            json.name("rules").beginArray();
+            for (LintRule<?> rule : report.getRules()) {
+                json.beginObject()
+                        .field("id", rule.getId())
+                        .field("severity", rule.getSeverity().name())
+                        .field("description", rule.getDescription())
+                        .field("findings", ruleCounts.get(rule.getId()))
+                        .endObject();
+            }
+            json.endArray();
+
+            json.name("findings").beginArray();
+            for (Finding finding : report.getFindings()) {
+                json.beginObject()
+                        .field("rule", finding.getRuleId())
+                        .field("severity", finding.getSeverity().name())
+                        .field("table", finding.getTableName())
+                        .field("column", finding.getColumnName())
+                        .field("message", finding.getMessage())
+                        .endObject();
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.code2rich.kydb.ddg.lint;
+
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import com.code2rich.kydb.ddg.lint.LintReport.Severity;
+
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 规范检查规则
+ * 检查器把表分成若干段并行检查，每段为每条规则创建一个状态对象，段内的表依次交给 {@link #check}；
+ * 段的结果两两合并（{@link #merge}），全部表检查完后调用一次 {@link #finish}。
+ * 只看单张表的规则不需要状态；跨表的规则（如同名列类型不一致）在状态中记录需要的信息，在 finish 中给出结果。
+ * 额外的规则可以通过 META-INF/services/com.code2rich.kydb.ddg.lint.LintRule 注册
+ * @param <S> 状态类型
+ */
+public interface LintRule<S> {
+
+    /**
+     * 规则标识，用于排除规则和JSON报告
+     */
+    String getId();
+
+    Severity getSeverity();
+
+    /**
+     * 规则说明
+     */
+    String getDescription();
+
+    /**
+     * 创建一段表的状态，不需要状态的规则返回 null
+     */
+    default S newState() {
+        return null;
+    }
+
+    /**
+     * 检查一张表（结构与快照中的表一致），不同段的表会在不同线程中同时检查
+     */
+    void check(Map<String, Object> table, S state, Consumer<Finding> findings);
+
+    /**
+     * 合并相邻两段的状态，left 中的表在 right 之前
+     */
+    default S merge(S left, S right) {
+        return left;
+    }
+
+    /**
+     * 所有表检查完后调用，state 包含全部表
+     */
+    default void finish(S state, Consumer<Finding> findings) {
+    }
+
+    default Finding finding(String tableName, String columnName, String message) {
+        return new Finding(getId(), getSeverity(), tableName, columnName, message);
+    }
+}
@@ -0,0 +1,189 @@
+package com.code2rich.kydb.ddg.lint;
+
+import com.code2rich.kydb.ddg.lint.LintReport.Finding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 规范检查
+ * 所有规则在一次遍历中完成：表按批读入内存（表模型可能溢出在磁盘上），每批用fork-join按表区间拆分并行检查，
+ * 各区间的规则状态和检查结果在合并时按表的顺序拼接，跨表规则在全部表检查完后给出结果
+ */
+public class SchemaLinter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaLinter.class);
+
+    // 每批读入内存的表数
+    private static final int BATCH_SIZE = 4096;
+    // 区间内的列数不超过该值时不再拆分
+    private static final int SPLIT_COLUMNS = 2048;
+
+    private static final Comparator<Finding> FINDING_ORDER = Comparator
+            .comparing(Finding::getSeverity)
+            .thenComparing(Finding::getTableName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Finding::getColumnName, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Finding::getRuleId);
+
+    private final List<LintRule<?>> rules;
+    private final int parallelism;
+
+    public SchemaLinter(List<LintRule<?>> rules, int parallelism) {
+        this.rules = rules;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 内置规则加上通过 ServiceLoader 注册的规则，去掉配置中排除的规则
+     */
+    public static SchemaLinter create(LintOptions options, int parallelism) {
+        List<LintRule<?>> rules = new ArrayList<>(BuiltinRules.create(options));
+        for (LintRule<?> rule : ServiceLoader.load(LintRule.class)) {
+            rules.add(rule);
+        }
+        rules.removeIf(rule -> options.getExcludedRules().contains(rule.getId()));
+        return new SchemaLinter(rules, parallelism);
+    }
+
+    public List<LintRule<?>> getRules() {
+        return rules;
+    }
+
+    /**
+     * 检查所有表
+     * @param tables 表列表，按顺序读取一次
+     * @return 检查结果，按级别、表名、列名排序
+     */
+    public LintReport lint(List<Map<String, Object>> tables) {
+        long start = System.currentTimeMillis();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Segment total = null;
+            List<Map<String, Object>> batch = new ArrayList<>(Math.min(BATCH_SIZE, tables.size()));
+            for (Map<String, Object> table : tables) {
+                batch.add(table);
+                if (batch.size() == BATCH_SIZE) {
+                    total = merge(total, pool.invoke(new CheckTask(batch, 0, batch.size())));
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty() || total == null) {
+                total = merge(total, pool.invoke(new CheckTask(batch, 0, batch.size())));
+            }
+
+            List<Finding> findings = total.findings;
+            for (int i = 0; i < rules.size(); i++) {
+                finish(rules.get(i), total.states[i], findings);
+            }
+            findings.sort(FINDING_ORDER);
+            LintReport report = new LintReport(rules, findings, total.tables, total.columns);
+            LOGGER.info("Linted {} tables, {} columns with {} rules in {} ms: {} errors, {} warnings, {} infos",
+                    total.tables, total.columns, rules.size(), System.currentTimeMillis() - start,
+                    report.count(LintReport.Severity.ERROR), report.count(LintReport.Severity.WARNING),
+                    report.count(LintReport.Severity.INFO));
+            return report;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Segment merge(Segment left, Segment right) {
+        if (left == null) {
+            return right;
+        }
+        for (int i = 0; i < rules.size(); i++) {
+            left.states[i] = merge(rules.get(i), left.states[i], right.states[i]);
+        }
+        left.findings.addAll(right.findings);
+        left.tables += right.tables;
+        left.columns += right.columns;
+        return left;
+    }
+
+    // 规则的状态类型在运行时不可知，以下方法集中处理类型转换
+
+    @SuppressWarnings("unchecked")
+    private static Object newState(LintRule<?> rule) {
+        return ((LintRule<Object>) rule).newState();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void check(LintRule<?> rule, Map<String, Object> table, Object state, List<Finding> findings) {
+        ((LintRule<Object>) rule).check(table, state, findings::add);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object merge(LintRule<?> rule, Object left, Object right) {
+        return ((LintRule<Object>) rule).merge(left, right);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void finish(LintRule<?> rule, Object state, List<Finding> findings) {
+        ((LintRule<Object>) rule).finish(state, findings::add);
+    }
+
+    // 一段连续的表的检查结果
+    private static class Segment {
+        private final Object[] states;
+        private final List<Finding> findings = new ArrayList<>();
+        private int tables;
+        private int columns;
+
+        Segment(int ruleCount) {
+            this.states = new Object[ruleCount];
+        }
+    }
+
+    // 检查 [from, to) 区间的表，列数多时对半拆分
+    private class CheckTask extends RecursiveTask<Segment> {
+        private final List<Map<String, Object>> batch;
+        private final int from;
+        private final int to;
+
+        CheckTask(List<Map<String, Object>> batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Segment compute() {
+            if (to - from > 1 && countColumns() > SPLIT_COLUMNS) {
+                int middle = (from + to) >>> 1;
+                CheckTask left = new CheckTask(batch, from, middle);
+                CheckTask right = new CheckTask(batch, middle, to);
+                right.fork();
+                Segment result = left.compute();
+                return merge(result, right.join());
+            }
+            Segment segment = new Segment(rules.size());
+            for (int i = 0; i < rules.size(); i++) {
+                segment.states[i] = newState(rules.get(i));
+            }
+            for (int t = from; t < to; t++) {
+                Map<String, Object> table = batch.get(t);
+                for (int i = 0; i < rules.size(); i++) {
+                    check(rules.get(i), table, segment.states[i], segment.findings);
+                }
+                segment.tables++;
+                segment.columns += BuiltinRules.columns(table).size();
+            }
+            return segment;
+        }
+
+        // 按列数而不是表数拆分，几张宽表不会集中在一个任务里
+        private int countColumns() {
+            int columns = 0;
+            for (int t = from; t < to && columns <= SPLIT_COLUMNS; t++) {
+                columns += BuiltinRules.columns(batch.get(t)).size();
+            }
+            return columns;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import com.code2rich.kydb.ddg.resilience.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 表和列注释采集器
+ * Oracle 驱动只有开启 remarksReporting 才在 DatabaseMetaData 中返回注释，代价是每次 getTables/getColumns
+ * 都关联 ALL_TAB_COMMENTS/ALL_COL_COMMENTS，逐表读取列时这部分开销占了大头。
+ * 这里每个schema只查询一次数据字典，再把注释合并到表清单和各表的列中
+ */
+public class CommentCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommentCollector.class);
+
+    private static final String ORACLE_TABLE_SQL =
+            "SELECT TABLE_NAME, COMMENTS FROM ALL_TAB_COMMENTS "
+                    + "WHERE OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND COMMENTS IS NOT NULL";
+
+    private static final String ORACLE_COLUMN_SQL =
+            "SELECT TABLE_NAME, COLUMN_NAME, COMMENTS FROM ALL_COL_COMMENTS "
+                    + "WHERE OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND COMMENTS IS NOT NULL";
+
+    /**
+     * 是否需要单独采集注释；其他数据库的驱动在元数据中直接返回注释，没有额外开销
+     */
+    public static boolean supports(DatabaseDialect dialect) {
+        return dialect == DatabaseDialect.ORACLE;
+    }
+
+    /**
+     * 采集指定schema下所有表和列的注释
+     * @param schema schema名称，为空时使用当前schema
+     * @return 不支持的数据库返回空的注释集合
+     * @throws SQLException 暂时性错误（连接中断、超时等），由调用方重试；其他错误只记录日志，返回空的注释集合
+     */
+    public SchemaComments collect(Connection connection, DatabaseDialect dialect, String schema) throws SQLException {
+        SchemaComments comments = new SchemaComments();
+        if (!supports(dialect)) {
+            return comments;
+        }
+        String owner = TableStatisticsCollector.resolveSchema(connection, dialect, schema);
+        try {
+            try (PreparedStatement statement = connection.prepareStatement(ORACLE_TABLE_SQL)) {
+                statement.setString(1, owner);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        comments.tables.put(rs.getString(1), rs.getString(2));
+                    }
+                }
+            }
+            int columnCount = 0;
+            try (PreparedStatement statement = connection.prepareStatement(ORACLE_COLUMN_SQL)) {
+                statement.setString(1, owner);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        comments.columns.computeIfAbsent(rs.getString(1), k -> new ConcurrentHashMap<>())
+                                .put(rs.getString(2), rs.getString(3));
+                        columnCount++;
+                    }
+                }
+            }
+            LOGGER.info("Loaded comments of {} tables and {} columns", comments.tables.size(), columnCount);
+        } catch (SQLException e) {
+            if (RetryPolicy.isTransient(e)) {
+                throw e;
+            }
+            LOGGER.warn("Could not load table and column comments: {}", e.getMessage());
+            return new SchemaComments();
+        }
+        return comments;
+    }
+
+    /**
+     * 一个schema的表和列注释，可以在多个线程中合并
+     */
+    public static class SchemaComments {
+        private final Map<String, String> tables = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, String>> columns = new ConcurrentHashMap<>();
+
+        /**
+         * @param remarks 驱动返回的表注释，不为空时优先使用
+         */
+        public String getTableRemarks(String tableName, String remarks) {
+            return remarks != null ? remarks : tables.get(tableName);
+        }
+
+        /**
+         * 把列注释合并到一个表的列中，驱动已返回注释的列不变；每个表只合并一次，合并后释放该表的注释
+         */
+        public void applyColumnRemarks(String tableName, List<Map<String, Object>> columnList) {
+            Map<String, String> tableColumns = columns.remove(tableName);
+            if (tableColumns == null) {
+                return;
+            }
+            for (Map<String, Object> column : columnList) {
+                if (column.get("remarks") == null) {
+                    column.put("remarks", tableColumns.get(String.valueOf(column.get("name"))));
+                }
+            }
+        }
+    }
+}
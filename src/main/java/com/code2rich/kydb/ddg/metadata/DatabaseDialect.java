@@ -0,0 +1,54 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 数据库方言，用于选择各数据库原生的目录查询
+ */
+public enum DatabaseDialect {
+    MYSQL,
+    MARIADB,
+    POSTGRESQL,
+    ORACLE,
+    SQLSERVER,
+    UNKNOWN;
+
+    /**
+     * 根据 DatabaseMetaData.getDatabaseProductName() 判断方言
+     * @param productName 数据库产品名称
+     * @return 数据库方言
+     */
+    public static DatabaseDialect fromProductName(String productName) {
+        if (productName == null) {
+            return UNKNOWN;
+        }
+        String name = productName.toLowerCase();
+        if (name.contains("mariadb")) {
+            return MARIADB;
+        } else if (name.contains("mysql")) {
+            return MYSQL;
+        } else if (name.contains("postgresql")) {
+            return POSTGRESQL;
+        } else if (name.contains("oracle")) {
+            return ORACLE;
+        } else if (name.contains("microsoft sql server") || name.contains("sql server")) {
+            return SQLSERVER;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * 根据连接判断方言
+     */
+    public static DatabaseDialect of(Connection connection) throws SQLException {
+        return fromProductName(connection.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * 是否为MySQL系（MySQL/MariaDB 以catalog作为库名）
+     */
+    public boolean isMySqlFamily() {
+        return this == MYSQL || this == MARIADB;
+    }
+}
@@ -0,0 +1,110 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 元数据抽取的范围、容错和负载控制配置
+ */
+public class ExtractionOptions {
+    // 除表以外还要抽取的对象种类
+    private Set<SchemaObjectType> objectTypes = EnumSet.allOf(SchemaObjectType.class);
+    // 是否为每个表生成建表语句
+    private boolean tableDdl;
+    // 单次元数据查询的超时（秒），0表示不限制
+    private int tableTimeoutSeconds = 60;
+    // 暂时性错误的重试次数
+    private int retries = 2;
+    // 第一次重试前的等待时间（毫秒），之后指数增长并加随机抖动
+    private long retryBackoffMillis = 500;
+    // 连续多少次暂时性失败后熔断，暂停访问数据库
+    private int breakerThreshold = 5;
+    // 熔断后第一次试探前的等待时间（秒），试探失败时加倍
+    private int breakerCooldownSeconds = 10;
+    // 连续熔断多少次后放弃剩余的表
+    private int breakerMaxTrips = 5;
+    // 每秒最多的元数据查询数，0表示不限制
+    private double maxQueriesPerSecond;
+    // 元数据查询的 p95 目标延迟（毫秒），超过时降低并发，0表示固定使用最大并发
+    private long latencyTargetMillis = 500;
+
+    public Set<SchemaObjectType> getObjectTypes() {
+        return objectTypes;
+    }
+
+    public void setObjectTypes(Set<SchemaObjectType> objectTypes) {
+        this.objectTypes = objectTypes;
+    }
+
+    public boolean isTableDdl() {
+        return tableDdl;
+    }
+
+    public void setTableDdl(boolean tableDdl) {
+        this.tableDdl = tableDdl;
+    }
+
+    public int getTableTimeoutSeconds() {
+        return tableTimeoutSeconds;
+    }
+
+    public void setTableTimeoutSeconds(int tableTimeoutSeconds) {
+        this.tableTimeoutSeconds = tableTimeoutSeconds;
+    }
+
+    public int getRetries() {
+        return retries;
+    }
+
+    public void setRetries(int retries) {
+        this.retries = retries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public void setRetryBackoffMillis(long retryBackoffMillis) {
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public int getBreakerThreshold() {
+        return breakerThreshold;
+    }
+
+    public void setBreakerThreshold(int breakerThreshold) {
+        this.breakerThreshold = breakerThreshold;
+    }
+
+    public int getBreakerCooldownSeconds() {
+        return breakerCooldownSeconds;
+    }
+
+    public void setBreakerCooldownSeconds(int breakerCooldownSeconds) {
+        this.breakerCooldownSeconds = breakerCooldownSeconds;
+    }
+
+    public int getBreakerMaxTrips() {
+        return breakerMaxTrips;
+    }
+
+    public void setBreakerMaxTrips(int breakerMaxTrips) {
+        this.breakerMaxTrips = breakerMaxTrips;
+    }
+
+    public double getMaxQueriesPerSecond() {
+        return maxQueriesPerSecond;
+    }
+
+    public void setMaxQueriesPerSecond(double maxQueriesPerSecond) {
+        this.maxQueriesPerSecond = maxQueriesPerSecond;
+    }
+
+    public long getLatencyTargetMillis() {
+        return latencyTargetMillis;
+    }
+
+    public void setLatencyTargetMillis(long latencyTargetMillis) {
+        this.latencyTargetMillis = latencyTargetMillis;
+    }
+}
@@ -0,0 +1,55 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 表模型的存放方式
+ * 堆内预算大于0时抽取结果放在可溢出到磁盘的列表中，否则全部放在堆内
+ */
+public class ModelStoreOptions {
+    // 默认最多使用四分之一的最大堆保存表模型
+    private static final long DEFAULT_HEAP_BYTES = Runtime.getRuntime().maxMemory() / 4;
+
+    private final long heapBytes;
+    private final File directory;
+
+    /**
+     * @param heapBytes 堆内工作集的字节数上限，小于等于0表示不溢出
+     * @param directory 溢出文件目录，null 时使用系统临时目录
+     */
+    public ModelStoreOptions(long heapBytes, File directory) {
+        this.heapBytes = heapBytes;
+        this.directory = directory;
+    }
+
+    /**
+     * 默认配置：堆预算为最大堆的四分之一，溢出到系统临时目录
+     */
+    public static ModelStoreOptions defaults() {
+        return new ModelStoreOptions(DEFAULT_HEAP_BYTES, null);
+    }
+
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * 创建存放表模型的列表，使用完毕后如果是 Closeable 需要关闭
+     */
+    public List<Map<String, Object>> newTableList() {
+        if (heapBytes <= 0) {
+            return new ArrayList<>();
+        }
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        return new SpillingTableList(directory, heapBytes);
+    }
+}
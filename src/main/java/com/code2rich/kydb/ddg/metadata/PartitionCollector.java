@@ -0,0 +1,377 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 分区信息采集器
+ * 每个schema执行一次目录查询，找出分区表及其子分区，文档中只保留父表并附上分区摘要（方式、分区键、分区数、范围），
+ * 子分区不再作为单独的表读取列信息
+ * - PostgreSQL 的声明式分区和继承子表会作为普通表出现在 getTables 中，按 pg_inherits 折叠到最顶层的父表
+ * - MySQL/Oracle 的分区不会作为表列出，只采集摘要
+ */
+public class PartitionCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionCollector.class);
+
+    // 子表、父表、分区边界、父表的分区键定义（继承子表的父表为NULL），需要 PostgreSQL 10+
+    private static final String POSTGRESQL_SQL =
+            "SELECT c.relname, p.relname, pg_get_expr(c.relpartbound, c.oid), pg_get_partkeydef(p.oid) "
+                    + "FROM pg_catalog.pg_inherits i "
+                    + "JOIN pg_catalog.pg_class c ON c.oid = i.inhrelid "
+                    + "JOIN pg_catalog.pg_class p ON p.oid = i.inhparent "
+                    + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE n.nspname = COALESCE(CAST(? AS TEXT), current_schema()) "
+                    + "AND p.relnamespace = c.relnamespace AND c.relkind IN ('r', 'p')";
+
+    // 每个(子)分区一行，按分区顺序排列
+    private static final String MYSQL_SQL =
+            "SELECT TABLE_NAME, PARTITION_METHOD, SUBPARTITION_METHOD, PARTITION_EXPRESSION, PARTITION_NAME, "
+                    + "PARTITION_DESCRIPTION FROM information_schema.PARTITIONS "
+                    + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND PARTITION_NAME IS NOT NULL "
+                    + "ORDER BY TABLE_NAME, PARTITION_ORDINAL_POSITION, SUBPARTITION_ORDINAL_POSITION";
+
+    // 间隔分区的 PARTITION_COUNT 固定为上限值，分区数按实际存在的分区统计
+    private static final String ORACLE_SQL =
+            "SELECT p.TABLE_NAME, p.PARTITIONING_TYPE, p.SUBPARTITIONING_TYPE, "
+                    + "(SELECT LISTAGG(k.COLUMN_NAME, ', ') WITHIN GROUP (ORDER BY k.COLUMN_POSITION) "
+                    + "FROM ALL_PART_KEY_COLUMNS k WHERE k.OWNER = p.OWNER AND k.NAME = p.TABLE_NAME AND k.OBJECT_TYPE = 'TABLE'), "
+                    + "(SELECT COUNT(*) FROM ALL_TAB_PARTITIONS t WHERE t.TABLE_OWNER = p.OWNER AND t.TABLE_NAME = p.TABLE_NAME) "
+                    + "FROM ALL_PART_TABLES p WHERE p.OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))";
+
+    // 首尾分区的上界；HIGH_VALUE 是 LONG 类型，不能用在聚合中，只取两行
+    private static final String ORACLE_BOUNDS_SQL =
+            "SELECT t.TABLE_NAME, t.HIGH_VALUE FROM ALL_TAB_PARTITIONS t "
+                    + "WHERE t.TABLE_OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) "
+                    + "AND (t.PARTITION_POSITION = 1 OR t.PARTITION_POSITION = (SELECT MAX(x.PARTITION_POSITION) "
+                    + "FROM ALL_TAB_PARTITIONS x WHERE x.TABLE_OWNER = t.TABLE_OWNER AND x.TABLE_NAME = t.TABLE_NAME)) "
+                    + "ORDER BY t.TABLE_NAME, t.PARTITION_POSITION";
+
+    private static final Pattern POSTGRESQL_RANGE_BOUND = Pattern.compile("^FOR VALUES FROM \\((.*)\\) TO \\((.*)\\)$");
+    private static final Pattern POSTGRESQL_KEY_DEFINITION = Pattern.compile("^(\\w+)\\s*\\((.*)\\)$");
+
+    /**
+     * 一个schema的分区结构
+     */
+    public static class PartitionLayout {
+        // 子分区到最顶层父表
+        private final Map<String, String> roots;
+        // 父表到分区摘要
+        private final Map<String, Map<String, Object>> summaries;
+
+        PartitionLayout(Map<String, String> roots, Map<String, Map<String, Object>> summaries) {
+            this.roots = roots;
+            this.summaries = summaries;
+        }
+
+        public static PartitionLayout empty() {
+            return new PartitionLayout(Collections.emptyMap(), Collections.emptyMap());
+        }
+
+        /**
+         * 是否为某个分区表的子分区（文档中不单独列出）
+         */
+        public boolean isPartition(String tableName) {
+            return roots.containsKey(tableName);
+        }
+
+        /**
+         * @return 子分区所属的最顶层父表，不是子分区时返回表名本身
+         */
+        public String getRoot(String tableName) {
+            return roots.getOrDefault(tableName, tableName);
+        }
+
+        /**
+         * @return 分区摘要（scheme, key, count, range），不是分区表时返回null
+         */
+        public Map<String, Object> getSummary(String tableName) {
+            return summaries.get(tableName);
+        }
+    }
+
+    /**
+     * getTables 使用的表类型：PostgreSQL 驱动将声明式分区的父表列为 "PARTITIONED TABLE"
+     */
+    public static String[] getTableTypes(DatabaseDialect dialect) {
+        return dialect == DatabaseDialect.POSTGRESQL ? new String[] { "TABLE", "PARTITIONED TABLE" } : new String[] { "TABLE" };
+    }
+
+    /**
+     * 采集指定schema的分区结构
+     * @param connection 数据库连接
+     * @param dialect 数据库方言
+     * @param schema schema名称，为空时使用当前schema
+     * @return 分区结构，不支持的数据库或查询失败时返回空结构
+     */
+    public PartitionLayout collect(Connection connection, DatabaseDialect dialect, String schema) {
+        try {
+            String resolvedSchema = TableStatisticsCollector.resolveSchema(connection, dialect, schema);
+            PartitionLayout layout;
+            switch (dialect) {
+                case POSTGRESQL:
+                    layout = collectPostgreSql(connection, resolvedSchema);
+                    break;
+                case MYSQL:
+                case MARIADB:
+                    layout = collectMySql(connection, resolvedSchema);
+                    break;
+                case ORACLE:
+                    layout = collectOracle(connection, resolvedSchema);
+                    break;
+                default:
+                    LOGGER.debug("Partition detection is not supported for dialect {}", dialect);
+                    return PartitionLayout.empty();
+            }
+            if (!layout.summaries.isEmpty()) {
+                LOGGER.info("Found {} partitioned tables, {} partitions are documented with their parent",
+                        layout.summaries.size(), layout.roots.size());
+            }
+            return layout;
+        } catch (SQLException e) {
+            // 分区摘要只是辅助信息，查询失败时子分区按普通表输出
+            LOGGER.warn("Could not load partition layout: {}", e.getMessage());
+            return PartitionLayout.empty();
+        }
+    }
+
+    /**
+     * 将分区摘要格式化为一行说明，如 "RANGE (created_at)，3650 个分区，FROM ('2020-01-01') TO ('2030-01-01')"
+     */
+    public static String describe(Map<String, Object> summary) {
+        List<String> parts = new ArrayList<>();
+        Object key = summary.get("key");
+        parts.add(summary.get("scheme") + (key != null ? " (" + key + ")" : ""));
+        if (summary.get("count") != null) {
+            parts.add(summary.get("count") + " 个分区");
+        }
+        if (summary.get("range") != null) {
+            parts.add(String.valueOf(summary.get("range")));
+        }
+        return String.join("，", parts);
+    }
+
+    private PartitionLayout collectPostgreSql(Connection connection, String schema) throws SQLException {
+        Map<String, String> parents = new HashMap<>();
+        Map<String, String> bounds = new HashMap<>();
+        Map<String, String> keyDefinitions = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(POSTGRESQL_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String child = rs.getString(1);
+                    String parent = rs.getString(2);
+                    parents.put(child, parent);
+                    if (rs.getString(3) != null) {
+                        bounds.put(child, rs.getString(3));
+                    }
+                    if (rs.getString(4) != null) {
+                        keyDefinitions.put(parent, rs.getString(4));
+                    }
+                }
+            }
+        }
+
+        Map<String, String> roots = new HashMap<>();
+        for (String child : parents.keySet()) {
+            String root = child;
+            // 多级分区逐级向上查找，防御异常的循环继承
+            for (int depth = 0; parents.containsKey(root) && depth < 64; depth++) {
+                root = parents.get(root);
+            }
+            roots.put(child, root);
+        }
+
+        // 分区数只统计叶子分区，范围取顶层分区的最小下界和最大上界
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        Set<String> intermediate = new HashSet<>(parents.values());
+        Map<String, String[]> ranges = new HashMap<>();
+        for (Map.Entry<String, String> entry : roots.entrySet()) {
+            String child = entry.getKey();
+            String root = entry.getValue();
+            Map<String, Object> summary = summaries.computeIfAbsent(root, k -> newPostgreSqlSummary(keyDefinitions.get(k)));
+            if (!intermediate.contains(child)) {
+                summary.put("count", (Integer) summary.get("count") + 1);
+            }
+            Matcher matcher = root.equals(parents.get(child)) && bounds.containsKey(child)
+                    ? POSTGRESQL_RANGE_BOUND.matcher(bounds.get(child)) : null;
+            if (matcher != null && matcher.matches()) {
+                String[] range = ranges.get(root);
+                if (range == null) {
+                    ranges.put(root, new String[] { matcher.group(1), matcher.group(2) });
+                } else {
+                    if (compareBound(matcher.group(1), range[0]) < 0) {
+                        range[0] = matcher.group(1);
+                    }
+                    if (compareBound(matcher.group(2), range[1]) > 0) {
+                        range[1] = matcher.group(2);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<String, String[]> entry : ranges.entrySet()) {
+            summaries.get(entry.getKey()).put("range", "FROM (" + entry.getValue()[0] + ") TO (" + entry.getValue()[1] + ")");
+        }
+        return new PartitionLayout(roots, summaries);
+    }
+
+    // pg_get_partkeydef 返回 "RANGE (created_at)"，继承的父表没有分区键
+    private static Map<String, Object> newPostgreSqlSummary(String keyDefinition) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        Matcher matcher = keyDefinition != null ? POSTGRESQL_KEY_DEFINITION.matcher(keyDefinition) : null;
+        if (matcher != null && matcher.matches()) {
+            summary.put("scheme", matcher.group(1));
+            summary.put("key", matcher.group(2));
+        } else {
+            summary.put("scheme", keyDefinition != null ? keyDefinition : "INHERITS");
+        }
+        summary.put("count", 0);
+        return summary;
+    }
+
+    private PartitionLayout collectMySql(Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(MYSQL_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                String currentTable = null;
+                String lastPartition = null;
+                String firstBound = null;
+                String lastBound = null;
+                Map<String, Object> summary = null;
+                while (rs.next()) {
+                    String tableName = rs.getString(1);
+                    if (!tableName.equals(currentTable)) {
+                        finishMySqlRange(summary, firstBound, lastBound);
+                        currentTable = tableName;
+                        lastPartition = null;
+                        summary = new LinkedHashMap<>();
+                        String subMethod = rs.getString(3);
+                        summary.put("scheme", rs.getString(2) + (subMethod != null ? "-" + subMethod : ""));
+                        putIfNotNull(summary, "key", stripQuotes(rs.getString(4)));
+                        summary.put("count", 0);
+                        summaries.put(tableName, summary);
+                        firstBound = rs.getString(6);
+                    }
+                    // 有子分区时同一分区出现多行
+                    String partitionName = rs.getString(5);
+                    if (!partitionName.equals(lastPartition)) {
+                        summary.put("count", (Integer) summary.get("count") + 1);
+                        lastPartition = partitionName;
+                        lastBound = rs.getString(6);
+                    }
+                }
+                finishMySqlRange(summary, firstBound, lastBound);
+            }
+        }
+        return new PartitionLayout(Collections.emptyMap(), summaries);
+    }
+
+    private static void finishMySqlRange(Map<String, Object> summary, String firstBound, String lastBound) {
+        if (summary != null && String.valueOf(summary.get("scheme")).startsWith("RANGE") && firstBound != null) {
+            summary.put("range", "VALUES LESS THAN (" + firstBound + ") … (" + lastBound + ")");
+        }
+    }
+
+    private PartitionLayout collectOracle(Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(ORACLE_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> summary = new LinkedHashMap<>();
+                    String subType = rs.getString(3);
+                    summary.put("scheme", rs.getString(2) + (subType != null && !"NONE".equals(subType) ? "-" + subType : ""));
+                    putIfNotNull(summary, "key", rs.getString(4));
+                    summary.put("count", rs.getInt(5));
+                    summaries.put(rs.getString(1), summary);
+                }
+            }
+        }
+        if (summaries.isEmpty()) {
+            return PartitionLayout.empty();
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(ORACLE_BOUNDS_SQL)) {
+            statement.setString(1, schema);
+            try (ResultSet rs = statement.executeQuery()) {
+                String currentTable = null;
+                String firstBound = null;
+                while (rs.next()) {
+                    String tableName = rs.getString(1);
+                    String bound = rs.getString(2);
+                    Map<String, Object> summary = summaries.get(tableName);
+                    if (summary == null || !String.valueOf(summary.get("scheme")).startsWith("RANGE")) {
+                        continue;
+                    }
+                    if (!tableName.equals(currentTable)) {
+                        currentTable = tableName;
+                        firstBound = bound;
+                    }
+                    summary.put("range", "VALUES LESS THAN (" + firstBound + ") … (" + bound + ")");
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Could not load partition bounds: {}", e.getMessage());
+        }
+        return new PartitionLayout(Collections.emptyMap(), summaries);
+    }
+
+    /**
+     * 比较两个分区边界值：MINVALUE/MAXVALUE 为两端，数字按数值比较，其他按文本比较（ISO日期文本顺序即时间顺序）
+     */
+    private static int compareBound(String a, String b) {
+        int rankA = boundRank(a);
+        int rankB = boundRank(b);
+        if (rankA != rankB) {
+            return Integer.compare(rankA, rankB);
+        }
+        String valueA = stripQuotes(a);
+        String valueB = stripQuotes(b);
+        try {
+            return new BigDecimal(valueA).compareTo(new BigDecimal(valueB));
+        } catch (NumberFormatException e) {
+            return valueA.compareTo(valueB);
+        }
+    }
+
+    private static int boundRank(String bound) {
+        if ("MINVALUE".equalsIgnoreCase(bound)) {
+            return -1;
+        }
+        return "MAXVALUE".equalsIgnoreCase(bound) ? 1 : 0;
+    }
+
+    private static String stripQuotes(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        if (trimmed.length() >= 2 && (trimmed.charAt(0) == '\'' || trimmed.charAt(0) == '`')
+                && trimmed.charAt(trimmed.length() - 1) == trimmed.charAt(0)) {
+            return trimmed.substring(1, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    private static void putIfNotNull(Map<String, Object> map, String key, Object value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+}
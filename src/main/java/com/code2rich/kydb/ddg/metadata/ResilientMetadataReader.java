@@ -0,0 +1,190 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import com.code2rich.kydb.ddg.monitor.ExtractionMetrics;
+import com.code2rich.kydb.ddg.resilience.CircuitBreaker;
+import com.code2rich.kydb.ddg.resilience.LoadGovernor;
+import com.code2rich.kydb.ddg.resilience.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.InterruptedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 带超时、重试和熔断的元数据读取
+ * - 每次调用通过连接的网络超时限制单次查询的等待时间，卡住的表（锁等待、失效视图）不会拖住整个抽取
+ * - 暂时性错误按指数退避加随机抖动重试，表本身的错误（权限、对象无效）直接记录为失败
+ * - 连续的暂时性失败触发熔断，暂停访问数据库，避免在服务器异常时持续施压
+ * - 每次调用先经过负载控制（并发上限和限速），调用的延迟反馈给负载控制调整并发
+ * 可以被多个线程同时使用，每次调用从数据源借用连接，调用结束后归还
+ */
+public class ResilientMetadataReader implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResilientMetadataReader.class);
+
+    /**
+     * 一次元数据读取
+     */
+    public interface MetadataCall<T> {
+        T call(Connection connection) throws SQLException;
+    }
+
+    private final DataSource dataSource;
+    private final int timeoutMillis;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker breaker;
+    private final LoadGovernor governor;
+    // 驱动在网络超时后中止连接时使用
+    private final ExecutorService timeoutExecutor;
+    private volatile boolean networkTimeoutSupported = true;
+
+    public ResilientMetadataReader(DataSource dataSource, ExtractionOptions options) {
+        this(dataSource, options, LoadGovernor.unlimited());
+    }
+
+    /**
+     * @param governor 负载控制，决定同时执行的调用数和每秒查询数
+     */
+    public ResilientMetadataReader(DataSource dataSource, ExtractionOptions options, LoadGovernor governor) {
+        this.dataSource = dataSource;
+        this.timeoutMillis = (int) Math.min(Integer.MAX_VALUE, TimeUnit.SECONDS.toMillis(Math.max(0, options.getTableTimeoutSeconds())));
+        this.retryPolicy = new RetryPolicy(options.getRetries(), options.getRetryBackoffMillis());
+        this.breaker = new CircuitBreaker(options.getBreakerThreshold(),
+                TimeUnit.SECONDS.toMillis(options.getBreakerCooldownSeconds()), options.getBreakerMaxTrips());
+        this.governor = governor;
+        this.timeoutExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "metadata-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 执行一次读取，失败时按策略重试
+     * @param target 读取的对象（通常是表名），用于日志和失败记录
+     * @throws TableReadException 重试后仍失败，或熔断后放弃
+     * @throws InterruptedIOException 等待重试或熔断冷却时被中断
+     */
+    public <T> T read(String target, MetadataCall<T> call) throws TableReadException, InterruptedIOException {
+        return read(target, 1, call);
+    }
+
+    /**
+     * 执行一次读取，失败时按策略重试
+     * @param target 读取的对象（通常是表名），用于日志和失败记录
+     * @param queries 一次调用包含的查询数，限速时按此计数
+     * @throws TableReadException 重试后仍失败，或熔断后放弃
+     * @throws InterruptedIOException 等待重试、熔断冷却或负载控制时被中断
+     */
+    public <T> T read(String target, int queries, MetadataCall<T> call) throws TableReadException, InterruptedIOException {
+        for (int attempt = 1; ; attempt++) {
+            boolean probe;
+            try {
+                probe = breaker.acquire();
+            } catch (CircuitBreaker.CircuitOpenException e) {
+                throw new TableReadException(TableFailure.of(target, e, attempt - 1), e);
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            }
+            boolean admitted = false;
+            try {
+                governor.acquire(queries);
+                admitted = true;
+            } catch (InterruptedException e) {
+                throw interrupted(e);
+            } finally {
+                if (!admitted) {
+                    breaker.release(probe);
+                }
+            }
+            ExtractionMetrics.recordQueries(queries);
+
+            SQLException error;
+            boolean transientError = false;
+            long start = System.nanoTime();
+            try (Connection connection = dataSource.getConnection()) {
+                applyTimeout(connection);
+                // 不把等待连接池的时间计入查询延迟
+                start = System.nanoTime();
+                T result = call.call(connection);
+                breaker.onSuccess();
+                return result;
+            } catch (SQLException e) {
+                error = e;
+                transientError = RetryPolicy.isTransient(e);
+            } catch (RuntimeException e) {
+                // 不是数据库返回的错误，不计入熔断，但要归还试探许可
+                breaker.release(probe);
+                throw e;
+            } finally {
+                governor.release(System.nanoTime() - start, transientError);
+            }
+
+            if (!transientError) {
+                // 数据库正常响应，只是这个对象本身有问题
+                breaker.onSuccess();
+                throw new TableReadException(TableFailure.of(target, error, attempt), error);
+            }
+            if (breaker.onFailure()) {
+                LOGGER.warn("Circuit breaker opened after repeated failures, pausing metadata queries for {} ms",
+                        breaker.getCooldownMillis());
+            }
+            if (attempt >= retryPolicy.getMaxAttempts()) {
+                throw new TableReadException(TableFailure.of(target, error, attempt), error);
+            }
+            long backoff = retryPolicy.backoffMillis(attempt);
+            LOGGER.debug("Transient error reading {} (attempt {}), retrying in {} ms: {}", target, attempt, backoff, error.getMessage());
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException ie) {
+                throw interrupted(ie);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        timeoutExecutor.shutdownNow();
+    }
+
+    private void applyTimeout(Connection connection) throws SQLException {
+        if (timeoutMillis <= 0 || !networkTimeoutSupported) {
+            return;
+        }
+        try {
+            connection.setNetworkTimeout(timeoutExecutor, timeoutMillis);
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+            networkTimeoutSupported = false;
+            LOGGER.info("JDBC driver does not support network timeouts, metadata queries run without a per-call timeout");
+        }
+    }
+
+    private static InterruptedIOException interrupted(InterruptedException e) {
+        Thread.currentThread().interrupt();
+        InterruptedIOException error = new InterruptedIOException("Interrupted while waiting to retry metadata query");
+        error.initCause(e);
+        return error;
+    }
+
+    /**
+     * 读取最终失败
+     */
+    public static class TableReadException extends Exception {
+        private final TableFailure failure;
+
+        public TableReadException(TableFailure failure, Throwable cause) {
+            super(failure.getMessage(), cause);
+            this.failure = failure;
+        }
+
+        public TableFailure getFailure() {
+            return failure;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按需加载的schema目录，供GUI浏览使用
+ * 表清单只做一次元数据查询（不取列），列信息在需要时逐表读取并在会话内缓存
+ */
+public class SchemaCatalog implements Closeable {
+    private final DataSource dataSource;
+    private final String schema;
+    // 关闭目录时释放的资源（通常是连接池），可以为null
+    private final Closeable resource;
+    private final Map<String, List<Map<String, Object>>> columnCache = new ConcurrentHashMap<>();
+    // 读取表清单时一并读取的注释（Oracle），读取列时合并
+    private volatile CommentCollector.SchemaComments comments = new CommentCollector.SchemaComments();
+
+    public SchemaCatalog(DataSource dataSource, String schema, Closeable resource) {
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.resource = resource;
+    }
+
+    /**
+     * 读取所有表的表名和注释，按表名排序，分区表的子分区不列出
+     */
+    public List<TableEntry> listTables() throws SQLException {
+        List<TableEntry> tables = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseDialect dialect = DatabaseDialect.of(connection);
+            PartitionCollector.PartitionLayout partitions = new PartitionCollector().collect(connection, dialect, schema);
+            comments = new CommentCollector().collect(connection, dialect, schema);
+            try (ResultSet resultSet = connection.getMetaData().getTables(connection.getCatalog(), schema, "%",
+                    PartitionCollector.getTableTypes(dialect))) {
+                while (resultSet.next()) {
+                    String tableName = resultSet.getString("TABLE_NAME");
+                    if (!partitions.isPartition(tableName)) {
+                        tables.add(new TableEntry(tableName, comments.getTableRemarks(tableName, resultSet.getString("REMARKS"))));
+                    }
+                }
+            }
+        }
+        tables.sort(Comparator.comparing(TableEntry::getName));
+        return tables;
+    }
+
+    /**
+     * 读取一个表的列信息，同一会话内只查询一次
+     */
+    public List<Map<String, Object>> getColumns(String tableName) throws SQLException {
+        List<Map<String, Object>> columns = columnCache.get(tableName);
+        if (columns != null) {
+            return columns;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            columns = readColumns(connection.getMetaData(), connection.getCatalog(), schema, tableName);
+        }
+        comments.applyColumnRemarks(tableName, columns);
+        columns = Collections.unmodifiableList(columns);
+        columnCache.put(tableName, columns);
+        return columns;
+    }
+
+    /**
+     * 读取一个表的列信息，结构与快照中的列一致
+     */
+    public static List<Map<String, Object>> readColumns(DatabaseMetaData metaData, String catalog, String schema,
+                                                        String tableName) throws SQLException {
+        // 收集主键信息
+        Set<String> pkColumns = new HashSet<>();
+        try (ResultSet primaryKeys = metaData.getPrimaryKeys(catalog, schema, tableName)) {
+            while (primaryKeys.next()) {
+                pkColumns.add(primaryKeys.getString("COLUMN_NAME"));
+            }
+        }
+
+        List<Map<String, Object>> columnList = new ArrayList<>();
+        try (ResultSet columnsResultSet = metaData.getColumns(catalog, schema, tableName, "%")) {
+            while (columnsResultSet.next()) {
+                Map<String, Object> columnMap = new HashMap<>();
+                String columnName = columnsResultSet.getString("COLUMN_NAME");
+
+                columnMap.put("name", columnName);
+                columnMap.put("typeName", columnsResultSet.getString("TYPE_NAME"));
+                columnMap.put("dataType", columnsResultSet.getInt("DATA_TYPE"));
+                columnMap.put("length", columnsResultSet.getInt("COLUMN_SIZE"));
+                columnMap.put("scale", columnsResultSet.getInt("DECIMAL_DIGITS"));
+                columnMap.put("primaryKey", pkColumns.contains(columnName));
+                columnMap.put("nullable", columnsResultSet.getInt("NULLABLE") == DatabaseMetaData.columnNullable);
+                columnMap.put("defaultValue", columnsResultSet.getString("COLUMN_DEF"));
+                columnMap.put("remarks", columnsResultSet.getString("REMARKS"));
+
+                columnList.add(columnMap);
+            }
+        }
+        return columnList;
+    }
+
+    @Override
+    public void close() throws IOException {
+        columnCache.clear();
+        if (resource != null) {
+            resource.close();
+        }
+    }
+
+    /**
+     * 表清单中的一项
+     */
+    public static class TableEntry {
+        private final String name;
+        private final String remarks;
+
+        public TableEntry(String name, String remarks) {
+            this.name = name;
+            this.remarks = remarks;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getRemarks() {
+            return remarks;
+        }
+
+        @Override
+        public String toString() {
+            return remarks == null || remarks.isEmpty() ? name : name + "  " + remarks;
+        }
+    }
+}
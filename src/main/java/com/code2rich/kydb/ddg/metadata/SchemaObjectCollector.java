@@ -0,0 +1,573 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 视图、物化视图、序列、存储过程/函数和触发器的采集器
+ * 每种对象对每个schema只执行一次集合查询（视图另有一次依赖查询），不逐个对象访问数据字典。
+ * 定义文本放在查询的最后一列，通过字符流读取并限制长度，超大的包体不会整段缓冲在驱动中；
+ * Oracle 的源码按行存放在 ALL_SOURCE 中，逐行拼接。
+ *
+ * 对象的结构与表一致，是一个Map：
+ * objectType、name、remarks、definition（超长时截断并设置 definitionTruncated），
+ * 视图/物化视图另有 dependencies，序列有 startValue/incrementBy/minValue/maxValue/cycle/lastValue，
+ * 存储过程有 routineType/arguments/returnType/language，触发器有 tableName/timing/event
+ */
+public class SchemaObjectCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaObjectCollector.class);
+
+    /**
+     * 定义文本保留的最大字符数
+     */
+    public static final int MAX_DEFINITION_CHARS = 1 << 20;
+
+    private static final String MYSQL_SCHEMA = "COALESCE(?, DATABASE())";
+    private static final String POSTGRESQL_SCHEMA = "COALESCE(CAST(? AS TEXT), current_schema())";
+    private static final String ORACLE_SCHEMA = "NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))";
+    private static final String SQLSERVER_SCHEMA = "COALESCE(?, SCHEMA_NAME())";
+
+    // 视图：名称、注释、定义
+    private static final String MYSQL_VIEWS =
+            "SELECT TABLE_NAME, NULL, VIEW_DEFINITION FROM information_schema.VIEWS "
+                    + "WHERE TABLE_SCHEMA = " + MYSQL_SCHEMA + " ORDER BY TABLE_NAME";
+
+    // relkind 'v' 为视图，'m' 为物化视图
+    private static final String POSTGRESQL_VIEWS =
+            "SELECT c.relname, obj_description(c.oid, 'pg_class'), pg_get_viewdef(c.oid, true) "
+                    + "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE n.nspname = " + POSTGRESQL_SCHEMA + " AND c.relkind = ? ORDER BY c.relname";
+
+    // TEXT/QUERY 是 LONG 类型，必须放在最后读取
+    private static final String ORACLE_VIEWS =
+            "SELECT v.VIEW_NAME, c.COMMENTS, v.TEXT FROM ALL_VIEWS v "
+                    + "LEFT JOIN ALL_TAB_COMMENTS c ON c.OWNER = v.OWNER AND c.TABLE_NAME = v.VIEW_NAME "
+                    + "WHERE v.OWNER = " + ORACLE_SCHEMA + " ORDER BY v.VIEW_NAME";
+
+    private static final String ORACLE_MATERIALIZED_VIEWS =
+            "SELECT m.MVIEW_NAME, c.COMMENTS, m.QUERY FROM ALL_MVIEWS m "
+                    + "LEFT JOIN ALL_MVIEW_COMMENTS c ON c.OWNER = m.OWNER AND c.MVIEW_NAME = m.MVIEW_NAME "
+                    + "WHERE m.OWNER = " + ORACLE_SCHEMA + " ORDER BY m.MVIEW_NAME";
+
+    private static final String SQLSERVER_VIEWS =
+            "SELECT v.name, CAST(ep.value AS NVARCHAR(4000)), m.definition FROM sys.views v "
+                    + "JOIN sys.schemas s ON s.schema_id = v.schema_id "
+                    + "LEFT JOIN sys.extended_properties ep ON ep.class = 1 AND ep.major_id = v.object_id "
+                    + "AND ep.minor_id = 0 AND ep.name = 'MS_Description' "
+                    + "LEFT JOIN sys.sql_modules m ON m.object_id = v.object_id "
+                    + "WHERE s.name = " + SQLSERVER_SCHEMA + " ORDER BY v.name";
+
+    // 视图依赖：视图名、视图所在schema、被引用对象的schema、被引用对象名
+    // MySQL 8.0.13 起才有 VIEW_TABLE_USAGE，更早的版本不输出依赖
+    private static final String MYSQL_VIEW_DEPENDENCIES =
+            "SELECT VIEW_NAME, VIEW_SCHEMA, TABLE_SCHEMA, TABLE_NAME FROM information_schema.VIEW_TABLE_USAGE "
+                    + "WHERE VIEW_SCHEMA = " + MYSQL_SCHEMA;
+
+    private static final String POSTGRESQL_VIEW_DEPENDENCIES =
+            "SELECT DISTINCT v.relname, n.nspname, rn.nspname, t.relname FROM pg_catalog.pg_rewrite r "
+                    + "JOIN pg_catalog.pg_class v ON v.oid = r.ev_class "
+                    + "JOIN pg_catalog.pg_namespace n ON n.oid = v.relnamespace "
+                    + "JOIN pg_catalog.pg_depend d ON d.objid = r.oid AND d.classid = 'pg_catalog.pg_rewrite'::regclass "
+                    + "AND d.refclassid = 'pg_catalog.pg_class'::regclass "
+                    + "JOIN pg_catalog.pg_class t ON t.oid = d.refobjid "
+                    + "JOIN pg_catalog.pg_namespace rn ON rn.oid = t.relnamespace "
+                    + "WHERE n.nspname = " + POSTGRESQL_SCHEMA + " AND v.relkind IN ('v', 'm') AND t.oid <> v.oid";
+
+    private static final String ORACLE_VIEW_DEPENDENCIES =
+            "SELECT NAME, OWNER, REFERENCED_OWNER, REFERENCED_NAME FROM ALL_DEPENDENCIES "
+                    + "WHERE OWNER = " + ORACLE_SCHEMA + " AND TYPE IN ('VIEW', 'MATERIALIZED VIEW') "
+                    + "AND REFERENCED_TYPE IN ('TABLE', 'VIEW', 'MATERIALIZED VIEW', 'SYNONYM')";
+
+    private static final String SQLSERVER_VIEW_DEPENDENCIES =
+            "SELECT DISTINCT v.name, s.name, COALESCE(d.referenced_schema_name, s.name), d.referenced_entity_name "
+                    + "FROM sys.sql_expression_dependencies d JOIN sys.views v ON v.object_id = d.referencing_id "
+                    + "JOIN sys.schemas s ON s.schema_id = v.schema_id "
+                    + "WHERE s.name = " + SQLSERVER_SCHEMA + " AND d.referenced_minor_id = 0";
+
+    // 序列：名称、起始值、步长、最小值、最大值、是否循环、当前值，数值按文本读取（可能超出long）
+    private static final String MARIADB_SEQUENCES =
+            "SELECT SEQUENCE_NAME, CAST(START_VALUE AS CHAR), CAST(INCREMENT AS CHAR), CAST(MINIMUM_VALUE AS CHAR), "
+                    + "CAST(MAXIMUM_VALUE AS CHAR), CYCLE_OPTION, NULL FROM information_schema.SEQUENCES "
+                    + "WHERE SEQUENCE_SCHEMA = " + MYSQL_SCHEMA + " ORDER BY SEQUENCE_NAME";
+
+    private static final String POSTGRESQL_SEQUENCES =
+            "SELECT sequencename, CAST(start_value AS TEXT), CAST(increment_by AS TEXT), CAST(min_value AS TEXT), "
+                    + "CAST(max_value AS TEXT), cycle, CAST(last_value AS TEXT) FROM pg_catalog.pg_sequences "
+                    + "WHERE schemaname = " + POSTGRESQL_SCHEMA + " ORDER BY sequencename";
+
+    private static final String ORACLE_SEQUENCES =
+            "SELECT SEQUENCE_NAME, NULL, TO_CHAR(INCREMENT_BY), TO_CHAR(MIN_VALUE), TO_CHAR(MAX_VALUE), CYCLE_FLAG, "
+                    + "TO_CHAR(LAST_NUMBER) FROM ALL_SEQUENCES WHERE SEQUENCE_OWNER = " + ORACLE_SCHEMA
+                    + " ORDER BY SEQUENCE_NAME";
+
+    private static final String SQLSERVER_SEQUENCES =
+            "SELECT q.name, CAST(q.start_value AS NVARCHAR(64)), CAST(q.increment AS NVARCHAR(64)), "
+                    + "CAST(q.minimum_value AS NVARCHAR(64)), CAST(q.maximum_value AS NVARCHAR(64)), q.is_cycling, "
+                    + "CAST(q.current_value AS NVARCHAR(64)) FROM sys.sequences q "
+                    + "JOIN sys.schemas s ON s.schema_id = q.schema_id "
+                    + "WHERE s.name = " + SQLSERVER_SCHEMA + " ORDER BY q.name";
+
+    // 存储过程/函数：名称、类型、注释、参数、返回类型、语言、定义
+    private static final String MYSQL_ROUTINES =
+            "SELECT r.ROUTINE_NAME, r.ROUTINE_TYPE, r.ROUTINE_COMMENT, "
+                    + "(SELECT GROUP_CONCAT(CONCAT_WS(' ', p.PARAMETER_MODE, p.PARAMETER_NAME, p.DTD_IDENTIFIER) "
+                    + "ORDER BY p.ORDINAL_POSITION SEPARATOR ', ') FROM information_schema.PARAMETERS p "
+                    + "WHERE p.SPECIFIC_SCHEMA = r.ROUTINE_SCHEMA AND p.SPECIFIC_NAME = r.SPECIFIC_NAME "
+                    + "AND p.ORDINAL_POSITION > 0), "
+                    + "CASE WHEN r.ROUTINE_TYPE = 'FUNCTION' THEN r.DTD_IDENTIFIER END, r.ROUTINE_BODY, r.ROUTINE_DEFINITION "
+                    + "FROM information_schema.ROUTINES r WHERE r.ROUTINE_SCHEMA = " + MYSQL_SCHEMA + " ORDER BY r.ROUTINE_NAME";
+
+    // 只取普通函数和存储过程（PostgreSQL 11+），排除扩展带来的函数
+    private static final String POSTGRESQL_ROUTINES =
+            "SELECT p.proname, CASE p.prokind WHEN 'p' THEN 'PROCEDURE' ELSE 'FUNCTION' END, "
+                    + "obj_description(p.oid, 'pg_proc'), pg_get_function_arguments(p.oid), "
+                    + "CASE WHEN p.prokind = 'f' THEN pg_get_function_result(p.oid) END, l.lanname, pg_get_functiondef(p.oid) "
+                    + "FROM pg_catalog.pg_proc p JOIN pg_catalog.pg_namespace n ON n.oid = p.pronamespace "
+                    + "JOIN pg_catalog.pg_language l ON l.oid = p.prolang "
+                    + "WHERE n.nspname = " + POSTGRESQL_SCHEMA + " AND p.prokind IN ('f', 'p') "
+                    + "AND NOT EXISTS (SELECT 1 FROM pg_catalog.pg_depend d WHERE d.classid = 'pg_catalog.pg_proc'::regclass "
+                    + "AND d.objid = p.oid AND d.deptype = 'e') ORDER BY p.proname";
+
+    // Oracle 源码按行存放，按对象和行号排序后逐行拼接
+    private static final String ORACLE_ROUTINES =
+            "SELECT NAME, TYPE, TEXT FROM ALL_SOURCE WHERE OWNER = " + ORACLE_SCHEMA
+                    + " AND TYPE IN ('PROCEDURE', 'FUNCTION', 'PACKAGE', 'PACKAGE BODY') ORDER BY NAME, TYPE, LINE";
+
+    private static final String SQLSERVER_ROUTINES =
+            "SELECT o.name, CASE WHEN o.type = 'P' THEN 'PROCEDURE' ELSE 'FUNCTION' END, "
+                    + "CAST(ep.value AS NVARCHAR(4000)), NULL, NULL, 'SQL', m.definition FROM sys.objects o "
+                    + "JOIN sys.schemas s ON s.schema_id = o.schema_id JOIN sys.sql_modules m ON m.object_id = o.object_id "
+                    + "LEFT JOIN sys.extended_properties ep ON ep.class = 1 AND ep.major_id = o.object_id "
+                    + "AND ep.minor_id = 0 AND ep.name = 'MS_Description' "
+                    + "WHERE s.name = " + SQLSERVER_SCHEMA + " AND o.type IN ('P', 'FN', 'IF', 'TF') ORDER BY o.name";
+
+    // 触发器：名称、所属表、时机、事件、定义
+    private static final String MYSQL_TRIGGERS =
+            "SELECT TRIGGER_NAME, EVENT_OBJECT_TABLE, ACTION_TIMING, EVENT_MANIPULATION, ACTION_STATEMENT "
+                    + "FROM information_schema.TRIGGERS WHERE TRIGGER_SCHEMA = " + MYSQL_SCHEMA + " ORDER BY TRIGGER_NAME";
+
+    // tgtype 位：2 BEFORE，64 INSTEAD OF，4 INSERT，8 DELETE，16 UPDATE，32 TRUNCATE
+    private static final String POSTGRESQL_TRIGGERS =
+            "SELECT t.tgname, c.relname, "
+                    + "CASE WHEN CAST(t.tgtype AS INTEGER) & 2 <> 0 THEN 'BEFORE' "
+                    + "WHEN CAST(t.tgtype AS INTEGER) & 64 <> 0 THEN 'INSTEAD OF' ELSE 'AFTER' END, "
+                    + "concat_ws(' OR ', CASE WHEN CAST(t.tgtype AS INTEGER) & 4 <> 0 THEN 'INSERT' END, "
+                    + "CASE WHEN CAST(t.tgtype AS INTEGER) & 16 <> 0 THEN 'UPDATE' END, "
+                    + "CASE WHEN CAST(t.tgtype AS INTEGER) & 8 <> 0 THEN 'DELETE' END, "
+                    + "CASE WHEN CAST(t.tgtype AS INTEGER) & 32 <> 0 THEN 'TRUNCATE' END), "
+                    + "pg_get_triggerdef(t.oid, true) FROM pg_catalog.pg_trigger t "
+                    + "JOIN pg_catalog.pg_class c ON c.oid = t.tgrelid "
+                    + "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE NOT t.tgisinternal AND n.nspname = " + POSTGRESQL_SCHEMA + " ORDER BY t.tgname";
+
+    // DESCRIPTION 是 CREATE TRIGGER 之后的声明部分，TRIGGER_BODY 是 LONG 类型
+    private static final String ORACLE_TRIGGERS =
+            "SELECT TRIGGER_NAME, TABLE_NAME, TRIGGER_TYPE, TRIGGERING_EVENT, DESCRIPTION, TRIGGER_BODY "
+                    + "FROM ALL_TRIGGERS WHERE OWNER = " + ORACLE_SCHEMA + " ORDER BY TRIGGER_NAME";
+
+    private static final String SQLSERVER_TRIGGERS =
+            "SELECT t.name, p.name, CASE WHEN t.is_instead_of_trigger = 1 THEN 'INSTEAD OF' ELSE 'AFTER' END, "
+                    + "STUFF((SELECT ' OR ' + e.type_desc FROM sys.trigger_events e WHERE e.object_id = t.object_id "
+                    + "FOR XML PATH('')), 1, 4, ''), m.definition FROM sys.triggers t "
+                    + "JOIN sys.objects p ON p.object_id = t.parent_id JOIN sys.schemas s ON s.schema_id = p.schema_id "
+                    + "JOIN sys.sql_modules m ON m.object_id = t.object_id "
+                    + "WHERE t.parent_class = 1 AND s.name = " + SQLSERVER_SCHEMA + " ORDER BY t.name";
+
+    private final DatabaseDialect dialect;
+
+    public SchemaObjectCollector(DatabaseDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * 采集指定schema下一种对象
+     * @param connection 数据库连接
+     * @param type 对象种类
+     * @param catalog catalog名称，只在按JDBC元数据读取时使用
+     * @param schema schema名称，为空时使用当前schema
+     * @param filter 表过滤规则，作用于视图名和触发器所属的表
+     * @param consumer 逐个接收对象
+     * @return 当前数据库是否支持这种对象
+     */
+    public boolean collect(Connection connection, SchemaObjectType type, String catalog, String schema, TableFilter filter,
+                           Consumer<Map<String, Object>> consumer) throws SQLException {
+        String resolvedSchema = TableStatisticsCollector.resolveSchema(connection, dialect, schema);
+        switch (type) {
+            case VIEW:
+            case MATERIALIZED_VIEW:
+                return collectViews(connection, type, catalog, schema, resolvedSchema, filter, consumer);
+            case SEQUENCE:
+                return collectSequences(connection, resolvedSchema, consumer);
+            case ROUTINE:
+                return collectRoutines(connection, catalog, schema, resolvedSchema, consumer);
+            case TRIGGER:
+                return collectTriggers(connection, resolvedSchema, filter, consumer);
+            default:
+                return false;
+        }
+    }
+
+    private boolean collectViews(Connection connection, SchemaObjectType type, String catalog, String schema,
+                                 String resolvedSchema, TableFilter filter, Consumer<Map<String, Object>> consumer)
+            throws SQLException {
+        boolean materialized = type == SchemaObjectType.MATERIALIZED_VIEW;
+        String sql;
+        switch (dialect) {
+            case MYSQL:
+            case MARIADB:
+                sql = materialized ? null : MYSQL_VIEWS;
+                break;
+            case POSTGRESQL:
+                sql = POSTGRESQL_VIEWS;
+                break;
+            case ORACLE:
+                sql = materialized ? ORACLE_MATERIALIZED_VIEWS : ORACLE_VIEWS;
+                break;
+            case SQLSERVER:
+                sql = materialized ? null : SQLSERVER_VIEWS;
+                break;
+            default:
+                // 其他数据库只能通过JDBC元数据列出视图名和注释
+                if (materialized) {
+                    return false;
+                }
+                collectViewsFromMetaData(connection.getMetaData(), catalog, schema, filter, consumer);
+                return true;
+        }
+        if (sql == null) {
+            return false;
+        }
+
+        // 依赖关系先读入内存（只有名称），读取视图时逐个附加，视图本身逐个交出
+        Map<String, List<String>> dependencies = readViewDependencies(connection, resolvedSchema);
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolvedSchema);
+            if (dialect == DatabaseDialect.POSTGRESQL) {
+                statement.setString(2, materialized ? "m" : "v");
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    if (!filter.matches(name)) {
+                        continue;
+                    }
+                    Map<String, Object> view = newObject(type, name, rs.getString(2));
+                    readDefinition(rs, 3, view);
+                    List<String> referenced = dependencies.get(name);
+                    if (referenced != null) {
+                        view.put("dependencies", referenced);
+                    }
+                    consumer.accept(view);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void collectViewsFromMetaData(DatabaseMetaData metaData, String catalog, String schema, TableFilter filter,
+                                          Consumer<Map<String, Object>> consumer) throws SQLException {
+        try (ResultSet rs = metaData.getTables(catalog, schema, "%", new String[] { "VIEW" })) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                if (filter.matches(name)) {
+                    consumer.accept(newObject(SchemaObjectType.VIEW, name, rs.getString("REMARKS")));
+                }
+            }
+        }
+    }
+
+    // 视图名到被引用对象的映射，不同schema的对象带上schema前缀
+    private Map<String, List<String>> readViewDependencies(Connection connection, String resolvedSchema) {
+        Map<String, List<String>> dependencies = new HashMap<>();
+        String sql = getDependencySql();
+        if (sql == null) {
+            return dependencies;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolvedSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String viewSchema = rs.getString(2);
+                    String referencedSchema = rs.getString(3);
+                    String referencedName = rs.getString(4);
+                    String qualified = referencedSchema == null || referencedSchema.equalsIgnoreCase(viewSchema)
+                            ? referencedName : referencedSchema + "." + referencedName;
+                    List<String> list = dependencies.computeIfAbsent(rs.getString(1), k -> new ArrayList<>());
+                    if (!list.contains(qualified)) {
+                        list.add(qualified);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            // 依赖关系只是辅助信息，旧版本数据库或权限不足时不输出
+            LOGGER.warn("Could not load view dependencies: {}", e.getMessage());
+        }
+        return dependencies;
+    }
+
+    private String getDependencySql() {
+        switch (dialect) {
+            case MYSQL:
+            case MARIADB:
+                return MYSQL_VIEW_DEPENDENCIES;
+            case POSTGRESQL:
+                return POSTGRESQL_VIEW_DEPENDENCIES;
+            case ORACLE:
+                return ORACLE_VIEW_DEPENDENCIES;
+            case SQLSERVER:
+                return SQLSERVER_VIEW_DEPENDENCIES;
+            default:
+                return null;
+        }
+    }
+
+    private boolean collectSequences(Connection connection, String resolvedSchema, Consumer<Map<String, Object>> consumer)
+            throws SQLException {
+        String sql;
+        switch (dialect) {
+            case MARIADB:
+                sql = MARIADB_SEQUENCES;
+                break;
+            case POSTGRESQL:
+                sql = POSTGRESQL_SEQUENCES;
+                break;
+            case ORACLE:
+                sql = ORACLE_SEQUENCES;
+                break;
+            case SQLSERVER:
+                sql = SQLSERVER_SEQUENCES;
+                break;
+            default:
+                return false;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolvedSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> sequence = newObject(SchemaObjectType.SEQUENCE, rs.getString(1), null);
+                    putIfNotNull(sequence, "startValue", rs.getString(2));
+                    putIfNotNull(sequence, "incrementBy", rs.getString(3));
+                    putIfNotNull(sequence, "minValue", rs.getString(4));
+                    putIfNotNull(sequence, "maxValue", rs.getString(5));
+                    sequence.put("cycle", isTrue(rs.getString(6)));
+                    putIfNotNull(sequence, "lastValue", rs.getString(7));
+                    consumer.accept(sequence);
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean collectRoutines(Connection connection, String catalog, String schema, String resolvedSchema,
+                                    Consumer<Map<String, Object>> consumer) throws SQLException {
+        String sql;
+        switch (dialect) {
+            case MYSQL:
+            case MARIADB:
+                sql = MYSQL_ROUTINES;
+                break;
+            case POSTGRESQL:
+                sql = POSTGRESQL_ROUTINES;
+                break;
+            case ORACLE:
+                collectOracleSource(connection, resolvedSchema, consumer);
+                return true;
+            case SQLSERVER:
+                sql = SQLSERVER_ROUTINES;
+                break;
+            default:
+                collectRoutinesFromMetaData(connection.getMetaData(), catalog, schema, consumer);
+                return true;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolvedSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> routine = newObject(SchemaObjectType.ROUTINE, rs.getString(1), rs.getString(3));
+                    putIfNotNull(routine, "routineType", rs.getString(2));
+                    putIfNotNull(routine, "arguments", rs.getString(4));
+                    putIfNotNull(routine, "returnType", rs.getString(5));
+                    putIfNotNull(routine, "language", rs.getString(6));
+                    readDefinition(rs, 7, routine);
+                    consumer.accept(routine);
+                }
+            }
+        }
+        return true;
+    }
+
+    // 同一对象的源码行是连续的，读完一个对象再交出
+    private void collectOracleSource(Connection connection, String resolvedSchema, Consumer<Map<String, Object>> consumer)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(ORACLE_ROUTINES)) {
+            statement.setString(1, resolvedSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                Map<String, Object> current = null;
+                StringBuilder source = null;
+                while (rs.next()) {
+                    String name = rs.getString(1);
+                    String routineType = rs.getString(2);
+                    if (current == null || !name.equals(current.get("name")) || !routineType.equals(current.get("routineType"))) {
+                        if (current != null) {
+                            finishSource(current, source, consumer);
+                        }
+                        current = newObject(SchemaObjectType.ROUTINE, name, null);
+                        current.put("routineType", routineType);
+                        current.put("language", "PL/SQL");
+                        source = new StringBuilder();
+                    }
+                    String line = rs.getString(3);
+                    if (line != null && !current.containsKey("definitionTruncated")) {
+                        int room = MAX_DEFINITION_CHARS - source.length();
+                        if (line.length() > room) {
+                            source.append(line, 0, room);
+                            current.put("definitionTruncated", true);
+                        } else {
+                            source.append(line);
+                        }
+                    }
+                }
+                if (current != null) {
+                    finishSource(current, source, consumer);
+                }
+            }
+        }
+    }
+
+    private void finishSource(Map<String, Object> routine, StringBuilder source, Consumer<Map<String, Object>> consumer) {
+        routine.put("definition", source.toString());
+        consumer.accept(routine);
+    }
+
+    private void collectRoutinesFromMetaData(DatabaseMetaData metaData, String catalog, String schema,
+                                             Consumer<Map<String, Object>> consumer) throws SQLException {
+        try (ResultSet rs = metaData.getProcedures(catalog, schema, "%")) {
+            while (rs.next()) {
+                Map<String, Object> routine = newObject(SchemaObjectType.ROUTINE, rs.getString("PROCEDURE_NAME"),
+                        rs.getString("REMARKS"));
+                routine.put("routineType", rs.getShort("PROCEDURE_TYPE") == DatabaseMetaData.procedureReturnsResult
+                        ? "FUNCTION" : "PROCEDURE");
+                consumer.accept(routine);
+            }
+        }
+    }
+
+    private boolean collectTriggers(Connection connection, String resolvedSchema, TableFilter filter,
+                                    Consumer<Map<String, Object>> consumer) throws SQLException {
+        String sql;
+        switch (dialect) {
+            case MYSQL:
+            case MARIADB:
+                sql = MYSQL_TRIGGERS;
+                break;
+            case POSTGRESQL:
+                sql = POSTGRESQL_TRIGGERS;
+                break;
+            case ORACLE:
+                sql = ORACLE_TRIGGERS;
+                break;
+            case SQLSERVER:
+                sql = SQLSERVER_TRIGGERS;
+                break;
+            default:
+                return false;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolvedSchema);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString(2);
+                    // 触发器跟随所属的表过滤，Oracle 的库级触发器没有表名
+                    if (tableName != null && !filter.matches(tableName)) {
+                        continue;
+                    }
+                    Map<String, Object> trigger = newObject(SchemaObjectType.TRIGGER, rs.getString(1), null);
+                    putIfNotNull(trigger, "tableName", tableName);
+                    putIfNotNull(trigger, "timing", rs.getString(3));
+                    putIfNotNull(trigger, "event", rs.getString(4));
+                    if (dialect == DatabaseDialect.ORACLE) {
+                        // 拼出完整的 CREATE TRIGGER 语句
+                        String description = rs.getString(5);
+                        readDefinition(rs, 6, trigger);
+                        trigger.put("definition", "CREATE OR REPLACE TRIGGER " + (description != null ? description : "")
+                                + trigger.getOrDefault("definition", ""));
+                    } else {
+                        readDefinition(rs, 5, trigger);
+                    }
+                    consumer.accept(trigger);
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Object> newObject(SchemaObjectType type, String name, String remarks) {
+        Map<String, Object> object = new LinkedHashMap<>();
+        object.put("objectType", type.name());
+        object.put("name", name);
+        putIfNotNull(object, "remarks", remarks);
+        return object;
+    }
+
+    /**
+     * 以字符流读取定义文本，超过上限的部分不读取
+     */
+    private static void readDefinition(ResultSet rs, int index, Map<String, Object> object) throws SQLException {
+        try (Reader reader = rs.getCharacterStream(index)) {
+            if (reader == null) {
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) > 0) {
+                int room = MAX_DEFINITION_CHARS - text.length();
+                if (read > room) {
+                    text.append(buffer, 0, room);
+                    object.put("definitionTruncated", true);
+                    break;
+                }
+                text.append(buffer, 0, read);
+            }
+            object.put("definition", text.toString());
+        } catch (IOException e) {
+            throw new SQLException("Failed to read object definition", e);
+        }
+    }
+
+    private static void putIfNotNull(Map<String, Object> object, String key, Object value) {
+        if (value != null) {
+            object.put(key, value);
+        }
+    }
+
+    private static boolean isTrue(String value) {
+        if (value == null) {
+            return false;
+        }
+        switch (value.trim().toUpperCase()) {
+            case "1":
+            case "T":
+            case "TRUE":
+            case "Y":
+            case "YES":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 表以外的schema对象种类
+ */
+public enum SchemaObjectType {
+    VIEW("视图"),
+    MATERIALIZED_VIEW("物化视图"),
+    SEQUENCE("序列"),
+    /**
+     * 存储过程、函数（Oracle还包括包和包体）
+     */
+    ROUTINE("存储过程"),
+    TRIGGER("触发器");
+
+    private final String label;
+
+    SchemaObjectType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * 文档中显示的名称
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @throws IllegalArgumentException 名称不存在时
+     */
+    public static SchemaObjectType of(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown object type: " + name
+                    + ", expected VIEW, MATERIALIZED_VIEW, SEQUENCE, ROUTINE or TRIGGER");
+        }
+    }
+
+    /**
+     * 解析对象种类列表，NONE 表示不抽取任何对象
+     */
+    public static Set<SchemaObjectType> parse(Collection<String> names) {
+        Set<SchemaObjectType> types = EnumSet.noneOf(SchemaObjectType.class);
+        for (String name : names) {
+            for (String part : name.split(",")) {
+                if (part.trim().isEmpty() || "NONE".equalsIgnoreCase(part.trim())) {
+                    continue;
+                }
+                types.add(of(part));
+            }
+        }
+        return types;
+    }
+}
@@ -0,0 +1,174 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import com.code2rich.kydb.ddg.util.ModelCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 抽取出的schema元数据快照
+ * 可保存到文件，用于离线渲染或与其他快照/数据库做差异比较
+ */
+public class SchemaSnapshot implements Serializable, Closeable {
+    private static final long serialVersionUID = 1L;
+
+    // 文件头 "KYDB" 与格式版本，版本2在表之后追加了视图、存储过程等对象
+    private static final int MAGIC = 0x4B594442;
+    private static final int FORMAT_VERSION = 2;
+
+    private final String dbType;
+    private final String dbName;
+    // 与ExcelDocumentGenerator使用的表结构一致：每个表是一个Map，包含表名、注释和列信息
+    private final List<Map<String, Object>> tables;
+    // 视图、序列、存储过程等对象，结构见 SchemaObjectCollector
+    private final List<Map<String, Object>> objects;
+    // 抽取失败的表，只在本次运行中展示，不保存到快照文件
+    private final List<TableFailure> failures;
+
+    public SchemaSnapshot(String dbType, String dbName, List<Map<String, Object>> tables) {
+        this(dbType, dbName, tables, null);
+    }
+
+    public SchemaSnapshot(String dbType, String dbName, List<Map<String, Object>> tables, List<TableFailure> failures) {
+        this(dbType, dbName, tables, null, failures);
+    }
+
+    public SchemaSnapshot(String dbType, String dbName, List<Map<String, Object>> tables, List<Map<String, Object>> objects,
+                          List<TableFailure> failures) {
+        this.dbType = dbType;
+        this.dbName = dbName;
+        this.tables = tables != null ? tables : new ArrayList<>();
+        this.objects = objects != null ? objects : new ArrayList<>();
+        this.failures = failures != null ? failures : new ArrayList<>();
+    }
+
+    public String getDbType() {
+        return dbType;
+    }
+
+    public String getDbName() {
+        return dbName;
+    }
+
+    public List<Map<String, Object>> getTables() {
+        return tables;
+    }
+
+    public List<Map<String, Object>> getObjects() {
+        return objects;
+    }
+
+    public List<TableFailure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * 保存快照（紧凑二进制编码 + GZIP压缩）
+     */
+    public void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file)), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            ModelCodec.Encoder encoder = new ModelCodec.Encoder(out);
+            encoder.write(dbType);
+            encoder.write(dbName);
+            // 逐表写出，表模型溢出到磁盘时不必一次性加载
+            encoder.writeListHeader(tables.size());
+            for (Map<String, Object> table : tables) {
+                encoder.write(table);
+            }
+            encoder.writeListHeader(objects.size());
+            for (Map<String, Object> object : objects) {
+                encoder.write(object);
+            }
+        }
+    }
+
+    /**
+     * 释放表模型和对象占用的溢出文件
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeStore(tables);
+        } finally {
+            closeStore(objects);
+        }
+    }
+
+    private static void closeStore(List<Map<String, Object>> store) throws IOException {
+        if (store instanceof Closeable) {
+            ((Closeable) store).close();
+        }
+    }
+
+    /**
+     * 读取快照文件
+     */
+    public static SchemaSnapshot load(File file) throws IOException {
+        return load(file, ModelStoreOptions.defaults());
+    }
+
+    /**
+     * 读取快照文件，表模型和对象逐个放入 storeOptions 创建的列表
+     * 版本1的快照没有对象
+     */
+    @SuppressWarnings("unchecked")
+    public static SchemaSnapshot load(File file, ModelStoreOptions storeOptions) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 64 * 1024)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a valid schema snapshot: " + file);
+            }
+            int version = in.readInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            ModelCodec.Decoder decoder = new ModelCodec.Decoder(in);
+            String dbType = (String) decoder.read();
+            String dbName = (String) decoder.read();
+            List<Map<String, Object>> tables = storeOptions.newTableList();
+            List<Map<String, Object>> objects = storeOptions.newTableList();
+            try {
+                int count = decoder.readListHeader();
+                for (int i = 0; i < count; i++) {
+                    tables.add((Map<String, Object>) decoder.read());
+                }
+                if (version >= 2) {
+                    count = decoder.readListHeader();
+                    for (int i = 0; i < count; i++) {
+                        objects.add((Map<String, Object>) decoder.read());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    closeStore(tables);
+                } finally {
+                    closeStore(objects);
+                }
+                throw e;
+            }
+            return new SchemaSnapshot(dbType, dbName, tables, objects, null);
+        } catch (ClassCastException e) {
+            throw new IOException("Not a valid schema snapshot: " + file, e);
+        }
+    }
+}
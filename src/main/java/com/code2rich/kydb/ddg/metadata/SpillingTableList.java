@@ -0,0 +1,301 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import com.code2rich.kydb.ddg.util.ModelCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * 可溢出到磁盘的表列表
+ * 堆内只保留一个按估算字节数限制大小的工作集（LRU），被淘汰的表编码后追加写入段文件，
+ * 写满的段以只读方式内存映射，之后再访问时从映射区解码，数据留在堆外/页缓存中。
+ * 实现了 List 接口，渲染器按顺序遍历时每次只解码当前的表，不会把整个schema加载到堆中。
+ *
+ * 表加入后视为只读：对取出的表的修改在它被淘汰后会丢失。
+ */
+public class SpillingTableList extends AbstractList<Map<String, Object>> implements RandomAccess, Closeable {
+    // 单个段文件的大小上限，写满后封存并映射
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+    // 段号与段内偏移合并为一个long：高24位段号，低40位偏移
+    private static final int OFFSET_BITS = 40;
+    private static final long NOT_SPILLED = -1L;
+
+    private final File directory;
+    private final long heapBytes;
+    private final int segmentSize;
+    private final LinkedHashMap<Integer, CachedTable> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private final List<Segment> segments = new ArrayList<>();
+    private long[] positions = new long[1024];
+    private int[] lengths = new int[1024];
+    private int size;
+    private long cachedBytes;
+    private long spilledBytes;
+    private boolean closed;
+
+    /**
+     * @param directory 段文件目录，null 时使用系统临时目录
+     * @param heapBytes 堆内工作集的估算字节数上限
+     */
+    public SpillingTableList(File directory, long heapBytes) {
+        this(directory, heapBytes, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize 单个段文件的字节数上限
+     */
+    SpillingTableList(File directory, long heapBytes, int segmentSize) {
+        this.directory = directory;
+        this.heapBytes = heapBytes;
+        this.segmentSize = segmentSize;
+    }
+
+    @Override
+    public synchronized boolean add(Map<String, Object> table) {
+        ensureOpen();
+        if (size == positions.length) {
+            positions = Arrays.copyOf(positions, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        positions[size] = NOT_SPILLED;
+        cacheTable(size, table);
+        size++;
+        modCount++;
+        evict();
+        return true;
+    }
+
+    @Override
+    public synchronized Map<String, Object> get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        CachedTable cached = cache.get(index);
+        if (cached != null) {
+            return cached.table;
+        }
+        Map<String, Object> table = readTable(index);
+        cacheTable(index, table);
+        evict();
+        return table;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * 已写入段文件的字节数
+     */
+    public synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cache.clear();
+        IOException failure = null;
+        for (Segment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        segments.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void cacheTable(int index, Map<String, Object> table) {
+        long bytes = estimateSize(table);
+        cache.put(index, new CachedTable(table, bytes));
+        cachedBytes += bytes;
+    }
+
+    // 超出工作集上限时淘汰最久未访问的表，未落盘的先追加到段文件
+    private void evict() {
+        if (cachedBytes <= heapBytes) {
+            return;
+        }
+        Iterator<Map.Entry<Integer, CachedTable>> iterator = cache.entrySet().iterator();
+        // 至少保留最近访问的一个表
+        while (cachedBytes > heapBytes && cache.size() > 1) {
+            Map.Entry<Integer, CachedTable> eldest = iterator.next();
+            int index = eldest.getKey();
+            if (positions[index] == NOT_SPILLED) {
+                spill(index, eldest.getValue().table);
+            }
+            cachedBytes -= eldest.getValue().bytes;
+            iterator.remove();
+        }
+    }
+
+    private void spill(int index, Map<String, Object> table) {
+        try {
+            // 每个表单独编码（独立的字符串字典），可以单独解码
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(4096);
+            new ModelCodec.Encoder(new DataOutputStream(buffer)).write(table);
+            byte[] bytes = buffer.toByteArray();
+
+            Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (segment == null || (segment.length > 0 && segment.length + bytes.length > segmentSize)) {
+                if (segment != null) {
+                    segment.seal();
+                }
+                segment = new Segment(File.createTempFile("kydb-model-", ".seg", directory));
+                segments.add(segment);
+            }
+            long offset = segment.append(bytes);
+            positions[index] = ((long) (segments.size() - 1) << OFFSET_BITS) | offset;
+            lengths[index] = bytes.length;
+            spilledBytes += bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill table model to disk", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readTable(int index) {
+        long position = positions[index];
+        Segment segment = segments.get((int) (position >>> OFFSET_BITS));
+        long offset = position & ((1L << OFFSET_BITS) - 1);
+        byte[] bytes = new byte[lengths[index]];
+        try {
+            segment.read(offset, bytes);
+            return (Map<String, Object>) new ModelCodec.Decoder(
+                    new DataInputStream(new ByteArrayInputStream(bytes))).read();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read spilled table model", e);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Table list has been closed");
+        }
+    }
+
+    /**
+     * 粗略估算模型在堆中占用的字节数（对象头、引用和字符数组）
+     */
+    static long estimateSize(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof Map) {
+            long bytes = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                // 键名通常是共享的字符串常量，只计算条目本身
+                bytes += 32 + estimateSize(entry.getValue());
+            }
+            return bytes;
+        }
+        if (value instanceof List) {
+            long bytes = 24;
+            for (Object item : (List<?>) value) {
+                bytes += 8 + estimateSize(item);
+            }
+            return bytes;
+        }
+        return 16;
+    }
+
+    private static class CachedTable {
+        private final Map<String, Object> table;
+        private final long bytes;
+
+        CachedTable(Map<String, Object> table, long bytes) {
+            this.table = table;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * 追加写入的段文件，写满后封存为只读内存映射
+     */
+    private static class Segment implements Closeable {
+        private final File file;
+        private final RandomAccessFile randomAccessFile;
+        private final FileChannel channel;
+        private long length;
+        private MappedByteBuffer mapped;
+
+        Segment(File file) throws IOException {
+            this.file = file;
+            file.deleteOnExit();
+            this.randomAccessFile = new RandomAccessFile(file, "rw");
+            this.channel = randomAccessFile.getChannel();
+        }
+
+        long append(byte[] bytes) throws IOException {
+            long offset = length;
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, length + buffer.position());
+            }
+            length += bytes.length;
+            return offset;
+        }
+
+        void seal() throws IOException {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+
+        void read(long offset, byte[] bytes) throws IOException {
+            if (mapped != null) {
+                ByteBuffer view = mapped.duplicate();
+                view.position((int) offset);
+                view.get(bytes);
+                return;
+            }
+            // 当前段仍在追加，直接按位置读取（命中页缓存）
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of segment " + file);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            mapped = null;
+            try {
+                randomAccessFile.close();
+            } finally {
+                if (!file.delete()) {
+                    file.deleteOnExit();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从数据库读取原生的建表语句
+ * 只有 Oracle 能在一次查询中为多个表生成DDL：先为会话设置一次 DBMS_METADATA 的转换参数，
+ * 再用一个游标对一批表调用 GET_DDL，避免逐表往返。其他数据库的建表语句由 {@link TableDdlSynthesizer} 根据元数据生成
+ */
+public class TableDdlCollector {
+    /**
+     * 每次查询的表数，Oracle 的 IN 列表最多1000项；批次较小时单次查询不会超过元数据查询超时
+     */
+    public static final int BATCH_SIZE = 200;
+
+    // 去掉存储和段属性，语句以分号结尾并格式化
+    private static final String ORACLE_TRANSFORM_SQL = "BEGIN "
+            + "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM, 'STORAGE', FALSE); "
+            + "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM, 'SEGMENT_ATTRIBUTES', FALSE); "
+            + "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM, 'SQLTERMINATOR', TRUE); "
+            + "DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM, 'PRETTY', TRUE); "
+            + "END;";
+
+    // 连接归还连接池前恢复默认参数
+    private static final String ORACLE_RESET_SQL =
+            "BEGIN DBMS_METADATA.SET_TRANSFORM_PARAM(DBMS_METADATA.SESSION_TRANSFORM, 'DEFAULT'); END;";
+
+    private static final String ORACLE_DDL_SQL =
+            "SELECT TABLE_NAME, DBMS_METADATA.GET_DDL('TABLE', TABLE_NAME, OWNER) FROM ALL_TABLES "
+                    + "WHERE OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND TABLE_NAME IN (";
+
+    /**
+     * 是否支持批量读取原生建表语句
+     */
+    public static boolean supports(DatabaseDialect dialect) {
+        return dialect == DatabaseDialect.ORACLE;
+    }
+
+    /**
+     * 读取一批表的建表语句
+     * @param connection 数据库连接
+     * @param dialect 数据库方言
+     * @param schema schema名称，为空时使用当前schema
+     * @param tableNames 表名，不超过 {@link #BATCH_SIZE} 个
+     * @return 表名到建表语句的映射，不支持的数据库返回空Map
+     */
+    public Map<String, String> collect(Connection connection, DatabaseDialect dialect, String schema, List<String> tableNames)
+            throws SQLException {
+        if (!supports(dialect) || tableNames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        StringBuilder sql = new StringBuilder(ORACLE_DDL_SQL);
+        for (int i = 0; i < tableNames.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+
+        Map<String, String> ddl = new HashMap<>();
+        SQLException error = null;
+        execute(connection, ORACLE_TRANSFORM_SQL);
+        try (PreparedStatement statement = connection.prepareStatement(sql.toString())) {
+            statement.setString(1, TableStatisticsCollector.resolveSchema(connection, dialect, schema));
+            for (int i = 0; i < tableNames.size(); i++) {
+                statement.setString(i + 2, tableNames.get(i));
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    String text = rs.getString(2);
+                    if (text != null) {
+                        ddl.put(rs.getString(1), text.trim());
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            error = e;
+            throw e;
+        } finally {
+            try {
+                execute(connection, ORACLE_RESET_SQL);
+            } catch (SQLException e) {
+                // 查询本身失败时保留原始错误
+                if (error == null) {
+                    throw e;
+                }
+                error.addSuppressed(e);
+            }
+        }
+        return ddl;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (CallableStatement statement = connection.prepareCall(sql)) {
+            statement.execute();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 根据抽取的表模型生成建表语句，不再访问数据库
+ * 生成的语句包含列类型、非空、默认值、主键和注释，不包含索引、外键、分区和存储参数。
+ * 标识符总是加引号，注释按各数据库的语法输出：MySQL 写在列定义中，SQL Server 使用扩展属性，其他数据库使用 COMMENT ON
+ */
+public class TableDdlSynthesizer {
+    // 需要长度的类型
+    private static final Set<String> LENGTH_TYPES = new HashSet<>(Arrays.asList(
+            "CHAR", "CHARACTER", "NCHAR", "BPCHAR", "VARCHAR", "VARCHAR2", "NVARCHAR", "NVARCHAR2",
+            "CHARACTER VARYING", "BINARY", "VARBINARY", "RAW", "BIT VARYING", "VARBIT"));
+    // 需要精度和小数位的类型
+    private static final Set<String> PRECISION_TYPES = new HashSet<>(Arrays.asList(
+            "DECIMAL", "DEC", "NUMERIC", "NUMBER"));
+    // 超过该长度视为不限长度（PostgreSQL 的 text、SQL Server 的 max 等）
+    private static final int UNBOUNDED_LENGTH = 1 << 20;
+    // 驱动对未指定精度的数值类型报告的精度上限
+    private static final int MAX_PRECISION = 1000;
+    // MySQL 的默认值不带引号，以下形式原样输出
+    private static final Pattern MYSQL_LITERAL = Pattern.compile(
+            "(?i)-?\\d+(\\.\\d+)?|null|true|false|'.*'|b'[01]*'|current_timestamp.*|now\\(.*|.*\\(.*\\)");
+
+    private final DatabaseDialect dialect;
+
+    public TableDdlSynthesizer(DatabaseDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    /**
+     * 生成一个表的建表语句
+     * @param schema schema名称，为空时表名不加限定
+     * @param table 表模型
+     * @return 建表语句，多条语句以换行分隔
+     */
+    public String synthesize(String schema, Map<String, Object> table) {
+        String tableName = String.valueOf(table.get("tableName"));
+        // Oracle 数据字典中的名称默认为大写
+        if (schema != null && dialect == DatabaseDialect.ORACLE) {
+            schema = schema.toUpperCase(Locale.ROOT);
+        }
+        String qualifiedName = schema == null || schema.isEmpty()
+                ? quote(tableName) : quote(schema) + "." + quote(tableName);
+        List<Map<String, Object>> columns = getColumns(table);
+
+        StringBuilder ddl = new StringBuilder(128 + columns.size() * 48);
+        ddl.append("CREATE TABLE ").append(qualifiedName).append(" (");
+        List<String> primaryKey = new ArrayList<>();
+        String separator = "\n";
+        for (Map<String, Object> column : columns) {
+            String columnName = String.valueOf(column.get("name"));
+            ddl.append(separator).append("  ").append(quote(columnName)).append(' ').append(formatType(column));
+            String defaultValue = formatDefault(column);
+            if (defaultValue != null) {
+                ddl.append(" DEFAULT ").append(defaultValue);
+            }
+            if (Boolean.FALSE.equals(column.get("nullable"))) {
+                ddl.append(" NOT NULL");
+            }
+            String remarks = getRemarks(column);
+            if (remarks != null && dialect.isMySqlFamily()) {
+                ddl.append(" COMMENT ").append(literal(remarks));
+            }
+            if (Boolean.TRUE.equals(column.get("primaryKey"))) {
+                primaryKey.add(quote(columnName));
+            }
+            separator = ",\n";
+        }
+        if (!primaryKey.isEmpty()) {
+            ddl.append(separator).append("  PRIMARY KEY (").append(String.join(", ", primaryKey)).append(')');
+        }
+        ddl.append("\n)");
+
+        String tableRemarks = getRemarks(table);
+        if (dialect.isMySqlFamily()) {
+            if (tableRemarks != null) {
+                ddl.append(" COMMENT=").append(literal(tableRemarks));
+            }
+            return ddl.append(';').toString();
+        }
+        ddl.append(';');
+        if (tableRemarks != null) {
+            appendComment(ddl, schema, qualifiedName, tableName, null, tableRemarks);
+        }
+        for (Map<String, Object> column : columns) {
+            String remarks = getRemarks(column);
+            if (remarks != null) {
+                appendComment(ddl, schema, qualifiedName, tableName, String.valueOf(column.get("name")), remarks);
+            }
+        }
+        return ddl.toString();
+    }
+
+    // 表或列的注释语句，column 为空时为表注释
+    private void appendComment(StringBuilder ddl, String schema, String qualifiedName, String tableName, String column,
+                               String remarks) {
+        ddl.append('\n');
+        if (dialect == DatabaseDialect.SQLSERVER) {
+            ddl.append("EXEC sp_addextendedproperty N'MS_Description', ").append(literal(remarks))
+                    .append(", N'SCHEMA', ").append(literal(schema == null || schema.isEmpty() ? "dbo" : schema))
+                    .append(", N'TABLE', ").append(literal(tableName));
+            if (column != null) {
+                ddl.append(", N'COLUMN', ").append(literal(column));
+            }
+            ddl.append(';');
+            return;
+        }
+        if (column == null) {
+            ddl.append("COMMENT ON TABLE ").append(qualifiedName);
+        } else {
+            ddl.append("COMMENT ON COLUMN ").append(qualifiedName).append('.').append(quote(column));
+        }
+        ddl.append(" IS ").append(literal(remarks)).append(';');
+    }
+
+    private String formatType(Map<String, Object> column) {
+        String typeName = String.valueOf(column.get("typeName"));
+        if (typeName.indexOf('(') >= 0) {
+            return typeName;
+        }
+        String key = typeName.toUpperCase(Locale.ROOT);
+        int length = getInt(column, "length");
+        if (LENGTH_TYPES.contains(key)) {
+            if (length >= UNBOUNDED_LENGTH) {
+                return dialect == DatabaseDialect.SQLSERVER ? typeName + "(max)" : typeName;
+            }
+            return length > 0 ? typeName + "(" + length + ")" : typeName;
+        }
+        if (PRECISION_TYPES.contains(key) && length > 0 && length <= MAX_PRECISION) {
+            int scale = getInt(column, "scale");
+            return scale > 0 ? typeName + "(" + length + ", " + scale + ")" : typeName + "(" + length + ")";
+        }
+        return typeName;
+    }
+
+    // 默认值按驱动返回的表达式输出，MySQL 返回的字符串默认值不带引号
+    private String formatDefault(Map<String, Object> column) {
+        Object value = column.get("defaultValue");
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        if (text.isEmpty()) {
+            // MySQL 以空串表示 DEFAULT ''
+            return dialect.isMySqlFamily() ? "''" : null;
+        }
+        // PostgreSQL 的 serial 类型自带序列默认值
+        if (String.valueOf(column.get("typeName")).toLowerCase(Locale.ROOT).endsWith("serial")) {
+            return null;
+        }
+        if (dialect.isMySqlFamily() && !MYSQL_LITERAL.matcher(text).matches()) {
+            return literal(text);
+        }
+        return text;
+    }
+
+    private String quote(String identifier) {
+        switch (dialect) {
+            case MYSQL:
+            case MARIADB:
+                return "`" + identifier.replace("`", "``") + "`";
+            case SQLSERVER:
+                return "[" + identifier.replace("]", "]]") + "]";
+            default:
+                return "\"" + identifier.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    private String literal(String value) {
+        String escaped = value.replace("'", "''");
+        if (dialect.isMySqlFamily()) {
+            escaped = escaped.replace("\\", "\\\\");
+        }
+        return dialect == DatabaseDialect.SQLSERVER ? "N'" + escaped + "'" : "'" + escaped + "'";
+    }
+
+    private static String getRemarks(Map<String, Object> map) {
+        Object remarks = map.get("remarks");
+        return remarks == null || remarks.toString().isEmpty() ? null : remarks.toString();
+    }
+
+    private static int getInt(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getColumns(Map<String, Object> table) {
+        Object columns = table.get("columns");
+        return columns instanceof List ? (List<Map<String, Object>>) columns : new ArrayList<>();
+    }
+}
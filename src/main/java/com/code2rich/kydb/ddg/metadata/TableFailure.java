@@ -0,0 +1,56 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+
+/**
+ * 抽取失败的表，记录在文档的错误页中而不中断整个抽取
+ */
+public class TableFailure implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String tableName;
+    private final String message;
+    private final String sqlState;
+    private final int errorCode;
+    private final int attempts;
+
+    public TableFailure(String tableName, String message, String sqlState, int errorCode, int attempts) {
+        this.tableName = tableName;
+        this.message = message;
+        this.sqlState = sqlState;
+        this.errorCode = errorCode;
+        this.attempts = attempts;
+    }
+
+    public static TableFailure of(String tableName, Exception error, int attempts) {
+        if (error instanceof SQLException) {
+            SQLException sqlError = (SQLException) error;
+            return new TableFailure(tableName, sqlError.getMessage(), sqlError.getSQLState(), sqlError.getErrorCode(), attempts);
+        }
+        return new TableFailure(tableName, error.getMessage(), null, 0, attempts);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public String getSqlState() {
+        return sqlState;
+    }
+
+    public int getErrorCode() {
+        return errorCode;
+    }
+
+    /**
+     * 实际执行的次数，熔断后放弃的表为0
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+}
@@ -0,0 +1,101 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import cn.smallbun.screw.core.process.ProcessConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 表过滤规则
+ * 指定了表名/前缀/后缀时只保留匹配其中之一的表，再排除命中忽略规则的表。
+ * 文档生成和GUI的过滤预览共用这一份规则，保证预览结果与实际生成一致
+ */
+public class TableFilter {
+    private static final TableFilter ALL = new TableFilter(null, null, null, null, null, null);
+
+    private final Set<String> designatedNames;
+    private final List<String> designatedPrefixes;
+    private final List<String> designatedSuffixes;
+    private final Set<String> ignoreNames;
+    private final List<String> ignorePrefixes;
+    private final List<String> ignoreSuffixes;
+
+    public TableFilter(List<String> designatedNames, List<String> designatedPrefixes, List<String> designatedSuffixes,
+                       List<String> ignoreNames, List<String> ignorePrefixes, List<String> ignoreSuffixes) {
+        // 表名用HashSet查找，大schema下逐表判断时不必线性扫描
+        this.designatedNames = toSet(designatedNames);
+        this.designatedPrefixes = toList(designatedPrefixes);
+        this.designatedSuffixes = toList(designatedSuffixes);
+        this.ignoreNames = toSet(ignoreNames);
+        this.ignorePrefixes = toList(ignorePrefixes);
+        this.ignoreSuffixes = toList(ignoreSuffixes);
+    }
+
+    /**
+     * 不过滤任何表
+     */
+    public static TableFilter all() {
+        return ALL;
+    }
+
+    /**
+     * 由screw的过滤配置创建
+     */
+    public static TableFilter of(ProcessConfig processConfig) {
+        if (processConfig == null) {
+            return ALL;
+        }
+        return new TableFilter(
+                processConfig.getDesignatedTableName(),
+                processConfig.getDesignatedTablePrefix(),
+                processConfig.getDesignatedTableSuffix(),
+                processConfig.getIgnoreTableName(),
+                processConfig.getIgnoreTablePrefix(),
+                processConfig.getIgnoreTableSuffix());
+    }
+
+    /**
+     * 表是否保留
+     */
+    public boolean matches(String tableName) {
+        if (!designatedNames.isEmpty() || !designatedPrefixes.isEmpty() || !designatedSuffixes.isEmpty()) {
+            if (!designatedNames.contains(tableName)
+                    && !startsWithAny(tableName, designatedPrefixes)
+                    && !endsWithAny(tableName, designatedSuffixes)) {
+                return false;
+            }
+        }
+        return !ignoreNames.contains(tableName)
+                && !startsWithAny(tableName, ignorePrefixes)
+                && !endsWithAny(tableName, ignoreSuffixes);
+    }
+
+    private static boolean startsWithAny(String tableName, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (tableName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean endsWithAny(String tableName, List<String> suffixes) {
+        for (String suffix : suffixes) {
+            if (tableName.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> toSet(List<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptySet() : new HashSet<>(values);
+    }
+
+    private static List<String> toList(List<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptyList() : new ArrayList<>(values);
+    }
+}
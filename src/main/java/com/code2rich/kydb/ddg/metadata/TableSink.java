@@ -0,0 +1,33 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 逐表接收抽取结果
+ * 抽取过程不保留已交出的表，由接收方决定是缓存还是直接写出
+ */
+public interface TableSink {
+
+    /**
+     * 开始抽取，在第一个表之前调用一次
+     */
+    void begin(String dbType, String dbName) throws IOException;
+
+    /**
+     * 接收一个表（结构与快照中的表一致）
+     */
+    void accept(Map<String, Object> table) throws IOException;
+
+    /**
+     * 接收一个表以外的对象（视图、序列、存储过程等，结构见 {@link SchemaObjectCollector}），在所有表之后调用
+     */
+    default void acceptObject(Map<String, Object> object) throws IOException {
+    }
+
+    /**
+     * 一个表抽取失败，抽取继续进行
+     */
+    default void fail(TableFailure failure) throws IOException {
+    }
+}
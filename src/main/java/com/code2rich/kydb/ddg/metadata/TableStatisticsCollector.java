@@ -0,0 +1,151 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 表统计信息采集器
+ * 从优化器统计信息中读取近似行数和占用空间，每个schema只执行一次查询，不会对业务表执行COUNT(*)
+ */
+public class TableStatisticsCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TableStatisticsCollector.class);
+
+    // PostgreSQL: reltuples 为 -1 表示从未 ANALYZE
+    private static final String POSTGRESQL_SQL =
+            "SELECT c.relname, CAST(c.reltuples AS BIGINT), pg_total_relation_size(c.oid) "
+                    + "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE n.nspname = COALESCE(CAST(? AS TEXT), current_schema()) AND c.relkind IN ('r', 'p', 'm')";
+
+    private static final String MYSQL_SQL =
+            "SELECT TABLE_NAME, TABLE_ROWS, DATA_LENGTH + INDEX_LENGTH "
+                    + "FROM information_schema.TABLES "
+                    + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_TYPE = 'BASE TABLE'";
+
+    // Oracle: BLOCKS 按表空间块大小换算，取不到块大小时按默认8K计算
+    private static final String ORACLE_SQL =
+            "SELECT t.TABLE_NAME, t.NUM_ROWS, t.BLOCKS * NVL(ts.BLOCK_SIZE, 8192) "
+                    + "FROM ALL_TABLES t LEFT JOIN USER_TABLESPACES ts ON ts.TABLESPACE_NAME = t.TABLESPACE_NAME "
+                    + "WHERE t.OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA'))";
+
+    // SQL Server: 行数只统计堆或聚集索引(index_id 0/1)，空间按保留页计算
+    private static final String SQLSERVER_SQL =
+            "SELECT t.name, SUM(CASE WHEN ps.index_id IN (0, 1) THEN ps.row_count ELSE 0 END), "
+                    + "SUM(ps.reserved_page_count) * 8192 "
+                    + "FROM sys.tables t JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                    + "JOIN sys.dm_db_partition_stats ps ON ps.object_id = t.object_id "
+                    + "WHERE s.name = COALESCE(?, SCHEMA_NAME()) GROUP BY t.name";
+
+    /**
+     * 单表统计信息
+     */
+    public static class TableStatistics {
+        private final Long rowCount;
+        private final Long dataSize;
+
+        public TableStatistics(Long rowCount, Long dataSize) {
+            this.rowCount = rowCount;
+            this.dataSize = dataSize;
+        }
+
+        /**
+         * @return 近似行数，未收集统计信息时为null
+         */
+        public Long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return 占用空间（字节，含索引），未知时为null
+         */
+        public Long getDataSize() {
+            return dataSize;
+        }
+    }
+
+    /**
+     * 采集指定schema下所有表的统计信息
+     * @param connection 数据库连接
+     * @param dialect 数据库方言
+     * @param schema schema名称，为空时使用当前schema
+     * @return 表名到统计信息的映射，不支持的数据库或查询失败时返回空Map
+     */
+    public Map<String, TableStatistics> collect(Connection connection, DatabaseDialect dialect, String schema) {
+        Map<String, TableStatistics> statistics = new HashMap<>();
+        String sql = getStatisticsSql(dialect);
+        if (sql == null) {
+            LOGGER.info("Table statistics are not supported for dialect {}", dialect);
+            return statistics;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, resolveSchema(connection, dialect, schema));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    statistics.put(rs.getString(1), new TableStatistics(getPositiveLong(rs, 2), getPositiveLong(rs, 3)));
+                }
+            }
+            LOGGER.info("Loaded optimizer statistics for {} tables", statistics.size());
+        } catch (SQLException e) {
+            // 统计信息只是辅助信息，权限不足等情况下不影响文档生成
+            LOGGER.warn("Could not load table statistics: {}", e.getMessage());
+        }
+        return statistics;
+    }
+
+    /**
+     * 将字节数格式化为易读的大小
+     */
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        String[] units = { "KB", "MB", "GB", "TB" };
+        double size = bytes;
+        int unit = -1;
+        while (size >= 1024 && unit < units.length - 1) {
+            size /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", size, units[unit]);
+    }
+
+    private String getStatisticsSql(DatabaseDialect dialect) {
+        switch (dialect) {
+            case POSTGRESQL:
+                return POSTGRESQL_SQL;
+            case MYSQL:
+            case MARIADB:
+                return MYSQL_SQL;
+            case ORACLE:
+                return ORACLE_SQL;
+            case SQLSERVER:
+                return SQLSERVER_SQL;
+            default:
+                return null;
+        }
+    }
+
+    static String resolveSchema(Connection connection, DatabaseDialect dialect, String schema) throws SQLException {
+        if (schema != null && !schema.isEmpty()) {
+            // Oracle 数据字典中的名称默认为大写
+            return dialect == DatabaseDialect.ORACLE ? schema.toUpperCase() : schema;
+        }
+        // MySQL系的库名即catalog
+        return dialect.isMySqlFamily() ? connection.getCatalog() : null;
+    }
+
+    private Long getPositiveLong(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        if (rs.wasNull() || value < 0) {
+            return null;
+        }
+        return value;
+    }
+}
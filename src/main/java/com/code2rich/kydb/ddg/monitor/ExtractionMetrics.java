@@ -0,0 +1,37 @@
+package com.code2rich.kydb.ddg.monitor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内的抽取计数，供GUI等显示实时进度
+ * 计数只增不减，显示方按时间差计算速率
+ */
+public final class ExtractionMetrics {
+    private static final LongAdder TABLES = new LongAdder();
+    private static final LongAdder QUERIES = new LongAdder();
+
+    private ExtractionMetrics() {
+    }
+
+    /**
+     * 完成一个表的抽取
+     */
+    public static void recordTable() {
+        TABLES.increment();
+    }
+
+    /**
+     * 发起了若干次元数据查询（含重试）
+     */
+    public static void recordQueries(int queries) {
+        QUERIES.add(queries);
+    }
+
+    public static long getTables() {
+        return TABLES.sum();
+    }
+
+    public static long getQueries() {
+        return QUERIES.sum();
+    }
+}
@@ -0,0 +1,136 @@
+package com.code2rich.kydb.ddg.monitor;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 保存最近日志的环形缓冲区 Appender
+ * 写入方只做一次自增和一次数组写入，不加锁也不等待读取方；缓冲区写满后覆盖最旧的日志。
+ * 读取方按序号顺序读取，读到的序号与期望不符时说明该位置已被覆盖（计为丢弃）或尚未写完（下次再读）
+ */
+public class RingBufferAppender extends AbstractAppender {
+    private static final String NAME = "RingBuffer";
+
+    /**
+     * 一条格式化后的日志
+     */
+    public static class Entry {
+        private final long sequence;
+        private final Level level;
+        private final String text;
+
+        Entry(long sequence, Level level, String text) {
+            this.sequence = sequence;
+            this.level = level;
+            this.text = text;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public Level getLevel() {
+            return level;
+        }
+
+        public String getText() {
+            return text;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    // 下一条日志的序号
+    private final AtomicLong next = new AtomicLong();
+
+    private RingBufferAppender(int capacity) {
+        super(NAME, null, PatternLayout.newBuilder()
+                .withPattern("%d{HH:mm:ss.SSS} %-5level %logger{1} - %msg%n%throwable")
+                .build(), true, Property.EMPTY_ARRAY);
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 创建并挂到根日志上
+     * @param capacity 保留的日志条数，向上取整为2的幂
+     */
+    public static RingBufferAppender install(int capacity) {
+        RingBufferAppender appender = new RingBufferAppender(capacity);
+        appender.start();
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        Configuration configuration = context.getConfiguration();
+        configuration.addAppender(appender);
+        configuration.getRootLogger().addAppender(appender, null, null);
+        context.updateLoggers();
+        return appender;
+    }
+
+    /**
+     * 从根日志上移除并停止
+     */
+    public void uninstall() {
+        LoggerContext context = (LoggerContext) LogManager.getContext(false);
+        Configuration configuration = context.getConfiguration();
+        configuration.getRootLogger().removeAppender(getName());
+        context.updateLoggers();
+        stop();
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        // 事件对象可能被复用，在调用线程中格式化
+        String text = new String(getLayout().toByteArray(event), StandardCharsets.UTF_8);
+        long sequence = next.getAndIncrement();
+        slots.set((int) (sequence & mask), new Entry(sequence, event.getLevel(), text));
+    }
+
+    /**
+     * 下一条日志的序号，即目前写入的总条数
+     */
+    public long getNextSequence() {
+        return next.get();
+    }
+
+    /**
+     * 从 from 开始按顺序读取日志
+     * @param from 期望读取的第一个序号
+     * @param max 最多读取的条数
+     * @param consumer 接收读到的日志
+     * @return 下次读取的序号；与 from 的差减去读到的条数即为被覆盖而丢弃的条数
+     */
+    public long drain(long from, int max, Consumer<Entry> consumer) {
+        long end = next.get();
+        // 已被覆盖的部分直接跳过
+        long sequence = Math.max(from, end - slots.length());
+        int read = 0;
+        while (sequence < end && read < max) {
+            Entry entry = slots.get((int) (sequence & mask));
+            if (entry == null || entry.sequence < sequence) {
+                // 写入方已取得序号但还没写完，下次再读
+                break;
+            }
+            if (entry.sequence > sequence) {
+                // 读取期间又被覆盖，跳到仍在缓冲区中的位置
+                sequence = Math.max(sequence + 1, next.get() - slots.length());
+                continue;
+            }
+            consumer.accept(entry);
+            sequence++;
+            read++;
+        }
+        return sequence;
+    }
+}
@@ -0,0 +1,89 @@
+package com.code2rich.kydb.ddg.output;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 元数据模型的内容哈希（SHA-256）
+ * Map 按键排序后计算，与 HashMap 的迭代顺序无关；每个值带类型标记和长度，不同结构不会拼接出相同的字节
+ */
+public class ContentHash {
+    private final MessageDigest digest;
+
+    public ContentHash() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * 加入一个值，支持 null、字符串、数值、布尔值以及由它们组成的 Map/List
+     */
+    public ContentHash add(Object value) {
+        if (value == null) {
+            digest.update((byte) 'N');
+        } else if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            digest.update((byte) '{');
+            addLength(sorted.size());
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                addText(entry.getKey());
+                add(entry.getValue());
+            }
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            digest.update((byte) '[');
+            addLength(list.size());
+            for (Object item : list) {
+                add(item);
+            }
+        } else if (value instanceof Number) {
+            // Integer/Long 经快照往返后类型可能不同，按数值文本计算
+            digest.update((byte) '#');
+            addText(value.toString());
+        } else if (value instanceof Boolean) {
+            digest.update((byte) ((Boolean) value ? 'T' : 'F'));
+        } else {
+            digest.update((byte) 'S');
+            addText(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * @return 十六进制的哈希值，调用后不能再加入内容
+     */
+    public String toHex() {
+        return toHex(digest.digest());
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private void addText(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        addLength(bytes.length);
+        digest.update(bytes);
+    }
+
+    private void addLength(int length) {
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+    }
+}
@@ -0,0 +1,108 @@
+package com.code2rich.kydb.ddg.output;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * 在screw生成的HTML/Markdown文档中，把建表语句插到每个表的列清单之后
+ * screw的模板是固定的，这里按模板输出的表锚点定位各表的段落
+ */
+public class DdlInjector {
+    private static final String HTML_ANCHOR = "<a name='";
+    // 目录的锚点，其后的表格是表目录
+    private static final String HTML_INDEX_ANCHOR = "<a name='index'></a>";
+    private static final String HTML_TABLE_END = "</table>";
+    private static final String MARKDOWN_ANCHOR = "**表名：** <a id=\"";
+
+    /**
+     * @param htmlFile HTML文档
+     * @param ddl 表名到建表语句的映射
+     * @return 插入了建表语句的表数
+     */
+    public int injectHtml(File htmlFile, Map<String, String> ddl) throws IOException {
+        String html = read(htmlFile);
+        StringBuilder result = new StringBuilder(html.length() + ddl.size() * 512);
+        int injected = 0;
+        // 跳过目录锚点和表目录，名为 index 的表不会与目录混淆
+        int position = 0;
+        int index = html.indexOf(HTML_INDEX_ANCHOR);
+        if (index >= 0) {
+            int indexEnd = html.indexOf(HTML_TABLE_END, index);
+            position = indexEnd < 0 ? html.length() : indexEnd + HTML_TABLE_END.length();
+            result.append(html, 0, position);
+        }
+        int anchor;
+        while ((anchor = html.indexOf(HTML_ANCHOR, position)) >= 0) {
+            int nameStart = anchor + HTML_ANCHOR.length();
+            int nameEnd = html.indexOf('\'', nameStart);
+            int tableEnd = nameEnd < 0 ? -1 : html.indexOf(HTML_TABLE_END, nameEnd);
+            if (tableEnd < 0) {
+                break;
+            }
+            tableEnd += HTML_TABLE_END.length();
+            result.append(html, position, tableEnd);
+            position = tableEnd;
+            String statement = ddl.get(html.substring(nameStart, nameEnd));
+            if (statement != null) {
+                result.append("<div>建表语句：</div><pre style='text-align:left; background-color:#f8f8f8; padding:6px;'>")
+                        .append(escapeHtml(statement)).append("</pre>");
+                injected++;
+            }
+        }
+        result.append(html, position, html.length());
+        write(htmlFile, result.toString());
+        return injected;
+    }
+
+    /**
+     * @param markdownFile Markdown文档
+     * @param ddl 表名到建表语句的映射
+     * @return 插入了建表语句的表数
+     */
+    public int injectMarkdown(File markdownFile, Map<String, String> ddl) throws IOException {
+        String markdown = read(markdownFile);
+        StringBuilder result = new StringBuilder(markdown.length() + ddl.size() * 512);
+        int injected = 0;
+        String pending = null;
+        for (String line : markdown.split("\n", -1)) {
+            if (line.startsWith(MARKDOWN_ANCHOR)) {
+                injected += appendMarkdown(result, pending);
+                int nameStart = MARKDOWN_ANCHOR.length();
+                int nameEnd = line.indexOf('"', nameStart);
+                pending = nameEnd < 0 ? null : ddl.get(line.substring(nameStart, nameEnd));
+            }
+            result.append(line).append('\n');
+        }
+        // split 保留了末尾的空串，去掉多加的换行
+        result.setLength(result.length() - 1);
+        if (pending != null) {
+            result.append('\n');
+            injected += appendMarkdown(result, pending);
+        }
+        write(markdownFile, result.toString());
+        return injected;
+    }
+
+    private static int appendMarkdown(StringBuilder result, String statement) {
+        if (statement == null) {
+            return 0;
+        }
+        result.append("**建表语句：**\n\n```sql\n").append(statement).append("\n```\n\n");
+        return 1;
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String escapeHtml(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,183 @@
+package com.code2rich.kydb.ddg.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 输出清单
+ * 记录输出目录中每个文件的哈希，保存在输出目录的 .kydb-manifest 中，每行为 "哈希  名称"，按名称排序。
+ * Excel 记录的是元数据模型的内容哈希（内容不变时连渲染都可以跳过），并按 "文件名#工作表名" 记录每个工作表的哈希；
+ * 其他文件记录文件字节的哈希。
+ * 内容没有变化的文件不再重写，修改时间保持不变，下游的 rsync、Git 不会因为重新生成而产生变化
+ */
+public class OutputManifest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputManifest.class);
+
+    public static final String FILE_NAME = ".kydb-manifest";
+
+    // 工作表条目的分隔符
+    private static final char SHEET_SEPARATOR = '#';
+
+    private final File directory;
+    private final Map<String, String> entries = new TreeMap<>();
+    private boolean dirty;
+
+    private OutputManifest(File directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * 读取输出目录中的清单，不存在或无法读取时返回空清单（所有文件都会重写）
+     */
+    public static OutputManifest load(File directory) {
+        OutputManifest manifest = new OutputManifest(directory);
+        File file = new File(directory, FILE_NAME);
+        if (!file.isFile()) {
+            return manifest;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf("  ");
+                if (separator == 64) {
+                    manifest.entries.put(line.substring(separator + 2), line.substring(0, separator));
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Could not read output manifest {}, all files will be rewritten: {}", file, e.getMessage());
+            manifest.entries.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * 文件存在且清单中的哈希相同
+     */
+    public boolean isUnchanged(String fileName, String hash) {
+        return hash.equals(entries.get(fileName)) && new File(directory, fileName).isFile();
+    }
+
+    /**
+     * 记录文件的哈希
+     */
+    public void put(String fileName, String hash) {
+        if (!hash.equals(entries.put(fileName, hash))) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * 替换文件中各工作表的哈希
+     * @return 与上一次相比新增或变化的工作表数
+     */
+    public int putSheets(String fileName, Map<String, String> sheetHashes) {
+        String prefix = fileName + SHEET_SEPARATOR;
+        int changed = 0;
+        Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+        Map<String, String> previous = new TreeMap<>();
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            if (entry.getKey().startsWith(prefix)) {
+                previous.put(entry.getKey().substring(prefix.length()), entry.getValue());
+                iterator.remove();
+            }
+        }
+        for (Map.Entry<String, String> entry : sheetHashes.entrySet()) {
+            if (!entry.getValue().equals(previous.remove(entry.getKey()))) {
+                changed++;
+            }
+            entries.put(prefix + entry.getKey(), entry.getValue());
+        }
+        if (changed > 0 || !previous.isEmpty()) {
+            dirty = true;
+        }
+        return changed;
+    }
+
+    /**
+     * 用临时文件替换目标文件：内容与清单中记录的相同时删除临时文件，保留原文件
+     * @param temp 同一目录下写好的临时文件
+     * @param fileName 目标文件名
+     * @param skipUnchanged 为false时总是替换
+     * @return 是否替换了目标文件
+     */
+    public boolean commit(File temp, String fileName, boolean skipUnchanged) throws IOException {
+        String hash = hashFile(temp);
+        if (skipUnchanged && isUnchanged(fileName, hash)) {
+            Files.delete(temp.toPath());
+            return false;
+        }
+        replace(temp, new File(directory, fileName));
+        put(fileName, hash);
+        return true;
+    }
+
+    /**
+     * 有变化时写回清单
+     */
+    public void save() throws IOException {
+        if (!dirty) {
+            return;
+        }
+        File temp = new File(directory, FILE_NAME + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temp.toPath()), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                writer.write(entry.getValue());
+                writer.write("  ");
+                writer.write(entry.getKey());
+                writer.write('\n');
+            }
+        }
+        replace(temp, new File(directory, FILE_NAME));
+        dirty = false;
+    }
+
+    /**
+     * 以原子移动替换文件，文件系统不支持时退化为普通替换
+     */
+    public static void replace(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 文件内容的 SHA-256
+     */
+    public static String hashFile(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = new FileInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return ContentHash.toHex(digest.digest());
+    }
+}
@@ -0,0 +1,312 @@
+package com.code2rich.kydb.ddg.profile;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 列画像
+ * 使用各数据库原生的采样语法读取少量数据，计算空值率、去重数(HyperLogLog)、最值和高频值(Space-Saving)，
+ * 各表在线程池中并行执行，并受单表和整体时间预算约束
+ */
+public class ColumnProfiler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnProfiler.class);
+
+    // 块采样的粒度较粗，按目标行数的2倍计算采样比例
+    private static final double OVERSAMPLING = 2.0;
+    // 高频值、最值的显示长度上限
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final int HLL_PRECISION = 11;
+
+    private final DataSource dataSource;
+    private final DatabaseDialect dialect;
+    private final ProfilingOptions options;
+    private final int parallelism;
+
+    public ColumnProfiler(DataSource dataSource, DatabaseDialect dialect, ProfilingOptions options, int parallelism) {
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+        this.options = options;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 为所有表计算列画像，结果直接写入表/列的Map中
+     * @param catalog 数据库catalog
+     * @param schema schema名称
+     * @param tableList 表列表
+     */
+    public void profile(String catalog, String schema, List<Map<String, Object>> tableList) {
+        LOGGER.info("Profiling {} tables with {} threads (sample rows: {}, table budget: {}s, total budget: {}s)",
+                tableList.size(), parallelism, options.getSampleRows(),
+                options.getTableTimeoutSeconds(), options.getTotalTimeoutSeconds());
+
+        profile(catalog, schema, tableList, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(options.getTotalTimeoutSeconds()));
+    }
+
+    /**
+     * 为一批表计算列画像，整体预算截止时间由调用方给出
+     * 流式导出时按批调用，所有批次共享同一个截止时间
+     * @param globalDeadline 整体预算的截止时间（毫秒时间戳）
+     */
+    public void profile(String catalog, String schema, List<Map<String, Object>> tableList, long globalDeadline) {
+        if (System.currentTimeMillis() >= globalDeadline) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (Map<String, Object> table : tableList) {
+                futures.add(executor.submit(() -> profileTable(catalog, schema, table, globalDeadline)));
+            }
+
+            int completed = 0;
+            for (Future<?> future : futures) {
+                long remaining = globalDeadline - System.currentTimeMillis();
+                try {
+                    future.get(Math.max(remaining, 0), TimeUnit.MILLISECONDS);
+                    completed++;
+                } catch (TimeoutException e) {
+                    LOGGER.warn("Profiling time budget exhausted, {} of {} tables profiled", completed, tableList.size());
+                    break;
+                } catch (Exception e) {
+                    LOGGER.warn("Profiling task failed: {}", e.getMessage());
+                }
+            }
+        } finally {
+            // 超出整体预算时取消尚未开始的任务，正在执行的查询受queryTimeout约束
+            executor.shutdownNow();
+        }
+    }
+
+    private void profileTable(String catalog, String schema, Map<String, Object> table, long globalDeadline) {
+        long now = System.currentTimeMillis();
+        if (now >= globalDeadline || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        long tableDeadline = Math.min(globalDeadline, now + TimeUnit.SECONDS.toMillis(options.getTableTimeoutSeconds()));
+        String tableName = String.valueOf(table.get("tableName"));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> columns = (List<Map<String, Object>>) table.get("columns");
+        List<Map<String, Object>> profiledColumns = new ArrayList<>();
+        if (columns != null) {
+            for (Map<String, Object> column : columns) {
+                if (isProfilable(column)) {
+                    profiledColumns.add(column);
+                }
+            }
+        }
+        if (profiledColumns.isEmpty()) {
+            return;
+        }
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            String quote = connection.getMetaData().getIdentifierQuoteString();
+            quote = quote == null || quote.trim().isEmpty() ? "" : quote;
+
+            String sql = buildSampleSql(quote, catalog, schema, tableName, profiledColumns, getRowCount(table));
+            statement.setQueryTimeout(toTimeoutSeconds(tableDeadline));
+            statement.setMaxRows(options.getSampleRows());
+            statement.setFetchSize(Math.min(options.getSampleRows(), 1000));
+
+            ColumnAccumulator[] accumulators = new ColumnAccumulator[profiledColumns.size()];
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i] = new ColumnAccumulator(options.getTopK());
+            }
+
+            long rows = 0;
+            boolean partial = false;
+            try (ResultSet rs = statement.executeQuery(sql)) {
+                while (rs.next()) {
+                    for (int i = 0; i < accumulators.length; i++) {
+                        accumulators[i].add(rs.getObject(i + 1));
+                    }
+                    rows++;
+                    // 每读取一批数据检查一次时间预算
+                    if ((rows & 0xff) == 0 && System.currentTimeMillis() > tableDeadline) {
+                        partial = true;
+                        break;
+                    }
+                }
+            }
+
+            for (int i = 0; i < accumulators.length; i++) {
+                accumulators[i].writeTo(profiledColumns.get(i), rows);
+            }
+            table.put("profileSampledRows", rows);
+            table.put("profilePartial", partial);
+            LOGGER.debug("Profiled table {} with {} sampled rows", tableName, rows);
+        } catch (SQLException e) {
+            LOGGER.warn("Could not profile table {}: {}", tableName, e.getMessage());
+        }
+    }
+
+    /**
+     * 按方言构造采样查询
+     */
+    String buildSampleSql(String quote, String catalog, String schema, String tableName,
+                          List<Map<String, Object>> columns, Long rowCount) {
+        StringBuilder columnList = new StringBuilder();
+        for (Map<String, Object> column : columns) {
+            if (columnList.length() > 0) {
+                columnList.append(", ");
+            }
+            columnList.append(quote).append(column.get("name")).append(quote);
+        }
+
+        String tableRef = quote + tableName + quote;
+        String owner = dialect.isMySqlFamily() && catalog != null ? catalog : schema;
+        if (owner != null && !owner.isEmpty()) {
+            tableRef = quote + owner + quote + "." + tableRef;
+        }
+
+        String select = "SELECT " + columnList + " FROM " + tableRef;
+        int sampleRows = options.getSampleRows();
+        if (rowCount == null || rowCount <= sampleRows) {
+            // 统计信息缺失或表很小时直接读取，行数由maxRows限制
+            return select;
+        }
+
+        String percent = String.format(Locale.ROOT, "%.6f",
+                Math.min(99.0, sampleRows * OVERSAMPLING * 100.0 / rowCount));
+        switch (dialect) {
+            case POSTGRESQL:
+                return select + " TABLESAMPLE SYSTEM (" + percent + ")";
+            case ORACLE:
+                return select + " SAMPLE BLOCK (" + percent + ")";
+            case SQLSERVER:
+                return select + " TABLESAMPLE (" + percent + " PERCENT)";
+            case MYSQL:
+            case MARIADB:
+                // MySQL没有采样语法，从随机偏移处读取一段连续数据
+                long offset = ThreadLocalRandom.current().nextLong(rowCount - sampleRows);
+                return select + " LIMIT " + sampleRows + " OFFSET " + offset;
+            default:
+                return select;
+        }
+    }
+
+    // 大对象、二进制等类型不参与画像
+    private boolean isProfilable(Map<String, Object> column) {
+        Object dataType = column.get("dataType");
+        if (!(dataType instanceof Integer)) {
+            return true;
+        }
+        switch ((Integer) dataType) {
+            case Types.BLOB:
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.SQLXML:
+            case Types.ARRAY:
+            case Types.STRUCT:
+            case Types.JAVA_OBJECT:
+                return false;
+            default:
+                return true;
+        }
+    }
+
+    private Long getRowCount(Map<String, Object> table) {
+        Object rowCount = table.get("rowCount");
+        return rowCount instanceof Number ? ((Number) rowCount).longValue() : null;
+    }
+
+    private int toTimeoutSeconds(long deadline) {
+        long remaining = deadline - System.currentTimeMillis();
+        return (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remaining));
+    }
+
+    /**
+     * 单列的画像累加器
+     */
+    private static class ColumnAccumulator {
+        private final HyperLogLog distinct = new HyperLogLog(HLL_PRECISION);
+        private final SpaceSavingSketch topValues;
+        private final int topK;
+        private long nulls;
+        private Comparable<Object> min;
+        private Comparable<Object> max;
+        private boolean comparable = true;
+
+        ColumnAccumulator(int topK) {
+            this.topK = topK;
+            // 计数器个数取topK的10倍，提高高频值的准确度
+            this.topValues = new SpaceSavingSketch(topK * 10);
+        }
+
+        @SuppressWarnings("unchecked")
+        void add(Object value) {
+            if (value == null) {
+                nulls++;
+                return;
+            }
+            distinct.add(value);
+            topValues.add(truncate(value.toString()));
+
+            if (!comparable) {
+                return;
+            }
+            if (!(value instanceof Comparable)) {
+                comparable = false;
+                return;
+            }
+            Comparable<Object> current = (Comparable<Object>) value;
+            try {
+                if (min == null || current.compareTo(min) < 0) {
+                    min = current;
+                }
+                if (max == null || current.compareTo(max) > 0) {
+                    max = current;
+                }
+            } catch (ClassCastException e) {
+                comparable = false;
+            }
+        }
+
+        void writeTo(Map<String, Object> column, long rows) {
+            column.put("nullRatio", rows == 0 ? 0.0 : (double) nulls / rows);
+            column.put("distinctCount", rows == nulls ? 0L : distinct.estimate());
+            if (comparable && min != null) {
+                column.put("minValue", truncate(min.toString()));
+                column.put("maxValue", truncate(max.toString()));
+            }
+
+            StringBuilder top = new StringBuilder();
+            for (Map.Entry<String, Long> entry : topValues.top(topK)) {
+                if (top.length() > 0) {
+                    top.append("; ");
+                }
+                top.append(entry.getKey()).append(" (").append(entry.getValue()).append(")");
+            }
+            column.put("topValues", top.toString());
+        }
+
+        private static String truncate(String value) {
+            return value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) + "..." : value;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.code2rich.kydb.ddg.profile;
+
+/**
+ * 列画像配置
+ */
+public class ProfilingOptions {
+    private boolean enabled;
+    // 每张表最多采样的行数
+    private int sampleRows = 10000;
+    // 单表时间预算（秒）
+    private int tableTimeoutSeconds = 30;
+    // 整体时间预算（秒）
+    private int totalTimeoutSeconds = 600;
+    // 每列保留的高频值个数
+    private int topK = 5;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSampleRows() {
+        return sampleRows;
+    }
+
+    public void setSampleRows(int sampleRows) {
+        this.sampleRows = sampleRows;
+    }
+
+    public int getTableTimeoutSeconds() {
+        return tableTimeoutSeconds;
+    }
+
+    public void setTableTimeoutSeconds(int tableTimeoutSeconds) {
+        this.tableTimeoutSeconds = tableTimeoutSeconds;
+    }
+
+    public int getTotalTimeoutSeconds() {
+        return totalTimeoutSeconds;
+    }
+
+    public void setTotalTimeoutSeconds(int totalTimeoutSeconds) {
+        this.totalTimeoutSeconds = totalTimeoutSeconds;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+}
@@ -0,0 +1,64 @@
+package com.code2rich.kydb.ddg.profile;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 高频值草图
+ * 最多保留 capacity 个计数器，计数器满时替换最小计数的值，内存与数据量无关
+ */
+public class SpaceSavingSketch {
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 添加一个值，null 不参与计数
+     */
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        String key = value.toString();
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[] { 1 });
+            return;
+        }
+
+        // 替换计数最小的值，新值继承其计数（可能高估，但不会漏掉真正的高频值）
+        String minKey = null;
+        long minCount = Long.MAX_VALUE;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            if (entry.getValue()[0] < minCount) {
+                minCount = entry.getValue()[0];
+                minKey = entry.getKey();
+            }
+        }
+        counters.remove(minKey);
+        counters.put(key, new long[] { minCount + 1 });
+    }
+
+    /**
+     * @param k 返回的数量
+     * @return 按计数降序的前k个值
+     */
+    public List<Map.Entry<String, Long>> top(int k) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()[0]));
+        }
+        entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        return entries.size() > k ? entries.subList(0, k) : entries;
+    }
+}
@@ -0,0 +1,86 @@
+package com.code2rich.kydb.ddg.replay;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+
+/**
+ * 录制和重放共用的动态代理工具
+ */
+final class JdbcProxies {
+    private JdbcProxies() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    /**
+     * 调用被代理的对象，抛出其原始异常
+     */
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 处理 Object 和 java.sql.Wrapper 的方法，不是这些方法时返回 null
+     */
+    static Object handleCommon(Object proxy, Method method, Object[] args, String name) throws SQLException {
+        switch (method.getName()) {
+            case "toString":
+                return name;
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            case "isWrapperFor":
+                return ((Class<?>) args[0]).isInstance(proxy);
+            case "unwrap":
+                if (((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                throw new SQLException(name + " does not wrap " + ((Class<?>) args[0]).getName());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 没有重放意义的方法（设置项、事务控制等）返回的默认值
+     */
+    static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == short.class) {
+            return (short) 0;
+        } else if (type == byte.class) {
+            return (byte) 0;
+        } else if (type == double.class) {
+            return 0d;
+        } else if (type == float.class) {
+            return 0f;
+        } else if (type == char.class) {
+            return (char) 0;
+        }
+        return null;
+    }
+
+    /**
+     * 是否为可以录制的标量返回值
+     */
+    static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() && type != void.class || type == String.class
+                || Number.class.isAssignableFrom(type) || type == Boolean.class;
+    }
+}
@@ -0,0 +1,223 @@
+package com.code2rich.kydb.ddg.replay;
+
+import com.code2rich.kydb.ddg.resilience.RetryPolicy;
+import com.code2rich.kydb.ddg.util.ModelCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 录制的JDBC调用
+ * 以调用键（方法名和参数，或SQL和绑定参数）索引，每个调用的结果是以下三种之一：
+ * 结果集 {columns, types, rows}、标量 {value}、异常 {error, sqlState, errorCode, transient}
+ */
+public class JdbcRecording {
+    // 文件头 "KYRP" 与格式版本
+    private static final int MAGIC = 0x4B595250;
+    private static final int FORMAT_VERSION = 1;
+
+    // 调用键中参数的分隔符和null的占位符，不会出现在标识符和SQL中
+    private static final char SEPARATOR = '\u001F';
+    private static final String NULL = "\u0000";
+
+    private final Map<String, Map<String, Object>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * 调用键：操作名加上按顺序排列的参数，数组参数逐个展开
+     */
+    public static String key(String operation, Object... args) {
+        StringBuilder key = new StringBuilder(operation);
+        if (args != null) {
+            for (Object arg : args) {
+                key.append(SEPARATOR);
+                if (arg instanceof Object[]) {
+                    Object[] items = (Object[]) arg;
+                    key.append('[');
+                    for (int i = 0; i < items.length; i++) {
+                        key.append(i > 0 ? "," : "").append(items[i] == null ? NULL : items[i]);
+                    }
+                    key.append(']');
+                } else {
+                    key.append(arg == null ? NULL : arg);
+                }
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * 调用键的可读形式，用于错误信息
+     */
+    public static String describe(String key) {
+        return key.replace(NULL, "null").replace(String.valueOf(SEPARATOR), " | ");
+    }
+
+    /**
+     * 记录一次调用的结果；已有成功结果时不会被随后的失败覆盖（例如重试前的超时）
+     */
+    public void put(String key, Map<String, Object> entry) {
+        if (entry.containsKey("error")) {
+            calls.putIfAbsent(key, entry);
+        } else {
+            calls.put(key, entry);
+        }
+    }
+
+    public Map<String, Object> get(String key) {
+        return calls.get(key);
+    }
+
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * 读出结果集的全部行，游标停在末尾
+     */
+    public static Map<String, Object> resultSet(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        List<Object> columns = new ArrayList<>(columnCount);
+        List<Object> types = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(metaData.getColumnLabel(i));
+            types.add(metaData.getColumnType(i));
+        }
+        List<Object> rows = new ArrayList<>();
+        while (rs.next()) {
+            List<Object> row = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                row.add(readValue(rs, i));
+            }
+            rows.add(row);
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("columns", columns);
+        entry.put("types", types);
+        entry.put("rows", rows);
+        return entry;
+    }
+
+    public static Map<String, Object> value(Object value) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("value", value);
+        return entry;
+    }
+
+    public static Map<String, Object> error(SQLException e) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("error", e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+        entry.put("sqlState", e.getSQLState());
+        entry.put("errorCode", e.getErrorCode());
+        entry.put("transient", RetryPolicy.isTransient(e));
+        return entry;
+    }
+
+    /**
+     * 还原录制的异常，暂时性错误还原为 SQLTransientException，重放时同样会被重试
+     */
+    static SQLException toException(Map<String, Object> entry) {
+        String message = (String) entry.get("error");
+        String sqlState = (String) entry.get("sqlState");
+        int errorCode = entry.get("errorCode") instanceof Number ? ((Number) entry.get("errorCode")).intValue() : 0;
+        return Boolean.TRUE.equals(entry.get("transient"))
+                ? new SQLTransientException(message, sqlState, errorCode)
+                : new SQLException(message, sqlState, errorCode);
+    }
+
+    // 只保存编码器支持的类型：整数转为Long，小数和其他类型（日期、数组、LOB等）按驱动的字符串形式保存
+    private static Object readValue(ResultSet rs, int index) throws SQLException {
+        Object value = rs.getObject(index);
+        if (value == null || value instanceof String || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+            return ((BigInteger) value).longValue();
+        }
+        if (value instanceof BigDecimal) {
+            BigDecimal decimal = (BigDecimal) value;
+            if (decimal.signum() == 0 || decimal.stripTrailingZeros().scale() <= 0) {
+                try {
+                    return decimal.longValueExact();
+                } catch (ArithmeticException e) {
+                    return decimal.toPlainString();
+                }
+            }
+            return decimal.toPlainString();
+        }
+        return rs.getString(index);
+    }
+
+    /**
+     * 保存录制文件（紧凑二进制编码 + GZIP压缩），按调用键排序，同样的调用得到同样的文件
+     */
+    public void save(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        Map<String, Map<String, Object>> sorted = new TreeMap<>(calls);
+        try (DataOutputStream out = new DataOutputStream(
+                new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(file)), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            ModelCodec.Encoder encoder = new ModelCodec.Encoder(out);
+            encoder.writeListHeader(sorted.size());
+            for (Map.Entry<String, Map<String, Object>> call : sorted.entrySet()) {
+                encoder.write(call.getKey());
+                encoder.write(call.getValue());
+            }
+        }
+    }
+
+    /**
+     * 读取录制文件
+     */
+    @SuppressWarnings("unchecked")
+    public static JdbcRecording load(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new GZIPInputStream(new FileInputStream(file), 64 * 1024)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a valid JDBC recording: " + file);
+            }
+            int version = in.readInt();
+            if (version < 1 || version > FORMAT_VERSION) {
+                throw new IOException("Unsupported recording version " + version + ": " + file);
+            }
+            ModelCodec.Decoder decoder = new ModelCodec.Decoder(in);
+            JdbcRecording recording = new JdbcRecording();
+            int count = decoder.readListHeader();
+            for (int i = 0; i < count; i++) {
+                String key = (String) decoder.read();
+                recording.calls.put(key, (Map<String, Object>) decoder.read());
+            }
+            return recording;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.code2rich.kydb.ddg.replay;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 内存中的只进结果集，数据来自录制的结果 {columns, types, rows}
+ * 录制时把驱动的结果集读完后换成它返回给调用方，保证录制和重放时调用方读到的值完全一致
+ */
+final class MemoryResultSet implements InvocationHandler {
+    private final List<Object> columns;
+    private final List<Object> types;
+    private final List<Object> rows;
+    private final Statement statement;
+    // 列标签（大写）到列号（从1开始）
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    private int cursor = -1;
+    private boolean wasNull;
+    private boolean closed;
+
+    @SuppressWarnings("unchecked")
+    private MemoryResultSet(Map<String, Object> entry, Statement statement) {
+        this.columns = (List<Object>) entry.get("columns");
+        this.types = entry.get("types") != null ? (List<Object>) entry.get("types") : Collections.emptyList();
+        this.rows = (List<Object>) entry.get("rows");
+        this.statement = statement;
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            columnIndex.put(String.valueOf(columns.get(i)).toUpperCase(Locale.ROOT), i + 1);
+        }
+    }
+
+    static ResultSet create(Map<String, Object> entry, Statement statement) {
+        return JdbcProxies.proxy(ResultSet.class, new MemoryResultSet(entry, statement));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        Object common = JdbcProxies.handleCommon(proxy, method, args, "MemoryResultSet");
+        if (common != null) {
+            return common;
+        }
+        switch (name) {
+            case "next":
+                if (cursor < rows.size()) {
+                    cursor++;
+                }
+                return cursor < rows.size();
+            case "close":
+                closed = true;
+                return null;
+            case "isClosed":
+                return closed;
+            case "wasNull":
+                return wasNull;
+            case "getMetaData":
+                return JdbcProxies.proxy(ResultSetMetaData.class, this::invokeMetaData);
+            case "getStatement":
+                return statement;
+            case "findColumn":
+                return findColumn((String) args[0]);
+            case "getRow":
+                return cursor >= 0 && cursor < rows.size() ? cursor + 1 : 0;
+            case "isBeforeFirst":
+                return cursor < 0 && !rows.isEmpty();
+            case "isAfterLast":
+                return cursor >= rows.size() && !rows.isEmpty();
+            case "getType":
+                return ResultSet.TYPE_FORWARD_ONLY;
+            case "getConcurrency":
+                return ResultSet.CONCUR_READ_ONLY;
+            default:
+                break;
+        }
+        if (name.startsWith("get") && args != null && (args.length == 1 || args.length == 2 && args[1] instanceof Class)
+                && (args[0] instanceof Integer || args[0] instanceof String)) {
+            int index = args[0] instanceof Integer ? (Integer) args[0] : findColumn((String) args[0]);
+            Class<?> type = args.length == 2 ? (Class<?>) args[1] : method.getReturnType();
+            return convert(getValue(index), type);
+        }
+        // 抓取大小、警告等设置项
+        return JdbcProxies.defaultValue(method.getReturnType());
+    }
+
+    private Object invokeMetaData(Object proxy, Method method, Object[] args) throws Throwable {
+        Object common = JdbcProxies.handleCommon(proxy, method, args, "MemoryResultSetMetaData");
+        if (common != null) {
+            return common;
+        }
+        switch (method.getName()) {
+            case "getColumnCount":
+                return columns.size();
+            case "getColumnLabel":
+            case "getColumnName":
+                return String.valueOf(columns.get((Integer) args[0] - 1));
+            case "getColumnType": {
+                int index = (Integer) args[0] - 1;
+                return index < types.size() ? ((Number) types.get(index)).intValue() : Types.VARCHAR;
+            }
+            case "isNullable":
+                return ResultSetMetaData.columnNullableUnknown;
+            default:
+                return JdbcProxies.defaultValue(method.getReturnType());
+        }
+    }
+
+    private int findColumn(String label) throws SQLException {
+        Integer index = columnIndex.get(label.toUpperCase(Locale.ROOT));
+        if (index == null) {
+            throw new SQLException("Column not found in recorded result: " + label);
+        }
+        return index;
+    }
+
+    private Object getValue(int index) throws SQLException {
+        if (closed) {
+            throw new SQLException("Result set is closed");
+        }
+        if (cursor < 0 || cursor >= rows.size()) {
+            throw new SQLException("No current row");
+        }
+        List<?> row = (List<?>) rows.get(cursor);
+        if (index < 1 || index > row.size()) {
+            throw new SQLException("Column index out of range: " + index);
+        }
+        Object value = row.get(index - 1);
+        wasNull = value == null;
+        return value;
+    }
+
+    // 按 getter 的返回类型转换，基本类型的 null 与 JDBC 一致地返回 0/false
+    private static Object convert(Object value, Class<?> type) throws SQLException {
+        if (type == Object.class) {
+            return value;
+        }
+        if (value == null) {
+            return JdbcProxies.defaultValue(type);
+        }
+        try {
+            if (type == String.class) {
+                return value.toString();
+            } else if (type == boolean.class || type == Boolean.class) {
+                if (value instanceof Boolean) {
+                    return value;
+                }
+                if (value instanceof Number) {
+                    return ((Number) value).doubleValue() != 0;
+                }
+                String text = value.toString().trim().toLowerCase(Locale.ROOT);
+                return "true".equals(text) || "t".equals(text) || "1".equals(text) || "y".equals(text) || "yes".equals(text);
+            } else if (type == int.class || type == Integer.class) {
+                return toNumber(value).intValue();
+            } else if (type == long.class || type == Long.class) {
+                return toNumber(value).longValue();
+            } else if (type == short.class || type == Short.class) {
+                return toNumber(value).shortValue();
+            } else if (type == byte.class || type == Byte.class) {
+                return toNumber(value).byteValue();
+            } else if (type == double.class || type == Double.class) {
+                return toNumber(value).doubleValue();
+            } else if (type == float.class || type == Float.class) {
+                return toNumber(value).floatValue();
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(value.toString().trim());
+            } else if (type == Timestamp.class) {
+                return Timestamp.valueOf(value.toString().trim());
+            } else if (type == Date.class) {
+                return Date.valueOf(value.toString().trim());
+            } else if (type == Time.class) {
+                return Time.valueOf(value.toString().trim());
+            } else if (type == Reader.class) {
+                // 视图定义、源码等长文本以流的方式读取
+                return new StringReader(value.toString());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new SQLException("Cannot convert recorded value '" + value + "' to " + type.getSimpleName(), e);
+        }
+        throw new SQLFeatureNotSupportedException("Recorded results cannot be read as " + type.getSimpleName());
+    }
+
+    private static Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+}
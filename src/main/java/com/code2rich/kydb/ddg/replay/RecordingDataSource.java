@@ -0,0 +1,236 @@
+package com.code2rich.kydb.ddg.replay;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+/**
+ * 录制数据源
+ * 包装真实的数据源，把 DatabaseMetaData 的调用、目录查询及其结果集（或异常）记录到 JdbcRecording，
+ * 之后可以用 ReplayDriver 在没有数据库的情况下重放。
+ * 结果集在返回前被完整读出并换成内存结果集，调用方读到的值与重放时完全一致
+ */
+public class RecordingDataSource implements DataSource {
+    private final DataSource delegate;
+    private final JdbcRecording recording;
+
+    public RecordingDataSource(DataSource delegate, JdbcRecording recording) {
+        this.delegate = delegate;
+        this.recording = recording;
+    }
+
+    public JdbcRecording getRecording() {
+        return recording;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(delegate.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(delegate.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return JdbcProxies.proxy(Connection.class, new ConnectionHandler(connection));
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return delegate.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || delegate.isWrapperFor(iface);
+    }
+
+    // 执行调用并记录结果集或异常
+    private ResultSet record(String key, Object target, Method method, Object[] args, Statement statement) throws Throwable {
+        ResultSet rs;
+        try {
+            rs = (ResultSet) JdbcProxies.invoke(target, method, args);
+        } catch (SQLException e) {
+            recording.put(key, JdbcRecording.error(e));
+            throw e;
+        }
+        if (rs == null) {
+            return null;
+        }
+        Map<String, Object> entry;
+        try {
+            entry = JdbcRecording.resultSet(rs);
+        } catch (SQLException e) {
+            recording.put(key, JdbcRecording.error(e));
+            throw e;
+        } finally {
+            rs.close();
+        }
+        recording.put(key, entry);
+        return MemoryResultSet.create(entry, statement);
+    }
+
+    private Object recordScalar(String key, Object target, Method method, Object[] args) throws Throwable {
+        Object value = JdbcProxies.invoke(target, method, args);
+        recording.put(key, JdbcRecording.value(value));
+        return value;
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final Connection connection;
+        private DatabaseMetaData metaData;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getMetaData":
+                    if (metaData == null) {
+                        metaData = JdbcProxies.proxy(DatabaseMetaData.class,
+                                new MetaDataHandler(connection.getMetaData(), (Connection) proxy));
+                    }
+                    return metaData;
+                case "prepareStatement":
+                    return JdbcProxies.proxy(PreparedStatement.class, new StatementHandler(
+                            (Statement) JdbcProxies.invoke(connection, method, args), (Connection) proxy, (String) args[0]));
+                case "createStatement":
+                    return JdbcProxies.proxy(Statement.class, new StatementHandler(
+                            (Statement) JdbcProxies.invoke(connection, method, args), (Connection) proxy, null));
+                case "getCatalog":
+                case "getSchema":
+                    return recordScalar(JdbcRecording.key("connection." + method.getName()), connection, method, args);
+                case "unwrap":
+                case "isWrapperFor":
+                case "toString":
+                case "hashCode":
+                case "equals":
+                    return JdbcProxies.handleCommon(proxy, method, args, "RecordingConnection[" + connection + "]");
+                default:
+                    return JdbcProxies.invoke(connection, method, args);
+            }
+        }
+    }
+
+    private class MetaDataHandler implements InvocationHandler {
+        private final DatabaseMetaData metaData;
+        private final Connection connection;
+
+        MetaDataHandler(DatabaseMetaData metaData, Connection connection) {
+            this.metaData = metaData;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object common = JdbcProxies.handleCommon(proxy, method, args, "RecordingDatabaseMetaData");
+            if (common != null) {
+                return common;
+            }
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+            String key = JdbcRecording.key("metadata." + method.getName(), args);
+            if (method.getReturnType() == ResultSet.class) {
+                return record(key, metaData, method, args, null);
+            }
+            if (JdbcProxies.isScalar(method.getReturnType())) {
+                return recordScalar(key, metaData, method, args);
+            }
+            return JdbcProxies.invoke(metaData, method, args);
+        }
+    }
+
+    private class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final Connection connection;
+        private final String sql;
+        // 绑定参数，按参数序号排列
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        StatementHandler(Statement statement, Connection connection, String sql) {
+            this.statement = statement;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object common = JdbcProxies.handleCommon(proxy, method, args, "RecordingStatement[" + sql + "]");
+            if (common != null) {
+                return common;
+            }
+            String name = method.getName();
+            if ("getConnection".equals(name)) {
+                return connection;
+            }
+            if ("executeQuery".equals(name)) {
+                String key = args == null || args.length == 0
+                        ? queryKey(sql, parameters)
+                        : queryKey((String) args[0], parameters);
+                return record(key, statement, method, args, (Statement) proxy);
+            }
+            if (isParameterSetter(method, args)) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameters.clear();
+            }
+            return JdbcProxies.invoke(statement, method, args);
+        }
+    }
+
+    /**
+     * 查询的调用键：SQL 加上按序号排列的绑定参数
+     */
+    static String queryKey(String sql, Map<Integer, Object> parameters) {
+        return JdbcRecording.key("query", sql, parameters.values().toArray());
+    }
+
+    /**
+     * setString(1, x)、setInt(2, y)、setNull(3, type) 等绑定参数的方法；
+     * setFetchSize(n)、setQueryTimeout(n) 等只有一个参数，不算在内
+     */
+    static boolean isParameterSetter(Method method, Object[] args) {
+        return method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer;
+    }
+}
@@ -0,0 +1,344 @@
+package com.code2rich.kydb.ddg.replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * 重放录制文件的JDBC驱动，不连接任何数据库
+ * URL 格式：jdbc:kydb-replay:&lt;录制文件&gt;[?latency=毫秒&amp;jitter=毫秒&amp;concurrency=N]
+ * <ul>
+ *     <li>latency：每次元数据调用、目录查询的固定延迟，模拟广域网往返</li>
+ *     <li>jitter：在 [-jitter, +jitter] 内均匀随机的附加延迟</li>
+ *     <li>concurrency：同时处理的调用数上限，超出的调用排队，模拟过载的数据库；0表示不限制</li>
+ * </ul>
+ * 这些参数也可以作为驱动属性传入（--jdbc-property latency=50），URL 中的值优先。
+ * 没有录制过的调用抛出 SQLException，与真实数据库上的失败一样被记录为抽取错误
+ */
+public class ReplayDriver implements Driver {
+    public static final String URL_PREFIX = "jdbc:kydb-replay:";
+
+    // 同一个录制文件只读取一次，连接池中的连接共享
+    private static final Map<String, JdbcRecording> RECORDINGS = new ConcurrentHashMap<>();
+
+    static {
+        try {
+            DriverManager.registerDriver(new ReplayDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String path = url.substring(URL_PREFIX.length());
+        Properties settings = new Properties();
+        if (info != null) {
+            settings.putAll(info);
+        }
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            for (String pair : path.substring(query + 1).split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    settings.setProperty(pair.substring(0, equals).trim(), pair.substring(equals + 1).trim());
+                }
+            }
+            path = path.substring(0, query);
+        }
+        File file = new File(path);
+        JdbcRecording recording = RECORDINGS.get(file.getAbsolutePath());
+        if (recording == null) {
+            try {
+                recording = JdbcRecording.load(file);
+            } catch (IOException e) {
+                throw new SQLException("Could not load JDBC recording " + file + ": " + e.getMessage(), "08001", e);
+            }
+            JdbcRecording previous = RECORDINGS.putIfAbsent(file.getAbsolutePath(), recording);
+            recording = previous != null ? previous : recording;
+        }
+        Latency latency = Latency.of(url, settings);
+        return JdbcProxies.proxy(Connection.class, new ConnectionHandler(recording, latency, url));
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        DriverPropertyInfo latency = new DriverPropertyInfo("latency", "0");
+        latency.description = "Fixed delay per metadata call or catalog query, in milliseconds";
+        DriverPropertyInfo jitter = new DriverPropertyInfo("jitter", "0");
+        jitter.description = "Uniform random delay added or subtracted per call, in milliseconds";
+        DriverPropertyInfo concurrency = new DriverPropertyInfo("concurrency", "0");
+        concurrency.description = "Maximum calls served at the same time, 0 for unlimited";
+        return new DriverPropertyInfo[] { latency, jitter, concurrency };
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * 注入的延迟，同一URL的连接共享并发上限
+     */
+    static final class Latency {
+        private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+
+        private final long latencyMillis;
+        private final long jitterMillis;
+        private final Semaphore permits;
+
+        private Latency(long latencyMillis, long jitterMillis, Semaphore permits) {
+            this.latencyMillis = latencyMillis;
+            this.jitterMillis = jitterMillis;
+            this.permits = permits;
+        }
+
+        static Latency of(String url, Properties settings) throws SQLException {
+            long latency = parse(settings, "latency");
+            long jitter = parse(settings, "jitter");
+            long concurrency = parse(settings, "concurrency");
+            Semaphore permits = concurrency > 0
+                    ? PERMITS.computeIfAbsent(url, key -> new Semaphore((int) concurrency, true))
+                    : null;
+            return new Latency(latency, jitter, permits);
+        }
+
+        private static long parse(Properties settings, String name) throws SQLException {
+            String value = settings.getProperty(name);
+            if (value == null || value.isEmpty()) {
+                return 0;
+            }
+            try {
+                return Math.max(0, Long.parseLong(value));
+            } catch (NumberFormatException e) {
+                throw new SQLException("Invalid replay setting " + name + "=" + value);
+            }
+        }
+
+        /**
+         * 模拟一次往返：排队等待并发许可，然后等待 latency ± jitter
+         */
+        void pause() throws SQLException {
+            if (latencyMillis == 0 && jitterMillis == 0 && permits == null) {
+                return;
+            }
+            long delay = latencyMillis;
+            if (jitterMillis > 0) {
+                delay += ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1);
+            }
+            try {
+                if (permits != null) {
+                    permits.acquire();
+                }
+                try {
+                    if (delay > 0) {
+                        Thread.sleep(delay);
+                    }
+                } finally {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while replaying", "57014", e);
+            }
+        }
+    }
+
+    // 按调用键取出录制的结果，并还原为结果集、标量或异常
+    private static Object replay(JdbcRecording recording, String key, Class<?> returnType, Statement statement) throws SQLException {
+        Map<String, Object> entry = recording.get(key);
+        if (entry == null) {
+            throw new SQLException("Call was not recorded: " + JdbcRecording.describe(key));
+        }
+        if (entry.containsKey("error")) {
+            throw JdbcRecording.toException(entry);
+        }
+        if (returnType == ResultSet.class) {
+            return MemoryResultSet.create(entry, statement);
+        }
+        Object value = entry.get("value");
+        return value == null ? JdbcProxies.defaultValue(returnType) : value;
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+        private final JdbcRecording recording;
+        private final Latency latency;
+        private final String url;
+        private DatabaseMetaData metaData;
+        private boolean closed;
+
+        ConnectionHandler(JdbcRecording recording, Latency latency, String url) {
+            this.recording = recording;
+            this.latency = latency;
+            this.url = url;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object common = JdbcProxies.handleCommon(proxy, method, args, "ReplayConnection[" + url + "]");
+            if (common != null) {
+                return common;
+            }
+            switch (method.getName()) {
+                case "getMetaData":
+                    if (metaData == null) {
+                        metaData = JdbcProxies.proxy(DatabaseMetaData.class, new MetaDataHandler(recording, latency, (Connection) proxy));
+                    }
+                    return metaData;
+                case "prepareStatement":
+                    return JdbcProxies.proxy(PreparedStatement.class,
+                            new StatementHandler(recording, latency, (Connection) proxy, (String) args[0]));
+                case "createStatement":
+                    return JdbcProxies.proxy(Statement.class, new StatementHandler(recording, latency, (Connection) proxy, null));
+                case "getCatalog":
+                case "getSchema": {
+                    Map<String, Object> entry = recording.get(JdbcRecording.key("connection." + method.getName()));
+                    return entry != null ? entry.get("value") : null;
+                }
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "getAutoCommit":
+                    return true;
+                default:
+                    // 只读会话的设置项、事务控制等在重放时没有意义
+                    return JdbcProxies.defaultValue(method.getReturnType());
+            }
+        }
+    }
+
+    private static class MetaDataHandler implements InvocationHandler {
+        private final JdbcRecording recording;
+        private final Latency latency;
+        private final Connection connection;
+
+        MetaDataHandler(JdbcRecording recording, Latency latency, Connection connection) {
+            this.recording = recording;
+            this.latency = latency;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object common = JdbcProxies.handleCommon(proxy, method, args, "ReplayDatabaseMetaData");
+            if (common != null) {
+                return common;
+            }
+            if ("getConnection".equals(method.getName())) {
+                return connection;
+            }
+            String key = JdbcRecording.key("metadata." + method.getName(), args);
+            if (method.getReturnType() == ResultSet.class) {
+                // 只有返回结果集的调用需要访问数据库，产品名称等标量由驱动在本地返回
+                latency.pause();
+                return replay(recording, key, ResultSet.class, null);
+            }
+            if (JdbcProxies.isScalar(method.getReturnType())) {
+                return replay(recording, key, method.getReturnType(), null);
+            }
+            throw new SQLFeatureNotSupportedException("Not supported in replay: DatabaseMetaData." + method.getName());
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final JdbcRecording recording;
+        private final Latency latency;
+        private final Connection connection;
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+        private boolean closed;
+
+        StatementHandler(JdbcRecording recording, Latency latency, Connection connection, String sql) {
+            this.recording = recording;
+            this.latency = latency;
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object common = JdbcProxies.handleCommon(proxy, method, args, "ReplayStatement[" + sql + "]");
+            if (common != null) {
+                return common;
+            }
+            String name = method.getName();
+            switch (name) {
+                case "executeQuery": {
+                    String query = args == null || args.length == 0 ? sql : (String) args[0];
+                    latency.pause();
+                    return replay(recording, RecordingDataSource.queryKey(query, parameters), ResultSet.class, (Statement) proxy);
+                }
+                case "execute":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    throw new SQLFeatureNotSupportedException("Replay only serves recorded queries");
+                case "getConnection":
+                    return connection;
+                case "clearParameters":
+                    parameters.clear();
+                    return null;
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                default:
+                    break;
+            }
+            if (RecordingDataSource.isParameterSetter(method, args)) {
+                parameters.put((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+            }
+            // 超时、抓取大小等设置项
+            return JdbcProxies.defaultValue(method.getReturnType());
+        }
+    }
+}
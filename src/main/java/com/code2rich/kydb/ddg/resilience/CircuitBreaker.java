@@ -0,0 +1,134 @@
+package com.code2rich.kydb.ddg.resilience;
+
+/**
+ * 熔断器
+ * 连续失败达到阈值后断开，冷却期内不再访问数据库；冷却结束后放行一次试探调用，
+ * 成功则恢复，失败则再次断开并把冷却时间加倍。
+ * 抽取是批量任务，断开期间调用方等待冷却结束而不是直接失败，
+ * 连续断开次数超过上限时才放弃（服务器可能已经不可用）
+ */
+public class CircuitBreaker {
+    // 冷却时间上限
+    private static final long MAX_COOLDOWN_MILLIS = 5 * 60_000;
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int threshold;
+    private final long baseCooldownMillis;
+    private final int maxTrips;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    // 自上次成功以来的断开次数
+    private int trips;
+    private long cooldownMillis;
+    private long openedAt;
+    // 半开状态下是否已有试探调用在执行
+    private boolean probing;
+
+    /**
+     * @param threshold 连续失败多少次后断开
+     * @param cooldownMillis 第一次断开的冷却时间
+     * @param maxTrips 连续断开多少次后放弃
+     */
+    public CircuitBreaker(int threshold, long cooldownMillis, int maxTrips) {
+        this.threshold = Math.max(1, threshold);
+        this.baseCooldownMillis = Math.max(0, cooldownMillis);
+        this.cooldownMillis = this.baseCooldownMillis;
+        this.maxTrips = Math.max(1, maxTrips);
+    }
+
+    /**
+     * 等待直到允许调用
+     * @return 是否取得了半开状态的试探许可，未能执行调用时需要通过 {@link #release(boolean)} 归还
+     * @throws CircuitOpenException 连续断开次数超过上限
+     */
+    public boolean acquire() throws InterruptedException, CircuitOpenException {
+        while (true) {
+            long waitMillis;
+            synchronized (this) {
+                if (trips >= maxTrips) {
+                    throw new CircuitOpenException("Circuit breaker opened " + trips + " times in a row, giving up");
+                }
+                if (state == State.CLOSED) {
+                    return false;
+                }
+                long elapsed = System.currentTimeMillis() - openedAt;
+                if (state == State.OPEN && elapsed >= cooldownMillis) {
+                    state = State.HALF_OPEN;
+                }
+                if (state == State.HALF_OPEN && !probing) {
+                    probing = true;
+                    return true;
+                }
+                // 冷却中，或试探调用尚未结束
+                waitMillis = state == State.OPEN ? cooldownMillis - elapsed : 100;
+            }
+            Thread.sleep(Math.max(1, waitMillis));
+        }
+    }
+
+    /**
+     * 取得许可后没有执行调用（例如等待负载控制时被中断），不记录结果，只归还试探许可，
+     * 否则熔断器会一直停在半开状态，其它调用方永远等待
+     * @param probe {@link #acquire()} 的返回值
+     */
+    public synchronized void release(boolean probe) {
+        if (probe && state == State.HALF_OPEN) {
+            probing = false;
+        }
+    }
+
+    /**
+     * 数据库正常响应，包括返回了表本身的错误（对象无效、权限不足等）
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trips = 0;
+        probing = false;
+        cooldownMillis = baseCooldownMillis;
+    }
+
+    /**
+     * 记录一次暂时性失败（与表本身无关的错误，例如连接中断、超时）
+     * @return 是否因此断开
+     */
+    public synchronized boolean onFailure() {
+        if (state == State.HALF_OPEN) {
+            probing = false;
+            cooldownMillis = Math.min(MAX_COOLDOWN_MILLIS, Math.max(1, cooldownMillis) * 2);
+            open();
+            return true;
+        }
+        if (state == State.CLOSED && ++consecutiveFailures >= threshold) {
+            open();
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        consecutiveFailures = 0;
+        trips++;
+    }
+
+    /**
+     * 熔断器连续断开次数超过上限
+     */
+    public static class CircuitOpenException extends Exception {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.code2rich.kydb.ddg.resilience;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 元数据查询的负载控制
+ * - 并发上限按 AIMD 调整：从1开始，每个统计窗口的 p95 延迟明显低于目标且并发已用满时加1，
+ *   超过目标时减半；暂时性错误（超时、连接中断）按超过目标的样本计入，出错多时同样减半
+ * - 可选的令牌桶限制每秒查询数，与并发上限同时生效
+ * 目标延迟为0时不做自适应，并发固定为上限
+ */
+public class LoadGovernor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadGovernor.class);
+
+    // 每个统计窗口的样本数，窗口满后按 p95 调整一次
+    private static final int WINDOW_SIZE = 32;
+    // p95 低于目标延迟的这个比例时认为服务器空闲
+    private static final double IDLE_RATIO = 0.5;
+
+    private final int maxConcurrency;
+    private final long targetLatencyNanos;
+    private final TokenBucket rateLimiter;
+    private final long[] samples = new long[WINDOW_SIZE];
+    private int sampleCount;
+    private int limit;
+    private int inFlight;
+    // 当前窗口内的最大并发，并发没用满时不再加大上限
+    private int peakInFlight;
+
+    /**
+     * @param maxConcurrency 并发上限
+     * @param maxQueriesPerSecond 每秒最多的查询数，0表示不限制
+     * @param targetLatencyMillis p95 目标延迟（毫秒），0表示不做自适应
+     */
+    public LoadGovernor(int maxConcurrency, double maxQueriesPerSecond, long targetLatencyMillis) {
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, targetLatencyMillis));
+        this.rateLimiter = maxQueriesPerSecond > 0 ? new TokenBucket(maxQueriesPerSecond) : null;
+        this.limit = targetLatencyNanos > 0 ? 1 : this.maxConcurrency;
+    }
+
+    /**
+     * 不限速、不限并发
+     */
+    public static LoadGovernor unlimited() {
+        return new LoadGovernor(Integer.MAX_VALUE, 0, 0);
+    }
+
+    /**
+     * 等待并发名额和令牌，完成后必须调用 {@link #release}
+     * @param queries 本次调用包含的查询数，按此消耗令牌
+     */
+    public void acquire(int queries) throws InterruptedException {
+        synchronized (this) {
+            while (inFlight >= limit) {
+                wait();
+            }
+            inFlight++;
+            peakInFlight = Math.max(peakInFlight, inFlight);
+        }
+        if (rateLimiter != null) {
+            try {
+                rateLimiter.acquire(queries);
+            } catch (InterruptedException e) {
+                synchronized (this) {
+                    inFlight--;
+                    notifyAll();
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 归还并发名额并记录延迟
+     * @param latencyNanos 本次调用的耗时
+     * @param overloaded 是否因超时、连接中断等暂时性错误失败
+     */
+    public synchronized void release(long latencyNanos, boolean overloaded) {
+        inFlight--;
+        if (targetLatencyNanos > 0) {
+            samples[sampleCount++] = overloaded ? Math.max(latencyNanos, targetLatencyNanos * 2) : latencyNanos;
+            if (sampleCount == WINDOW_SIZE) {
+                adjust();
+            }
+        }
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    private void adjust() {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        long p95 = sorted[(int) Math.ceil(WINDOW_SIZE * 0.95) - 1];
+        if (p95 > targetLatencyNanos && limit > 1) {
+            limit = Math.max(1, limit / 2);
+            LOGGER.info("Metadata query p95 latency {} ms is above target {} ms, reducing concurrency to {}",
+                    TimeUnit.NANOSECONDS.toMillis(p95), TimeUnit.NANOSECONDS.toMillis(targetLatencyNanos), limit);
+        } else if (p95 < targetLatencyNanos * IDLE_RATIO && limit < maxConcurrency && peakInFlight >= limit) {
+            limit++;
+            LOGGER.debug("Metadata query p95 latency {} ms, increasing concurrency to {}",
+                    TimeUnit.NANOSECONDS.toMillis(p95), limit);
+        }
+        sampleCount = 0;
+        peakInFlight = inFlight;
+    }
+}
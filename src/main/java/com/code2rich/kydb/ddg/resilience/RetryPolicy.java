@@ -0,0 +1,77 @@
+package com.code2rich.kydb.ddg.resilience;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 重试策略：只重试暂时性错误，等待时间指数增长并加全量随机抖动，
+ * 避免多个失败的调用在同一时刻一起重试
+ */
+public class RetryPolicy {
+    // 单次等待的上限
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+
+    /**
+     * @param retries 失败后的重试次数
+     * @param baseBackoffMillis 第一次重试前的平均等待时间
+     */
+    public RetryPolicy(int retries, long baseBackoffMillis) {
+        this.maxAttempts = Math.max(1, retries + 1);
+        this.baseBackoffMillis = Math.max(0, baseBackoffMillis);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * 第 attempt 次失败后的等待时间：在 [0, base * 2^(attempt-1)] 内均匀随机
+     */
+    public long backoffMillis(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, baseBackoffMillis << Math.min(20, attempt - 1));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * 是否为值得重试的暂时性错误：连接中断、超时、死锁/锁等待、序列化失败等。
+     * 语法错误、对象无效、权限不足等重试也不会成功，直接记录为失败
+     */
+    public static boolean isTransient(SQLException e) {
+        for (SQLException error = e; error != null; error = error.getNextException()) {
+            if (error instanceof SQLTransientException || error instanceof SQLRecoverableException
+                    || error instanceof SQLTimeoutException) {
+                return true;
+            }
+            String sqlState = error.getSQLState();
+            // 08: 连接异常；40: 事务回滚（死锁、序列化失败）；57: PostgreSQL/DB2 的资源不可用、查询取消；HYT: ODBC超时
+            if (sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("40")
+                    || sqlState.startsWith("57") || sqlState.startsWith("HYT"))) {
+                return true;
+            }
+            if (isLockError(error.getErrorCode(), error.getMessage())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 各数据库锁等待/资源忙的错误码，这些错误没有统一的SQLState
+    private static boolean isLockError(int errorCode, String message) {
+        switch (errorCode) {
+            case 1205: // MySQL: Lock wait timeout exceeded；SQL Server: 死锁牺牲
+            case 1213: // MySQL: Deadlock found
+            case 54:   // Oracle ORA-00054: resource busy
+            case 4021: // Oracle ORA-04021: timeout waiting to lock object
+            case 1222: // SQL Server: Lock request time out period exceeded
+                return true;
+            default:
+                return message != null && message.contains("ORA-04021");
+        }
+    }
+}
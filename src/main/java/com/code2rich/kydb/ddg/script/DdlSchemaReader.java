@@ -0,0 +1,1140 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.metadata.ModelStoreOptions;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.metadata.TableFailure;
+import com.code2rich.kydb.ddg.script.SqlStatementSplitter.SqlStatement;
+import com.code2rich.kydb.ddg.script.SqlTokenizer.Kind;
+import com.code2rich.kydb.ddg.script.SqlTokenizer.Token;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 从DDL脚本读取表结构，不连接数据库
+ * 脚本按语句流式读取，mysqldump --no-data、pg_dump -s 等导出的数GB脚本也只读一遍。解析的语句：
+ * - CREATE TABLE：列、类型、长度、非空、默认值、主键，MySQL 的列注释和表注释
+ * - COMMENT ON TABLE/COLUMN，SQL Server 的 sp_addextendedproperty（MS_Description）
+ * - ALTER TABLE：增删改列、重命名、主键约束、SQL Server 的默认值约束
+ * - DROP TABLE
+ * 视图、函数、索引、授权等其他语句只拆分不解析。注释和主键常在建表语句之后出现（pg_dump 把主键约束放在脚本末尾），
+ * 所以表模型保留到读完所有脚本，占用的内存与表和列的数量有关，与脚本大小无关。
+ * 表按 schema 和表名区分，没有限定名的表属于当前 schema（MySQL 的 USE、PostgreSQL 的 SET search_path），
+ * 未指定时为方言的默认 schema（public、dbo）。脚本中有多个 schema 时文档中的表名带上 schema 前缀。
+ * 无法解析的语句记为抽取失败，不中断读取
+ */
+public class DdlSchemaReader {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DdlSchemaReader.class);
+
+    // 探测方言时读取的字符数
+    private static final int DETECT_CHARS = 64 * 1024;
+    private static final Pattern GO_LINE = Pattern.compile("(?im)^\\s*GO\\s*$");
+
+    // 列定义中类型之后的关键字，类型名和默认值表达式到此为止
+    private static final Set<String> COLUMN_KEYWORDS = new HashSet<>(Arrays.asList(
+            "NOT", "NULL", "DEFAULT", "PRIMARY", "KEY", "UNIQUE", "REFERENCES", "CHECK", "CONSTRAINT", "COMMENT",
+            "AUTO_INCREMENT", "AUTOINCREMENT", "IDENTITY", "GENERATED", "COLLATE", "CHARSET", "ON", "AS",
+            "ENCODE", "STORAGE", "COMPRESSION", "ENABLE", "DISABLE", "SPARSE", "ROWGUIDCOL", "FILESTREAM",
+            "MASKED", "VISIBLE", "INVISIBLE", "SRID", "COLUMN_FORMAT", "ENCRYPT", "DEFERRABLE", "INITIALLY",
+            "VALIDATE", "NOVALIDATE", "USING", "FIRST", "AFTER", "PERSISTED"));
+    // ALTER TABLE ... DROP 之后不是列名的关键字
+    private static final Set<String> DROP_TARGETS = new HashSet<>(Arrays.asList(
+            "CONSTRAINT", "INDEX", "KEY", "FOREIGN", "CHECK", "PARTITION", "DEFAULT", "UNIQUE", "PERIOD", "SYSTEM"));
+    // 类型名到 java.sql.Types，先按完整类型名查找，再按第一个词查找
+    private static final Map<String, Integer> JDBC_TYPES = new HashMap<>();
+
+    static {
+        register(Types.VARCHAR, "VARCHAR", "VARCHAR2", "CHARACTER VARYING", "CHAR VARYING", "STRING");
+        register(Types.NVARCHAR, "NVARCHAR", "NVARCHAR2", "NATIONAL CHARACTER VARYING");
+        register(Types.CHAR, "CHAR", "CHARACTER", "BPCHAR");
+        register(Types.NCHAR, "NCHAR", "NATIONAL");
+        register(Types.LONGVARCHAR, "TEXT", "TINYTEXT", "MEDIUMTEXT", "LONGTEXT", "NTEXT", "LONG");
+        register(Types.CLOB, "CLOB");
+        register(Types.NCLOB, "NCLOB");
+        register(Types.INTEGER, "INT", "INTEGER", "INT4", "MEDIUMINT", "SERIAL", "SERIAL4");
+        register(Types.BIGINT, "BIGINT", "INT8", "BIGSERIAL", "SERIAL8");
+        register(Types.SMALLINT, "SMALLINT", "INT2", "SMALLSERIAL", "SERIAL2");
+        register(Types.TINYINT, "TINYINT");
+        register(Types.DECIMAL, "DECIMAL", "DEC", "MONEY", "SMALLMONEY");
+        register(Types.NUMERIC, "NUMERIC", "NUMBER");
+        register(Types.FLOAT, "FLOAT");
+        register(Types.REAL, "REAL", "FLOAT4", "BINARY_FLOAT");
+        register(Types.DOUBLE, "DOUBLE", "FLOAT8", "DOUBLE PRECISION", "BINARY_DOUBLE");
+        register(Types.BOOLEAN, "BOOLEAN", "BOOL");
+        register(Types.BIT, "BIT");
+        register(Types.DATE, "DATE");
+        register(Types.TIME, "TIME");
+        register(Types.TIMESTAMP, "TIMESTAMP", "DATETIME", "DATETIME2", "SMALLDATETIME");
+        register(Types.TIMESTAMP_WITH_TIMEZONE, "TIMESTAMPTZ", "TIMESTAMP WITH TIME ZONE", "DATETIMEOFFSET",
+                "TIMESTAMP WITH LOCAL TIME ZONE");
+        register(Types.BINARY, "BINARY", "BYTEA");
+        register(Types.VARBINARY, "VARBINARY", "RAW");
+        register(Types.LONGVARBINARY, "TINYBLOB", "MEDIUMBLOB", "LONGBLOB", "IMAGE", "LONG RAW");
+        register(Types.BLOB, "BLOB");
+        register(Types.SQLXML, "XML", "XMLTYPE");
+    }
+
+    private final DatabaseDialect dialect;
+    private final String schema;
+    private final boolean keepDdl;
+    // 小写的 schema 和表名到表，表名在脚本中的大小写可能不一致
+    private final Map<String, ParsedTable> tables = new HashMap<>();
+    // 出现过的 schema（小写）
+    private final Set<String> schemas = new HashSet<>();
+    // USE、SET search_path 设置的当前 schema
+    private String currentSchema;
+    private final List<TableFailure> failures = new ArrayList<>();
+    // 去重后的类型名和默认值
+    private final Map<String, String> values = new HashMap<>();
+    private long statementCount;
+
+    /**
+     * @param dialect 脚本的方言，决定标识符引号、字符串转义和语句分隔方式
+     * @param schema 只读取该schema（MySQL 为库名）的表，为空时读取全部；没有限定名、也没有设置当前schema的表总是读取
+     * @param keepDdl 是否把表的建表语句及之后修改它的语句保存为表的 ddl
+     */
+    public DdlSchemaReader(DatabaseDialect dialect, String schema, boolean keepDdl) {
+        this.dialect = dialect;
+        this.schema = schema;
+        this.keepDdl = keepDdl;
+    }
+
+    /**
+     * 根据脚本开头的内容判断方言
+     * 识别 mysqldump、pg_dump 的文件头，反引号、:: 类型转换、GO 批分隔符、VARCHAR2 等特征，无法判断时返回 UNKNOWN
+     */
+    public static DatabaseDialect detectDialect(File file, Charset charset) throws IOException {
+        char[] buffer = new char[DETECT_CHARS];
+        int length = 0;
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), charset)) {
+            int read;
+            while (length < buffer.length && (read = reader.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+        }
+        String head = new String(buffer, 0, length);
+        String upper = head.toUpperCase(Locale.ROOT);
+        if (upper.contains("MARIADB DUMP")) {
+            return DatabaseDialect.MARIADB;
+        }
+        if (upper.contains("MYSQL DUMP") || head.indexOf('`') >= 0 || upper.contains("ENGINE=")) {
+            return DatabaseDialect.MYSQL;
+        }
+        if (upper.contains("POSTGRESQL DATABASE DUMP") || upper.contains("SEARCH_PATH") || head.contains("::")
+                || upper.contains(" OWNER TO ")) {
+            return DatabaseDialect.POSTGRESQL;
+        }
+        if (GO_LINE.matcher(head).find() || upper.contains("[DBO]") || upper.contains("SP_ADDEXTENDEDPROPERTY")) {
+            return DatabaseDialect.SQLSERVER;
+        }
+        if (upper.contains("VARCHAR2") || upper.contains("NUMBER(")) {
+            return DatabaseDialect.ORACLE;
+        }
+        return DatabaseDialect.UNKNOWN;
+    }
+
+    /**
+     * 读取一个脚本文件，多个文件按顺序读取，后读的语句可以修改先读的表
+     */
+    public void read(File file, Charset charset) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), charset), 1024 * 1024)) {
+            read(reader, file.getName());
+        }
+    }
+
+    /**
+     * 读取一个脚本
+     * @param reader 脚本内容
+     * @param source 脚本名称，用于日志和失败记录
+     */
+    public void read(BufferedReader reader, String source) throws IOException {
+        SqlStatementSplitter splitter = new SqlStatementSplitter(reader, dialect);
+        long start = statementCount;
+        SqlStatement statement;
+        while ((statement = splitter.next()) != null) {
+            statementCount++;
+            try {
+                apply(statement);
+            } catch (RuntimeException e) {
+                String location = source + ":" + statement.getLine();
+                LOGGER.warn("Could not parse statement at {}: {}", location, e.getMessage());
+                failures.add(new TableFailure(location, e.getMessage(), null, 0, 1));
+            }
+        }
+        LOGGER.info("Read {} statements from {}, {} tables so far", statementCount - start, source, tables.size());
+    }
+
+    /**
+     * 已读取的表数
+     */
+    public int getTableCount() {
+        return tables.size();
+    }
+
+    /**
+     * 把读取的表按表名排序后生成快照，之后读取器不再持有这些表
+     * 表属于多个 schema 时表名为 schema.表名，避免不同 schema 的同名表在文档中无法区分
+     * @param dbName 文档中的数据库名称
+     * @param storeOptions 表模型的存储方式，超过堆内上限的表溢出到磁盘
+     */
+    public SchemaSnapshot toSnapshot(String dbName, ModelStoreOptions storeOptions) {
+        List<ParsedTable> sorted = new ArrayList<>(tables.values());
+        tables.clear();
+        Set<String> tableSchemas = new HashSet<>();
+        for (ParsedTable table : sorted) {
+            tableSchemas.add(schemaKey(table.schema));
+        }
+        boolean qualify = tableSchemas.size() > 1;
+        sorted.sort((a, b) -> String.CASE_INSENSITIVE_ORDER.compare(a.displayName(qualify), b.displayName(qualify)));
+        List<Map<String, Object>> models = storeOptions.newTableList();
+        for (int i = 0; i < sorted.size(); i++) {
+            models.add(sorted.get(i).toModel(qualify));
+            sorted.set(i, null);
+        }
+        return new SchemaSnapshot(productName(dialect), dbName, models, null, new ArrayList<>(failures));
+    }
+
+    private void apply(SqlStatement statement) {
+        List<String> words = statement.leadingWords(4);
+        String sql = statement.getSql();
+        // USE `db` 只有一个关键字
+        if (!words.isEmpty() && "USE".equals(words.get(0)) && dialect.isMySqlFamily()) {
+            Cursor cursor = new Cursor(sql, dialect);
+            cursor.next();
+            currentSchema = identifier(cursor.next());
+            return;
+        }
+        if (words.size() < 2) {
+            return;
+        }
+        switch (words.get(0)) {
+            case "CREATE":
+                if (words.contains("TABLE")) {
+                    createTable(new Cursor(sql, dialect));
+                }
+                break;
+            case "ALTER":
+                if ("TABLE".equals(words.get(1))) {
+                    alterTable(new Cursor(sql, dialect));
+                }
+                break;
+            case "COMMENT":
+                if ("ON".equals(words.get(1))) {
+                    commentOn(new Cursor(sql, dialect));
+                }
+                break;
+            case "DROP":
+                if ("TABLE".equals(words.get(1))) {
+                    dropTable(new Cursor(sql, dialect));
+                }
+                break;
+            case "SET":
+                if (dialect == DatabaseDialect.POSTGRESQL && "SEARCH_PATH".equals(words.get(1))) {
+                    searchPath(new Cursor(sql, dialect));
+                }
+                break;
+            case "EXEC":
+            case "EXECUTE":
+                String lower = sql.toLowerCase(Locale.ROOT);
+                if (lower.contains("sp_addextendedproperty") || lower.contains("sp_updateextendedproperty")) {
+                    extendedProperty(new Cursor(sql, dialect));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void createTable(Cursor cursor) {
+        cursor.next();
+        // GLOBAL TEMPORARY、UNLOGGED 等修饰词
+        while (!cursor.accept("TABLE")) {
+            cursor.next();
+        }
+        cursor.accept("IF", "NOT", "EXISTS");
+        List<String> name = readName(cursor);
+        int tableIndex = name.size() - 1;
+        if (!inSchema(name, tableIndex)) {
+            return;
+        }
+        // CREATE TABLE ... AS SELECT、LIKE、PARTITION OF 等没有列定义，不进入文档
+        if (cursor.atEnd() || !cursor.peek().isSymbol('(')) {
+            LOGGER.debug("Skipping table {} without column definitions", name.get(tableIndex));
+            return;
+        }
+        ParsedTable table = new ParsedTable(schemaOf(name, tableIndex), name.get(tableIndex));
+        cursor.next();
+        parseElements(cursor, table, false);
+        // 表选项，只取 MySQL 的 COMMENT='...'
+        while (!cursor.atEnd()) {
+            if (cursor.accept("COMMENT")) {
+                cursor.acceptSymbol('=');
+                table.remarks = string(cursor.next());
+            } else {
+                cursor.skip();
+            }
+        }
+        // 同名表重复定义时以后出现的为准
+        if (tables.put(tableKey(table.schema, table.name), table) != null) {
+            LOGGER.warn("Table {} is created more than once, using the last definition", table.displayName(true));
+        }
+        schemas.add(schemaKey(table.schema));
+        appendDdl(table, cursor);
+    }
+
+    private void alterTable(Cursor cursor) {
+        cursor.next();
+        cursor.next();
+        cursor.accept("IF", "EXISTS");
+        cursor.accept("ONLY");
+        List<String> name = readName(cursor);
+        ParsedTable table = find(name, name.size() - 1);
+        if (table == null) {
+            return;
+        }
+        boolean applied = false;
+        do {
+            applied |= alterAction(cursor, table);
+            cursor.skipElement();
+        } while (cursor.acceptSymbol(','));
+        if (applied) {
+            appendDdl(table, cursor);
+        }
+    }
+
+    // 执行一个 ALTER TABLE 子句，返回是否改变了表模型
+    private boolean alterAction(Cursor cursor, ParsedTable table) {
+        if (cursor.accept("ADD")) {
+            cursor.accept("COLUMN");
+            cursor.accept("IF", "NOT", "EXISTS");
+            if (cursor.acceptSymbol('(')) {
+                parseElements(cursor, table, false);
+                return true;
+            }
+            if (isConstraint(cursor)) {
+                return parseConstraint(cursor, table);
+            }
+            ParsedColumn column = parseColumn(cursor, null);
+            table.columns.put(key(column.name), column);
+            return true;
+        }
+        if (cursor.accept("DROP")) {
+            if (cursor.accept("PRIMARY", "KEY")) {
+                for (ParsedColumn column : table.columns.values()) {
+                    column.primaryKey = false;
+                }
+                return true;
+            }
+            boolean explicit = cursor.accept("COLUMN");
+            Token target = cursor.peek();
+            if (target == null || !explicit && target.kind == Kind.WORD
+                    && DROP_TARGETS.contains(target.text.toUpperCase(Locale.ROOT))) {
+                return false;
+            }
+            cursor.accept("IF", "EXISTS");
+            List<String> names = cursor.peek().isSymbol('(')
+                    ? readColumnList(cursor) : Collections.singletonList(identifier(cursor.next()));
+            for (String column : names) {
+                table.columns.remove(key(column));
+            }
+            return true;
+        }
+        if (cursor.accept("MODIFY")) {
+            cursor.accept("COLUMN");
+            // MySQL 的 MODIFY 是完整的列定义，Oracle 的 MODIFY 只写出要改的部分
+            boolean merge = !dialect.isMySqlFamily();
+            if (cursor.acceptSymbol('(')) {
+                parseElements(cursor, table, merge);
+            } else {
+                modifyColumn(cursor, table, merge);
+            }
+            return true;
+        }
+        if (cursor.accept("CHANGE")) {
+            cursor.accept("COLUMN");
+            String oldName = identifier(cursor.next());
+            if (!table.columns.containsKey(key(oldName))) {
+                return false;
+            }
+            table.replace(oldName, parseColumn(cursor, null));
+            return true;
+        }
+        if (cursor.accept("ALTER")) {
+            cursor.accept("COLUMN");
+            ParsedColumn column = table.columns.get(key(identifier(cursor.next())));
+            if (column == null) {
+                return false;
+            }
+            if (cursor.accept("SET", "DEFAULT")) {
+                column.defaultValue = readDefault(cursor);
+            } else if (cursor.accept("DROP", "DEFAULT")) {
+                column.defaultValue = null;
+            } else if (cursor.accept("SET", "NOT", "NULL")) {
+                column.nullable = false;
+            } else if (cursor.accept("DROP", "NOT", "NULL")) {
+                column.nullable = true;
+            } else if (cursor.accept("SET", "DATA", "TYPE") || cursor.accept("TYPE")) {
+                parseType(cursor, column);
+            } else if (dialect == DatabaseDialect.SQLSERVER && isTypeStart(cursor.peek())) {
+                // SQL Server 的 ALTER COLUMN 重写类型和是否可空
+                column.nullable = true;
+                parseType(cursor, column);
+                parseColumnOptions(cursor, column);
+            } else {
+                return false;
+            }
+            return true;
+        }
+        if (cursor.accept("RENAME")) {
+            if (cursor.accept("TO") || cursor.accept("AS")) {
+                List<String> name = readName(cursor);
+                tables.remove(tableKey(table.schema, table.name));
+                // 新表名没有限定时留在原 schema（MySQL 可以改到其他库）
+                if (name.size() > 1) {
+                    table.schema = name.get(name.size() - 2);
+                    schemas.add(schemaKey(table.schema));
+                }
+                table.name = name.get(name.size() - 1);
+                tables.put(tableKey(table.schema, table.name), table);
+                return true;
+            }
+            if (cursor.accept("INDEX") || cursor.accept("KEY") || cursor.accept("CONSTRAINT")) {
+                return false;
+            }
+            cursor.accept("COLUMN");
+            String oldName = identifier(cursor.next());
+            ParsedColumn column = table.columns.get(key(oldName));
+            if (column == null || !cursor.accept("TO")) {
+                return false;
+            }
+            column.name = identifier(cursor.next());
+            table.replace(oldName, column);
+            return true;
+        }
+        if (cursor.accept("COMMENT")) {
+            cursor.acceptSymbol('=');
+            table.remarks = string(cursor.next());
+            return true;
+        }
+        return false;
+    }
+
+    private void commentOn(Cursor cursor) {
+        cursor.next();
+        cursor.next();
+        boolean column;
+        if (cursor.accept("TABLE")) {
+            column = false;
+        } else if (cursor.accept("COLUMN")) {
+            column = true;
+        } else {
+            return;
+        }
+        List<String> name = readName(cursor);
+        int tableIndex = name.size() - (column ? 2 : 1);
+        if (!cursor.accept("IS")) {
+            throw new IllegalStateException("Expected IS but found " + describe(cursor.peek()));
+        }
+        String remarks = string(cursor.next());
+        ParsedTable table = tableIndex < 0 ? null : find(name, tableIndex);
+        if (table == null) {
+            return;
+        }
+        if (column) {
+            ParsedColumn target = table.columns.get(key(name.get(name.size() - 1)));
+            if (target == null) {
+                return;
+            }
+            target.remarks = remarks;
+        } else {
+            table.remarks = remarks;
+        }
+        appendDdl(table, cursor);
+    }
+
+    // EXEC sp_addextendedproperty N'MS_Description', N'注释', N'SCHEMA', N'dbo', N'TABLE', N't'[, N'COLUMN', N'c']
+    // 参数也可以写成 @name = N'...' 的形式，顺序相同
+    private void extendedProperty(Cursor cursor) {
+        List<String> values = new ArrayList<>();
+        while (!cursor.atEnd()) {
+            Token token = cursor.next();
+            if (token.kind == Kind.STRING) {
+                values.add(token.text);
+            }
+        }
+        if (values.size() < 6 || !"MS_Description".equalsIgnoreCase(values.get(0))) {
+            return;
+        }
+        String schemaName = null;
+        String tableName = null;
+        String columnName = null;
+        for (int i = 2; i + 1 < values.size(); i += 2) {
+            String level = values.get(i).toUpperCase(Locale.ROOT);
+            if ("SCHEMA".equals(level) || "USER".equals(level)) {
+                schemaName = values.get(i + 1);
+            } else if ("TABLE".equals(level)) {
+                tableName = values.get(i + 1);
+            } else if ("COLUMN".equals(level)) {
+                columnName = values.get(i + 1);
+            }
+        }
+        if (tableName == null || schema != null && schemaName != null && !schema.equalsIgnoreCase(schemaName)) {
+            return;
+        }
+        ParsedTable table = lookup(schemaName, tableName);
+        if (table == null) {
+            return;
+        }
+        if (columnName == null) {
+            table.remarks = values.get(1);
+        } else {
+            ParsedColumn column = table.columns.get(key(columnName));
+            if (column == null) {
+                return;
+            }
+            column.remarks = values.get(1);
+        }
+        appendDdl(table, cursor);
+    }
+
+    private void dropTable(Cursor cursor) {
+        cursor.next();
+        cursor.next();
+        cursor.accept("IF", "EXISTS");
+        do {
+            List<String> name = readName(cursor);
+            ParsedTable table = find(name, name.size() - 1);
+            if (table != null) {
+                tables.remove(tableKey(table.schema, table.name));
+            }
+        } while (cursor.acceptSymbol(','));
+    }
+
+    // 解析括号内的列定义和约束，左括号已读取，读到对应的右括号为止
+    private void parseElements(Cursor cursor, ParsedTable table, boolean merge) {
+        if (!cursor.acceptSymbol(')')) {
+            do {
+                if (isConstraint(cursor)) {
+                    parseConstraint(cursor, table);
+                } else {
+                    modifyColumn(cursor, table, merge);
+                }
+                cursor.skipElement();
+            } while (cursor.acceptSymbol(','));
+            cursor.expectSymbol(')');
+        }
+    }
+
+    private void modifyColumn(Cursor cursor, ParsedTable table, boolean merge) {
+        ParsedColumn existing = null;
+        if (merge) {
+            Token name = cursor.peek();
+            existing = name != null && name.isIdentifier() ? table.columns.get(key(identifier(name))) : null;
+        }
+        ParsedColumn column = parseColumn(cursor, existing);
+        // 已有的列在原位置被替换
+        table.columns.put(key(column.name), column);
+    }
+
+    // 是否为表级约束或索引。PostgreSQL 中 key、index 可以不加引号作为列名，只在 MySQL 中当作索引
+    private boolean isConstraint(Cursor cursor) {
+        Token token = cursor.peek();
+        if (token == null || token.kind != Kind.WORD) {
+            return false;
+        }
+        Token following = cursor.peek(1);
+        switch (token.text.toUpperCase(Locale.ROOT)) {
+            case "CONSTRAINT":
+            case "UNIQUE":
+                return true;
+            case "PRIMARY":
+            case "FOREIGN":
+                return following != null && following.is("KEY");
+            case "CHECK":
+                return following != null && following.isSymbol('(');
+            case "EXCLUDE":
+            case "LIKE":
+                return dialect == DatabaseDialect.POSTGRESQL;
+            case "KEY":
+            case "INDEX":
+            case "FULLTEXT":
+            case "SPATIAL":
+                return dialect.isMySqlFamily();
+            default:
+                return false;
+        }
+    }
+
+    // 解析约束，只有主键和 SQL Server 的默认值约束进入模型，返回是否改变了表模型
+    private boolean parseConstraint(Cursor cursor, ParsedTable table) {
+        if (cursor.accept("CONSTRAINT")) {
+            Token name = cursor.peek();
+            if (name != null && !name.is("PRIMARY") && !name.is("UNIQUE") && !name.is("FOREIGN") && !name.is("CHECK")) {
+                cursor.next();
+            }
+        }
+        if (cursor.accept("PRIMARY", "KEY")) {
+            // SQL Server 的 CLUSTERED 等修饰词
+            while (!cursor.atEnd() && !cursor.peek().isSymbol('(')) {
+                cursor.next();
+            }
+            for (String name : readColumnList(cursor)) {
+                ParsedColumn column = table.columns.get(key(name));
+                if (column != null) {
+                    column.primaryKey = true;
+                    column.nullable = false;
+                }
+            }
+            return true;
+        }
+        // ADD CONSTRAINT DF_x DEFAULT ((0)) FOR [x]
+        if (cursor.accept("DEFAULT")) {
+            int start = cursor.position;
+            while (!cursor.atEnd() && !cursor.peek().is("FOR")) {
+                cursor.skip();
+            }
+            String value = cursor.text(start, cursor.position);
+            if (cursor.accept("FOR")) {
+                ParsedColumn column = table.columns.get(key(identifier(cursor.next())));
+                if (column != null) {
+                    column.defaultValue = value;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // 读取括号内的列名列表，忽略前缀长度和排序方向
+    private List<String> readColumnList(Cursor cursor) {
+        List<String> names = new ArrayList<>();
+        cursor.expectSymbol('(');
+        do {
+            names.add(identifier(cursor.next()));
+            cursor.skipElement();
+        } while (cursor.acceptSymbol(','));
+        cursor.expectSymbol(')');
+        return names;
+    }
+
+    // 解析一个列定义，existing 不为空时在该列上修改
+    private ParsedColumn parseColumn(Cursor cursor, ParsedColumn existing) {
+        String name = identifier(cursor.next());
+        ParsedColumn column = existing != null ? existing : new ParsedColumn();
+        column.name = name;
+        if (isTypeStart(cursor.peek())) {
+            parseType(cursor, column);
+        }
+        parseColumnOptions(cursor, column);
+        return column;
+    }
+
+    private static boolean isTypeStart(Token token) {
+        return token != null && token.isIdentifier()
+                && !(token.kind == Kind.WORD && COLUMN_KEYWORDS.contains(token.text.toUpperCase(Locale.ROOT)));
+    }
+
+    // 类型名可以由多个词组成（double precision、timestamp(6) with time zone、int unsigned），数字参数作为长度和小数位
+    private void parseType(Cursor cursor, ParsedColumn column) {
+        StringBuilder typeName = new StringBuilder();
+        int length = 0;
+        int scale = 0;
+        while (!cursor.atEnd()) {
+            Token token = cursor.peek();
+            if (token.isIdentifier()) {
+                if (!isTypeStart(token) || typeName.length() > 0 && (token.is("CHARACTER") || token.is("CHAR"))
+                        && cursor.peek(1) != null && cursor.peek(1).is("SET")) {
+                    break;
+                }
+                cursor.next();
+                if (typeName.length() > 0 && typeName.charAt(typeName.length() - 1) != '.') {
+                    typeName.append(' ');
+                }
+                typeName.append(token.text);
+                if (cursor.acceptSymbol('.')) {
+                    typeName.append('.');
+                }
+            } else if (token.isSymbol('(') && typeName.length() > 0) {
+                int start = cursor.position;
+                cursor.skip();
+                int[] arguments = numericArguments(cursor, start + 1, cursor.position - 1);
+                if (arguments == null) {
+                    // enum('a','b') 等非数字参数保留在类型名中
+                    typeName.append(cursor.text(start, cursor.position));
+                } else {
+                    length = arguments[0];
+                    scale = arguments[1];
+                }
+            } else if (token.isSymbol('[') && typeName.length() > 0) {
+                while (!cursor.atEnd() && !cursor.next().isSymbol(']')) {
+                    // 数组维度
+                }
+                typeName.append("[]");
+            } else {
+                break;
+            }
+        }
+        if (typeName.length() == 0) {
+            throw new IllegalStateException("Expected column type but found " + describe(cursor.peek()));
+        }
+        String type = dedupe(typeName.toString());
+        column.typeName = type;
+        column.dataType = jdbcType(type);
+        column.length = length;
+        column.scale = scale;
+    }
+
+    // 括号内只有数字、MAX、Oracle 的 CHAR/BYTE 和 * 时返回 [长度, 小数位]，否则返回 null
+    private static int[] numericArguments(Cursor cursor, int from, int to) {
+        int[] arguments = new int[2];
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            Token token = cursor.tokens.get(i);
+            if (token.isSymbol(',')) {
+                index++;
+            } else if (token.kind == Kind.NUMBER && index < 2) {
+                try {
+                    arguments[index] = Integer.parseInt(token.text);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            } else if (token.is("MAX") && index == 0) {
+                arguments[0] = Integer.MAX_VALUE;
+            } else if (!token.is("CHAR") && !token.is("BYTE") && !token.isSymbol('*') && !token.isSymbol('-')) {
+                return null;
+            }
+        }
+        return arguments;
+    }
+
+    private void parseColumnOptions(Cursor cursor, ParsedColumn column) {
+        while (!cursor.atEnd() && !cursor.peek().isSymbol(',') && !cursor.peek().isSymbol(')')) {
+            if (cursor.accept("NOT", "NULL")) {
+                column.nullable = false;
+            } else if (cursor.accept("NULL")) {
+                column.nullable = true;
+            } else if (cursor.accept("BY", "DEFAULT")) {
+                // GENERATED BY DEFAULT AS IDENTITY 不是默认值
+                continue;
+            } else if (cursor.accept("DEFAULT")) {
+                column.defaultValue = readDefault(cursor);
+            } else if (cursor.accept("PRIMARY", "KEY")) {
+                column.primaryKey = true;
+                column.nullable = false;
+            } else if (cursor.accept("COMMENT")) {
+                column.remarks = string(cursor.next());
+            } else if (cursor.accept("ON")) {
+                // ON UPDATE CURRENT_TIMESTAMP、ON DELETE SET NULL 等，其中的 NULL 与是否可空无关
+                cursor.next();
+                if (cursor.accept("SET") || cursor.accept("NO")) {
+                    cursor.next();
+                } else {
+                    cursor.skip();
+                }
+            } else {
+                cursor.skip();
+            }
+        }
+    }
+
+    // 默认值表达式按原文截取，到下一个列选项为止；DEFAULT NULL 视为没有默认值
+    private String readDefault(Cursor cursor) {
+        // Oracle 的 DEFAULT ON NULL
+        cursor.accept("ON", "NULL");
+        int start = cursor.position;
+        cursor.skip();
+        while (!cursor.atEnd()) {
+            Token token = cursor.peek();
+            if (token.isSymbol(',') || token.isSymbol(')')
+                    || token.kind == Kind.WORD && COLUMN_KEYWORDS.contains(token.text.toUpperCase(Locale.ROOT))) {
+                break;
+            }
+            cursor.skip();
+        }
+        String value = cursor.text(start, cursor.position);
+        return "NULL".equalsIgnoreCase(value) ? null : dedupe(value);
+    }
+
+    // 读取可能带schema限定的名称，未加引号的部分按方言折叠大小写
+    private List<String> readName(Cursor cursor) {
+        List<String> parts = new ArrayList<>(3);
+        parts.add(identifier(cursor.next()));
+        while (cursor.acceptSymbol('.')) {
+            parts.add(identifier(cursor.next()));
+        }
+        return parts;
+    }
+
+    private String identifier(Token token) {
+        if (!token.isIdentifier()) {
+            throw new IllegalStateException("Expected identifier but found " + describe(token));
+        }
+        if (token.kind == Kind.QUOTED) {
+            return token.text;
+        }
+        switch (dialect) {
+            case POSTGRESQL:
+                return token.text.toLowerCase(Locale.ROOT);
+            case ORACLE:
+                return token.text.toUpperCase(Locale.ROOT);
+            default:
+                return token.text;
+        }
+    }
+
+    private static String string(Token token) {
+        if (token.kind == Kind.STRING) {
+            return token.text;
+        }
+        if (token.is("NULL")) {
+            return null;
+        }
+        throw new IllegalStateException("Expected string literal but found " + describe(token));
+    }
+
+    // SET search_path = app, public：取第一个 schema，$user 和空串跳过
+    private void searchPath(Cursor cursor) {
+        cursor.next();
+        cursor.next();
+        if (!cursor.acceptSymbol('=')) {
+            cursor.accept("TO");
+        }
+        while (!cursor.atEnd()) {
+            Token token = cursor.next();
+            String name = token.kind == Kind.STRING ? token.text : token.isIdentifier() ? identifier(token) : null;
+            if (name != null && !name.isEmpty() && !name.startsWith("$")) {
+                currentSchema = name;
+                return;
+            }
+        }
+        currentSchema = null;
+    }
+
+    // 名称中表名之前的部分是schema，未限定的表属于当前schema，没有当前schema时总是属于读取范围
+    private boolean inSchema(List<String> name, int tableIndex) {
+        String explicit = tableIndex > 0 ? name.get(tableIndex - 1) : currentSchema;
+        return schema == null || explicit == null || schema.equalsIgnoreCase(explicit);
+    }
+
+    private ParsedTable find(List<String> name, int tableIndex) {
+        return inSchema(name, tableIndex)
+                ? lookup(tableIndex > 0 ? name.get(tableIndex - 1) : null, name.get(tableIndex)) : null;
+    }
+
+    // 表所属的schema：限定名、当前schema、读取范围的schema、方言的默认schema，依次取第一个不为空的
+    private String schemaOf(List<String> name, int tableIndex) {
+        return resolveSchema(tableIndex > 0 ? name.get(tableIndex - 1) : null);
+    }
+
+    private String resolveSchema(String qualifier) {
+        if (qualifier != null) {
+            return qualifier;
+        }
+        if (currentSchema != null) {
+            return currentSchema;
+        }
+        if (schema != null) {
+            return schema;
+        }
+        switch (dialect) {
+            case POSTGRESQL:
+                return "public";
+            case SQLSERVER:
+                return "dbo";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 按 schema 和表名查找表
+     * 没有默认 schema 的方言（MySQL、Oracle）里同一张表可能一处带限定名、一处不带：
+     * 带限定名找不到时再找未限定的表，未限定且脚本中只有一个 schema 时按该 schema 查找
+     */
+    private ParsedTable lookup(String qualifier, String tableName) {
+        String schemaName = resolveSchema(qualifier);
+        ParsedTable table = tables.get(tableKey(schemaName, tableName));
+        if (table != null) {
+            return table;
+        }
+        if (schemaName != null && qualifier != null) {
+            return tables.get(tableKey(null, tableName));
+        }
+        if (schemaName == null && schemas.size() == 1) {
+            return tables.get(schemas.iterator().next() + '\0' + key(tableName));
+        }
+        return null;
+    }
+
+    private void appendDdl(ParsedTable table, Cursor cursor) {
+        if (!keepDdl) {
+            return;
+        }
+        // 去掉语句前的注释（pg_dump 在每条语句前写一段说明）
+        String text = cursor.sql.substring(cursor.tokens.get(0).start).trim();
+        if (table.ddl == null) {
+            table.ddl = new StringBuilder(text.length() + 1);
+        } else {
+            table.ddl.append('\n');
+        }
+        table.ddl.append(text);
+        if (!text.endsWith(";")) {
+            table.ddl.append(';');
+        }
+    }
+
+    // 类型名和默认值在各表之间大量重复，只保留一份
+    private String dedupe(String value) {
+        String existing = values.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private static String key(Object name) {
+        return String.valueOf(name).toLowerCase(Locale.ROOT);
+    }
+
+    // 带引号的标识符可以包含点号，schema 和表名之间用不会出现在标识符中的字符分隔
+    private static String tableKey(String schemaName, String tableName) {
+        return schemaKey(schemaName) + '\0' + key(tableName);
+    }
+
+    private static String schemaKey(String schemaName) {
+        return schemaName == null ? "" : key(schemaName);
+    }
+
+    private static String describe(Token token) {
+        return token == null ? "end of statement" : "'" + token.text + "'";
+    }
+
+    private static void register(int type, String... names) {
+        for (String name : names) {
+            JDBC_TYPES.put(name, type);
+        }
+    }
+
+    private static int jdbcType(String typeName) {
+        if (typeName.endsWith("[]")) {
+            return Types.ARRAY;
+        }
+        String upper = typeName.toUpperCase(Locale.ROOT);
+        int paren = upper.indexOf('(');
+        if (paren >= 0) {
+            upper = upper.substring(0, paren).trim();
+        }
+        Integer type = JDBC_TYPES.get(upper);
+        if (type == null) {
+            int space = upper.indexOf(' ');
+            type = JDBC_TYPES.get(space < 0 ? upper : upper.substring(0, space));
+        }
+        return type != null ? type : Types.OTHER;
+    }
+
+    // 与 DatabaseMetaData.getDatabaseProductName() 的返回值一致，文档和lint按它区分数据库
+    private static String productName(DatabaseDialect dialect) {
+        switch (dialect) {
+            case MYSQL:
+                return "MySQL";
+            case MARIADB:
+                return "MariaDB";
+            case POSTGRESQL:
+                return "PostgreSQL";
+            case ORACLE:
+                return "Oracle";
+            case SQLSERVER:
+                return "Microsoft SQL Server";
+            default:
+                return "SQL";
+        }
+    }
+
+    /**
+     * 解析中的表，列按定义顺序保存，小写列名作为键
+     */
+    private static final class ParsedTable {
+        // 未知时为 null（MySQL、Oracle 脚本中没有限定名的表）
+        private String schema;
+        private String name;
+        private String remarks;
+        private final LinkedHashMap<String, ParsedColumn> columns = new LinkedHashMap<>();
+        private StringBuilder ddl;
+
+        ParsedTable(String schema, String name) {
+            this.schema = schema;
+            this.name = name;
+        }
+
+        String displayName(boolean qualify) {
+            return qualify && schema != null ? schema + "." + name : name;
+        }
+
+        // 替换列并保持列的位置（列改名时键也会变化）
+        void replace(String oldName, ParsedColumn column) {
+            List<Map.Entry<String, ParsedColumn>> entries = new ArrayList<>(columns.entrySet());
+            columns.clear();
+            for (Map.Entry<String, ParsedColumn> entry : entries) {
+                if (entry.getKey().equals(key(oldName))) {
+                    columns.put(key(column.name), column);
+                } else {
+                    columns.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        Map<String, Object> toModel(boolean qualify) {
+            Map<String, Object> model = new HashMap<>();
+            model.put("tableName", displayName(qualify));
+            model.put("remarks", remarks);
+            List<Map<String, Object>> columnList = new ArrayList<>(columns.size());
+            for (ParsedColumn column : columns.values()) {
+                columnList.add(column.toModel());
+            }
+            model.put("columns", columnList);
+            if (ddl != null) {
+                model.put("ddl", ddl.toString());
+            }
+            return model;
+        }
+    }
+
+    /**
+     * 解析中的列，读完脚本后才转成列的Map，字段比每列一个HashMap省内存
+     */
+    private static final class ParsedColumn {
+        private String name;
+        private String typeName = "";
+        private int dataType = Types.OTHER;
+        private int length;
+        private int scale;
+        private boolean primaryKey;
+        private boolean nullable = true;
+        private String defaultValue;
+        private String remarks;
+
+        Map<String, Object> toModel() {
+            Map<String, Object> column = new HashMap<>();
+            column.put("name", name);
+            column.put("typeName", typeName);
+            column.put("dataType", dataType);
+            column.put("length", length);
+            column.put("scale", scale);
+            column.put("primaryKey", primaryKey);
+            column.put("nullable", nullable);
+            column.put("defaultValue", defaultValue);
+            column.put("remarks", remarks);
+            return column;
+        }
+    }
+
+    /**
+     * 单条语句的词序列和读取位置
+     */
+    private static final class Cursor {
+        private final String sql;
+        private final List<Token> tokens;
+        private int position;
+
+        Cursor(String sql, DatabaseDialect dialect) {
+            this.sql = sql;
+            this.tokens = SqlTokenizer.tokenize(sql, dialect);
+        }
+
+        boolean atEnd() {
+            return position >= tokens.size();
+        }
+
+        Token peek() {
+            return peek(0);
+        }
+
+        Token peek(int ahead) {
+            int index = position + ahead;
+            return index < tokens.size() ? tokens.get(index) : null;
+        }
+
+        Token next() {
+            if (atEnd()) {
+                throw new IllegalStateException("Unexpected end of statement");
+            }
+            return tokens.get(position++);
+        }
+
+        // 依次匹配若干关键字，全部匹配时前进
+        boolean accept(String... keywords) {
+            for (int i = 0; i < keywords.length; i++) {
+                Token token = peek(i);
+                if (token == null || !token.is(keywords[i])) {
+                    return false;
+                }
+            }
+            position += keywords.length;
+            return true;
+        }
+
+        boolean acceptSymbol(char symbol) {
+            Token token = peek();
+            if (token != null && token.isSymbol(symbol)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expectSymbol(char symbol) {
+            if (!acceptSymbol(symbol)) {
+                throw new IllegalStateException("Expected '" + symbol + "' but found " + describe(peek()));
+            }
+        }
+
+        // 跳过一个词，左括号时跳过整个括号组
+        void skip() {
+            if (!next().isSymbol('(')) {
+                return;
+            }
+            int depth = 1;
+            while (depth > 0 && !atEnd()) {
+                Token token = next();
+                if (token.isSymbol('(')) {
+                    depth++;
+                } else if (token.isSymbol(')')) {
+                    depth--;
+                }
+            }
+        }
+
+        // 跳到当前元素的结束处（同一层的逗号或右括号），不读取结束符
+        void skipElement() {
+            while (!atEnd() && !peek().isSymbol(',') && !peek().isSymbol(')')) {
+                skip();
+            }
+        }
+
+        // 原语句中 [from, to) 这些词对应的文本
+        String text(int from, int to) {
+            if (from >= to) {
+                return "";
+            }
+            return sql.substring(tokens.get(from).start, tokens.get(to - 1).end);
+        }
+    }
+}
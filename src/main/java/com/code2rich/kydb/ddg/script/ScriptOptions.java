@@ -0,0 +1,57 @@
+package com.code2rich.kydb.ddg.script;
+
+/**
+ * SQL脚本执行配置
+ */
+public class ScriptOptions {
+    // 每个JDBC批次包含的DML语句数
+    private int batchSize = 500;
+    // 每执行多少条DML语句提交一次
+    private int commitInterval = 5000;
+    // 并行执行DDL的线程数，1 表示顺序执行
+    private int ddlThreads = 1;
+    // 出错时记录日志并继续执行后续语句
+    private boolean continueOnError;
+    // 脚本文件编码
+    private String encoding = "UTF-8";
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    public void setCommitInterval(int commitInterval) {
+        this.commitInterval = commitInterval;
+    }
+
+    public int getDdlThreads() {
+        return ddlThreads;
+    }
+
+    public void setDdlThreads(int ddlThreads) {
+        this.ddlThreads = ddlThreads;
+    }
+
+    public boolean isContinueOnError() {
+        return continueOnError;
+    }
+
+    public void setContinueOnError(boolean continueOnError) {
+        this.continueOnError = continueOnError;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+}
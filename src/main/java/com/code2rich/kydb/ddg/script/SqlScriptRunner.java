@@ -0,0 +1,443 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.script.SqlStatementSplitter.SqlStatement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL脚本执行
+ * 边读边拆分边执行，内存占用与脚本大小无关：
+ * DML 通过JDBC批处理发送并按间隔提交；DDL 可按目标表分配到多个连接上并行执行，
+ * 同一张表的DDL始终在同一个连接上按脚本顺序执行，遇到DML或无法判断目标的语句时先等待所有DDL完成
+ */
+public class SqlScriptRunner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlScriptRunner.class);
+
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // 判断DDL目标表时只看语句开头部分
+    private static final int DDL_HEAD_LENGTH = 2000;
+
+    private static final String NAME = "([\\w$#.\"`\\[\\]]+)";
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "^CREATE\\s+(?:(?:GLOBAL|LOCAL)\\s+)?(?:TEMPORARY\\s+|TEMP\\s+|UNLOGGED\\s+)?TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + NAME,
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "^CREATE\\s+(?:UNIQUE\\s+|BITMAP\\s+)?INDEX\\s.*?\\sON\\s+(?:ONLY\\s+)?" + NAME,
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern COMMENT_ON = Pattern.compile(
+            "^COMMENT\\s+ON\\s+(TABLE|COLUMN)\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_TABLE = Pattern.compile(
+            "^ALTER\\s+TABLE\\s+(?:ONLY\\s+)?(?:IF\\s+EXISTS\\s+)?" + NAME, Pattern.CASE_INSENSITIVE);
+    private static final Pattern REFERENCES = Pattern.compile("\\bREFERENCES\\b", Pattern.CASE_INSENSITIVE);
+
+    private enum Kind { DML, DDL, OTHER }
+
+    private final DataSource dataSource;
+    private final DatabaseDialect dialect;
+    private final ScriptOptions options;
+
+    public SqlScriptRunner(DataSource dataSource, DatabaseDialect dialect, ScriptOptions options) {
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+        this.options = options;
+    }
+
+    /**
+     * 执行一个脚本文件
+     * @return 执行结果
+     */
+    public ScriptResult run(File script) throws IOException, SQLException {
+        LOGGER.info("Executing script {} ({} KB)", script.getAbsolutePath(), script.length() / 1024);
+        Execution execution = new Execution();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(script), Charset.forName(options.getEncoding())), 1024 * 1024);
+             Connection connection = dataSource.getConnection();
+             Statement batch = connection.createStatement();
+             DdlLanes lanes = options.getDdlThreads() > 1 ? new DdlLanes(options.getDdlThreads(), execution) : null) {
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                SqlStatementSplitter splitter = new SqlStatementSplitter(reader, dialect);
+                BatchState batchState = new BatchState();
+                SqlStatement statement;
+                while ((statement = splitter.next()) != null) {
+                    Kind kind = classify(statement);
+                    if (kind == Kind.DML) {
+                        if (lanes != null) {
+                            lanes.await();
+                        }
+                        batch.addBatch(statement.getSql());
+                        batchState.add(statement);
+                        if (batchState.size >= options.getBatchSize()) {
+                            executeBatch(connection, batch, batchState, execution);
+                        }
+                    } else {
+                        executeBatch(connection, batch, batchState, execution);
+                        commit(connection, execution);
+                        String target = kind == Kind.DDL && lanes != null ? ddlTarget(statement.getSql()) : null;
+                        if (target != null) {
+                            lanes.submit(target, statement);
+                        } else {
+                            if (lanes != null) {
+                                lanes.await();
+                            }
+                            executeSingle(connection, statement, execution);
+                            // USE、SET、ALTER SESSION 等会话级语句在DDL通道的连接上同样执行一次
+                            if (lanes != null && isSessionStatement(statement)) {
+                                lanes.broadcast(statement);
+                            }
+                        }
+                    }
+                    execution.reportProgress(false);
+                }
+                executeBatch(connection, batch, batchState, execution);
+                if (lanes != null) {
+                    lanes.await();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                rollbackQuietly(connection);
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+
+        ScriptResult result = execution.toResult();
+        execution.reportProgress(true);
+        return result;
+    }
+
+    private void executeBatch(Connection connection, Statement batch, BatchState batchState, Execution execution) throws SQLException {
+        if (batchState.size == 0) {
+            return;
+        }
+        int size = batchState.size;
+        try {
+            batch.executeBatch();
+            execution.executed.addAndGet(size);
+            execution.uncommitted += size;
+            // 出错继续模式下每批都提交，失败时回滚只影响当前批次
+            if (options.isContinueOnError() || execution.uncommitted >= options.getCommitInterval()) {
+                commit(connection, execution);
+            }
+        } catch (BatchUpdateException e) {
+            rollbackQuietly(connection);
+            execution.uncommitted = 0;
+            String message = String.format("Batch at lines %d-%d failed: %s", batchState.firstLine, batchState.lastLine, e.getMessage());
+            if (!options.isContinueOnError()) {
+                throw new SQLException(message, e.getSQLState(), e.getErrorCode(), e);
+            }
+            LOGGER.warn(message);
+            execution.failed.addAndGet(size);
+        } finally {
+            batch.clearBatch();
+            batchState.clear();
+        }
+    }
+
+    private void executeSingle(Connection connection, SqlStatement statement, Execution execution) throws SQLException {
+        try (Statement single = connection.createStatement()) {
+            single.execute(statement.getSql());
+            connection.commit();
+            execution.executed.incrementAndGet();
+        } catch (SQLException e) {
+            rollbackQuietly(connection);
+            handleFailure(statement, e, execution);
+        }
+    }
+
+    private void handleFailure(SqlStatement statement, SQLException e, Execution execution) throws SQLException {
+        String message = String.format("Statement at line %d failed: %s", statement.getLine(), e.getMessage());
+        if (!options.isContinueOnError()) {
+            throw new SQLException(message, e.getSQLState(), e.getErrorCode(), e);
+        }
+        LOGGER.warn(message);
+        execution.failed.incrementAndGet();
+    }
+
+    private void commit(Connection connection, Execution execution) throws SQLException {
+        if (execution.uncommitted > 0) {
+            connection.commit();
+            execution.uncommitted = 0;
+        }
+    }
+
+    private Kind classify(SqlStatement statement) {
+        if (statement.isBlock()) {
+            return Kind.OTHER;
+        }
+        List<String> words = statement.leadingWords(1);
+        String first = words.isEmpty() ? "" : words.get(0);
+        switch (first) {
+            case "INSERT":
+            case "UPDATE":
+            case "DELETE":
+            case "MERGE":
+            case "REPLACE":
+            case "UPSERT":
+                return Kind.DML;
+            case "CREATE":
+            case "ALTER":
+            case "COMMENT":
+                return Kind.DDL;
+            default:
+                return Kind.OTHER;
+        }
+    }
+
+    private boolean isSessionStatement(SqlStatement statement) {
+        List<String> words = statement.leadingWords(2);
+        if (words.isEmpty()) {
+            return false;
+        }
+        String first = words.get(0);
+        return "USE".equals(first) || "SET".equals(first)
+                || ("ALTER".equals(first) && words.size() > 1 && "SESSION".equals(words.get(1)));
+    }
+
+    /**
+     * 解析DDL的目标表，只有能确定只影响一张表的语句才允许并行；无法判断时返回 null
+     */
+    static String ddlTarget(String sql) {
+        String head = sql.length() > DDL_HEAD_LENGTH ? sql.substring(0, DDL_HEAD_LENGTH) : sql;
+        // 外键会依赖其他表，按顺序执行
+        if (REFERENCES.matcher(sql).find()) {
+            return null;
+        }
+        Matcher matcher = CREATE_TABLE.matcher(head);
+        if (matcher.find()) {
+            return tableName(matcher.group(1));
+        }
+        matcher = CREATE_INDEX.matcher(head);
+        if (matcher.find()) {
+            return tableName(matcher.group(1));
+        }
+        matcher = ALTER_TABLE.matcher(head);
+        if (matcher.find()) {
+            return tableName(matcher.group(1));
+        }
+        matcher = COMMENT_ON.matcher(head);
+        if (matcher.find()) {
+            String name = matcher.group(2);
+            if ("COLUMN".equalsIgnoreCase(matcher.group(1))) {
+                int dot = name.lastIndexOf('.');
+                return dot > 0 ? tableName(name.substring(0, dot)) : null;
+            }
+            return tableName(name);
+        }
+        return null;
+    }
+
+    // 只取表名部分（去掉schema和引号），带不带schema前缀的同一张表会进入同一条通道
+    private static String tableName(String name) {
+        String table = name.substring(name.lastIndexOf('.') + 1);
+        return table.replace("\"", "").replace("`", "").replace("[", "").replace("]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static void rollbackQuietly(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            LOGGER.debug("Rollback failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前批次的语句数和行号范围
+     */
+    private static class BatchState {
+        private int size;
+        private int firstLine;
+        private int lastLine;
+
+        void add(SqlStatement statement) {
+            if (size == 0) {
+                firstLine = statement.getLine();
+            }
+            lastLine = statement.getLine();
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * 执行统计和进度输出
+     */
+    private static class Execution {
+        private final long start = System.nanoTime();
+        private final AtomicLong executed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private long uncommitted;
+        private long lastReport = start;
+
+        void reportProgress(boolean last) {
+            long now = System.nanoTime();
+            if (!last && now - lastReport < PROGRESS_INTERVAL_NANOS) {
+                return;
+            }
+            lastReport = now;
+            double seconds = Math.max(1, now - start) / 1e9;
+            LOGGER.info("{} {} statements in {} s ({} statements/s){}",
+                    last ? "Finished" : "Executed", executed.get(), String.format("%.1f", seconds),
+                    String.format("%.0f", executed.get() / seconds),
+                    failed.get() > 0 ? ", " + failed.get() + " failed" : "");
+        }
+
+        ScriptResult toResult() {
+            return new ScriptResult(executed.get(), failed.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * 并行DDL：每条通道一个线程和一个连接，同一张表的语句总是进入同一条通道
+     */
+    private class DdlLanes implements AutoCloseable {
+        private final List<ExecutorService> executors = new ArrayList<>();
+        private final List<Connection> connections = new ArrayList<>();
+        private final List<Future<?>> pending = new ArrayList<>();
+        private final Execution execution;
+
+        DdlLanes(int threads, Execution execution) throws SQLException {
+            this.execution = execution;
+            try {
+                for (int i = 0; i < threads; i++) {
+                    Connection connection = dataSource.getConnection();
+                    connections.add(connection);
+                    connection.setAutoCommit(true);
+                    executors.add(Executors.newSingleThreadExecutor());
+                }
+            } catch (SQLException e) {
+                close();
+                throw e;
+            }
+        }
+
+        void submit(String target, SqlStatement statement) {
+            int lane = (target.hashCode() & Integer.MAX_VALUE) % executors.size();
+            Connection connection = connections.get(lane);
+            pending.add(executors.get(lane).submit(() -> {
+                try (Statement single = connection.createStatement()) {
+                    single.execute(statement.getSql());
+                    execution.executed.incrementAndGet();
+                } catch (SQLException e) {
+                    handleFailure(statement, e, execution);
+                }
+                return null;
+            }));
+        }
+
+        /**
+         * 在每条通道的连接上执行同一条语句，不计入执行数
+         */
+        void broadcast(SqlStatement statement) throws SQLException {
+            await();
+            for (int lane = 0; lane < executors.size(); lane++) {
+                Connection connection = connections.get(lane);
+                pending.add(executors.get(lane).submit(() -> {
+                    try (Statement single = connection.createStatement()) {
+                        single.execute(statement.getSql());
+                    }
+                    return null;
+                }));
+            }
+            await();
+        }
+
+        /**
+         * 等待所有已提交的DDL执行完成
+         */
+        void await() throws SQLException {
+            if (pending.isEmpty()) {
+                return;
+            }
+            SQLException failure = null;
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof SQLException
+                                ? (SQLException) e.getCause() : new SQLException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for DDL", e);
+                }
+            }
+            pending.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() {
+            for (ExecutorService executor : executors) {
+                executor.shutdownNow();
+            }
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    LOGGER.debug("Failed to close connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 脚本执行结果
+     */
+    public static class ScriptResult {
+        private final long executed;
+        private final long failed;
+        private final long elapsedMillis;
+
+        ScriptResult(long executed, long failed, long elapsedMillis) {
+            this.executed = executed;
+            this.failed = failed;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getExecuted() {
+            return executed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * SQL脚本语句拆分
+ * 逐行读取，不需要把整个脚本读入内存；能识别：
+ * - 单行注释、块注释、单引号字符串、双引号/反引号标识符、PostgreSQL 的 $tag$ 字符串和 E'..' 转义字符串、
+ *   Oracle 的 q'[..]' 引用字符串；MySQL 的字符串中反斜杠转义下一个字符
+ * - 分号分隔符，MySQL客户端的 DELIMITER 指令
+ * - Oracle PL/SQL 块（以单独一行的 / 结束）和 SQL Server 的批分隔符 GO
+ */
+public class SqlStatementSplitter {
+    private static final String DEFAULT_DELIMITER = ";";
+
+    private enum State { NORMAL, BLOCK_COMMENT, SINGLE_QUOTE, DOUBLE_QUOTE, BACKTICK, DOLLAR_QUOTE, Q_QUOTE }
+
+    private final BufferedReader reader;
+    private final DatabaseDialect dialect;
+    private final Deque<SqlStatement> completed = new ArrayDeque<>();
+    private final StringBuilder current = new StringBuilder(1024);
+    private State state = State.NORMAL;
+    private String delimiter = DEFAULT_DELIMITER;
+    private String dollarTag;
+    // 当前字符串中反斜杠是否转义下一个字符
+    private boolean backslashEscapes;
+    // q'[..]' 字符串的结束字符（其后紧跟单引号）
+    private char quoteClose;
+    // 当前语句是否已经出现了注释和空白以外的内容
+    private boolean significant;
+    // 当前语句是否为过程块（内部的分号不是语句结束），null 表示尚未判断
+    private Boolean block;
+    private int lineNumber;
+    private int statementLine;
+    private boolean eof;
+
+    public SqlStatementSplitter(BufferedReader reader, DatabaseDialect dialect) {
+        this.reader = reader;
+        this.dialect = dialect;
+    }
+
+    /**
+     * 读取下一条语句
+     * @return 下一条语句，脚本结束时返回 null
+     */
+    public SqlStatement next() throws IOException {
+        while (completed.isEmpty() && !eof) {
+            String line = reader.readLine();
+            if (line == null) {
+                eof = true;
+                finishStatement();
+                break;
+            }
+            lineNumber++;
+            processLine(line);
+        }
+        return completed.poll();
+    }
+
+    private void processLine(String line) {
+        if (state == State.NORMAL) {
+            String trimmed = line.trim();
+            // MySQL 客户端指令：DELIMITER $$
+            if (!significant && dialect.isMySqlFamily() && trimmed.regionMatches(true, 0, "DELIMITER ", 0, 10)) {
+                delimiter = trimmed.substring(10).trim();
+                return;
+            }
+            // 单独一行的 / (Oracle) 或 GO (SQL Server) 结束当前语句
+            if (isTerminatorLine(trimmed)) {
+                finishStatement();
+                return;
+            }
+        }
+
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            switch (state) {
+                case BLOCK_COMMENT:
+                    if (c == '*' && i + 1 < length && line.charAt(i + 1) == '/') {
+                        append("*/");
+                        state = State.NORMAL;
+                        i += 2;
+                    } else {
+                        append(c);
+                        i++;
+                    }
+                    continue;
+                case SINGLE_QUOTE:
+                    current.append(c);
+                    if (c == '\\' && backslashEscapes && i + 1 < length) {
+                        current.append(line.charAt(i + 1));
+                        i += 2;
+                        continue;
+                    }
+                    if (c == '\'') {
+                        if (i + 1 < length && line.charAt(i + 1) == '\'') {
+                            current.append('\'');
+                            i += 2;
+                            continue;
+                        }
+                        state = State.NORMAL;
+                    }
+                    i++;
+                    continue;
+                case DOUBLE_QUOTE:
+                    current.append(c);
+                    // MySQL 中双引号是字符串
+                    if (c == '\\' && dialect.isMySqlFamily() && i + 1 < length) {
+                        current.append(line.charAt(i + 1));
+                        i += 2;
+                        continue;
+                    }
+                    if (c == '"') {
+                        state = State.NORMAL;
+                    }
+                    i++;
+                    continue;
+                case Q_QUOTE:
+                    current.append(c);
+                    if (c == quoteClose && i + 1 < length && line.charAt(i + 1) == '\'') {
+                        current.append('\'');
+                        state = State.NORMAL;
+                        i += 2;
+                        continue;
+                    }
+                    i++;
+                    continue;
+                case BACKTICK:
+                    current.append(c);
+                    if (c == '`') {
+                        state = State.NORMAL;
+                    }
+                    i++;
+                    continue;
+                case DOLLAR_QUOTE:
+                    if (line.startsWith(dollarTag, i)) {
+                        current.append(dollarTag);
+                        i += dollarTag.length();
+                        state = State.NORMAL;
+                    } else {
+                        current.append(c);
+                        i++;
+                    }
+                    continue;
+                default:
+                    break;
+            }
+
+            // NORMAL
+            if (c == '-' && i + 1 < length && line.charAt(i + 1) == '-') {
+                append(line.substring(i));
+                break;
+            }
+            if (c == '/' && i + 1 < length && line.charAt(i + 1) == '*') {
+                state = State.BLOCK_COMMENT;
+                append("/*");
+                i += 2;
+                continue;
+            }
+            if (line.startsWith(delimiter, i)) {
+                i += delimiter.length();
+                if (DEFAULT_DELIMITER.equals(delimiter) && isBlock()) {
+                    // 过程块内部的分号保留，等待 / 或 GO
+                    current.append(';');
+                } else {
+                    finishStatement();
+                }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                append(c);
+                i++;
+                continue;
+            }
+
+            startStatement();
+            if (c == '\'' && isQuotePrefix(line, i) && i + 1 < length && !Character.isWhitespace(line.charAt(i + 1))) {
+                // q'[..]' 中的分号和单引号都不结束字符串
+                char open = line.charAt(i + 1);
+                quoteClose = closingOf(open);
+                current.append(c).append(open);
+                state = State.Q_QUOTE;
+                i += 2;
+                continue;
+            }
+            if (c == '\'') {
+                backslashEscapes = dialect.isMySqlFamily() || isEscapePrefix(line, i);
+                state = State.SINGLE_QUOTE;
+            } else if (c == '"') {
+                state = State.DOUBLE_QUOTE;
+            } else if (c == '`' && dialect.isMySqlFamily()) {
+                state = State.BACKTICK;
+            } else if (c == '$' && dialect == DatabaseDialect.POSTGRESQL) {
+                String tag = readDollarTag(line, i);
+                if (tag != null) {
+                    current.append(tag);
+                    dollarTag = tag;
+                    state = State.DOLLAR_QUOTE;
+                    i += tag.length();
+                    continue;
+                }
+            }
+            current.append(c);
+            i++;
+        }
+        append('\n');
+    }
+
+    // Oracle 的 q'..' 或 nq'..'：引号前是单独的 q/Q（或 nq）
+    private boolean isQuotePrefix(String line, int quote) {
+        if (dialect != DatabaseDialect.ORACLE && dialect != DatabaseDialect.UNKNOWN || quote < 1) {
+            return false;
+        }
+        char prefix = line.charAt(quote - 1);
+        if (prefix != 'q' && prefix != 'Q') {
+            return false;
+        }
+        int before = quote - 2;
+        if (before >= 0 && (line.charAt(before) == 'n' || line.charAt(before) == 'N')) {
+            before--;
+        }
+        return before < 0 || !isWordPart(line.charAt(before));
+    }
+
+    // PostgreSQL 的 E'..'：引号前是单独的 E
+    private boolean isEscapePrefix(String line, int quote) {
+        if (dialect != DatabaseDialect.POSTGRESQL || quote < 1) {
+            return false;
+        }
+        char prefix = line.charAt(quote - 1);
+        return (prefix == 'E' || prefix == 'e') && (quote < 2 || !isWordPart(line.charAt(quote - 2)));
+    }
+
+    static char closingOf(char open) {
+        switch (open) {
+            case '[':
+                return ']';
+            case '{':
+                return '}';
+            case '(':
+                return ')';
+            case '<':
+                return '>';
+            default:
+                return open;
+        }
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+
+    private void startStatement() {
+        if (!significant) {
+            significant = true;
+            statementLine = lineNumber;
+        }
+    }
+
+    // 语句开始前的空白和注释直接丢弃
+    private void append(char c) {
+        if (significant) {
+            current.append(c);
+        }
+    }
+
+    private void append(String text) {
+        if (significant) {
+            current.append(text);
+        }
+    }
+
+    private void finishStatement() {
+        if (significant) {
+            String sql = trimTrailing(current);
+            if (!sql.isEmpty()) {
+                completed.add(new SqlStatement(sql, statementLine, isBlock()));
+            }
+        }
+        current.setLength(0);
+        significant = false;
+        block = null;
+        if (state != State.BLOCK_COMMENT) {
+            state = State.NORMAL;
+        }
+    }
+
+    private boolean isTerminatorLine(String trimmed) {
+        switch (dialect) {
+            case ORACLE:
+                return "/".equals(trimmed);
+            case SQLSERVER:
+                return "GO".equalsIgnoreCase(trimmed);
+            case UNKNOWN:
+                return "/".equals(trimmed) || "GO".equalsIgnoreCase(trimmed);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 判断当前语句是否为过程块：Oracle 的匿名块和存储过程/函数/包/触发器/类型，SQL Server 的存储过程/函数/触发器
+     */
+    private boolean isBlock() {
+        if (block == null) {
+            block = detectBlock(leadingWords(current, 5));
+        }
+        return block;
+    }
+
+    private boolean detectBlock(List<String> words) {
+        if (words.isEmpty()) {
+            return false;
+        }
+        boolean oracle = dialect == DatabaseDialect.ORACLE || dialect == DatabaseDialect.UNKNOWN;
+        boolean sqlServer = dialect == DatabaseDialect.SQLSERVER || dialect == DatabaseDialect.UNKNOWN;
+        String first = words.get(0);
+        if ("BEGIN".equals(first)) {
+            // BEGIN TRANSACTION 等事务语句不是过程块
+            String second = words.size() > 1 ? words.get(1) : "";
+            return oracle || (sqlServer && !second.startsWith("TRAN") && !"DISTRIBUTED".equals(second));
+        }
+        if (oracle && "DECLARE".equals(first)) {
+            return true;
+        }
+        if (!"CREATE".equals(first) && !(sqlServer && "ALTER".equals(first))) {
+            return false;
+        }
+        int index = 1;
+        while (index < words.size() && isCreateModifier(words.get(index))) {
+            index++;
+        }
+        if (index >= words.size()) {
+            return false;
+        }
+        switch (words.get(index)) {
+            case "PROCEDURE":
+            case "FUNCTION":
+            case "TRIGGER":
+                return oracle || sqlServer;
+            case "PROC":
+                return sqlServer;
+            case "PACKAGE":
+            case "TYPE":
+            case "LIBRARY":
+                return oracle;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isCreateModifier(String word) {
+        return "OR".equals(word) || "REPLACE".equals(word) || "ALTER".equals(word)
+                || "EDITIONABLE".equals(word) || "NONEDITIONABLE".equals(word);
+    }
+
+    /**
+     * 取语句开头的若干个关键字（大写），跳过注释
+     */
+    static List<String> leadingWords(CharSequence sql, int count) {
+        List<String> words = new ArrayList<>(count);
+        int length = sql.length();
+        int i = 0;
+        while (i < length && words.size() < count) {
+            char c = sql.charAt(i);
+            if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = indexOf(sql, "*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+                    i++;
+                }
+                words.add(sql.subSequence(start, i).toString().toUpperCase(Locale.ROOT));
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return words;
+    }
+
+    private static int indexOf(CharSequence text, String target, int from) {
+        for (int i = from; i + target.length() <= text.length(); i++) {
+            if (text.charAt(i) == target.charAt(0) && text.subSequence(i, i + target.length()).toString().equals(target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String readDollarTag(String line, int start) {
+        int i = start + 1;
+        while (i < line.length() && (Character.isLetterOrDigit(line.charAt(i)) || line.charAt(i) == '_')) {
+            i++;
+        }
+        if (i < line.length() && line.charAt(i) == '$' && (i == start + 1 || !Character.isDigit(line.charAt(start + 1)))) {
+            return line.substring(start, i + 1);
+        }
+        return null;
+    }
+
+    private static String trimTrailing(StringBuilder sql) {
+        int end = sql.length();
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        return sql.substring(0, end);
+    }
+
+    /**
+     * 拆分出的一条语句
+     */
+    public static class SqlStatement {
+        private final String sql;
+        private final int line;
+        private final boolean block;
+
+        SqlStatement(String sql, int line, boolean block) {
+            this.sql = sql;
+            this.line = line;
+            this.block = block;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        /**
+         * 语句在脚本中的起始行号
+         */
+        public int getLine() {
+            return line;
+        }
+
+        /**
+         * 是否为过程块
+         */
+        public boolean isBlock() {
+            return block;
+        }
+
+        /**
+         * 语句开头的关键字（大写）
+         */
+        public List<String> leadingWords(int count) {
+            return SqlStatementSplitter.leadingWords(sql, count);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单条SQL语句的词法切分，供 {@link DdlSchemaReader} 解析DDL
+ * 跳过注释；字符串和带引号的标识符各为一个词并去掉引号和转义，
+ * 每个词记录在原语句中的起止位置，默认值等表达式可以从原语句中原样截取
+ */
+final class SqlTokenizer {
+    enum Kind { WORD, QUOTED, STRING, NUMBER, SYMBOL }
+
+    static final class Token {
+        final Kind kind;
+        final String text;
+        final int start;
+        final int end;
+
+        Token(Kind kind, String text, int start, int end) {
+            this.kind = kind;
+            this.text = text;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * 是否为指定的关键字（不区分大小写，带引号的标识符不是关键字）
+         */
+        boolean is(String keyword) {
+            return kind == Kind.WORD && text.equalsIgnoreCase(keyword);
+        }
+
+        boolean isSymbol(char symbol) {
+            return kind == Kind.SYMBOL && text.charAt(0) == symbol;
+        }
+
+        boolean isIdentifier() {
+            return kind == Kind.WORD || kind == Kind.QUOTED;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    private SqlTokenizer() {
+    }
+
+    static List<Token> tokenize(String sql, DatabaseDialect dialect) {
+        List<Token> tokens = new ArrayList<>();
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-'
+                    || c == '#' && dialect.isMySqlFamily()) {
+                while (i < length && sql.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+            } else if (c == '\'' || c == '"' && dialect.isMySqlFamily()) {
+                i = readString(sql, i, i, dialect.isMySqlFamily(), tokens);
+            } else if (c == '"' || c == '`' || c == '[' && dialect == DatabaseDialect.SQLSERVER) {
+                char close = c == '[' ? ']' : c;
+                StringBuilder text = new StringBuilder();
+                int j = i + 1;
+                while (j < length) {
+                    char d = sql.charAt(j);
+                    if (d == close) {
+                        if (j + 1 < length && sql.charAt(j + 1) == close) {
+                            text.append(close);
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    text.append(d);
+                    j++;
+                }
+                int end = Math.min(j + 1, length);
+                tokens.add(new Token(Kind.QUOTED, text.toString(), i, end));
+                i = end;
+            } else if (c == '$' && dialect == DatabaseDialect.POSTGRESQL && readDollarTag(sql, i) != null) {
+                String tag = readDollarTag(sql, i);
+                int close = sql.indexOf(tag, i + tag.length());
+                int end = close < 0 ? length : close + tag.length();
+                tokens.add(new Token(Kind.STRING, sql.substring(i + tag.length(), close < 0 ? length : close), i, end));
+                i = end;
+            } else if (Character.isDigit(c) || c == '.' && i + 1 < length && Character.isDigit(sql.charAt(i + 1))) {
+                int start = i;
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                if (i < length && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+                    i++;
+                    while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '-' || sql.charAt(i) == '+')) {
+                        i++;
+                    }
+                }
+                tokens.add(new Token(Kind.NUMBER, sql.substring(start, i), start, i));
+            } else if (isWordStart(c)) {
+                int start = i;
+                while (i < length && isWordPart(sql.charAt(i))) {
+                    i++;
+                }
+                if (i + 1 < length && sql.charAt(i) == '\'' && isQuotePrefix(sql, start, i, dialect)) {
+                    // Oracle 的 q'[..]'：内容原样保留，直到结束符加引号
+                    String close = SqlStatementSplitter.closingOf(sql.charAt(i + 1)) + "'";
+                    int found = sql.indexOf(close, i + 2);
+                    int end = found < 0 ? length : found + 2;
+                    tokens.add(new Token(Kind.STRING, sql.substring(i + 2, found < 0 ? length : found), start, end));
+                    i = end;
+                } else if (i < length && sql.charAt(i) == '\'' && (i - start == 1 || sql.charAt(start) == '_')) {
+                    // N'..'、E'..'、X'..' 以及 MySQL 的 _utf8mb4'..' 是带前缀的字符串
+                    char prefix = Character.toUpperCase(sql.charAt(start));
+                    i = readString(sql, i, start, dialect.isMySqlFamily() || prefix == 'E', tokens);
+                } else {
+                    tokens.add(new Token(Kind.WORD, sql.substring(start, i), start, i));
+                }
+            } else {
+                tokens.add(new Token(Kind.SYMBOL, String.valueOf(c), i, i + 1));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    // 读取从 quote 开始的字符串，返回字符串之后的位置
+    private static int readString(String sql, int quote, int start, boolean backslashEscapes, List<Token> tokens) {
+        char close = sql.charAt(quote);
+        StringBuilder text = new StringBuilder();
+        int length = sql.length();
+        int j = quote + 1;
+        while (j < length) {
+            char d = sql.charAt(j);
+            if (d == '\\' && backslashEscapes && j + 1 < length) {
+                text.append(unescape(sql.charAt(j + 1)));
+                j += 2;
+                continue;
+            }
+            if (d == close) {
+                if (j + 1 < length && sql.charAt(j + 1) == close) {
+                    text.append(close);
+                    j += 2;
+                    continue;
+                }
+                break;
+            }
+            text.append(d);
+            j++;
+        }
+        int end = Math.min(j + 1, length);
+        tokens.add(new Token(Kind.STRING, text.toString(), start, end));
+        return end;
+    }
+
+    private static char unescape(char c) {
+        switch (c) {
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case '0':
+                return '\0';
+            default:
+                return c;
+        }
+    }
+
+    private static String readDollarTag(String sql, int start) {
+        int i = start + 1;
+        while (i < sql.length() && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) {
+            i++;
+        }
+        if (i < sql.length() && sql.charAt(i) == '$' && (i == start + 1 || !Character.isDigit(sql.charAt(start + 1)))) {
+            return sql.substring(start, i + 1);
+        }
+        return null;
+    }
+
+    // Oracle 的 q'..'、nq'..'
+    private static boolean isQuotePrefix(String sql, int start, int quote, DatabaseDialect dialect) {
+        if (dialect != DatabaseDialect.ORACLE && dialect != DatabaseDialect.UNKNOWN) {
+            return false;
+        }
+        String prefix = sql.substring(start, quote);
+        return "q".equalsIgnoreCase(prefix) || "nq".equalsIgnoreCase(prefix);
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '@' || c == '#';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#' || c == '@';
+    }
+}
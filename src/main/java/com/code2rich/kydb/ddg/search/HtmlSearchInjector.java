@@ -0,0 +1,50 @@
+package com.code2rich.kydb.ddg.search;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 在生成的HTML文档中插入搜索框，搜索框第一次获得焦点时才加载索引脚本
+ */
+public class HtmlSearchInjector {
+    private static final String WIDGET_RESOURCE = "/search/search-widget.html";
+    private static final String SCRIPT_PLACEHOLDER = "__KYDB_INDEX_SCRIPT__";
+
+    /**
+     * @param htmlFile HTML文档
+     * @param indexScriptName 索引脚本相对于HTML文档的路径
+     */
+    public void inject(File htmlFile, String indexScriptName) throws IOException {
+        String html = new String(Files.readAllBytes(htmlFile.toPath()), StandardCharsets.UTF_8);
+        String widget = loadWidget().replace(SCRIPT_PLACEHOLDER, escapeJavaScript(indexScriptName));
+
+        int bodyEnd = html.lastIndexOf("</body>");
+        String result = bodyEnd >= 0
+                ? html.substring(0, bodyEnd) + widget + html.substring(bodyEnd)
+                : html + widget;
+        Files.write(htmlFile.toPath(), result.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String loadWidget() throws IOException {
+        try (InputStream in = HtmlSearchInjector.class.getResourceAsStream(WIDGET_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Missing resource: " + WIDGET_RESOURCE);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String escapeJavaScript(String value) {
+        return value.replace("\\", "\\\\").replace("'", "\\'").replace("<", "\\x3c");
+    }
+}
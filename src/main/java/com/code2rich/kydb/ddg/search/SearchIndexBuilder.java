@@ -0,0 +1,160 @@
+package com.code2rich.kydb.ddg.search;
+
+import com.code2rich.kydb.ddg.util.JsonWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 客户端搜索索引构建
+ * 对表名、列名和注释建立倒排索引，输出为一个由HTML文档按需加载的静态脚本
+ *
+ * 索引结构（KYDB_SEARCH_INDEX）：
+ * t  表名列表
+ * r  表注释（截断）
+ * n  去重后的列名列表
+ * c  每张表的列，按顺序列出列名编号（36进制，逗号分隔）
+ * k  排好序的词项，浏览器端可二分查找做前缀匹配
+ * p  与 k 对应的倒排表，条目编号差分后以36进制编码
+ * 条目编号按 表0、表0的各列、表1、表1的各列…… 的顺序连续分配
+ */
+public class SearchIndexBuilder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SearchIndexBuilder.class);
+
+    // 结果列表中展示的表注释长度
+    private static final int MAX_REMARKS = 80;
+
+    private final List<String> tableNames = new ArrayList<>();
+    private final List<String> tableRemarks = new ArrayList<>();
+    private final List<StringBuilder> tableColumns = new ArrayList<>();
+    private final Map<String, Integer> columnNameIds = new HashMap<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private int nextEntry;
+
+    /**
+     * 添加一张表，之后添加的列都属于这张表
+     */
+    public void addTable(String tableName, String remarks) {
+        int entry = nextEntry++;
+        tableNames.add(tableName);
+        tableRemarks.add(truncate(remarks));
+        tableColumns.add(new StringBuilder());
+        index(entry, tableName);
+        index(entry, remarks);
+    }
+
+    public void addColumn(String columnName, String remarks) {
+        if (tableNames.isEmpty()) {
+            throw new IllegalStateException("addTable must be called before addColumn");
+        }
+        int entry = nextEntry++;
+        Integer nameId = columnNameIds.get(columnName);
+        if (nameId == null) {
+            nameId = columnNames.size();
+            columnNameIds.put(columnName, nameId);
+            columnNames.add(columnName);
+        }
+        StringBuilder columns = tableColumns.get(tableColumns.size() - 1);
+        if (columns.length() > 0) {
+            columns.append(',');
+        }
+        columns.append(Integer.toString(nameId, 36));
+        index(entry, columnName);
+        index(entry, remarks);
+    }
+
+    private void index(int entry, String text) {
+        for (String token : SearchTokenizer.tokenize(text)) {
+            postings.computeIfAbsent(token, key -> new Postings()).add(entry);
+        }
+    }
+
+    /**
+     * 写出索引脚本
+     */
+    public void writeScript(File file) throws IOException {
+        long start = System.currentTimeMillis();
+        TreeMap<String, Postings> sorted = new TreeMap<>(postings);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 64 * 1024);
+             JsonWriter json = new JsonWriter(writer)) {
+            writer.write("window.KYDB_SEARCH_INDEX=");
+            json.beginObject();
+            json.field("v", 1);
+            json.field("t", tableNames);
+            json.field("r", tableRemarks);
+            json.field("n", columnNames);
+            json.name("c").beginArray();
+            for (StringBuilder columns : tableColumns) {
+                json.value(columns.toString());
+            }
+            json.endArray();
+            json.name("k").beginArray();
+            for (String token : sorted.keySet()) {
+                json.value(token);
+            }
+            json.endArray();
+            json.name("p").beginArray();
+            for (Postings entries : sorted.values()) {
+                json.value(entries.encode());
+            }
+            json.endArray();
+            json.endObject();
+            json.flush();
+            writer.write(";\n");
+        }
+        LOGGER.info("Search index written: {} tables, {} entries, {} terms, {} KB in {} ms",
+                tableNames.size(), nextEntry, sorted.size(), file.length() / 1024, System.currentTimeMillis() - start);
+    }
+
+    private static String truncate(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.length() > MAX_REMARKS ? value.substring(0, MAX_REMARKS) + "…" : value;
+    }
+
+    /**
+     * 递增的条目编号列表，同一条目只记录一次
+     */
+    private static class Postings {
+        private int[] entries = new int[2];
+        private int size;
+
+        void add(int entry) {
+            if (size > 0 && entries[size - 1] == entry) {
+                return;
+            }
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        String encode() {
+            StringBuilder encoded = new StringBuilder(size * 3);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                if (i > 0) {
+                    encoded.append(',');
+                }
+                encoded.append(Integer.toString(entries[i] - previous, 36));
+                previous = entries[i];
+            }
+            return encoded.toString();
+        }
+    }
+}
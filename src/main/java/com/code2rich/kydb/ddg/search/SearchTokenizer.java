@@ -0,0 +1,101 @@
+package com.code2rich.kydb.ddg.search;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 搜索分词
+ * 标识符：整体（去掉下划线后小写）+ 按 snake_case、camelCase、字母数字边界拆出的各部分；
+ * 中日韩文字：单字 + 相邻两字组成的二元组
+ * 浏览器端的查询分词（search-widget.html）与此保持一致
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            int start = i;
+            if (isIdentifierChar(c)) {
+                while (i < length && isIdentifierChar(text.charAt(i))) {
+                    i++;
+                }
+                addIdentifier(tokens, text.substring(start, i));
+            } else if (isCjk(c)) {
+                while (i < length && isCjk(text.charAt(i))) {
+                    i++;
+                }
+                for (int j = start; j < i; j++) {
+                    tokens.add(String.valueOf(text.charAt(j)));
+                    if (j + 1 < i) {
+                        tokens.add(text.substring(j, j + 2));
+                    }
+                }
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addIdentifier(Set<String> tokens, String identifier) {
+        String whole = identifier.replace("_", "").toLowerCase(Locale.ROOT);
+        if (!whole.isEmpty()) {
+            tokens.add(whole);
+        }
+        // 拆分：下划线、小写到大写（customerId）、连续大写后接小写（HTTPServer）、字母与数字之间
+        int length = identifier.length();
+        int start = 0;
+        for (int i = 1; i <= length; i++) {
+            if (i == length || isBoundary(identifier, i)) {
+                // 单个字母或数字的片段区分度太低，只会让倒排表膨胀，不单独索引
+                if (i - start > 1 && identifier.charAt(start) != '_') {
+                    String part = identifier.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!part.equals(whole)) {
+                        tokens.add(part);
+                    }
+                }
+                start = i < length && identifier.charAt(i) == '_' ? i + 1 : i;
+            }
+        }
+    }
+
+    private static boolean isBoundary(String identifier, int i) {
+        char previous = identifier.charAt(i - 1);
+        char current = identifier.charAt(i);
+        if (current == '_' || previous == '_') {
+            return true;
+        }
+        if (Character.isLowerCase(previous) && Character.isUpperCase(current)) {
+            return true;
+        }
+        if (Character.isUpperCase(previous) && Character.isUpperCase(current)
+                && i + 1 < identifier.length() && Character.isLowerCase(identifier.charAt(i + 1))) {
+            return true;
+        }
+        return Character.isDigit(previous) != Character.isDigit(current);
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '$';
+    }
+
+    static boolean isCjk(char c) {
+        Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+        return block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS
+                || block == Character.UnicodeBlock.CJK_UNIFIED_IDEOGRAPHS_EXTENSION_A
+                || block == Character.UnicodeBlock.CJK_COMPATIBILITY_IDEOGRAPHS
+                || block == Character.UnicodeBlock.HIRAGANA
+                || block == Character.UnicodeBlock.KATAKANA
+                || block == Character.UnicodeBlock.HANGUL_SYLLABLES;
+    }
+}
@@ -0,0 +1,357 @@
+package com.code2rich.kydb.ddg.server;
+
+import com.code2rich.kydb.ddg.extension.ExcelDocumentGenerator;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import com.code2rich.kydb.ddg.output.ContentHash;
+import com.code2rich.kydb.ddg.server.PageCache.Page;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 本地文档服务
+ * 启动时不渲染任何页面，每个页面在第一次被请求时才渲染，结果放入按字节数限制的LRU缓存，
+ * 并以表模型的内容哈希作为ETag，浏览器再次请求时可直接返回304
+ * 请求线程只负责查缓存和收发数据，渲染在独立的线程池中进行，同一页面的并发请求共享一次渲染
+ */
+public class DocumentServer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentServer.class);
+
+    private static final String HTML = "text/html; charset=UTF-8";
+    private static final String MARKDOWN = "text/markdown; charset=UTF-8";
+    private static final String XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final SchemaSnapshot snapshot;
+    // 表名到快照中位置的索引，表模型可能溢出在磁盘上，按需取出
+    private final Map<String, Integer> tables = new HashMap<>();
+    // 按快照顺序的表名，按前缀筛选时不必取出表模型
+    private final List<String> tableNames = new ArrayList<>();
+    private final PageRenderer renderer;
+    private final PageCache cache;
+    private final Map<String, CompletableFuture<Page>> rendering = new ConcurrentHashMap<>();
+    // 快照不可变，各表和整库的ETag在启动时计算一次，主题域的ETag在第一次请求时由表的ETag组合
+    // 表的ETag覆盖整个表模型（行数、分区、DDL、列画像等页面上显示的所有内容）以及库名、数据库类型和版式版本，
+    // 重新抽取或升级后内容有变化时浏览器不会拿到过期的304
+    private final Map<String, String> tableEtags = new HashMap<>();
+    private final Map<String, String> areaEtags = new ConcurrentHashMap<>();
+    private final String allEtag;
+    // 版式版本、数据库类型和库名的哈希，计入所有ETag
+    private final String context;
+    private final int parallelism;
+    private HttpServer server;
+    private ExecutorService requestExecutor;
+    private ExecutorService renderExecutor;
+
+    /**
+     * @param snapshot 元数据模型
+     * @param cacheBytes 页面缓存容量（字节）
+     * @param parallelism 渲染线程数
+     */
+    public DocumentServer(SchemaSnapshot snapshot, long cacheBytes, int parallelism) {
+        this.snapshot = snapshot;
+        this.renderer = new PageRenderer(snapshot.getDbType(), snapshot.getDbName());
+        this.cache = new PageCache(cacheBytes);
+        this.parallelism = Math.max(1, parallelism);
+        this.context = new ContentHash().add(PageRenderer.LAYOUT_VERSION).add(ExcelDocumentGenerator.LAYOUT_VERSION)
+                .add(snapshot.getDbType()).add(snapshot.getDbName()).toHex();
+        int index = 0;
+        for (Map<String, Object> table : snapshot.getTables()) {
+            String tableName = String.valueOf(table.get("tableName"));
+            tables.put(tableName, index++);
+            tableNames.add(tableName);
+            tableEtags.put(tableName, new ContentHash().add(context).add(table).toHex());
+        }
+        this.allEtag = etagOf(tableNames);
+    }
+
+    /**
+     * 启动服务，只监听本机回环地址
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        requestExecutor = Executors.newFixedThreadPool(parallelism * 2);
+        renderExecutor = Executors.newFixedThreadPool(parallelism);
+        server.setExecutor(requestExecutor);
+        server.createContext("/", this::handle);
+        server.start();
+        LOGGER.info("Serving {} tables at http://localhost:{}/", tables.size(), server.getAddress().getPort());
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            requestExecutor.shutdownNow();
+            renderExecutor.shutdownNow();
+            LOGGER.info("Server stopped, {} pages cached ({} bytes)", cache.size(), cache.usedBytes());
+        }
+    }
+
+    private void handle(HttpExchange exchange) {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                sendStatus(exchange, 405);
+                return;
+            }
+            Route route = resolve(exchange.getRequestURI().getPath(), parseQuery(exchange.getRequestURI().getRawQuery()));
+            if (route == null) {
+                sendStatus(exchange, 404);
+                return;
+            }
+
+            // ETag只依赖元数据指纹，无需渲染即可判断客户端缓存是否有效
+            String etag = "\"" + route.etag + "\"";
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.getResponseHeaders().set("ETag", etag);
+                sendStatus(exchange, 304);
+                return;
+            }
+
+            Page cached = cache.get(route.key);
+            if (cached != null) {
+                send(exchange, cached, route.fileName);
+                return;
+            }
+
+            // 交给渲染线程池，请求线程立即返回，渲染完成后再写回响应
+            render(route, etag).whenComplete((page, error) -> {
+                if (error != null) {
+                    LOGGER.error("Failed to render {}", route.key, error);
+                    sendStatus(exchange, 500);
+                } else {
+                    send(exchange, page, route.fileName);
+                }
+            });
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to handle request {}", exchange.getRequestURI(), e);
+            sendStatus(exchange, 500);
+        }
+    }
+
+    private CompletableFuture<Page> render(Route route, String etag) {
+        return rendering.computeIfAbsent(route.key, key -> {
+            CompletableFuture<Page> future = CompletableFuture.supplyAsync(() -> {
+                long start = System.currentTimeMillis();
+                Page page = new Page(route.renderer.get(), route.contentType, etag);
+                cache.put(key, page);
+                LOGGER.debug("Rendered {} ({} bytes) in {} ms", key, page.getBody().length, System.currentTimeMillis() - start);
+                return page;
+            }, renderExecutor);
+            future.whenComplete((page, error) -> rendering.remove(key));
+            return future;
+        });
+    }
+
+    /**
+     * 路由：
+     * /                          表目录，可带 prefix 参数按主题域筛选
+     * /table/{表名}              单表页
+     * /download/{表名}.xlsx|.md  单表下载
+     * /download?format=xlsx|md   整库或主题域（prefix）下载
+     */
+    private Route resolve(String path, Map<String, String> query) {
+        String prefix = emptyToNull(query.get("prefix"));
+        if ("/".equals(path) || "/index.html".equals(path)) {
+            return new Route("index:" + nullToEmpty(prefix), areaEtag(prefix), HTML, null,
+                    () -> utf8(renderer.renderIndex(selectTables(prefix), prefix)));
+        }
+        if (path.startsWith("/table/")) {
+            String tableName = path.substring("/table/".length());
+            if (!tables.containsKey(tableName)) {
+                return null;
+            }
+            return new Route("table:" + tableName, tableEtags.get(tableName), HTML, null,
+                    () -> utf8(renderer.renderTable(getTable(tableName))));
+        }
+        if ("/download".equals(path)) {
+            String baseName = prefix == null ? nullToEmpty(snapshot.getDbName()) : prefix;
+            return downloadRoute("area:" + nullToEmpty(prefix), baseName, query.get("format"), areaEtag(prefix),
+                    () -> selectTables(prefix));
+        }
+        if (path.startsWith("/download/")) {
+            String fileName = path.substring("/download/".length());
+            int dot = fileName.lastIndexOf('.');
+            String tableName = dot > 0 ? fileName.substring(0, dot) : null;
+            if (tableName == null || !tables.containsKey(tableName)) {
+                return null;
+            }
+            return downloadRoute("table:" + tableName, tableName, fileName.substring(dot + 1), tableEtags.get(tableName),
+                    () -> {
+                        List<Map<String, Object>> selected = new ArrayList<>(1);
+                        selected.add(getTable(tableName));
+                        return selected;
+                    });
+        }
+        return null;
+    }
+
+    // 表模型在渲染线程中才取出，304 响应不读取任何表
+    private Route downloadRoute(String key, String baseName, String format, String etag,
+                                Supplier<List<Map<String, Object>>> selected) {
+        if ("xlsx".equalsIgnoreCase(format)) {
+            return new Route("xlsx:" + key, etag, XLSX, baseName + ".xlsx", () -> renderExcel(selected.get()));
+        }
+        if ("md".equalsIgnoreCase(format)) {
+            return new Route("md:" + key, etag, MARKDOWN, baseName + ".md", () -> utf8(renderer.renderMarkdown(selected.get())));
+        }
+        return null;
+    }
+
+    private byte[] renderExcel(List<Map<String, Object>> selected) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        try {
+            new ExcelDocumentGenerator().write(out, snapshot.getDbType(), snapshot.getDbName(), selected);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to render Excel document", e);
+        }
+        return out.toByteArray();
+    }
+
+    private Map<String, Object> getTable(String tableName) {
+        Integer index = tables.get(tableName);
+        return index != null ? snapshot.getTables().get(index) : null;
+    }
+
+    private List<Map<String, Object>> selectTables(String prefix) {
+        if (prefix == null) {
+            return snapshot.getTables();
+        }
+        List<Map<String, Object>> selected = new ArrayList<>();
+        for (String tableName : selectTableNames(prefix)) {
+            selected.add(getTable(tableName));
+        }
+        return selected;
+    }
+
+    private List<String> selectTableNames(String prefix) {
+        String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+        List<String> selected = new ArrayList<>();
+        for (String tableName : tableNames) {
+            if (tableName.toLowerCase(Locale.ROOT).startsWith(lowerPrefix)) {
+                selected.add(tableName);
+            }
+        }
+        return selected;
+    }
+
+    private String areaEtag(String prefix) {
+        if (prefix == null) {
+            return allEtag;
+        }
+        return areaEtags.computeIfAbsent(prefix.toLowerCase(Locale.ROOT), key -> etagOf(selectTableNames(prefix)));
+    }
+
+    // 表的ETag已包含库名和版式版本，再计入context使没有表的主题域在不同库之间也不相同
+    private String etagOf(List<String> selectedNames) {
+        ContentHash hash = new ContentHash().add(context);
+        for (String tableName : selectedNames) {
+            hash.add(tableEtags.get(tableName));
+        }
+        return hash.toHex() + "-" + selectedNames.size();
+    }
+
+    private void send(HttpExchange exchange, Page page, String fileName) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", page.getContentType());
+            exchange.getResponseHeaders().set("ETag", page.getEtag());
+            // 每次使用前都向服务端确认，由ETag决定是否需要重新下载
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            if (fileName != null) {
+                exchange.getResponseHeaders().set("Content-Disposition",
+                        "attachment; filename*=UTF-8''" + PageRenderer.encode(fileName));
+            }
+            boolean head = "HEAD".equals(exchange.getRequestMethod());
+            exchange.sendResponseHeaders(200, head ? -1 : page.getBody().length);
+            if (!head) {
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(page.getBody());
+                }
+            }
+        } catch (IOException e) {
+            // 客户端提前断开等情况
+            LOGGER.debug("Failed to send response: {}", e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendStatus(HttpExchange exchange, int status) {
+        try {
+            exchange.sendResponseHeaders(status, -1);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to send response: {}", e.getMessage());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                query.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+            }
+        }
+        return query;
+    }
+
+    private String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static class Route {
+        private final String key;
+        private final String etag;
+        private final String contentType;
+        private final String fileName;
+        private final Supplier<byte[]> renderer;
+
+        Route(String key, String etag, String contentType, String fileName, Supplier<byte[]> renderer) {
+            this.key = key;
+            this.etag = etag;
+            this.contentType = contentType;
+            this.fileName = fileName;
+            this.renderer = renderer;
+        }
+    }
+}
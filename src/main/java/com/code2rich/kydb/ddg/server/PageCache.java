@@ -0,0 +1,78 @@
+package com.code2rich.kydb.ddg.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按字节数限制容量的LRU页面缓存
+ * 超过单条上限的大页面（如整个主题域的Excel）不进入缓存，避免把其他页面全部挤出
+ */
+class PageCache {
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final LinkedHashMap<String, Page> pages = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    PageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 8;
+    }
+
+    synchronized Page get(String key) {
+        return pages.get(key);
+    }
+
+    synchronized void put(String key, Page page) {
+        if (page.getBody().length > maxEntryBytes) {
+            return;
+        }
+        Page previous = pages.put(key, page);
+        if (previous != null) {
+            usedBytes -= previous.getBody().length;
+        }
+        usedBytes += page.getBody().length;
+
+        // 按访问顺序淘汰最久未使用的页面
+        Iterator<Map.Entry<String, Page>> iterator = pages.entrySet().iterator();
+        while (usedBytes > maxBytes && iterator.hasNext()) {
+            usedBytes -= iterator.next().getValue().getBody().length;
+            iterator.remove();
+        }
+    }
+
+    synchronized int size() {
+        return pages.size();
+    }
+
+    synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * 渲染结果
+     */
+    static class Page {
+        private final byte[] body;
+        private final String contentType;
+        private final String etag;
+
+        Page(byte[] body, String contentType, String etag) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+        }
+
+        byte[] getBody() {
+            return body;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.code2rich.kydb.ddg.server;
+
+import com.code2rich.kydb.ddg.metadata.PartitionCollector;
+import com.code2rich.kydb.ddg.metadata.TableStatisticsCollector;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 服务模式下的页面渲染：表目录页、单表页（HTML）以及 Markdown 下载
+ */
+class PageRenderer {
+    // 页面版式版本，计入ETag；修改页面或 Markdown 的输出格式时递增，使浏览器缓存的旧页面失效
+    static final int LAYOUT_VERSION = 1;
+    private static final String STYLE = "<style>"
+            + "body{font-family:sans-serif;margin:24px;color:#222}"
+            + "table{border-collapse:collapse;margin-top:12px}"
+            + "th,td{border:1px solid #ccc;padding:4px 8px;text-align:left;vertical-align:top}"
+            + "th{background:#ffff99}tr:nth-child(even) td{background:#f0ffff}"
+            + "a{color:#00f;text-decoration:none}.num{text-align:right}"
+            + "</style>";
+
+    private final String dbType;
+    private final String dbName;
+
+    PageRenderer(String dbType, String dbName) {
+        this.dbType = dbType;
+        this.dbName = dbName;
+    }
+
+    /**
+     * 表目录页，prefix 不为空时只列出该主题域（表名前缀）下的表
+     */
+    String renderIndex(List<Map<String, Object>> tables, String prefix) {
+        StringBuilder html = new StringBuilder(256 + tables.size() * 160);
+        String title = prefix == null ? nullToEmpty(dbName) : nullToEmpty(dbName) + " / " + prefix + "*";
+        beginPage(html, title);
+        html.append("<h1>").append(escapeHtml(title)).append("</h1>");
+        html.append("<p>").append(escapeHtml(nullToEmpty(dbType))).append("，共 ").append(tables.size()).append(" 张表");
+
+        String query = prefix == null ? "" : "&prefix=" + encode(prefix);
+        html.append(" | 下载: <a href=\"/download?format=xlsx").append(query).append("\">Excel</a>")
+                .append(" <a href=\"/download?format=md").append(query).append("\">Markdown</a></p>");
+        html.append("<form method=\"get\" action=\"/\">主题域（表名前缀）: <input name=\"prefix\" value=\"")
+                .append(escapeHtml(nullToEmpty(prefix))).append("\"> <button>筛选</button></form>");
+
+        html.append("<table><tr><th>序号</th><th>表名</th><th>表备注</th><th>行数(估算)</th><th>数据大小</th><th>下载</th></tr>");
+        int index = 1;
+        for (Map<String, Object> table : tables) {
+            String tableName = String.valueOf(table.get("tableName"));
+            String link = encode(tableName);
+            html.append("<tr><td class=\"num\">").append(index++).append("</td>")
+                    .append("<td><a href=\"/table/").append(link).append("\">").append(escapeHtml(tableName)).append("</a></td>")
+                    .append("<td>").append(escapeHtml(nullToEmpty(table.get("remarks")))).append("</td>")
+                    .append("<td class=\"num\">").append(formatRowCount(table.get("rowCount"))).append("</td>")
+                    .append("<td class=\"num\">").append(formatSize(table.get("dataSize"))).append("</td>")
+                    .append("<td><a href=\"/download/").append(link).append(".xlsx\">xlsx</a> ")
+                    .append("<a href=\"/download/").append(link).append(".md\">md</a></td></tr>");
+        }
+        html.append("</table>");
+        endPage(html);
+        return html.toString();
+    }
+
+    /**
+     * 单表页
+     */
+    String renderTable(Map<String, Object> table) {
+        String tableName = String.valueOf(table.get("tableName"));
+        List<Map<String, Object>> columns = getColumns(table);
+        StringBuilder html = new StringBuilder(512 + columns.size() * 200);
+        beginPage(html, tableName);
+        html.append("<p><a href=\"/\">返回目录</a></p>");
+        html.append("<h1>").append(escapeHtml(tableName)).append("</h1>");
+        html.append("<p>").append(escapeHtml(nullToEmpty(table.get("remarks")))).append("</p>");
+        if (table.get("rowCount") != null || table.get("dataSize") != null) {
+            html.append("<p>行数(估算): ").append(formatRowCount(table.get("rowCount")))
+                    .append("，数据大小: ").append(formatSize(table.get("dataSize"))).append("</p>");
+        }
+        if (table.get("partition") instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> partition = (Map<String, Object>) table.get("partition");
+            html.append("<p>分区: ").append(escapeHtml(PartitionCollector.describe(partition))).append("</p>");
+        }
+        html.append("<p>下载: <a href=\"/download/").append(encode(tableName)).append(".xlsx\">Excel</a> ")
+                .append("<a href=\"/download/").append(encode(tableName)).append(".md\">Markdown</a></p>");
+
+        html.append("<table><tr><th>序号</th><th>列名</th><th>数据类型</th><th>长度</th><th>小数位</th>")
+                .append("<th>主键</th><th>可空</th><th>默认值</th><th>说明</th></tr>");
+        int index = 1;
+        for (Map<String, Object> column : columns) {
+            html.append("<tr><td class=\"num\">").append(index++).append("</td>")
+                    .append("<td>").append(escapeHtml(nullToEmpty(column.get("name")))).append("</td>")
+                    .append("<td>").append(escapeHtml(nullToEmpty(column.get("typeName")))).append("</td>")
+                    .append("<td class=\"num\">").append(nullToEmpty(column.get("length"))).append("</td>")
+                    .append("<td class=\"num\">").append(nullToEmpty(column.get("scale"))).append("</td>")
+                    .append("<td>").append(Boolean.TRUE.equals(column.get("primaryKey")) ? "是" : "").append("</td>")
+                    .append("<td>").append(Boolean.TRUE.equals(column.get("nullable")) ? "是" : "否").append("</td>")
+                    .append("<td>").append(escapeHtml(nullToEmpty(column.get("defaultValue")))).append("</td>")
+                    .append("<td>").append(escapeHtml(nullToEmpty(column.get("remarks")))).append("</td></tr>");
+        }
+        html.append("</table>");
+        if (table.get("ddl") != null) {
+            html.append("<h2>建表语句</h2><pre>").append(escapeHtml(table.get("ddl").toString())).append("</pre>");
+        }
+        endPage(html);
+        return html.toString();
+    }
+
+    /**
+     * Markdown文档
+     */
+    String renderMarkdown(List<Map<String, Object>> tables) {
+        StringBuilder md = new StringBuilder(256 + tables.size() * 1024);
+        md.append("# ").append(escapeMarkdown(nullToEmpty(dbName))).append("\n\n");
+        for (Map<String, Object> table : tables) {
+            md.append("## ").append(escapeMarkdown(String.valueOf(table.get("tableName")))).append("\n\n");
+            String remarks = nullToEmpty(table.get("remarks"));
+            if (!remarks.isEmpty()) {
+                md.append(escapeMarkdown(remarks)).append("\n\n");
+            }
+            md.append("| 序号 | 列名 | 数据类型 | 长度 | 小数位 | 主键 | 可空 | 默认值 | 说明 |\n")
+                    .append("| --- | --- | --- | --- | --- | --- | --- | --- | --- |\n");
+            int index = 1;
+            for (Map<String, Object> column : getColumns(table)) {
+                md.append("| ").append(index++)
+                        .append(" | ").append(escapeMarkdown(nullToEmpty(column.get("name"))))
+                        .append(" | ").append(escapeMarkdown(nullToEmpty(column.get("typeName"))))
+                        .append(" | ").append(nullToEmpty(column.get("length")))
+                        .append(" | ").append(nullToEmpty(column.get("scale")))
+                        .append(" | ").append(Boolean.TRUE.equals(column.get("primaryKey")) ? "是" : "")
+                        .append(" | ").append(Boolean.TRUE.equals(column.get("nullable")) ? "是" : "否")
+                        .append(" | ").append(escapeMarkdown(nullToEmpty(column.get("defaultValue"))))
+                        .append(" | ").append(escapeMarkdown(nullToEmpty(column.get("remarks"))))
+                        .append(" |\n");
+            }
+            md.append("\n");
+            if (table.get("ddl") != null) {
+                md.append("```sql\n").append(table.get("ddl")).append("\n```\n\n");
+            }
+        }
+        return md.toString();
+    }
+
+    private void beginPage(StringBuilder html, String title) {
+        html.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><title>")
+                .append(escapeHtml(title)).append("</title>").append(STYLE).append("</head><body>");
+    }
+
+    private void endPage(StringBuilder html) {
+        html.append("</body></html>");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> getColumns(Map<String, Object> table) {
+        Object columns = table.get("columns");
+        return columns instanceof List ? (List<Map<String, Object>>) columns : Collections.emptyList();
+    }
+
+    private String formatRowCount(Object rowCount) {
+        return rowCount instanceof Number ? String.format("%,d", ((Number) rowCount).longValue()) : "";
+    }
+
+    private String formatSize(Object dataSize) {
+        return dataSize instanceof Number ? TableStatisticsCollector.formatSize(((Number) dataSize).longValue()) : "";
+    }
+
+    static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name()).replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String escapeHtml(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<':
+                    escaped.append("&lt;");
+                    break;
+                case '>':
+                    escaped.append("&gt;");
+                    break;
+                case '&':
+                    escaped.append("&amp;");
+                    break;
+                case '"':
+                    escaped.append("&quot;");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static String escapeMarkdown(String value) {
+        return value.replace("|", "\\|").replace("\r", "").replace("\n", "<br>");
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
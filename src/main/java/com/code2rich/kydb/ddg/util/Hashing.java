@@ -0,0 +1,52 @@
+package com.code2rich.kydb.ddg.util;
+
+/**
+ * 哈希工具
+ */
+public final class Hashing {
+
+    public static final long SEED = 0xcbf29ce484222325L;
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a 64位哈希，再经 MurmurHash3 的 fmix64 打散
+     * 速度快、分布均匀，适合做指纹和基数估算，不适用于安全场景
+     */
+    public static long hash64(CharSequence value) {
+        return finish(update(SEED, value));
+    }
+
+    /**
+     * 增量哈希：以 SEED 为初值依次 update，最后 finish，
+     * 用于对多个字段计算指纹而不拼接字符串
+     */
+    public static long update(long hash, CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash ^= c & 0xff;
+            hash *= 0x100000001b3L;
+            hash ^= c >>> 8;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 增量哈希中写入分隔符，避免 ("ab","c") 与 ("a","bc") 冲突
+     */
+    public static long separator(long hash) {
+        hash ^= 0x1f;
+        return hash * 0x100000001b3L;
+    }
+
+    public static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,160 @@
+package com.code2rich.kydb.ddg.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轻量的流式JSON输出
+ * 边生成边写出，不在内存中构建完整文档
+ */
+public class JsonWriter implements Closeable, Flushable {
+    private final Writer writer;
+    // 记录每一层容器是否已经写过元素，用于决定是否输出逗号
+    private final Deque<boolean[]> stack = new ArrayDeque<>();
+    private boolean afterName;
+
+    public JsonWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        writer.write('{');
+        stack.push(new boolean[] { false });
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        stack.pop();
+        writer.write('}');
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        writer.write('[');
+        stack.push(new boolean[] { false });
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        stack.pop();
+        writer.write(']');
+        return this;
+    }
+
+    public JsonWriter name(String name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writer.write(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * 写出一个值，支持字符串、数字、布尔、null 以及嵌套的 Map/List
+     */
+    public JsonWriter value(Object value) throws IOException {
+        if (value instanceof Map) {
+            beginObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                name(String.valueOf(entry.getKey())).value(entry.getValue());
+            }
+            return endObject();
+        }
+        if (value instanceof List) {
+            beginArray();
+            for (Object item : (List<?>) value) {
+                value(item);
+            }
+            return endArray();
+        }
+
+        beforeValue();
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else {
+            writeString(value.toString());
+        }
+        return this;
+    }
+
+    /**
+     * 写出 "name": value
+     */
+    public JsonWriter field(String name, Object value) throws IOException {
+        return name(name).value(value);
+    }
+
+    /**
+     * 换行，用于JSON Lines等逐行输出的场景
+     */
+    public JsonWriter newLine() throws IOException {
+        writer.write('\n');
+        return this;
+    }
+
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        boolean[] state = stack.peek();
+        if (state != null) {
+            if (state[0]) {
+                writer.write(',');
+            }
+            state[0] = true;
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    // U+2028/U+2029 在JSON中合法，但作为JavaScript脚本加载时会被当成换行
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
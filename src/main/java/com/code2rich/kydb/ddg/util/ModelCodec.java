@@ -0,0 +1,210 @@
+package com.code2rich.kydb.ddg.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 元数据模型（Map/List/基本类型组成的树）的紧凑二进制编码
+ * 重复出现的字符串（键名、类型名等）只写一次，之后以编号引用，
+ * 比Java序列化体积更小、读写更快；编码器和解码器都是有状态的，需成对按顺序使用
+ */
+public final class ModelCodec {
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int STRING_REF = 2;
+    private static final int INTEGER = 3;
+    private static final int LONG = 4;
+    private static final int DOUBLE = 5;
+    private static final int TRUE = 6;
+    private static final int FALSE = 7;
+    private static final int LIST = 8;
+    private static final int MAP = 9;
+
+    // 超过该长度的字符串不放入字典（如备注、源码），避免字典无限增长
+    private static final int MAX_DICTIONARY_STRING = 64;
+
+    private ModelCodec() {
+    }
+
+    /**
+     * 编码器
+     */
+    public static class Encoder {
+        private final DataOutputStream out;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        public Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void write(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                out.writeByte(INTEGER);
+                writeVarLong(((Number) value).intValue());
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                writeVarLong((Long) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                out.writeByte(DOUBLE);
+                out.writeDouble(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                out.writeByte(LIST);
+                writeVarLong(list.size());
+                for (Object item : list) {
+                    write(item);
+                }
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(MAP);
+                writeVarLong(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeString(String.valueOf(entry.getKey()));
+                    write(entry.getValue());
+                }
+            } else {
+                // 其他类型（如BigDecimal、日期）按字符串保存
+                writeString(value.toString());
+            }
+        }
+
+        /**
+         * 只写出列表头，随后需要按顺序写出 size 个元素；
+         * 与 write(List) 的编码相同，用于不把整个列表放在内存中的流式写出
+         */
+        public void writeListHeader(int size) throws IOException {
+            out.writeByte(LIST);
+            writeVarLong(size);
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer ref = dictionary.get(value);
+            if (ref != null) {
+                out.writeByte(STRING_REF);
+                writeVarLong(ref);
+                return;
+            }
+            if (value.length() <= MAX_DICTIONARY_STRING) {
+                dictionary.put(value, dictionary.size());
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeByte(STRING);
+            writeVarLong(bytes.length);
+            out.write(bytes);
+        }
+
+        // ZigZag + 变长编码，小整数只占1个字节
+        private void writeVarLong(long value) throws IOException {
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                out.writeByte((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            out.writeByte((int) zigzag);
+        }
+    }
+
+    /**
+     * 解码器
+     */
+    public static class Decoder {
+        private final DataInputStream in;
+        private final List<String> dictionary = new ArrayList<>();
+
+        public Decoder(DataInputStream in) {
+            this.in = in;
+        }
+
+        public Object read() throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case INTEGER:
+                    return (int) readVarLong();
+                case LONG:
+                    return readVarLong();
+                case DOUBLE:
+                    return in.readDouble();
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case LIST: {
+                    int size = (int) readVarLong();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(read());
+                    }
+                    return list;
+                }
+                case MAP: {
+                    int size = (int) readVarLong();
+                    Map<String, Object> map = new LinkedHashMap<>(Math.max(4, size * 2));
+                    for (int i = 0; i < size; i++) {
+                        String key = readString(in.readUnsignedByte());
+                        map.put(key, read());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IOException("Unknown model codec tag: " + tag);
+            }
+        }
+
+        /**
+         * 读取列表头，返回元素个数，随后可逐个调用 read() 读取元素
+         */
+        public int readListHeader() throws IOException {
+            int tag = in.readUnsignedByte();
+            if (tag != LIST) {
+                throw new IOException("Expected list but got tag: " + tag);
+            }
+            return (int) readVarLong();
+        }
+
+        private String readString(int tag) throws IOException {
+            if (tag == STRING_REF) {
+                return dictionary.get((int) readVarLong());
+            }
+            if (tag != STRING) {
+                throw new IOException("Expected string but got tag: " + tag);
+            }
+            byte[] bytes = new byte[(int) readVarLong()];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            if (value.length() <= MAX_DICTIONARY_STRING) {
+                dictionary.add(value);
+            }
+            return value;
+        }
+
+        private long readVarLong() throws IOException {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = in.readUnsignedByte();
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (result >>> 1) ^ -(result & 1);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.code2rich.kydb.ddg.watch;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 目录变更检测
+ * 每次轮询只执行一条查询，读取每张表的变更标记（DDL时间戳等），通过比较前后两次的标记判断哪些表发生了变化
+ */
+public class CatalogChangeDetector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogChangeDetector.class);
+
+    // Oracle: COMMENT 语句不会更新 LAST_DDL_TIME，因此同时比较表注释和列注释的哈希（各列哈希求和，与顺序无关且不受长度限制）
+    private static final String ORACLE_SQL =
+            "SELECT o.OBJECT_NAME, TO_CHAR(o.LAST_DDL_TIME, 'YYYYMMDDHH24MISS') || ':' || c.COMMENTS || ':' "
+                    + "|| (SELECT SUM(ORA_HASH(cc.COLUMN_NAME || '=' || cc.COMMENTS)) FROM ALL_COL_COMMENTS cc "
+                    + "WHERE cc.OWNER = o.OWNER AND cc.TABLE_NAME = o.OBJECT_NAME AND cc.COMMENTS IS NOT NULL) "
+                    + "FROM ALL_OBJECTS o LEFT JOIN ALL_TAB_COMMENTS c ON c.OWNER = o.OWNER AND c.TABLE_NAME = o.OBJECT_NAME "
+                    + "WHERE o.OWNER = NVL(?, SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')) AND o.OBJECT_TYPE = 'TABLE'";
+
+    // MySQL: ALTER TABLE 会更新 CREATE_TIME，注释变化通过 TABLE_COMMENT 体现；不使用会随DML变化的 UPDATE_TIME
+    private static final String MYSQL_SQL =
+            "SELECT TABLE_NAME, CONCAT(COALESCE(CREATE_TIME, ''), ':', TABLE_COMMENT) "
+                    + "FROM information_schema.TABLES "
+                    + "WHERE TABLE_SCHEMA = COALESCE(?, DATABASE()) AND TABLE_TYPE = 'BASE TABLE'";
+
+    // PostgreSQL 没有DDL时间戳：DDL会产生新版本的 pg_class/pg_attribute 行（xmin变化），注释保存在 pg_description
+    private static final String POSTGRESQL_SQL =
+            "SELECT c.relname, c.xmin::text || ':' "
+                    + "|| COALESCE((SELECT max(a.xmin::text::bigint) FROM pg_catalog.pg_attribute a WHERE a.attrelid = c.oid), 0) || ':' "
+                    + "|| COALESCE((SELECT md5(string_agg(d.objsubid || '=' || d.description, ',' ORDER BY d.objsubid)) "
+                    + "FROM pg_catalog.pg_description d WHERE d.objoid = c.oid AND d.classoid = 'pg_catalog.pg_class'::regclass), '') "
+                    + "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace "
+                    + "WHERE n.nspname = COALESCE(CAST(? AS TEXT), current_schema()) AND c.relkind IN ('r', 'p')";
+
+    // SQL Server: 表和列的 MS_Description 等扩展属性不会更新 modify_date，因此同时比较扩展属性的校验和
+    private static final String SQLSERVER_SQL =
+            "SELECT t.name, CONVERT(VARCHAR(30), t.modify_date, 126) + ':' "
+                    + "+ COALESCE(CONVERT(VARCHAR(12), (SELECT CHECKSUM_AGG(CHECKSUM(ep.minor_id, ep.name, CAST(ep.value AS NVARCHAR(4000)))) "
+                    + "FROM sys.extended_properties ep WHERE ep.class = 1 AND ep.major_id = t.object_id)), '') "
+                    + "FROM sys.tables t JOIN sys.schemas s ON s.schema_id = t.schema_id "
+                    + "WHERE s.name = COALESCE(?, SCHEMA_NAME())";
+
+    private final DatabaseDialect dialect;
+    private final String customSql;
+    private boolean fallback;
+
+    /**
+     * @param dialect 数据库方言
+     * @param customSql 自定义标记查询（如读取事件触发器写入的DDL日志表），返回 (表名, 标记) 两列，可包含一个schema参数占位符；为空时使用内置查询
+     */
+    public CatalogChangeDetector(DatabaseDialect dialect, String customSql) {
+        this.dialect = dialect;
+        this.customSql = customSql;
+    }
+
+    /**
+     * 读取当前所有表的变更标记
+     * @return 表名到变更标记的映射
+     */
+    public Map<String, String> readMarkers(Connection connection, String schema) throws SQLException {
+        String sql = customSql != null ? customSql : getMarkerSql();
+        if (sql != null && !fallback) {
+            try {
+                return query(connection, sql, resolveSchema(connection, schema));
+            } catch (SQLException e) {
+                if (customSql != null) {
+                    throw e;
+                }
+                // 权限不足等情况下退化为基于JDBC元数据的检测
+                LOGGER.warn("Catalog change query failed, falling back to JDBC metadata: {}", e.getMessage());
+                fallback = true;
+            }
+        }
+        return readMetadataMarkers(connection, schema);
+    }
+
+    private Map<String, String> query(Connection connection, String sql, String schema) throws SQLException {
+        Map<String, String> markers = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            // 自定义查询不一定带schema参数
+            if (sql.indexOf('?') >= 0) {
+                statement.setString(1, schema);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    markers.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        return markers;
+    }
+
+    // 通用退化方案：只能发现表的增删和表注释变化
+    private Map<String, String> readMetadataMarkers(Connection connection, String schema) throws SQLException {
+        Map<String, String> markers = new HashMap<>();
+        try (ResultSet rs = connection.getMetaData().getTables(connection.getCatalog(), schema, "%", new String[] { "TABLE" })) {
+            while (rs.next()) {
+                markers.put(rs.getString("TABLE_NAME"), String.valueOf(rs.getString("REMARKS")));
+            }
+        }
+        return markers;
+    }
+
+    private String getMarkerSql() {
+        switch (dialect) {
+            case ORACLE:
+                return ORACLE_SQL;
+            case MYSQL:
+            case MARIADB:
+                return MYSQL_SQL;
+            case POSTGRESQL:
+                return POSTGRESQL_SQL;
+            case SQLSERVER:
+                return SQLSERVER_SQL;
+            default:
+                return null;
+        }
+    }
+
+    private String resolveSchema(Connection connection, String schema) throws SQLException {
+        if (schema != null && !schema.isEmpty()) {
+            return dialect == DatabaseDialect.ORACLE ? schema.toUpperCase() : schema;
+        }
+        return dialect.isMySqlFamily() ? connection.getCatalog() : null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.code2rich.kydb.ddg.watch;
+
+/**
+ * 监听模式配置
+ */
+public class WatchOptions {
+    // 基础轮询间隔（秒）
+    private int intervalSeconds = 60;
+    // 没有变化时逐步退避的最大轮询间隔（秒）
+    private int maxIntervalSeconds = 600;
+    // 自定义变更标记查询，为空时使用内置查询
+    private String markerSql;
+
+    public int getIntervalSeconds() {
+        return intervalSeconds;
+    }
+
+    public void setIntervalSeconds(int intervalSeconds) {
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    public int getMaxIntervalSeconds() {
+        return maxIntervalSeconds;
+    }
+
+    public void setMaxIntervalSeconds(int maxIntervalSeconds) {
+        this.maxIntervalSeconds = maxIntervalSeconds;
+    }
+
+    public String getMarkerSql() {
+        return markerSql;
+    }
+
+    public void setMarkerSql(String markerSql) {
+        this.markerSql = markerSql;
+    }
+}
@@ -1,3 +0,0 @@
-public class DatabaseDocumentGeneratorTest {
-
-}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.code2rich.kydb.ddg.datasource;
+
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class DriverProfileTest {
+
+    @Test
+    public void masksSensitivePropertiesForLogging() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("defaultRowPrefetch", "500");
+        properties.put("sslpassword", "s3cret");
+        properties.put("oracle.net.wallet_password", "w");
+        properties.put("clientSecret", "c");
+        properties.put("accessToken", "t");
+
+        Map<String, String> masked = DriverProfile.mask(properties);
+
+        assertEquals("500", masked.get("defaultRowPrefetch"));
+        assertEquals("******", masked.get("sslpassword"));
+        assertEquals("******", masked.get("oracle.net.wallet_password"));
+        assertEquals("******", masked.get("clientSecret"));
+        assertEquals("******", masked.get("accessToken"));
+        // 原属性不变，仍交给驱动
+        assertEquals("s3cret", properties.get("sslpassword"));
+    }
+
+    @Test
+    public void oracleProfileLeavesRemarksReportingOff() {
+        // 注释由 CommentCollector 一次性读取，开启 remarksReporting 只会让逐表的列查询变慢
+        Map<String, String> properties = DriverProfile.ORACLE.buildProperties(30, new LinkedHashMap<>());
+        assertFalse(properties.containsKey("remarksReporting"));
+        assertEquals("500", properties.get("defaultRowPrefetch"));
+    }
+
+    @Test
+    public void userPropertiesOverrideProfileDefaults() {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        overrides.put("defaultRowPrefetch", "50");
+        Map<String, String> properties = DriverProfile.ORACLE.buildProperties(30, overrides);
+        assertEquals("50", properties.get("defaultRowPrefetch"));
+    }
+}
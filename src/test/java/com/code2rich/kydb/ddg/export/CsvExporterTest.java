@@ -0,0 +1,90 @@
+package com.code2rich.kydb.ddg.export;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class CsvExporterTest {
+
+    @Test
+    public void leavesPlainValuesUnquoted() {
+        assertEquals("orders", escape("orders"));
+        assertEquals("订单 表", escape("订单 表"));
+    }
+
+    @Test
+    public void quotesSeparatorsAndDoublesQuotes() {
+        assertEquals("\"a,b\"", escape("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", escape("say \"hi\""));
+        assertEquals("\"line1\nline2\"", escape("line1\nline2"));
+        assertEquals("\"a\r\nb\"", escape("a\r\nb"));
+    }
+
+    @Test
+    public void doublesBackslashesSoLoadDataKeepsThemLiteral() {
+        // 默认值 '\n' 和正则中的反斜杠按原样导入，不被 ESCAPED BY '\\' 转成控制字符
+        assertEquals("\"'\\\\n'\"", escape("'\\n'"));
+        assertEquals("\"^\\\\d+\\\\t$\"", escape("^\\d+\\t$"));
+        // 内容恰好是 \N 的字符串不是 NULL
+        assertEquals("\"\\\\N\"", escape("\\N"));
+    }
+
+    @Test
+    public void distinguishesNullFromEmptyString() throws IOException {
+        Map<String, Object> column = new LinkedHashMap<>();
+        column.put("name", "note");
+        column.put("typeName", "varchar");
+        column.put("primaryKey", false);
+        column.put("nullable", true);
+        column.put("defaultValue", "");
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("tableName", "orders");
+        table.put("remarks", null);
+        List<Map<String, Object>> columns = new ArrayList<>(Collections.singletonList(column));
+        table.put("columns", columns);
+
+        StringWriter out = new StringWriter();
+        MetadataExporter exporter = MetadataExporter.create(ExportFormat.CSV, ExportRecord.COLUMN, out);
+        exporter.begin("MySQL", "shop");
+        exporter.accept(table);
+        exporter.flush();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("schema_version,db_type,db_name,table,table_remarks,position,column,type_name,data_type,length,"
+                + "scale,primary_key,nullable,default_value,remarks,null_ratio,distinct_count,min_value,max_value,"
+                + "top_values", lines[0]);
+        assertEquals("1,MySQL,shop,orders,\\N,1,note,varchar,\\N,\\N,\\N,false,true,\"\",\\N,\\N,\\N,\\N,\\N,\\N",
+                lines[1]);
+    }
+
+    @Test
+    public void writesNumericNullsAsNullMarker() throws IOException {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("tableName", "orders");
+        table.put("rowCount", null);
+        table.put("dataSize", 16384L);
+        table.put("columns", new ArrayList<>());
+
+        StringWriter out = new StringWriter();
+        MetadataExporter exporter = MetadataExporter.create(ExportFormat.CSV, ExportRecord.TABLE, out);
+        exporter.begin("MySQL", "shop");
+        exporter.accept(table);
+
+        assertEquals("1,MySQL,shop,orders,\\N,\\N,16384,0,\\N,\\N", out.toString().split("\n")[1]);
+    }
+
+    private static String escape(String value) {
+        StringBuilder line = new StringBuilder();
+        CsvExporter.appendEscaped(line, value);
+        return line.toString();
+    }
+}
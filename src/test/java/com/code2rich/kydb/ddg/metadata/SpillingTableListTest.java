@@ -0,0 +1,185 @@
+package com.code2rich.kydb.ddg.metadata;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingTableListTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void keepsTablesInHeapWithinBudget() throws IOException {
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), Long.MAX_VALUE)) {
+            List<Map<String, Object>> added = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                Map<String, Object> table = table("t" + i, 5);
+                added.add(table);
+                list.add(table);
+            }
+            assertEquals(0, list.getSpilledBytes());
+            assertEquals(0, segmentFiles().length);
+            for (int i = 0; i < added.size(); i++) {
+                assertSame(added.get(i), list.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void readsBackEvictedTables() throws IOException {
+        long tableBytes = SpillingTableList.estimateSize(table("t00", 20));
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), tableBytes * 3)) {
+            for (int i = 0; i < 50; i++) {
+                list.add(table(String.format("t%02d", i), 20));
+            }
+            assertEquals(50, list.size());
+            assertTrue(list.getSpilledBytes() > 0);
+
+            // 顺序遍历和随机访问都得到原来的内容
+            int index = 0;
+            for (Map<String, Object> table : list) {
+                assertEquals(table(String.format("t%02d", index++), 20), table);
+            }
+            assertEquals(table("t07", 20), list.get(7));
+            assertEquals(table("t42", 20), list.get(42));
+        }
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedTable() throws IOException {
+        Map<String, Object> t0 = table("t0", 10);
+        Map<String, Object> t1 = table("t1", 10);
+        Map<String, Object> t2 = table("t2", 10);
+        long tableBytes = SpillingTableList.estimateSize(t0);
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), tableBytes * 2)) {
+            list.add(t0);
+            list.add(t1);
+            assertEquals(0, list.getSpilledBytes());
+
+            // 访问 t0 后 t1 成为最久未访问的表，加入 t2 时被淘汰
+            assertSame(t0, list.get(0));
+            list.add(t2);
+            assertTrue(list.getSpilledBytes() > 0);
+            assertSame(t0, list.get(0));
+            assertSame(t2, list.get(2));
+
+            Map<String, Object> reloaded = list.get(1);
+            assertNotSame(t1, reloaded);
+            assertEquals(t1, reloaded);
+        }
+    }
+
+    @Test
+    public void spillsEachTableOnlyOnce() throws IOException {
+        long tableBytes = SpillingTableList.estimateSize(table("t0", 10));
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), tableBytes)) {
+            list.add(table("t0", 10));
+            list.add(table("t1", 10));
+            long spilled = list.getSpilledBytes();
+            assertTrue(spilled > 0);
+            // 反复换入换出已落盘的表不会再次写入
+            for (int i = 0; i < 10; i++) {
+                list.get(i % 2);
+            }
+            assertEquals(spilled * 2, list.getSpilledBytes());
+        }
+    }
+
+    @Test
+    public void rollsOverToNewSegments() throws IOException {
+        int segmentSize = 4096;
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), 1, segmentSize)) {
+            for (int i = 0; i < 100; i++) {
+                list.add(table("t" + i, 10));
+            }
+            // 超过段大小的表单独占一个段
+            Map<String, Object> large = table("large", 10);
+            large.put("remarks", String.join("", Collections.nCopies(1000, "长备注")));
+            list.add(large);
+            list.add(table("after", 10));
+            list.add(table("last", 1));
+
+            assertTrue(list.getSpilledBytes() > segmentSize * 2L);
+            assertTrue(segmentFiles().length > 2);
+            for (File segment : segmentFiles()) {
+                // 只有单独的大表会超过段大小
+                assertTrue(segment.length() <= segmentSize || segment.length() > 3000 * 3);
+            }
+
+            // 已封存映射的段、当前段和堆内的表都能读出
+            for (int i = 0; i < 100; i++) {
+                assertEquals(table("t" + i, 10), list.get(i));
+            }
+            assertEquals(large, list.get(100));
+            assertEquals(table("after", 10), list.get(101));
+            assertEquals(table("last", 1), list.get(102));
+        }
+    }
+
+    @Test
+    public void closeDeletesSegmentFiles() throws IOException {
+        SpillingTableList list = new SpillingTableList(folder.getRoot(), 1, 1024);
+        for (int i = 0; i < 20; i++) {
+            list.add(table("t" + i, 10));
+        }
+        assertTrue(segmentFiles().length > 0);
+        list.close();
+        assertEquals(0, segmentFiles().length);
+        // 重复关闭无影响
+        list.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsAccessAfterClose() throws IOException {
+        SpillingTableList list = new SpillingTableList(folder.getRoot(), 1);
+        list.add(table("t0", 1));
+        list.close();
+        list.get(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsIndexOutOfRange() throws IOException {
+        try (SpillingTableList list = new SpillingTableList(folder.getRoot(), 1)) {
+            list.add(table("t0", 1));
+            list.get(1);
+        }
+    }
+
+    private File[] segmentFiles() {
+        File[] files = folder.getRoot().listFiles((dir, name) -> name.endsWith(".seg"));
+        return files != null ? files : new File[0];
+    }
+
+    private static Map<String, Object> table(String name, int columnCount) {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("tableName", name);
+        table.put("remarks", name + " remarks");
+        table.put("rowCount", 1000L);
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            Map<String, Object> column = new LinkedHashMap<>();
+            column.put("name", name + "_col" + i);
+            column.put("typeName", "varchar");
+            column.put("length", 64);
+            column.put("primaryKey", i == 0);
+            column.put("nullable", i != 0);
+            column.put("remarks", "column " + i);
+            columns.add(column);
+        }
+        table.put("columns", columns);
+        return table;
+    }
+}
@@ -0,0 +1,71 @@
+package com.code2rich.kydb.ddg.resilience;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    @Test
+    public void opensAfterThresholdAndClosesOnSuccessfulProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, 0, 5);
+        assertFalse(breaker.acquire());
+        assertFalse(breaker.onFailure());
+        assertTrue(breaker.onFailure());
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // 冷却结束后放行一次试探调用
+        assertTrue(breaker.acquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.acquire());
+    }
+
+    @Test(timeout = 5000)
+    public void releasedProbeCanBeAcquiredAgain() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 5);
+        breaker.onFailure();
+        assertTrue(breaker.acquire());
+
+        // 试探许可未使用就归还，下一个调用方可以立即取得，而不是一直等待
+        breaker.release(true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.acquire());
+    }
+
+    @Test
+    public void releaseWithoutProbeKeepsPendingProbe() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 5);
+        breaker.onFailure();
+        assertTrue(breaker.acquire());
+
+        // 断开前取得许可的调用方归还时，不能放掉其它调用方持有的试探许可
+        breaker.release(false);
+        Thread waiter = new Thread(() -> {
+            try {
+                breaker.acquire();
+            } catch (InterruptedException ignored) {
+                // 测试结束时中断
+            } catch (CircuitBreaker.CircuitOpenException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waiter.start();
+        waiter.join(300);
+        assertTrue(waiter.isAlive());
+        waiter.interrupt();
+        waiter.join();
+    }
+
+    @Test(expected = CircuitBreaker.CircuitOpenException.class)
+    public void givesUpAfterMaxTrips() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 2);
+        breaker.onFailure();
+        assertTrue(breaker.acquire());
+        breaker.onFailure();
+        breaker.acquire();
+    }
+}
@@ -0,0 +1,361 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.metadata.ModelStoreOptions;
+import com.code2rich.kydb.ddg.metadata.SchemaSnapshot;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DdlSchemaReaderTest {
+
+    private static final String MYSQLDUMP = ""
+            + "-- MySQL dump 10.13  Distrib 8.0.36, for Linux (x86_64)\n"
+            + "--\n"
+            + "-- Host: localhost    Database: shop\n"
+            + "/*!40101 SET @OLD_CHARACTER_SET_CLIENT=@@CHARACTER_SET_CLIENT */;\n"
+            + "/*!40101 SET NAMES utf8mb4 */;\n"
+            + "\n"
+            + "DROP TABLE IF EXISTS `orders`;\n"
+            + "/*!40101 SET @saved_cs_client     = @@character_set_client */;\n"
+            + "/*!50503 SET character_set_client = utf8mb4 */;\n"
+            + "CREATE TABLE `orders` (\n"
+            + "  `id` bigint NOT NULL AUTO_INCREMENT COMMENT '主键',\n"
+            + "  `user_id` int NOT NULL,\n"
+            + "  `amount` decimal(12,2) DEFAULT '0.00' COMMENT '金额; 含税',\n"
+            + "  `note` varchar(255) COLLATE utf8mb4_bin DEFAULT NULL,\n"
+            + "  PRIMARY KEY (`id`),\n"
+            + "  KEY `idx_user` (`user_id`)\n"
+            + ") ENGINE=InnoDB AUTO_INCREMENT=10 DEFAULT CHARSET=utf8mb4 COMMENT='订单';\n"
+            + "/*!40101 SET character_set_client = @saved_cs_client */;\n"
+            + "\n"
+            + "DROP TABLE IF EXISTS `users`;\n"
+            + "CREATE TABLE `users` (\n"
+            + "  `id` int NOT NULL,\n"
+            + "  `name` varchar(64) NOT NULL DEFAULT '' COMMENT 'it\\'s the name',\n"
+            + "  PRIMARY KEY (`id`)\n"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;\n"
+            + "/*!40101 SET SQL_MODE=@OLD_SQL_MODE */;\n";
+
+    // pg_dump -s：名称都带 schema，主键约束和注释在脚本末尾
+    private static final String PG_DUMP = ""
+            + "--\n"
+            + "-- PostgreSQL database dump\n"
+            + "--\n"
+            + "SET statement_timeout = 0;\n"
+            + "SELECT pg_catalog.set_config('search_path', '', false);\n"
+            + "CREATE SCHEMA a;\n"
+            + "CREATE SCHEMA b;\n"
+            + "\n"
+            + "--\n"
+            + "-- Name: users; Type: TABLE; Schema: a; Owner: app\n"
+            + "--\n"
+            + "CREATE TABLE a.users (\n"
+            + "    id integer NOT NULL,\n"
+            + "    name character varying(64) NOT NULL,\n"
+            + "    created_at timestamp without time zone DEFAULT now()\n"
+            + ");\n"
+            + "ALTER TABLE a.users OWNER TO app;\n"
+            + "COMMENT ON TABLE a.users IS 'A 用户';\n"
+            + "COMMENT ON COLUMN a.users.name IS '姓名';\n"
+            + "CREATE TABLE b.users (\n"
+            + "    id bigint NOT NULL,\n"
+            + "    email text\n"
+            + ");\n"
+            + "CREATE TABLE public.orders (\n"
+            + "    id integer NOT NULL,\n"
+            + "    user_id integer,\n"
+            + "    amount numeric(12,2)\n"
+            + ");\n"
+            + "CREATE SEQUENCE public.orders_id_seq AS integer START WITH 1 INCREMENT BY 1;\n"
+            + "ALTER TABLE ONLY public.orders ALTER COLUMN id SET DEFAULT nextval('public.orders_id_seq'::regclass);\n"
+            + "ALTER TABLE ONLY a.users\n"
+            + "    ADD CONSTRAINT users_pkey PRIMARY KEY (id);\n"
+            + "ALTER TABLE ONLY b.users\n"
+            + "    ADD CONSTRAINT users_pkey PRIMARY KEY (email);\n"
+            + "ALTER TABLE ONLY public.orders\n"
+            + "    ADD CONSTRAINT orders_pkey PRIMARY KEY (id);\n"
+            + "ALTER TABLE ONLY public.orders\n"
+            + "    ADD CONSTRAINT orders_user_fk FOREIGN KEY (user_id) REFERENCES a.users(id);\n";
+
+    // DBMS_METADATA.GET_DDL 的输出，带存储子句和 SQLTERMINATOR
+    private static final String ORACLE_METADATA = ""
+            + "\n"
+            + "  CREATE TABLE \"HR\".\"EMPLOYEES\" \n"
+            + "   (\t\"EMPLOYEE_ID\" NUMBER(6,0), \n"
+            + "\t\"FIRST_NAME\" VARCHAR2(20 BYTE), \n"
+            + "\t\"SALARY\" NUMBER(8,2) DEFAULT 0, \n"
+            + "\t\"EMAIL\" VARCHAR2(25 BYTE) CONSTRAINT \"EMP_EMAIL_NN\" NOT NULL ENABLE, \n"
+            + "\t CONSTRAINT \"EMP_EMP_ID_PK\" PRIMARY KEY (\"EMPLOYEE_ID\")\n"
+            + "  USING INDEX PCTFREE 10 INITRANS 2 MAXTRANS 255 COMPUTE STATISTICS \n"
+            + "  TABLESPACE \"EXAMPLE\"  ENABLE\n"
+            + "   ) SEGMENT CREATION IMMEDIATE \n"
+            + "  PCTFREE 10 PCTUSED 40 INITRANS 1 MAXTRANS 255 \n"
+            + " NOCOMPRESS LOGGING\n"
+            + "  STORAGE(INITIAL 65536 NEXT 1048576 MINEXTENTS 1 MAXEXTENTS 2147483645\n"
+            + "  PCTINCREASE 0 FREELISTS 1 FREELIST GROUPS 1\n"
+            + "  BUFFER_POOL DEFAULT FLASH_CACHE DEFAULT CELL_FLASH_CACHE DEFAULT)\n"
+            + "  TABLESPACE \"EXAMPLE\" ;\n"
+            + "\n"
+            + "   COMMENT ON COLUMN \"HR\".\"EMPLOYEES\".\"EMPLOYEE_ID\" IS 'Primary key of employees table.';\n"
+            + "   COMMENT ON TABLE \"HR\".\"EMPLOYEES\"  IS q'[employee's table]';\n"
+            + "\n"
+            + "  CREATE TABLE \"SCOTT\".\"EMPLOYEES\" \n"
+            + "   (\t\"EMPNO\" NUMBER(4,0) NOT NULL ENABLE\n"
+            + "   ) TABLESPACE \"USERS\" ;\n"
+            + "\n"
+            + "  CREATE OR REPLACE EDITIONABLE TRIGGER \"HR\".\"EMP_TRG\" \n"
+            + "  BEFORE INSERT ON \"HR\".\"EMPLOYEES\" FOR EACH ROW\n"
+            + "BEGIN\n"
+            + "  :new.salary := 0;\n"
+            + "END;\n"
+            + "/\n"
+            + "ALTER TRIGGER \"HR\".\"EMP_TRG\" ENABLE;\n";
+
+    // SSMS 生成的脚本，GO 分批，注释用 sp_addextendedproperty
+    private static final String SQLSERVER_SCRIPT = ""
+            + "USE [shop]\n"
+            + "GO\n"
+            + "SET ANSI_NULLS ON\n"
+            + "GO\n"
+            + "CREATE TABLE [dbo].[Users](\n"
+            + "\t[Id] [int] IDENTITY(1,1) NOT NULL,\n"
+            + "\t[Name] [nvarchar](50) NOT NULL,\n"
+            + "\t[Status] [tinyint] NOT NULL,\n"
+            + " CONSTRAINT [PK_Users] PRIMARY KEY CLUSTERED \n"
+            + "(\n"
+            + "\t[Id] ASC\n"
+            + ")WITH (PAD_INDEX = OFF, STATISTICS_NORECOMPUTE = OFF) ON [PRIMARY]\n"
+            + ") ON [PRIMARY]\n"
+            + "GO\n"
+            + "CREATE TABLE [sales].[Users](\n"
+            + "\t[Id] [int] NOT NULL\n"
+            + ") ON [PRIMARY]\n"
+            + "GO\n"
+            + "ALTER TABLE [dbo].[Users] ADD  CONSTRAINT [DF_Users_Status]  DEFAULT ((0)) FOR [Status]\n"
+            + "GO\n"
+            + "EXEC sys.sp_addextendedproperty @name=N'MS_Description', @value=N'用户' , "
+            + "@level0type=N'SCHEMA',@level0name=N'dbo', @level1type=N'TABLE',@level1name=N'Users'\n"
+            + "GO\n"
+            + "EXEC sys.sp_addextendedproperty @name=N'MS_Description', @value=N'状态; 0 正常' , "
+            + "@level0type=N'SCHEMA',@level0name=N'dbo', @level1type=N'TABLE',@level1name=N'Users', "
+            + "@level2type=N'COLUMN',@level2name=N'Status'\n"
+            + "GO\n"
+            + "EXEC sys.sp_addextendedproperty @name=N'MS_Description', @value=N'销售用户' , "
+            + "@level0type=N'SCHEMA',@level0name=N'sales', @level1type=N'TABLE',@level1name=N'Users'\n"
+            + "GO\n";
+
+    @Test
+    public void readsMysqldumpWithoutData() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.MYSQL, null, false), MYSQLDUMP);
+        assertEquals("MySQL", snapshot.getDbType());
+        assertTrue(snapshot.getFailures().isEmpty());
+        assertEquals(Arrays.asList("orders", "users"), tableNames(snapshot));
+
+        Map<String, Object> orders = table(snapshot, "orders");
+        assertEquals("订单", orders.get("remarks"));
+        assertEquals(Arrays.asList("id", "user_id", "amount", "note"), columnNames(orders));
+        Map<String, Object> id = column(orders, "id");
+        assertEquals(true, id.get("primaryKey"));
+        assertEquals(false, id.get("nullable"));
+        assertEquals("主键", id.get("remarks"));
+        assertEquals(Types.BIGINT, id.get("dataType"));
+        Map<String, Object> amount = column(orders, "amount");
+        assertEquals(Types.DECIMAL, amount.get("dataType"));
+        assertEquals(12, amount.get("length"));
+        assertEquals(2, amount.get("scale"));
+        assertEquals("金额; 含税", amount.get("remarks"));
+        assertEquals(false, column(orders, "user_id").get("primaryKey"));
+        assertNull(column(orders, "note").get("defaultValue"));
+        assertEquals(true, column(orders, "note").get("nullable"));
+
+        assertEquals("it's the name", column(table(snapshot, "users"), "name").get("remarks"));
+    }
+
+    @Test
+    public void resolvesQualifiedAndUnqualifiedMySqlNames() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.MYSQL, null, false),
+                "CREATE TABLE t (id INT);\n"
+                        + "ALTER TABLE shop.t ADD COLUMN name VARCHAR(10);\n"
+                        + "USE `crm`;\n"
+                        + "CREATE TABLE t (code INT);\n"
+                        + "ALTER TABLE t ADD PRIMARY KEY (code);\n");
+        // USE 之后的同名表属于另一个库，不覆盖之前的表
+        assertEquals(Arrays.asList("crm.t", "t"), tableNames(snapshot));
+        assertEquals(Arrays.asList("id", "name"), columnNames(table(snapshot, "t")));
+        assertEquals(true, column(table(snapshot, "crm.t"), "code").get("primaryKey"));
+    }
+
+    @Test
+    public void laterCreateReplacesDuplicateTable() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.MYSQL, null, false),
+                "CREATE TABLE `t` (`a` INT);\n"
+                        + "CREATE TABLE `T` (`b` INT);\n");
+        assertEquals(Arrays.asList("T"), tableNames(snapshot));
+        assertEquals(Arrays.asList("b"), columnNames(table(snapshot, "T")));
+    }
+
+    @Test
+    public void keepsSameTableNameInDifferentPostgreSqlSchemas() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.POSTGRESQL, null, false), PG_DUMP);
+        assertTrue(snapshot.getFailures().isEmpty());
+        assertEquals(Arrays.asList("a.users", "b.users", "public.orders"), tableNames(snapshot));
+
+        Map<String, Object> aUsers = table(snapshot, "a.users");
+        assertEquals("A 用户", aUsers.get("remarks"));
+        assertEquals("姓名", column(aUsers, "name").get("remarks"));
+        assertEquals(true, column(aUsers, "id").get("primaryKey"));
+        assertNull(column(aUsers, "email"));
+        assertEquals(Types.VARCHAR, column(aUsers, "name").get("dataType"));
+        assertEquals(64, column(aUsers, "name").get("length"));
+
+        // 另一个 schema 的同名表不受 a.users 的注释和约束影响
+        Map<String, Object> bUsers = table(snapshot, "b.users");
+        assertNull(bUsers.get("remarks"));
+        assertEquals(Arrays.asList("id", "email"), columnNames(bUsers));
+        assertEquals(false, column(bUsers, "id").get("primaryKey"));
+        assertEquals(true, column(bUsers, "email").get("primaryKey"));
+
+        Map<String, Object> orders = table(snapshot, "public.orders");
+        assertEquals(true, column(orders, "id").get("primaryKey"));
+        assertEquals(false, column(orders, "user_id").get("primaryKey"));
+    }
+
+    @Test
+    public void followsPostgreSqlSearchPath() throws IOException {
+        String script = "SET search_path = a, pg_catalog;\n"
+                + "CREATE TABLE users (id integer);\n"
+                + "SET search_path = b, pg_catalog;\n"
+                + "CREATE TABLE users (id integer, email text);\n"
+                + "COMMENT ON TABLE users IS 'B 用户';\n"
+                + "COMMENT ON TABLE a.users IS 'A 用户';\n";
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.POSTGRESQL, null, false), script);
+        assertEquals(Arrays.asList("a.users", "b.users"), tableNames(snapshot));
+        assertEquals("A 用户", table(snapshot, "a.users").get("remarks"));
+        assertEquals("B 用户", table(snapshot, "b.users").get("remarks"));
+
+        // 只读取一个 schema 时表名不带前缀
+        snapshot = read(new DdlSchemaReader(DatabaseDialect.POSTGRESQL, "b", false), script);
+        assertEquals(Arrays.asList("users"), tableNames(snapshot));
+        assertEquals(Arrays.asList("id", "email"), columnNames(table(snapshot, "users")));
+    }
+
+    @Test
+    public void readsOracleMetadataDdl() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.ORACLE, null, true), ORACLE_METADATA);
+        assertEquals("Oracle", snapshot.getDbType());
+        assertTrue(snapshot.getFailures().isEmpty());
+        assertEquals(Arrays.asList("HR.EMPLOYEES", "SCOTT.EMPLOYEES"), tableNames(snapshot));
+
+        Map<String, Object> employees = table(snapshot, "HR.EMPLOYEES");
+        assertEquals("employee's table", employees.get("remarks"));
+        assertEquals(Arrays.asList("EMPLOYEE_ID", "FIRST_NAME", "SALARY", "EMAIL"), columnNames(employees));
+        Map<String, Object> id = column(employees, "EMPLOYEE_ID");
+        assertEquals(true, id.get("primaryKey"));
+        assertEquals(false, id.get("nullable"));
+        assertEquals("Primary key of employees table.", id.get("remarks"));
+        assertEquals(Types.NUMERIC, id.get("dataType"));
+        assertEquals(6, id.get("length"));
+        assertEquals(Types.VARCHAR, column(employees, "FIRST_NAME").get("dataType"));
+        assertEquals(20, column(employees, "FIRST_NAME").get("length"));
+        assertEquals("0", column(employees, "SALARY").get("defaultValue"));
+        assertEquals(false, column(employees, "EMAIL").get("nullable"));
+        // 建表语句和之后修改它的注释语句
+        String ddl = (String) employees.get("ddl");
+        assertTrue(ddl.startsWith("CREATE TABLE \"HR\".\"EMPLOYEES\""));
+        assertTrue(ddl.contains("COMMENT ON TABLE"));
+        assertFalse(ddl.contains("TRIGGER"));
+
+        Map<String, Object> scott = table(snapshot, "SCOTT.EMPLOYEES");
+        assertNull(scott.get("remarks"));
+        assertEquals(Arrays.asList("EMPNO"), columnNames(scott));
+    }
+
+    @Test
+    public void readsSqlServerScriptWithExtendedProperties() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.SQLSERVER, null, false), SQLSERVER_SCRIPT);
+        assertEquals("Microsoft SQL Server", snapshot.getDbType());
+        assertTrue(snapshot.getFailures().isEmpty());
+        assertEquals(Arrays.asList("dbo.Users", "sales.Users"), tableNames(snapshot));
+
+        Map<String, Object> users = table(snapshot, "dbo.Users");
+        assertEquals("用户", users.get("remarks"));
+        assertEquals(true, column(users, "Id").get("primaryKey"));
+        assertEquals(Types.NVARCHAR, column(users, "Name").get("dataType"));
+        assertEquals(50, column(users, "Name").get("length"));
+        Map<String, Object> status = column(users, "Status");
+        assertEquals("状态; 0 正常", status.get("remarks"));
+        assertEquals("((0))", status.get("defaultValue"));
+
+        Map<String, Object> salesUsers = table(snapshot, "sales.Users");
+        assertEquals("销售用户", salesUsers.get("remarks"));
+        assertNull(column(salesUsers, "Id").get("remarks"));
+    }
+
+    @Test
+    public void recordsUnparsableStatementsAsFailures() throws IOException {
+        SchemaSnapshot snapshot = read(new DdlSchemaReader(DatabaseDialect.POSTGRESQL, null, false),
+                "CREATE TABLE t (id integer);\n"
+                        + "COMMENT ON TABLE t 'missing is';\n"
+                        + "CREATE TABLE u (id integer);\n");
+        assertEquals(Arrays.asList("t", "u"), tableNames(snapshot));
+        assertEquals(1, snapshot.getFailures().size());
+        assertEquals("test.sql:2", snapshot.getFailures().get(0).getTableName());
+    }
+
+    private static SchemaSnapshot read(DdlSchemaReader reader, String script) throws IOException {
+        reader.read(new BufferedReader(new StringReader(script)), "test.sql");
+        return reader.toSnapshot("test", ModelStoreOptions.defaults());
+    }
+
+    private static List<String> tableNames(SchemaSnapshot snapshot) {
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> table : snapshot.getTables()) {
+            names.add((String) table.get("tableName"));
+        }
+        return names;
+    }
+
+    private static Map<String, Object> table(SchemaSnapshot snapshot, String name) {
+        for (Map<String, Object> table : snapshot.getTables()) {
+            if (name.equals(table.get("tableName"))) {
+                return table;
+            }
+        }
+        throw new AssertionError("No table " + name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> columns(Map<String, Object> table) {
+        return (List<Map<String, Object>>) table.get("columns");
+    }
+
+    private static List<String> columnNames(Map<String, Object> table) {
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> column : columns(table)) {
+            names.add((String) column.get("name"));
+        }
+        return names;
+    }
+
+    private static Map<String, Object> column(Map<String, Object> table, String name) {
+        for (Map<String, Object> column : columns(table)) {
+            if (name.equals(column.get("name"))) {
+                return column;
+            }
+        }
+        return null;
+    }
+}
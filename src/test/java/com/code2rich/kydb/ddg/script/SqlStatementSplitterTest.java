@@ -0,0 +1,187 @@
+package com.code2rich.kydb.ddg.script;
+
+import com.code2rich.kydb.ddg.metadata.DatabaseDialect;
+import com.code2rich.kydb.ddg.script.SqlStatementSplitter.SqlStatement;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SqlStatementSplitterTest {
+
+    @Test
+    public void splitsOnSemicolonsAndSkipsLeadingComments() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.POSTGRESQL,
+                "-- header; not a statement\n"
+                        + "SELECT 1;\n"
+                        + "/* block; comment */ SELECT 2; SELECT 3\n"
+                        + "  ;\n"
+                        + "SELECT '--; not a comment' -- trailing; comment\n"
+                        + ";\n"
+                        + "SELECT 4");
+        assertEquals(5, statements.size());
+        assertEquals("SELECT 1", statements.get(0).getSql());
+        assertEquals(2, statements.get(0).getLine());
+        assertEquals("SELECT 2", statements.get(1).getSql());
+        assertEquals("SELECT 3", statements.get(2).getSql());
+        assertEquals("SELECT '--; not a comment' -- trailing; comment", statements.get(3).getSql());
+        assertEquals(5, statements.get(3).getLine());
+        // 脚本末尾没有分隔符的语句
+        assertEquals("SELECT 4", statements.get(4).getSql());
+    }
+
+    @Test
+    public void keepsMultiLineBlockComments() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.MYSQL,
+                "SELECT 1 /* spans;\nlines; */ FROM dual;\nSELECT 2;");
+        assertEquals(2, statements.size());
+        assertEquals("SELECT 1 /* spans;\nlines; */ FROM dual", statements.get(0).getSql());
+    }
+
+    @Test
+    public void honoursMySqlDelimiterDirective() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.MYSQL,
+                "DELIMITER $$\n"
+                        + "CREATE PROCEDURE p()\n"
+                        + "BEGIN\n"
+                        + "  SELECT 1;\n"
+                        + "  SELECT 2;\n"
+                        + "END$$\n"
+                        + "DELIMITER ;\n"
+                        + "CALL p();");
+        assertEquals(2, statements.size());
+        assertEquals("CREATE PROCEDURE p()\nBEGIN\n  SELECT 1;\n  SELECT 2;\nEND", statements.get(0).getSql());
+        assertEquals(2, statements.get(0).getLine());
+        assertEquals("CALL p()", statements.get(1).getSql());
+    }
+
+    @Test
+    public void handlesMySqlBackslashEscapes() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.MYSQL,
+                "INSERT INTO t VALUES ('it\\'s; fine', \"say \\\"hi\\\"; bye\");\n"
+                        + "INSERT INTO t VALUES ('a\\\\');\n"
+                        + "SELECT `odd;name` FROM t;");
+        assertEquals(3, statements.size());
+        assertEquals("INSERT INTO t VALUES ('it\\'s; fine', \"say \\\"hi\\\"; bye\")", statements.get(0).getSql());
+        assertEquals("INSERT INTO t VALUES ('a\\\\')", statements.get(1).getSql());
+        assertEquals("SELECT `odd;name` FROM t", statements.get(2).getSql());
+    }
+
+    @Test
+    public void doublesQuotesInStandardStrings() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.POSTGRESQL,
+                "SELECT 'it''s; fine';\n"
+                        // 标准字符串中反斜杠不是转义符
+                        + "SELECT 'a\\'; SELECT 2;");
+        assertEquals(3, statements.size());
+        assertEquals("SELECT 'it''s; fine'", statements.get(0).getSql());
+        assertEquals("SELECT 'a\\'", statements.get(1).getSql());
+    }
+
+    @Test
+    public void handlesPostgreSqlEscapeStrings() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.POSTGRESQL,
+                "SELECT E'it\\'s; fine', e'\\\\';\n"
+                        + "SELECT name'x'; SELECT 2;");
+        assertEquals(3, statements.size());
+        assertEquals("SELECT E'it\\'s; fine', e'\\\\'", statements.get(0).getSql());
+        assertEquals("SELECT name'x'", statements.get(1).getSql());
+    }
+
+    @Test
+    public void handlesPostgreSqlDollarQuotes() throws IOException {
+        String function = "CREATE FUNCTION f() RETURNS trigger AS $body$\n"
+                + "BEGIN\n"
+                + "  PERFORM 'x;';\n"
+                + "  RETURN $$nested;$$;\n"
+                + "END;\n"
+                + "$body$ LANGUAGE plpgsql";
+        List<SqlStatement> statements = split(DatabaseDialect.POSTGRESQL,
+                function + ";\nDO $$ BEGIN RAISE NOTICE 'a;b'; END $$;\nSELECT $1;");
+        assertEquals(3, statements.size());
+        assertEquals(function, statements.get(0).getSql());
+        assertEquals("DO $$ BEGIN RAISE NOTICE 'a;b'; END $$", statements.get(1).getSql());
+        // $1 是参数占位符，不是字符串
+        assertEquals("SELECT $1", statements.get(2).getSql());
+    }
+
+    @Test
+    public void endsOracleBlocksWithSlash() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.ORACLE,
+                "CREATE TABLE t (id NUMBER);\n"
+                        + "CREATE OR REPLACE PROCEDURE p AS\n"
+                        + "BEGIN\n"
+                        + "  INSERT INTO t VALUES (1);\n"
+                        + "  COMMIT;\n"
+                        + "END;\n"
+                        + "/\n"
+                        + "BEGIN\n"
+                        + "  p;\n"
+                        + "END;\n"
+                        + "/\n"
+                        + "SELECT 1 / 2 FROM dual;");
+        assertEquals(4, statements.size());
+        assertFalse(statements.get(0).isBlock());
+        assertTrue(statements.get(1).isBlock());
+        assertEquals("CREATE OR REPLACE PROCEDURE p AS\nBEGIN\n  INSERT INTO t VALUES (1);\n  COMMIT;\nEND;",
+                statements.get(1).getSql());
+        assertEquals(2, statements.get(1).getLine());
+        assertTrue(statements.get(2).isBlock());
+        assertEquals("SELECT 1 / 2 FROM dual", statements.get(3).getSql());
+    }
+
+    @Test
+    public void handlesOracleQuotedStrings() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.ORACLE,
+                "SELECT q'[it's; fine]', Q'{a;b}', nq'<c;d>', q'!e;f!' FROM dual;\n"
+                        + "COMMENT ON TABLE t IS q'(spans;\n"
+                        + "lines)';\n"
+                        + "SELECT seq'x' FROM dual; SELECT 2 FROM dual;");
+        assertEquals(4, statements.size());
+        assertEquals("SELECT q'[it's; fine]', Q'{a;b}', nq'<c;d>', q'!e;f!' FROM dual", statements.get(0).getSql());
+        assertEquals("COMMENT ON TABLE t IS q'(spans;\nlines)'", statements.get(1).getSql());
+        assertEquals("SELECT seq'x' FROM dual", statements.get(2).getSql());
+    }
+
+    @Test
+    public void endsSqlServerBatchesWithGo() throws IOException {
+        List<SqlStatement> statements = split(DatabaseDialect.SQLSERVER,
+                "CREATE TABLE [dbo].[t] ([id] INT)\n"
+                        + "GO\n"
+                        + "CREATE PROCEDURE dbo.p AS\n"
+                        + "BEGIN\n"
+                        + "  SELECT 1;\n"
+                        + "  SELECT 2;\n"
+                        + "END\n"
+                        + "go\n"
+                        + "BEGIN TRANSACTION;\n"
+                        + "EXEC sys.sp_addextendedproperty N'MS_Description', N'a;b', N'SCHEMA', N'dbo';\n"
+                        + "GO");
+        assertEquals(4, statements.size());
+        assertEquals("CREATE TABLE [dbo].[t] ([id] INT)", statements.get(0).getSql());
+        assertTrue(statements.get(1).isBlock());
+        assertEquals("CREATE PROCEDURE dbo.p AS\nBEGIN\n  SELECT 1;\n  SELECT 2;\nEND", statements.get(1).getSql());
+        // BEGIN TRANSACTION 不是过程块
+        assertFalse(statements.get(2).isBlock());
+        assertEquals("BEGIN TRANSACTION", statements.get(2).getSql());
+        assertEquals("EXEC sys.sp_addextendedproperty N'MS_Description', N'a;b', N'SCHEMA', N'dbo'",
+                statements.get(3).getSql());
+    }
+
+    private static List<SqlStatement> split(DatabaseDialect dialect, String script) throws IOException {
+        SqlStatementSplitter splitter = new SqlStatementSplitter(new BufferedReader(new StringReader(script)), dialect);
+        List<SqlStatement> statements = new ArrayList<>();
+        SqlStatement statement;
+        while ((statement = splitter.next()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+}
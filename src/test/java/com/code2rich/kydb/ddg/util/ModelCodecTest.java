@@ -0,0 +1,124 @@
+package com.code2rich.kydb.ddg.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ModelCodecTest {
+
+    @Test
+    public void roundTripsTableModel() throws IOException {
+        Map<String, Object> table = table("orders", 3);
+        table.put("rowCount", 12345678901L);
+        table.put("nullRatio", 0.25d);
+        table.put("partition", null);
+        table.put("remarks", "订单表");
+        table.put("negative", -42);
+
+        assertEquals(table, roundTrip(table));
+    }
+
+    @Test
+    public void preservesKeyOrder() throws IOException {
+        Map<String, Object> table = table("t", 1);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> decoded = (Map<String, Object>) roundTrip(table);
+        assertEquals(new ArrayList<>(table.keySet()), new ArrayList<>(decoded.keySet()));
+    }
+
+    @Test
+    public void widensAndStringifiesOtherTypes() throws IOException {
+        List<Object> values = Arrays.asList((short) 7, (byte) 1, 1.5f, new BigDecimal("12.50"), Long.MIN_VALUE, Integer.MAX_VALUE);
+        assertEquals(Arrays.asList(7, 1, 1.5d, "12.50", Long.MIN_VALUE, Integer.MAX_VALUE), roundTrip(values));
+    }
+
+    @Test
+    public void writesRepeatedShortStringsOnce() throws IOException {
+        List<Object> repeated = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            repeated.add("varchar");
+        }
+        byte[] bytes = encode(repeated);
+        // 字典引用每个只占2个字节
+        assertTrue(bytes.length < 2100);
+        assertEquals(repeated, decode(bytes));
+    }
+
+    @Test
+    public void keepsLongStringsOutOfTheDictionary() throws IOException {
+        String definition = String.join("", Collections.nCopies(100, "SELECT 1;"));
+        List<Object> values = Arrays.asList(definition, "short", definition, "short");
+        assertEquals(values, roundTrip(values));
+    }
+
+    @Test
+    public void streamsListsWithHeader() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        ModelCodec.Encoder encoder = new ModelCodec.Encoder(new DataOutputStream(buffer));
+        encoder.writeListHeader(2);
+        encoder.write(table("a", 1));
+        encoder.write(table("b", 2));
+
+        // 流式写出的列表与整体写出的编码相同
+        assertEquals(Arrays.asList(table("a", 1), table("b", 2)), decode(buffer.toByteArray()));
+
+        ModelCodec.Decoder decoder = new ModelCodec.Decoder(
+                new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+        assertEquals(2, decoder.readListHeader());
+        assertEquals(table("a", 1), decoder.read());
+        assertEquals(table("b", 2), decoder.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsUnknownTags() throws IOException {
+        decode(new byte[] { 99 });
+    }
+
+    static Map<String, Object> table(String name, int columnCount) {
+        Map<String, Object> table = new LinkedHashMap<>();
+        table.put("tableName", name);
+        table.put("remarks", name + " remarks");
+        List<Map<String, Object>> columns = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            Map<String, Object> column = new LinkedHashMap<>();
+            column.put("name", "col" + i);
+            column.put("typeName", "varchar");
+            column.put("length", 64);
+            column.put("scale", 0);
+            column.put("primaryKey", i == 0);
+            column.put("nullable", i != 0);
+            column.put("defaultValue", null);
+            columns.add(column);
+        }
+        table.put("columns", columns);
+        return table;
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        return decode(encode(value));
+    }
+
+    private static byte[] encode(Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        new ModelCodec.Encoder(new DataOutputStream(buffer)).write(value);
+        return buffer.toByteArray();
+    }
+
+    private static Object decode(byte[] bytes) throws IOException {
+        return new ModelCodec.Decoder(new DataInputStream(new ByteArrayInputStream(bytes))).read();
+    }
+}